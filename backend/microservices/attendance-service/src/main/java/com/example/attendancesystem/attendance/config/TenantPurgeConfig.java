@@ -0,0 +1,42 @@
+package com.example.attendancesystem.attendance.config;
+
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.purge.PurgeStep;
+import com.example.attendancesystem.shared.purge.TenantPurgeRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Tenant purge steps for this service's tables, children before parents
+ */
+@Configuration
+public class TenantPurgeConfig {
+
+    private static final String SESSIONS =
+            "session_id IN (SELECT id FROM attendance_sessions WHERE organization_id = ?)";
+    private static final String SCHEDULED_SESSIONS =
+            "scheduled_session_id IN (SELECT id FROM scheduled_sessions WHERE organization_id = ?)";
+
+    @Bean
+    public TenantPurgeRunner tenantPurgeRunner(JdbcTemplate jdbcTemplate,
+                                               PlatformTransactionManager transactionManager,
+                                               EntityCounters entityCounters,
+                                               @Value("${app.tenant-purge.chunk-size:1000}") int chunkSize,
+                                               @Value("${app.tenant-purge.rows-per-second:5000}") int rowsPerSecond,
+                                               @Value("${app.tenant-purge.max-attempts:20}") int maxAttempts) {
+        return new TenantPurgeRunner("attendance-service", jdbcTemplate, transactionManager, List.of(
+                new PurgeStep("face_recognition_logs", "face_recognition_logs", "id", SESSIONS),
+                new PurgeStep("attendance_logs", "attendance_logs", "id", SESSIONS),
+                new PurgeStep("session_checkin_methods", "session_checkin_methods", "session_id", SESSIONS),
+                PurgeStep.byOrganization("attendance_sessions"),
+                new PurgeStep("scheduled_session_days", "scheduled_session_days", "scheduled_session_id", SCHEDULED_SESSIONS),
+                new PurgeStep("scheduled_session_checkin_methods", "scheduled_session_checkin_methods", "scheduled_session_id", SCHEDULED_SESSIONS),
+                PurgeStep.byOrganization("scheduled_sessions")),
+                chunkSize, rowsPerSecond, maxAttempts, organizationId -> entityCounters.reconcile());
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.attendancesystem.attendance.model;
 
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
 @Table(name = "attendance_sessions")
+@EntityListeners(EntityCountListener.class)
 public class AttendanceSession {
 
     @Id
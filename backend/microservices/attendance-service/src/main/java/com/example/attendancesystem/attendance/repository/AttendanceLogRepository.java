@@ -111,9 +111,5 @@ public interface AttendanceLogRepository extends JpaRepository<AttendanceLog, Lo
     @Query("SELECT al FROM AttendanceLog al WHERE al.session = :session AND al.checkOutTime IS NULL")
     List<AttendanceLog> findActiveCheckInsForSession(@Param("session") AttendanceSession session);
 
-    // Delete logs for an organization (for cleanup)
-    @Query("DELETE FROM AttendanceLog al WHERE al.session.organizationId = :organizationId")
-    void deleteByOrganizationId(@Param("organizationId") Long organizationId);
-
 
 }
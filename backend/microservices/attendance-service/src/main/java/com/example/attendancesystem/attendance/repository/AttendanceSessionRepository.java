@@ -33,7 +33,6 @@ public interface AttendanceSessionRepository extends JpaRepository<AttendanceSes
     // Find by ID and organization ID (proper microservices approach) - using Spring Data JPA method naming
     List<AttendanceSession> findByOrganizationIdAndStartTimeBetween(Long organizationId, LocalDateTime start, LocalDateTime end);
     long countByOrganizationId(Long organizationId);
-    void deleteByOrganizationId(Long organizationId);
 
     // Find sessions within a date range
     @Query("SELECT s FROM AttendanceSession s WHERE s.organizationId = :organizationId " +
@@ -57,9 +57,6 @@ public interface ScheduledSessionRepository extends JpaRepository<ScheduledSessi
     // Count scheduled sessions for an organization
     long countByOrganizationId(Long organizationId);
     long countByOrganizationIdAndActiveTrue(Long organizationId);
-
-    // Delete by organization (for cleanup)
-    void deleteByOrganizationId(Long organizationId);
     
     // Find sessions that overlap with a given time range on specific days
     @Query(value = "SELECT ss.* FROM scheduled_sessions ss " +
@@ -0,0 +1,38 @@
+package com.example.attendancesystem.auth.config;
+
+import com.example.attendancesystem.auth.model.EntityAdmin;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.metrics.EntityCountsGrpcService;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * Per-organization entity counters served to the system metrics aggregator
+ */
+@Configuration
+public class EntityCountersConfig {
+
+    @Bean
+    public EntityCounters entityCounters(JdbcTemplate jdbcTemplate) {
+        return new EntityCounters("auth-service", jdbcTemplate, Map.of(
+                "entityAdmins", "SELECT organization_id, COUNT(*) FROM entity_admins GROUP BY organization_id"))
+                .track(EntityAdmin.class, "entityAdmins", entityAdmin -> entityAdmin.getOrganization() != null ? entityAdmin.getOrganization().getId() : null);
+    }
+
+    @Bean
+    public EntityCountListener entityCountListener(ObjectProvider<EntityCounters> entityCounters) {
+        return new EntityCountListener(entityCounters);
+    }
+
+    @Bean
+    @GrpcService
+    public EntityCountsGrpcService metricsService(EntityCounters entityCounters) {
+        return new EntityCountsGrpcService(entityCounters);
+    }
+}
@@ -120,6 +120,7 @@ public class SecurityConfig {
             .csrf(AbstractHttpConfigurer::disable)
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/super/auth/login", "/super/auth/refresh-token", "/super/auth/reset-superadmin-password").permitAll()
+                .requestMatchers("/super/auth/token-retention/**").hasRole("SUPER_ADMIN")
                 .requestMatchers("/super/**").permitAll()  // Temporarily allow all for debugging
                 .anyRequest().denyAll()
             )
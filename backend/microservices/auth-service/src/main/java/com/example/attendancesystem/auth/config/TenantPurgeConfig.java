@@ -0,0 +1,37 @@
+package com.example.attendancesystem.auth.config;
+
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.purge.PurgeStep;
+import com.example.attendancesystem.shared.purge.TenantPurgeRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Tenant purge steps for this service's tables, children before parents
+ */
+@Configuration
+public class TenantPurgeConfig {
+
+    private static final String SUBSCRIBERS = "subscriber_id IN (SELECT id FROM subscribers WHERE organization_id = ?)";
+
+    @Bean
+    public TenantPurgeRunner tenantPurgeRunner(JdbcTemplate jdbcTemplate,
+                                               PlatformTransactionManager transactionManager,
+                                               EntityCounters entityCounters,
+                                               @Value("${app.tenant-purge.chunk-size:1000}") int chunkSize,
+                                               @Value("${app.tenant-purge.rows-per-second:5000}") int rowsPerSecond,
+                                               @Value("${app.tenant-purge.max-attempts:20}") int maxAttempts) {
+        return new TenantPurgeRunner("auth-service", jdbcTemplate, transactionManager, List.of(
+                new PurgeStep("nfc_cards", "nfc_cards", "id", SUBSCRIBERS),
+                new PurgeStep("subscriber_auth", "subscriber_auth", "id", SUBSCRIBERS),
+                PurgeStep.byOrganization("subscribers"),
+                new PurgeStep("refresh_tokens", "refresh_tokens", "id", "admin_id IN (SELECT id FROM entity_admins WHERE organization_id = ?)"),
+                PurgeStep.byOrganization("entity_admins")),
+                chunkSize, rowsPerSecond, maxAttempts, organizationId -> entityCounters.reconcile());
+    }
+}
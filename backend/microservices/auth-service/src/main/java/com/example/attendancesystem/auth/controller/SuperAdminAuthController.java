@@ -11,6 +11,7 @@ import com.example.attendancesystem.auth.security.SuperAdminJwtUtil;
 import com.example.attendancesystem.auth.security.SuperAdminUserDetailsService;
 import com.example.attendancesystem.auth.service.RefreshTokenService;
 import com.example.attendancesystem.auth.service.SuperAdminRefreshTokenService;
+import com.example.attendancesystem.auth.service.TokenRetentionService;
 import com.example.attendancesystem.auth.dto.ErrorResponse;
 import com.example.attendancesystem.auth.dto.SuccessResponse;
 import com.example.attendancesystem.auth.model.SuperAdmin;
@@ -27,6 +28,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -65,6 +67,9 @@ public class SuperAdminAuthController {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private TokenRetentionService tokenRetentionService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
         try {
@@ -176,4 +181,20 @@ public class SuperAdminAuthController {
                     .body(new ErrorResponse("PASSWORD_RESET_FAILED", "Failed to reset password", 500));
         }
     }
+
+    @GetMapping("/token-retention/status")
+    public ResponseEntity<?> getTokenRetentionStatus() {
+        return ResponseEntity.ok(tokenRetentionService.getStatus());
+    }
+
+    /**
+     * Start a retention pass in the background; progress is reported by /token-retention/status
+     */
+    @PostMapping("/token-retention/run")
+    public ResponseEntity<?> runTokenRetention() {
+        boolean started = tokenRetentionService.requestPass();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(new SuccessResponse(
+                started ? "Token retention pass started" : "Token retention pass already running",
+                Map.of("started", started)));
+    }
 }
@@ -33,6 +33,7 @@ import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Optional;
 
 @GrpcService
 public class AuthServiceImpl extends AuthServiceGrpc.AuthServiceImplBase {
@@ -589,8 +590,23 @@ public class AuthServiceImpl extends AuthServiceGrpc.AuthServiceImplBase {
             logger.info("Creating Entity Admin for authentication: {} for organization: {}",
                        request.getUsername(), request.getOrganizationId());
 
-            // Check if EntityAdmin already exists
-            if (entityAdminRepository.findByUsername(request.getUsername()).isPresent()) {
+            // Check if EntityAdmin already exists; a retry of a create that already went through
+            // (same organization and password) gets the existing admin back, so callers can retry
+            // after a timeout without knowing whether the first attempt landed
+            Optional<EntityAdmin> existing = entityAdminRepository.findByUsername(request.getUsername());
+            if (existing.isPresent() && existing.get().getOrganization() != null
+                    && Long.valueOf(request.getOrganizationId()).equals(existing.get().getOrganization().getId())
+                    && passwordEncoder.matches(request.getPassword(), existing.get().getPassword())) {
+                logger.info("Entity Admin already registered, treating as a retry: {}", request.getUsername());
+                responseObserver.onNext(CreateEntityAdminForAuthResponse.newBuilder()
+                        .setSuccess(true)
+                        .setMessage("Entity Admin already registered for authentication")
+                        .setEntityAdminId(existing.get().getId())
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
+            if (existing.isPresent()) {
                 logger.warn("Entity Admin already exists: {}", request.getUsername());
                 CreateEntityAdminForAuthResponse response = CreateEntityAdminForAuthResponse.newBuilder()
                         .setSuccess(false)
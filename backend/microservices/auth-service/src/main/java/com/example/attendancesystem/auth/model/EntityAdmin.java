@@ -1,10 +1,12 @@
 package com.example.attendancesystem.auth.model;
 
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity(name = "AuthEntityAdmin")
 @Table(name = "entity_admins")
+@EntityListeners(EntityCountListener.class)
 public class EntityAdmin {
 
     @Id
@@ -0,0 +1,63 @@
+package com.example.attendancesystem.auth.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Persistent keyset cursor for the token retention engine.
+ * One row per purged table so an interrupted pass resumes after the last deleted id.
+ */
+@Entity
+@Table(name = "token_retention_checkpoints")
+public class TokenRetentionCheckpoint {
+
+    @Id
+    @Column(name = "table_name", length = 64)
+    private String tableName;
+
+    @Column(name = "last_purged_id", nullable = false)
+    private Long lastPurgedId = 0L;
+
+    @Column(name = "pass_deleted", nullable = false)
+    private Long passDeleted = 0L;
+
+    @Column(name = "total_deleted", nullable = false)
+    private Long totalDeleted = 0L;
+
+    @Column(name = "pass_started_at")
+    private Instant passStartedAt;
+
+    @Column(name = "last_completed_at")
+    private Instant lastCompletedAt;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    public TokenRetentionCheckpoint() {}
+
+    public TokenRetentionCheckpoint(String tableName) {
+        this.tableName = tableName;
+    }
+
+    // Getters and Setters
+    public String getTableName() { return tableName; }
+    public void setTableName(String tableName) { this.tableName = tableName; }
+
+    public Long getLastPurgedId() { return lastPurgedId; }
+    public void setLastPurgedId(Long lastPurgedId) { this.lastPurgedId = lastPurgedId; }
+
+    public Long getPassDeleted() { return passDeleted; }
+    public void setPassDeleted(Long passDeleted) { this.passDeleted = passDeleted; }
+
+    public Long getTotalDeleted() { return totalDeleted; }
+    public void setTotalDeleted(Long totalDeleted) { this.totalDeleted = totalDeleted; }
+
+    public Instant getPassStartedAt() { return passStartedAt; }
+    public void setPassStartedAt(Instant passStartedAt) { this.passStartedAt = passStartedAt; }
+
+    public Instant getLastCompletedAt() { return lastCompletedAt; }
+    public void setLastCompletedAt(Instant lastCompletedAt) { this.lastCompletedAt = lastCompletedAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
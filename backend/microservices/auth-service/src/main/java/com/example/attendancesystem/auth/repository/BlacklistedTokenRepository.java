@@ -1,12 +1,16 @@
 package com.example.attendancesystem.auth.repository;
 
 import com.example.attendancesystem.auth.model.BlacklistedToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -34,6 +38,19 @@ public interface BlacklistedTokenRepository extends JpaRepository<BlacklistedTok
     @Query("DELETE FROM BlacklistedToken bt WHERE bt.expiresAt < :now")
     void deleteExpiredTokens(Instant now);
     
+    /**
+     * Next keyset batch of expired token ids, ordered by id (used by the retention engine)
+     */
+    @Query("SELECT bt.id FROM BlacklistedToken bt WHERE bt.expiresAt < :cutoff AND bt.id > :afterId ORDER BY bt.id")
+    List<Long> findExpiredIdsAfter(@Param("cutoff") Instant cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Delete a bounded batch of blacklisted tokens by id
+     */
+    @Modifying
+    @Query("DELETE FROM BlacklistedToken bt WHERE bt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
     /**
      * Count blacklisted tokens for a user
      */
@@ -2,10 +2,16 @@
 package com.example.attendancesystem.auth.repository;
 
 import com.example.attendancesystem.auth.model.RefreshToken;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -15,4 +21,11 @@ public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long
     void deleteByUsername(String username);
 
     void deleteByExpiryDateBefore(Instant now);
+
+    @Query("SELECT rt.id FROM RefreshToken rt WHERE rt.expiryDate < :cutoff AND rt.id > :afterId ORDER BY rt.id")
+    List<Long> findExpiredIdsAfter(@Param("cutoff") Instant cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -2,11 +2,16 @@ package com.example.attendancesystem.auth.repository;
 
 import com.example.attendancesystem.auth.model.SuperAdminRefreshToken;
 import com.example.attendancesystem.auth.model.SuperAdmin;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -22,4 +27,11 @@ public interface SuperAdminRefreshTokenRepository extends JpaRepository<SuperAdm
     void deleteByUser(SuperAdmin user);
     
     boolean existsByToken(String token);
+
+    @Query("SELECT rt.id FROM SuperAdminRefreshToken rt WHERE rt.expiryDate < :cutoff AND rt.id > :afterId ORDER BY rt.id")
+    List<Long> findExpiredIdsAfter(@Param("cutoff") Instant cutoff, @Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM SuperAdminRefreshToken rt WHERE rt.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
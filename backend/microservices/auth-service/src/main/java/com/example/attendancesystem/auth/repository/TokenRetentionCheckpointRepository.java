@@ -0,0 +1,9 @@
+package com.example.attendancesystem.auth.repository;
+
+import com.example.attendancesystem.auth.model.TokenRetentionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TokenRetentionCheckpointRepository extends JpaRepository<TokenRetentionCheckpoint, String> {
+}
@@ -30,6 +30,9 @@ public class RefreshTokenService {
     @Autowired
     private SuperAdminJwtUtil superAdminJwtUtil;
 
+    @Autowired
+    private TokenRetentionService tokenRetentionService;
+
     @Transactional
     public RefreshToken createAndSaveRefreshToken(String username, String tokenString) {
         // Note: In microservices architecture, we don't store user data locally in Auth Service
@@ -116,12 +119,11 @@ public class RefreshTokenService {
         return true;
     }
 
-    // Example: @Scheduled(cron = "0 0 5 * * ?") // Run daily at 5 AM
-    @Transactional
-    public void purgeExpiredTokens() {
-        // System.out.println("Purging expired refresh tokens at: " + Instant.now()); // For logging
-        refreshTokenRepository.deleteByExpiryDateBefore(Instant.now());
-        // Potentially log count of deleted tokens
+    /**
+     * Purge expired refresh tokens in keyset batches (see TokenRetentionService)
+     */
+    public long purgeExpiredTokens() {
+        return tokenRetentionService.purgeRefreshTokens();
     }
 
     /**
@@ -0,0 +1,260 @@
+package com.example.attendancesystem.auth.service;
+
+import com.example.attendancesystem.auth.model.TokenRetentionCheckpoint;
+import com.example.attendancesystem.auth.repository.BlacklistedTokenRepository;
+import com.example.attendancesystem.auth.repository.RefreshTokenRepository;
+import com.example.attendancesystem.auth.repository.SuperAdminRefreshTokenRepository;
+import com.example.attendancesystem.auth.repository.TokenRetentionCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Token Retention Service
+ * Purges expired rows from the token tables in small keyset-ordered batches.
+ * Each batch runs in its own short transaction and records its cursor in
+ * token_retention_checkpoints, so a pass never holds locks for long and
+ * resumes where it stopped after a restart.
+ */
+@Service
+public class TokenRetentionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRetentionService.class);
+
+    public static final String BLACKLISTED_TOKENS = "blacklisted_tokens";
+    public static final String REFRESH_TOKENS = "refresh_tokens";
+    public static final String SUPER_ADMIN_REFRESH_TOKENS = "super_admin_refresh_tokens";
+
+    private final BlacklistedTokenRepository blacklistedTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final SuperAdminRefreshTokenRepository superAdminRefreshTokenRepository;
+    private final TokenRetentionCheckpointRepository checkpointRepository;
+    private final TransactionTemplate batchTransaction;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${app.token-cleanup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.token-cleanup.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${app.token-cleanup.pause-ms:200}")
+    private long pauseMs;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final Map<String, PassProgress> progress = new ConcurrentHashMap<>();
+
+    public TokenRetentionService(BlacklistedTokenRepository blacklistedTokenRepository,
+                                 RefreshTokenRepository refreshTokenRepository,
+                                 SuperAdminRefreshTokenRepository superAdminRefreshTokenRepository,
+                                 TokenRetentionCheckpointRepository checkpointRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 TaskScheduler taskScheduler,
+                                 @Value("${app.token-cleanup.batch-timeout-seconds:5}") int batchTimeoutSeconds) {
+        this.blacklistedTokenRepository = blacklistedTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.superAdminRefreshTokenRepository = superAdminRefreshTokenRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        this.batchTransaction.setTimeout(batchTimeoutSeconds);
+        this.taskScheduler = taskScheduler;
+    }
+
+    @Scheduled(fixedDelayString = "${app.token-cleanup.interval:3600000}",
+               initialDelayString = "${app.token-cleanup.initial-delay:60000}")
+    public void scheduledPurge() {
+        if (enabled) {
+            purgeAll();
+        }
+    }
+
+    /**
+     * Start a retention pass on the scheduler now instead of waiting for the next interval.
+     * Returns false if a pass is already running.
+     */
+    public boolean requestPass() {
+        if (running.get()) {
+            return false;
+        }
+        taskScheduler.schedule(this::purgeAll, Instant.now());
+        return true;
+    }
+
+    /**
+     * Run one retention pass over every token table.
+     * Returns rows deleted per table; skipped if a pass is already running.
+     */
+    public Map<String, Long> purgeAll() {
+        Map<String, Long> deleted = new LinkedHashMap<>();
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Token retention pass already running, skipping");
+            return deleted;
+        }
+        try {
+            deleted.put(BLACKLISTED_TOKENS, purgeTable(BLACKLISTED_TOKENS,
+                    (page) -> blacklistedTokenRepository.findExpiredIdsAfter(page.cutoff(), page.afterId(), page.pageable()),
+                    blacklistedTokenRepository::deleteByIdIn));
+            deleted.put(REFRESH_TOKENS, purgeTable(REFRESH_TOKENS,
+                    (page) -> refreshTokenRepository.findExpiredIdsAfter(page.cutoff(), page.afterId(), page.pageable()),
+                    refreshTokenRepository::deleteByIdIn));
+            deleted.put(SUPER_ADMIN_REFRESH_TOKENS, purgeTable(SUPER_ADMIN_REFRESH_TOKENS,
+                    (page) -> superAdminRefreshTokenRepository.findExpiredIdsAfter(page.cutoff(), page.afterId(), page.pageable()),
+                    superAdminRefreshTokenRepository::deleteByIdIn));
+        } finally {
+            running.set(false);
+        }
+        return deleted;
+    }
+
+    /**
+     * Purge only expired entity admin refresh tokens; skipped (returns 0) if a pass is already
+     * running, since both would advance the same checkpoint row
+     */
+    public long purgeRefreshTokens() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Token retention pass already running, skipping refresh token purge");
+            return 0;
+        }
+        try {
+            return purgeTable(REFRESH_TOKENS,
+                    (page) -> refreshTokenRepository.findExpiredIdsAfter(page.cutoff(), page.afterId(), page.pageable()),
+                    refreshTokenRepository::deleteByIdIn);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Progress of the current or most recent pass, per table
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", running.get());
+        status.put("batchSize", batchSize);
+        status.put("pauseMs", pauseMs);
+
+        Map<String, Object> tables = new LinkedHashMap<>();
+        for (TokenRetentionCheckpoint checkpoint : checkpointRepository.findAll()) {
+            Map<String, Object> table = new LinkedHashMap<>();
+            table.put("lastPurgedId", checkpoint.getLastPurgedId());
+            table.put("passDeleted", checkpoint.getPassDeleted());
+            table.put("totalDeleted", checkpoint.getTotalDeleted());
+            table.put("passStartedAt", checkpoint.getPassStartedAt());
+            table.put("lastCompletedAt", checkpoint.getLastCompletedAt());
+            PassProgress pass = progress.get(checkpoint.getTableName());
+            if (pass != null) {
+                table.put("rowsPerSecond", pass.rowsPerSecond());
+                table.put("batches", pass.batches());
+            }
+            tables.put(checkpoint.getTableName(), table);
+        }
+        status.put("tables", tables);
+        return status;
+    }
+
+    private long purgeTable(String tableName,
+                            Function<KeysetPage, List<Long>> nextIds,
+                            Function<List<Long>, Integer> deleteIds) {
+        TokenRetentionCheckpoint checkpoint = checkpointRepository.findById(tableName)
+                .orElseGet(() -> new TokenRetentionCheckpoint(tableName));
+
+        if (checkpoint.getLastPurgedId() > 0) {
+            logger.info("Resuming {} retention pass after id {}", tableName, checkpoint.getLastPurgedId());
+        } else {
+            checkpoint.setPassStartedAt(Instant.now());
+            checkpoint.setPassDeleted(0L);
+        }
+
+        // Cutoff is fixed per pass so the keyset walk terminates under concurrent inserts
+        Instant cutoff = Instant.now();
+        long startNanos = System.nanoTime();
+        long deleted = 0;
+        int batches = 0;
+
+        while (true) {
+            KeysetPage page = new KeysetPage(cutoff, checkpoint.getLastPurgedId(), PageRequest.of(0, batchSize));
+            Integer batchDeleted = batchTransaction.execute(tx -> {
+                List<Long> ids = nextIds.apply(page);
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                int count = deleteIds.apply(ids);
+                checkpoint.setLastPurgedId(ids.get(ids.size() - 1));
+                checkpoint.setPassDeleted(checkpoint.getPassDeleted() + count);
+                checkpoint.setTotalDeleted(checkpoint.getTotalDeleted() + count);
+                checkpoint.setUpdatedAt(Instant.now());
+                checkpointRepository.save(checkpoint);
+                return count;
+            });
+
+            if (batchDeleted == null || batchDeleted == 0) {
+                break;
+            }
+
+            deleted += batchDeleted;
+            batches++;
+            double rowsPerSecond = rate(deleted, startNanos);
+            progress.put(tableName, new PassProgress(batches, rowsPerSecond));
+            logger.debug("Purged {} rows from {} (pass total {}, cursor {}, {} rows/s)",
+                    batchDeleted, tableName, checkpoint.getPassDeleted(), checkpoint.getLastPurgedId(),
+                    String.format("%.1f", rowsPerSecond));
+
+            if (!pause()) {
+                return deleted;
+            }
+        }
+
+        // Pass complete: reset the cursor so the next pass starts from the beginning
+        checkpoint.setLastPurgedId(0L);
+        checkpoint.setLastCompletedAt(Instant.now());
+        checkpoint.setUpdatedAt(Instant.now());
+        batchTransaction.executeWithoutResult(tx -> checkpointRepository.save(checkpoint));
+
+        double rowsPerSecond = rate(deleted, startNanos);
+        progress.put(tableName, new PassProgress(batches, rowsPerSecond));
+        if (deleted > 0) {
+            logger.info("Token retention purged {} expired rows from {} in {} batches ({} rows/s)",
+                    deleted, tableName, batches, String.format("%.1f", rowsPerSecond));
+        }
+        return deleted;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Token retention interrupted, cursor saved for resume");
+            return false;
+        }
+    }
+
+    private static double rate(long rows, long startNanos) {
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - startNanos).toMillis();
+        return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+    }
+
+    private record KeysetPage(Instant cutoff, Long afterId, Pageable pageable) {}
+
+    private record PassProgress(int batches, double rowsPerSecond) {}
+}
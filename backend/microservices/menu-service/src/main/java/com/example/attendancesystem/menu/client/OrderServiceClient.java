@@ -4,19 +4,26 @@ import com.example.attendancesystem.grpc.order.*;
 import com.example.attendancesystem.shared.dto.OrderDto;
 import com.example.attendancesystem.shared.dto.OrderItemDto;
 import com.example.attendancesystem.shared.model.OrderStatus;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * gRPC client for Order Service
+ * Calls go through the future stub with a per-call deadline; cancelling a returned future
+ * cancels the RPC.
  */
 @Service
 public class OrderServiceClient {
@@ -24,7 +31,10 @@ public class OrderServiceClient {
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceClient.class);
     
     @GrpcClient("order-service")
-    private OrderServiceGrpc.OrderServiceBlockingStub orderServiceStub;
+    private OrderServiceGrpc.OrderServiceFutureStub orderServiceStub;
+
+    @Value("${app.order-service.deadline-ms:5000}")
+    private long deadlineMs;
     
     /**
      * Create a new order via gRPC (with entity ID)
@@ -42,36 +52,65 @@ public class OrderServiceClient {
     public OrderDto createOrder(Long tableId, Long organizationId, String customerName,
                                String customerPhone, List<OrderItemDto> orderItems,
                                String specialInstructions, Double discountAmount) {
+        return createOrder(tableId, organizationId, customerName, customerPhone, orderItems,
+                specialInstructions, discountAmount, null);
+    }
+
+    /**
+     * Create a new order via gRPC; retries passing the same idempotency key return the order
+     * the first attempt created. The gRPC status stays available as the exception's cause.
+     */
+    public OrderDto createOrder(Long tableId, Long organizationId, String customerName,
+                               String customerPhone, List<OrderItemDto> orderItems,
+                               String specialInstructions, Double discountAmount, String idempotencyKey) {
         try {
-            CreateOrderRequest.Builder requestBuilder = CreateOrderRequest.newBuilder()
-                    .setTableId(tableId)
-                    .setOrganizationId(organizationId)
-                    .setCustomerName(customerName != null ? customerName : "")
-                    .setCustomerPhone(customerPhone != null ? customerPhone : "")
-                    .setSpecialInstructions(specialInstructions != null ? specialInstructions : "")
-                    .setDiscountAmount(discountAmount != null ? discountAmount : 0.0);
-            
-            // Add order items
-            for (OrderItemDto item : orderItems) {
-                CreateOrderItemRequest orderItem = CreateOrderItemRequest.newBuilder()
-                        .setItemId(item.getItemId())
-                        .setQuantity(item.getQuantity())
-                        .setSpecialInstructions(item.getSpecialInstructions() != null ? item.getSpecialInstructions() : "")
-                        .build();
-                requestBuilder.addOrderItems(orderItem);
-            }
-            
-            OrderResponse response = orderServiceStub.createOrder(requestBuilder.build());
-            
-            if (response.getSuccess()) {
-                return convertToOrderDto(response.getOrder());
-            } else {
-                throw new RuntimeException("Failed to create order: " + response.getMessage());
-            }
+            return GrpcFutures.await(createOrderAsync(tableId, organizationId, customerName, customerPhone,
+                    orderItems, specialInstructions, discountAmount, idempotencyKey));
         } catch (Exception e) {
             logger.error("Error creating order via gRPC", e);
-            throw new RuntimeException("Failed to create order: " + e.getMessage());
+            throw new RuntimeException("Failed to create order: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create a new order without blocking the caller
+     */
+    public CompletableFuture<OrderDto> createOrderAsync(Long tableId, Long organizationId, String customerName,
+                                                        String customerPhone, List<OrderItemDto> orderItems,
+                                                        String specialInstructions, Double discountAmount) {
+        return createOrderAsync(tableId, organizationId, customerName, customerPhone, orderItems,
+                specialInstructions, discountAmount, null);
+    }
+
+    public CompletableFuture<OrderDto> createOrderAsync(Long tableId, Long organizationId, String customerName,
+                                                        String customerPhone, List<OrderItemDto> orderItems,
+                                                        String specialInstructions, Double discountAmount,
+                                                        String idempotencyKey) {
+        CreateOrderRequest.Builder requestBuilder = CreateOrderRequest.newBuilder()
+                .setTableId(tableId)
+                .setOrganizationId(organizationId)
+                .setCustomerName(customerName != null ? customerName : "")
+                .setCustomerPhone(customerPhone != null ? customerPhone : "")
+                .setSpecialInstructions(specialInstructions != null ? specialInstructions : "")
+                .setDiscountAmount(discountAmount != null ? discountAmount : 0.0)
+                .setIdempotencyKey(idempotencyKey != null ? idempotencyKey : "");
+        
+        // Add order items
+        for (OrderItemDto item : orderItems) {
+            CreateOrderItemRequest orderItem = CreateOrderItemRequest.newBuilder()
+                    .setItemId(item.getItemId())
+                    .setQuantity(item.getQuantity())
+                    .setSpecialInstructions(item.getSpecialInstructions() != null ? item.getSpecialInstructions() : "")
+                    .build();
+            requestBuilder.addOrderItems(orderItem);
         }
+        
+        return GrpcFutures.toCompletable(Futures.transform(stub().createOrder(requestBuilder.build()), response -> {
+            if (!response.getSuccess()) {
+                throw new RuntimeException("Failed to create order: " + response.getMessage());
+            }
+            return convertToOrderDto(response.getOrder());
+        }, MoreExecutors.directExecutor()));
     }
     
     /**
@@ -83,7 +122,7 @@ public class OrderServiceClient {
                     .setId(orderId)
                     .build();
 
-            OrderResponse response = orderServiceStub.getOrder(request);
+            OrderResponse response = GrpcFutures.await(stub().getOrder(request));
 
             if (response.getSuccess()) {
                 return convertToOrderDto(response.getOrder());
@@ -111,6 +150,13 @@ public class OrderServiceClient {
         }
     }
     
+    /**
+     * Deadlines are absolute, so each call takes a fresh one
+     */
+    private OrderServiceGrpc.OrderServiceFutureStub stub() {
+        return orderServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Convert gRPC Order to OrderDto
      */
@@ -118,7 +164,9 @@ public class OrderServiceClient {
         OrderDto dto = new OrderDto();
         dto.setId(grpcOrder.getId());
         dto.setOrderNumber(grpcOrder.getOrderNumber());
-        dto.setTableNumber(Integer.parseInt(grpcOrder.getTable().getTableNumber()));
+        if (grpcOrder.hasTable() && !grpcOrder.getTable().getTableNumber().isEmpty()) {
+            dto.setTableNumber(Integer.parseInt(grpcOrder.getTable().getTableNumber()));
+        }
         dto.setCustomerName(grpcOrder.getCustomerName());
         dto.setCustomerPhone(grpcOrder.getCustomerPhone());
         dto.setStatus(OrderStatus.valueOf(grpcOrder.getStatus()));
@@ -1,17 +1,29 @@
 package com.example.attendancesystem.menu.client;
 
 import com.example.attendancesystem.grpc.table.*;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
 import com.example.attendancesystem.shared.dto.RestaurantTableDto;
+import com.example.attendancesystem.shared.model.Organization;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import net.devh.boot.grpc.client.inject.GrpcClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * gRPC client for Table Service
+ * Calls go through the future stub with a per-call deadline; the async methods let callers
+ * run lookups side by side, and cancelling their futures cancels the RPC.
  */
 @Service
 public class TableServiceClient {
@@ -19,84 +31,109 @@ public class TableServiceClient {
     private static final Logger logger = LoggerFactory.getLogger(TableServiceClient.class);
     
     @GrpcClient("table-service")
-    private TableServiceGrpc.TableServiceBlockingStub tableServiceStub;
+    private TableServiceGrpc.TableServiceFutureStub tableServiceStub;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
+    // Responses are converted here rather than on the gRPC callback thread, since the
+    // conversion resolves the table's organization and may block on that lookup
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor lookupExecutor;
+
+    @Value("${app.table-service.deadline-ms:2000}")
+    private long deadlineMs;
     
     /**
      * Get table by ID via gRPC
      */
     public RestaurantTableDto getTableById(Long tableId) {
         try {
-            GetTableRequest request = GetTableRequest.newBuilder()
-                    .setId(tableId)
-                    .build();
-            
-            TableResponse response = tableServiceStub.getTable(request);
-            
-            if (response.getSuccess()) {
-                return convertToTableDto(response.getTable());
-            } else {
-                throw new RuntimeException("Table not found: " + response.getMessage());
-            }
+            return GrpcFutures.await(getTableByIdAsync(tableId));
         } catch (Exception e) {
             logger.error("Error getting table by ID via gRPC", e);
             throw new RuntimeException("Failed to get table: " + e.getMessage());
         }
     }
+
+    /**
+     * Get table by ID without blocking the caller
+     */
+    public CompletableFuture<RestaurantTableDto> getTableByIdAsync(Long tableId) {
+        GetTableRequest request = GetTableRequest.newBuilder()
+                .setId(tableId)
+                .build();
+        return toTableDto(stub().getTable(request), "Table not found: ");
+    }
     
     /**
      * Get table by QR code via gRPC
      */
     public RestaurantTableDto getTableByQrCode(String qrCode) {
         try {
-            ValidateTableQrCodeRequest request = ValidateTableQrCodeRequest.newBuilder()
-                    .setQrCodeData(qrCode)
-                    .build();
-
-            QrCodeValidationResponse response = tableServiceStub.validateTableQrCode(request);
-
-            if (response.getValid()) {
-                // Get the full table details
-                return getTableById(response.getTableId());
-            } else {
-                throw new RuntimeException("Invalid QR code: " + response.getMessage());
-            }
+            return GrpcFutures.await(getTableByQrCodeAsync(qrCode));
         } catch (Exception e) {
             logger.error("Error getting table by QR code via gRPC", e);
             throw new RuntimeException("Failed to get table by QR code: " + e.getMessage());
         }
     }
 
+    /**
+     * Get table by QR code without blocking the caller
+     */
+    public CompletableFuture<RestaurantTableDto> getTableByQrCodeAsync(String qrCode) {
+        GetTableByQrCodeRequest request = GetTableByQrCodeRequest.newBuilder()
+                .setQrCodeData(qrCode)
+                .build();
+        return toTableDto(stub().getTableByQrCode(request), "Invalid QR code: ");
+    }
+
     /**
      * Get table by number and organization via gRPC
      */
     public RestaurantTableDto getTableByNumber(String entityId, Integer tableNumber) {
         try {
-            // For now, we'll need to list tables and find by number
-            // This is a limitation of the current gRPC API
-            ListTablesRequest request = ListTablesRequest.newBuilder()
-                    .setOrganizationId(0) // We'll need to get org ID from entityId
-                    .setPage(1)
-                    .setSize(100)
-                    .build();
-
-            ListTablesResponse response = tableServiceStub.listTables(request);
-
-            if (response.getSuccess()) {
-                for (com.example.attendancesystem.grpc.table.RestaurantTable table : response.getTablesList()) {
-                    if (table.getTableNumber().equals(tableNumber.toString())) {
-                        return convertToTableDto(table);
-                    }
-                }
-                throw new RuntimeException("Table not found with number: " + tableNumber);
-            } else {
-                throw new RuntimeException("Failed to list tables: " + response.getMessage());
-            }
+            return GrpcFutures.await(getTableByNumberAsync(entityId, tableNumber));
         } catch (Exception e) {
             logger.error("Error getting table by number via gRPC", e);
             throw new RuntimeException("Failed to get table by number: " + e.getMessage());
         }
     }
+
+    /**
+     * Get table by number without blocking the caller; one indexed lookup in table-service
+     */
+    public CompletableFuture<RestaurantTableDto> getTableByNumberAsync(String entityId, Integer tableNumber) {
+        Long organizationId = organizationResolver.findByEntityId(entityId)
+                .map(Organization::getId)
+                .orElse(null);
+        if (organizationId == null || tableNumber == null) {
+            return CompletableFuture.failedFuture(new RuntimeException("Table not found with number: " + tableNumber));
+        }
+        GetTableByNumberRequest request = GetTableByNumberRequest.newBuilder()
+                .setOrganizationId(organizationId)
+                .setTableNumber(tableNumber)
+                .build();
+        return toTableDto(stub().getTableByNumber(request), "Table not found with number " + tableNumber + ": ");
+    }
     
+    private CompletableFuture<RestaurantTableDto> toTableDto(ListenableFuture<TableResponse> call, String notFoundPrefix) {
+        return GrpcFutures.toCompletable(Futures.transform(call, response -> {
+            if (!response.getSuccess()) {
+                throw new RuntimeException(notFoundPrefix + response.getMessage());
+            }
+            return convertToTableDto(response.getTable());
+        }, lookupExecutor));
+    }
+
+    /**
+     * Deadlines are absolute, so each call takes a fresh one
+     */
+    private TableServiceGrpc.TableServiceFutureStub stub() {
+        return tableServiceStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS);
+    }
+
     /**
      * Convert gRPC RestaurantTable to RestaurantTableDto
      */
@@ -109,6 +146,8 @@ public class TableServiceClient {
         dto.setIsActive(grpcTable.getActive());
         dto.setQrCode(grpcTable.getQrCodeData());
         dto.setQrCodeUrl(grpcTable.getQrCodeUrl());
+        organizationResolver.findById(grpcTable.getOrganizationId())
+                .ifPresent(organization -> dto.setOrganizationEntityId(organization.getEntityId()));
         
         // Parse timestamps
         if (!grpcTable.getCreatedAt().isEmpty()) {
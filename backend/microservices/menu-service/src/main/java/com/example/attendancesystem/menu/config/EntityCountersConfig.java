@@ -0,0 +1,41 @@
+package com.example.attendancesystem.menu.config;
+
+import com.example.attendancesystem.menu.model.Category;
+import com.example.attendancesystem.menu.model.Item;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.metrics.EntityCountsGrpcService;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * Per-organization entity counters served to the system metrics aggregator
+ */
+@Configuration
+public class EntityCountersConfig {
+
+    @Bean
+    public EntityCounters entityCounters(JdbcTemplate jdbcTemplate) {
+        return new EntityCounters("menu-service", jdbcTemplate, Map.of(
+                "categories", "SELECT organization_id, COUNT(*) FROM categories GROUP BY organization_id",
+                "items", "SELECT organization_id, COUNT(*) FROM items GROUP BY organization_id"))
+                .track(Category.class, "categories", category -> category.getOrganization() != null ? category.getOrganization().getId() : null)
+                .track(Item.class, "items", item -> item.getOrganization() != null ? item.getOrganization().getId() : null);
+    }
+
+    @Bean
+    public EntityCountListener entityCountListener(ObjectProvider<EntityCounters> entityCounters) {
+        return new EntityCountListener(entityCounters);
+    }
+
+    @Bean
+    @GrpcService
+    public EntityCountsGrpcService metricsService(EntityCounters entityCounters) {
+        return new EntityCountsGrpcService(entityCounters);
+    }
+}
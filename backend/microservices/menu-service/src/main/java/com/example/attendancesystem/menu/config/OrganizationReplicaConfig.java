@@ -0,0 +1,28 @@
+package com.example.attendancesystem.menu.config;
+
+import com.example.attendancesystem.shared.client.OrganizationReplica;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
+import com.example.attendancesystem.shared.repository.OrganizationRepository;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local organization replica fed by organization-service's WatchOrganizations stream
+ */
+@Configuration
+public class OrganizationReplicaConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OrganizationReplica organizationReplica(GrpcChannelFactory channelFactory,
+                                                   @Value("${app.organization-replica.stale-after-ms:45000}") long staleAfterMs) {
+        return new OrganizationReplica(channelFactory.createChannel("organization-service"), staleAfterMs);
+    }
+
+    @Bean
+    public OrganizationResolver organizationResolver(OrganizationReplica organizationReplica,
+                                                     OrganizationRepository organizationRepository) {
+        return new OrganizationResolver(organizationReplica, organizationRepository);
+    }
+}
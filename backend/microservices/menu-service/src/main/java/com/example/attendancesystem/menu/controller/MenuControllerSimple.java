@@ -2,15 +2,25 @@ package com.example.attendancesystem.menu.controller;
 
 import com.example.attendancesystem.shared.dto.CategoryDto;
 import com.example.attendancesystem.shared.dto.ItemDto;
+import com.example.attendancesystem.menu.service.MenuImageService;
+import com.example.attendancesystem.menu.service.MenuImportService;
+import com.example.attendancesystem.menu.service.MenuImportService.MenuImportException;
+import com.example.attendancesystem.menu.service.MenuImportService.MenuRecord;
 import com.example.attendancesystem.menu.service.MenuService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +38,12 @@ public class MenuControllerSimple {
     @Autowired
     private MenuService menuService;
     
+    @Autowired
+    private MenuImageService menuImageService;
+    
+    @Autowired
+    private MenuImportService menuImportService;
+    
     // Category Management Endpoints
     
     @GetMapping("/categories")
@@ -161,4 +177,86 @@ public class MenuControllerSimple {
                     .body(Map.of("error", "Failed to delete item"));
         }
     }
+    
+    @PostMapping(value = "/items/{itemId}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadItemImage(@RequestParam String entityId, @PathVariable Long itemId,
+                                             @RequestParam("file") MultipartFile file) {
+        try {
+            String imageUrl = menuImageService.store(file.getBytes());
+            ItemDto updatedItem = menuService.updateItemImage(entityId, itemId, imageUrl);
+            return ResponseEntity.ok(updatedItem);
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to upload item image: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to upload item image"));
+        }
+    }
+    
+    // Bulk Import/Export Endpoints
+    
+    /**
+     * Export the organization's menu as NDJSON, one category or item per line
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportMenu(@RequestParam String entityId, HttpServletResponse response) throws IOException {
+        try {
+            response.setContentType("application/x-ndjson");
+            response.setCharacterEncoding("UTF-8");
+            response.setHeader("Content-Disposition", "attachment; filename=\"menu-" + entityId + ".ndjson\"");
+            int records = menuImportService.export(entityId, response.getWriter());
+            logger.info("Exported {} menu records for organization: {}", records, entityId);
+        } catch (IllegalArgumentException e) {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, e.getMessage());
+        }
+    }
+    
+    /**
+     * Import an NDJSON menu in one transaction; existing categories and items are skipped
+     */
+    @PostMapping("/import")
+    public ResponseEntity<?> importMenu(@RequestParam String entityId, HttpServletRequest request) {
+        try {
+            List<MenuRecord> records = menuImportService.read(request.getInputStream());
+            return ResponseEntity.ok(menuImportService.importMenu(entityId, records));
+            
+        } catch (MenuImportException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage(), "errors", e.getErrors()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Menu import for {} conflicted with a concurrent change: {}", entityId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("error", "Menu changed during import; retry"));
+        } catch (Exception e) {
+            logger.error("Failed to import menu: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to import menu"));
+        }
+    }
+    
+    /**
+     * Copy one organization's menu into each of the target organizations
+     */
+    @PostMapping("/clone")
+    public ResponseEntity<?> cloneMenu(@RequestParam String sourceEntityId, @RequestBody List<String> targetEntityIds) {
+        try {
+            if (targetEntityIds == null || targetEntityIds.isEmpty()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "At least one target organization is required"));
+            }
+            return ResponseEntity.ok(Map.of(
+                    "sourceEntityId", sourceEntityId,
+                    "results", menuImportService.cloneMenu(sourceEntityId, targetEntityIds)));
+            
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to clone menu: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to clone menu"));
+        }
+    }
 }
@@ -1,15 +1,23 @@
 package com.example.attendancesystem.menu.controller;
 
+import com.example.attendancesystem.shared.client.OrganizationResolver;
 import com.example.attendancesystem.shared.dto.CategoryDto;
+import com.example.attendancesystem.shared.dto.ItemDto;
 import com.example.attendancesystem.shared.dto.OrderDto;
 import com.example.attendancesystem.shared.dto.RestaurantTableDto;
 import com.example.attendancesystem.shared.dto.OrderItemDto;
 import com.example.attendancesystem.shared.model.OrderStatus;
-import com.example.attendancesystem.menu.service.MenuService;
+import com.example.attendancesystem.shared.model.Organization;
+import com.example.attendancesystem.menu.service.MenuPageTemplate;
+import com.example.attendancesystem.menu.service.MenuSearchIndex;
+import com.example.attendancesystem.menu.service.MenuSnapshotCache;
+import com.example.attendancesystem.menu.service.MenuSnapshotCache.MenuSnapshot;
+import com.example.attendancesystem.menu.service.MenuUpdateStream;
 import com.example.attendancesystem.menu.client.OrderServiceClient;
 import com.example.attendancesystem.menu.client.TableServiceClient;
 import org.springframework.ui.Model;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import java.nio.charset.StandardCharsets;
 import jakarta.servlet.http.HttpServletResponse;
@@ -21,13 +29,24 @@ import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.util.HtmlUtils;
 
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import jakarta.validation.Valid;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -40,15 +59,31 @@ public class PublicMenuController {
     // Log all requests to this controller
     @ModelAttribute
     public void logRequest(HttpServletRequest request) {
-        logger.info("=== INCOMING REQUEST TO PUBLIC CONTROLLER ===");
-        logger.info("Method: {}", request.getMethod());
-        logger.info("URI: {}", request.getRequestURI());
-        logger.info("Query String: {}", request.getQueryString());
-        logger.info("Remote Address: {}", request.getRemoteAddr());
+        logger.debug("=== INCOMING REQUEST TO PUBLIC CONTROLLER ===");
+        logger.debug("Method: {}", request.getMethod());
+        logger.debug("URI: {}", request.getRequestURI());
+        logger.debug("Query String: {}", request.getQueryString());
+        logger.debug("Remote Address: {}", request.getRemoteAddr());
     }
     
+    private static final MediaType PROTOBUF_MEDIA_TYPE = MediaType.parseMediaType("application/x-protobuf");
+
+    private static final MediaType HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private MenuPageTemplate menuPageTemplate;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private MenuUpdateStream menuUpdateStream;
+
     @Autowired
-    private MenuService menuService;
+    private OrganizationResolver organizationResolver;
 
     @Autowired
     private OrderServiceClient orderServiceClient;
@@ -56,43 +91,47 @@ public class PublicMenuController {
     @Autowired
     private TableServiceClient tableServiceClient;
 
+    // Boot's application task executor, sized under spring.task.execution
+    @Autowired
+    @Qualifier("applicationTaskExecutor")
+    private Executor lookupExecutor;
+
     /**
      * Get menu for a specific organization (public access)
+     * Served from the menu snapshot: JSON by default, protobuf when the client accepts it,
+     * gzip-encoded when the client accepts gzip, and 304 when If-None-Match matches.
      */
     @GetMapping("/{entityId}")
     public ResponseEntity<?> getMenu(@PathVariable String entityId,
                                    @RequestParam(required = false) Integer table,
-                                   @RequestParam(required = false) String qr) {
+                                   @RequestParam(required = false) String qr,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                   @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         try {
-            logger.info("Getting menu for entity: {}, table: {}, qr: {}", entityId, table, qr);
-            
-            // Validate table and QR code if provided (optional - don't block menu loading)
-            if (table != null && qr != null) {
-                try {
-                    RestaurantTableDto tableDto = tableServiceClient.getTableByQrCode(qr);
-                    if (!tableDto.getTableNumber().equals(table)) {
-                        logger.warn("QR code validation failed: table mismatch. Expected: {}, Got: {}", table, tableDto.getTableNumber());
-                        // Don't return error - continue with menu loading
-                    } else {
-                        logger.info("QR code validation successful for table: {}", table);
-                    }
-                } catch (Exception e) {
-                    logger.warn("QR code validation failed: {}, but continuing with menu load", e.getMessage());
-                    // Don't return error - continue with menu loading
-                }
+            logger.debug("Getting menu for entity: {}, table: {}", entityId, table);
+
+            Optional<MenuSnapshot> snapshot = menuSnapshotCache.get(entityId);
+            if (snapshot.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Menu not found"));
             }
-            
-            List<CategoryDto> menu = menuService.getCategoriesWithItemsByOrganization(entityId);
-            
-            Map<String, Object> response = Map.of(
-                    "entityId", entityId,
-                    "tableNumber", table != null ? table : 0,
-                    "menu", menu,
-                    "timestamp", System.currentTimeMillis()
-            );
-            
-            return ResponseEntity.ok(response);
-            
+            MenuSnapshot menu = snapshot.get();
+
+            boolean protobuf = accept != null && accept.contains(PROTOBUF_MEDIA_TYPE.toString());
+            byte[] body = protobuf ? menu.protobuf() : menu.json();
+            byte[] gzipped = protobuf ? menu.protobufGzip() : menu.jsonGzip();
+
+            // The ETag header lets Spring answer a matching If-None-Match with 304 and no body
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .eTag(menu.etag())
+                    .cacheControl(CacheControl.noCache().cachePublic())
+                    .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(protobuf ? PROTOBUF_MEDIA_TYPE : MediaType.APPLICATION_JSON);
+            if (gzipped != null && acceptsGzip(acceptEncoding)) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped);
+            }
+            return response.body(body);
+
         } catch (Exception e) {
             logger.error("Failed to get menu: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -101,59 +140,122 @@ public class PublicMenuController {
     }
     
     /**
-     * Place an order (public access)
+     * Search menu items as the diner types (public access)
      */
-    @PostMapping("/{entityId}/order")
-    public ResponseEntity<?> placeOrder(@PathVariable String entityId,
-                                      @RequestParam(required = false) Integer table,
-                                      @RequestParam(required = false) String qr,
-                                      @Valid @RequestBody OrderDto orderDto) {
+    @GetMapping("/{entityId}/search")
+    public ResponseEntity<?> searchMenu(@PathVariable String entityId,
+                                        @RequestParam(name = "q", required = false) String query,
+                                        @RequestParam(defaultValue = "false") boolean availableOnly,
+                                        @RequestParam(defaultValue = "20") int limit) {
         try {
-            logger.info("Placing order for entity: {}, table: {}", entityId, table);
-            
-            // Validate table and QR code if provided
-            if (table != null && qr != null) {
-                try {
-                    RestaurantTableDto tableDto = tableServiceClient.getTableByQrCode(qr);
-                    if (!tableDto.getTableNumber().equals(table)) {
-                        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                                .body(Map.of("error", "Invalid table or QR code"));
-                    }
-                } catch (Exception e) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(Map.of("error", "Invalid QR code"));
-                }
+            Optional<Organization> organization = organizationResolver.findByEntityId(entityId);
+            if (organization.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Menu not found"));
             }
-            
-            // Set table number from URL parameter
-            if (table != null) {
-                orderDto.setTableNumber(table);
+            if (query == null || query.isBlank()) {
+                return ResponseEntity.ok(Map.of("entityId", entityId, "query", "", "totalCount", 0, "items", List.of()));
             }
-            
-            // Validate order has items
-            if (orderDto.getOrderItems() == null || orderDto.getOrderItems().isEmpty()) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("error", "Order must contain at least one item"));
-            }
-            
-            OrderDto createdOrder = orderServiceClient.createOrder(entityId, orderDto);
-            
-            Map<String, Object> response = Map.of(
-                    "message", "Order placed successfully",
-                    "order", createdOrder,
-                    "orderNumber", createdOrder.getOrderNumber(),
-                    "estimatedTime", "15-20 minutes"
-            );
-            
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
+
+            List<MenuSearchIndex.IndexedItem> matches = menuSearchIndex.search(organization.get().getId(), query,
+                    new MenuSearchIndex.SearchFilter(availableOnly, null, null, null));
+            List<ItemDto> items = matches.stream()
+                    .limit(Math.max(1, Math.min(limit, 100)))
+                    .map(MenuSearchIndex.IndexedItem::toItemDto)
+                    .collect(Collectors.toList());
+
+            return ResponseEntity.ok(Map.of(
+                    "entityId", entityId,
+                    "query", query,
+                    "totalCount", matches.size(),
+                    "items", items
+            ));
+
         } catch (Exception e) {
-            logger.error("Failed to place order: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", e.getMessage()));
+            logger.error("Failed to search menu: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Search failed"));
         }
     }
     
+    /**
+     * Stream availability and price changes for an open menu page (public access)
+     * Server-sent events; EventSource resumes from its Last-Event-ID after a reconnect
+     */
+    @GetMapping(value = "/{entityId}/updates", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamMenuUpdates(@PathVariable String entityId,
+                                                        @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                        @RequestParam(required = false) String since) {
+        Optional<Organization> organization = organizationResolver.findByEntityId(entityId);
+        if (organization.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        try {
+            SseEmitter emitter = menuUpdateStream.subscribe(organization.get().getId(),
+                    lastEventId != null ? lastEventId : since);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    // Keep reverse proxies from buffering the stream
+                    .header("X-Accel-Buffering", "no")
+                    .body(emitter);
+        } catch (IllegalStateException e) {
+            logger.warn("Rejected menu stream for {}: {}", entityId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    /**
+     * Place an order (public access)
+     * The QR check, organization and menu lookups run side by side and the request thread is
+     * released while they and the order call are in flight.
+     */
+    @PostMapping("/{entityId}/order")
+    public CompletableFuture<ResponseEntity<?>> placeOrder(@PathVariable String entityId,
+                                                           @RequestParam(required = false) Integer table,
+                                                           @RequestParam(required = false) String qr,
+                                                           @Valid @RequestBody OrderDto orderDto) {
+        logger.info("Placing order for entity: {}, table: {}", entityId, table);
+
+        // Validate order has items
+        if (orderDto.getOrderItems() == null || orderDto.getOrderItems().isEmpty()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Order must contain at least one item")));
+        }
+
+        // Validate table and QR code if provided
+        CompletableFuture<RestaurantTableDto> tableLookup = table != null && qr != null
+                ? tableServiceClient.getTableByQrCodeAsync(qr)
+                : CompletableFuture.completedFuture(null);
+        CompletableFuture<Organization> organizationLookup =
+                CompletableFuture.supplyAsync(() -> requireOrganization(entityId), lookupExecutor);
+        CompletableFuture<MenuSnapshot> menuLookup =
+                CompletableFuture.supplyAsync(() -> requireMenu(entityId), lookupExecutor);
+
+        return allOrFirstFailure(tableLookup, organizationLookup, menuLookup)
+                .thenCompose(ignored -> {
+                    RestaurantTableDto tableDto = tableLookup.join();
+                    Organization organization = organizationLookup.join();
+                    if (tableDto != null && (!tableDto.getTableNumber().equals(table)
+                            || !organization.getEntityId().equals(tableDto.getOrganizationEntityId()))) {
+                        throw new IllegalArgumentException("Invalid table or QR code");
+                    }
+                    List<OrderItemDto> orderItems = orderableItems(menuLookup.join(), orderDto.getOrderItems());
+                    return orderServiceClient.createOrderAsync(tableDto != null ? tableDto.getId() : 0L,
+                            organization.getId(), orderDto.getCustomerName(), orderDto.getCustomerPhone(),
+                            orderItems, orderDto.getNotes(), 0.0);
+                })
+                .<ResponseEntity<?>>thenApply(createdOrder -> {
+                    Map<String, Object> response = Map.of(
+                            "message", "Order placed successfully",
+                            "order", createdOrder,
+                            "orderNumber", createdOrder.getOrderNumber(),
+                            "estimatedTime", "15-20 minutes"
+                    );
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                })
+                .exceptionally(e -> orderFailure(entityId, e));
+    }
+    
     /**
      * Get order status (public access)
      */
@@ -195,7 +297,9 @@ public class PublicMenuController {
             String entityId = table.getOrganizationEntityId();
 
             // Get menu for the organization
-            List<CategoryDto> menu = menuService.getCategoriesWithItemsByOrganization(entityId);
+            List<CategoryDto> menu = menuSnapshotCache.get(entityId)
+                    .orElseThrow(() -> new RuntimeException("Organization not found"))
+                    .menu();
 
             Map<String, Object> response = Map.of(
                     "tableId", tableId,
@@ -216,44 +320,39 @@ public class PublicMenuController {
 
     /**
      * Get menu for a specific table by table number (public access)
-     * This is the endpoint that QR codes should point to
+     * This is the endpoint that QR codes should point to; the table and menu lookups run side by side
      */
     @GetMapping("/tables/number/{tableNumber}/menu")
-    public ResponseEntity<?> getTableMenuByNumber(@PathVariable Integer tableNumber,
-                                                  @RequestParam(required = false) String entityId) {
-        try {
-            logger.info("Getting menu for table number: {} in entity: {}", tableNumber, entityId);
-
-            // If entityId is not provided, try to find the table by number across all entities
-            // For now, we'll assume there's only one active entity or require entityId
-            if (entityId == null) {
-                // Try to find the table by number - this assumes table numbers are unique across the system
-                // In a multi-tenant system, you might need to pass entityId as a parameter
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body(Map.of("error", "Entity ID is required"));
-            }
-
-            // Get table information by number
-            RestaurantTableDto table = tableServiceClient.getTableByNumber(entityId, tableNumber);
-
-            // Get menu for the organization
-            List<CategoryDto> menu = menuService.getCategoriesWithItemsByOrganization(entityId);
-
-            Map<String, Object> response = Map.of(
-                    "tableId", table.getId(),
-                    "tableNumber", table.getTableNumber(),
-                    "entityId", entityId,
-                    "menu", menu,
-                    "timestamp", System.currentTimeMillis()
-            );
-
-            return ResponseEntity.ok(response);
-
-        } catch (Exception e) {
-            logger.error("Failed to get table menu by number: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND)
-                    .body(Map.of("error", "Table menu not found"));
+    public CompletableFuture<ResponseEntity<?>> getTableMenuByNumber(@PathVariable Integer tableNumber,
+                                                                     @RequestParam(required = false) String entityId) {
+        logger.info("Getting menu for table number: {} in entity: {}", tableNumber, entityId);
+
+        // Table numbers are only unique within an organization
+        if (entityId == null) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Entity ID is required")));
         }
+
+        CompletableFuture<RestaurantTableDto> tableLookup = tableServiceClient.getTableByNumberAsync(entityId, tableNumber);
+        CompletableFuture<MenuSnapshot> menuLookup = CompletableFuture.supplyAsync(() -> requireMenu(entityId), lookupExecutor);
+
+        return allOrFirstFailure(tableLookup, menuLookup)
+                .<ResponseEntity<?>>thenApply(ignored -> {
+                    RestaurantTableDto table = tableLookup.join();
+                    Map<String, Object> response = Map.of(
+                            "tableId", table.getId(),
+                            "tableNumber", table.getTableNumber(),
+                            "entityId", entityId,
+                            "menu", menuLookup.join().menu(),
+                            "timestamp", System.currentTimeMillis()
+                    );
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> {
+                    logger.error("Failed to get table menu by number: {}", e.getMessage());
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "Table menu not found"));
+                });
     }
 
     /**
@@ -284,62 +383,79 @@ public class PublicMenuController {
 
     /**
      * Create order from table (public access)
+     * Pages that know their organization send its entityId, so the organization and menu are
+     * looked up alongside the table instead of after it; the order then takes one more call.
      */
     @PostMapping("/orders")
-    public ResponseEntity<?> createOrder(@RequestBody Map<String, Object> orderRequest) {
+    public CompletableFuture<ResponseEntity<?>> createOrder(@RequestBody Map<String, Object> orderRequest) {
         String requestId = java.util.UUID.randomUUID().toString().substring(0, 8);
-        try {
-            logger.info("🚀 [{}] Creating order: {}", requestId, orderRequest);
+        logger.info("🚀 [{}] Creating order: {}", requestId, orderRequest);
 
-            Long tableId = Long.valueOf(orderRequest.get("tableId").toString());
+        Long tableId;
+        List<OrderItemDto> requestedItems;
+        try {
+            if (orderRequest.get("tableId") == null || !(orderRequest.get("items") instanceof List<?>)) {
+                throw new IllegalArgumentException("tableId and items are required");
+            }
+            tableId = Long.valueOf(orderRequest.get("tableId").toString());
             @SuppressWarnings("unchecked")
             List<Map<String, Object>> items = (List<Map<String, Object>>) orderRequest.get("items");
 
-            logger.info("🔍 [{}] Parsed tableId: {}, items count: {}", requestId, tableId, items.size());
-
-            // Get table information
-            logger.info("🔍 [{}] Getting table by ID: {}", requestId, tableId);
-            RestaurantTableDto table = tableServiceClient.getTableById(tableId);
-            String entityId = table.getOrganizationEntityId();
-            logger.info("🔍 [{}] Found table: {} for entity: {}", requestId, table.getTableNumber(), entityId);
-
-            // Create order DTO
-            OrderDto orderDto = new OrderDto();
-            orderDto.setTableNumber(table.getTableNumber());
-            orderDto.setCustomerName((String) orderRequest.getOrDefault("customerName", "Customer"));
-            orderDto.setCustomerPhone((String) orderRequest.get("customerPhone"));
-            orderDto.setNotes((String) orderRequest.get("notes"));
-            orderDto.setStatus(OrderStatus.PENDING);
-
             // Convert items
-            List<OrderItemDto> orderItems = items.stream().map(item -> {
+            requestedItems = items.stream().map(item -> {
                 OrderItemDto orderItem = new OrderItemDto();
                 orderItem.setItemId(Long.valueOf(item.get("id").toString()));
                 orderItem.setQuantity(Integer.valueOf(item.get("qty").toString()));
                 return orderItem;
-            }).collect(java.util.stream.Collectors.toList());
-
-            orderDto.setOrderItems(orderItems);
-
-            // Create the order
-            logger.info("🔍 [{}] Creating order with {} items for entity: {}", requestId, orderDto.getOrderItems().size(), entityId);
-            OrderDto createdOrder = orderServiceClient.createOrder(entityId, orderDto);
-
-            Map<String, Object> response = Map.of(
-                    "orderNumber", createdOrder.getOrderNumber(),
-                    "tableNumber", table.getTableNumber(),
-                    "status", "PENDING",
-                    "message", "Order placed successfully"
-            );
-
-            logger.info("✅ [{}] Order created successfully: {}", requestId, createdOrder.getOrderNumber());
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-
+            }).collect(Collectors.toList());
         } catch (Exception e) {
-            logger.error("❌ [{}] Failed to create order: {}", requestId, e.getMessage(), e);
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(Map.of("error", e.getMessage()));
+            logger.error("❌ [{}] Invalid order request: {}", requestId, e.getMessage());
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", e instanceof IllegalArgumentException && !(e instanceof NumberFormatException)
+                            ? e.getMessage() : "Invalid order request")));
         }
+        String requestedEntityId = (String) orderRequest.get("entityId");
+
+        logger.info("🔍 [{}] Parsed tableId: {}, items count: {}", requestId, tableId, requestedItems.size());
+
+        CompletableFuture<RestaurantTableDto> tableLookup = tableServiceClient.getTableByIdAsync(tableId);
+        CompletableFuture<String> entityLookup = requestedEntityId != null
+                ? CompletableFuture.completedFuture(requestedEntityId)
+                : tableLookup.thenApply(RestaurantTableDto::getOrganizationEntityId);
+        CompletableFuture<Organization> organizationLookup = entityLookup.thenApplyAsync(this::requireOrganization, lookupExecutor);
+        CompletableFuture<MenuSnapshot> menuLookup = entityLookup.thenApplyAsync(this::requireMenu, lookupExecutor);
+
+        return allOrFirstFailure(tableLookup, organizationLookup, menuLookup)
+                .thenCompose(ignored -> {
+                    RestaurantTableDto table = tableLookup.join();
+                    Organization organization = organizationLookup.join();
+                    if (!organization.getEntityId().equals(table.getOrganizationEntityId())) {
+                        throw new IllegalArgumentException("Table does not belong to this organization");
+                    }
+                    if (Boolean.FALSE.equals(table.getIsActive())) {
+                        throw new IllegalArgumentException("Table is not active");
+                    }
+                    List<OrderItemDto> orderItems = orderableItems(menuLookup.join(), requestedItems);
+
+                    logger.info("🔍 [{}] Creating order with {} items for table {} in entity: {}",
+                            requestId, orderItems.size(), table.getTableNumber(), organization.getEntityId());
+                    return orderServiceClient.createOrderAsync(tableId, organization.getId(),
+                                    (String) orderRequest.getOrDefault("customerName", "Customer"),
+                                    (String) orderRequest.get("customerPhone"),
+                                    orderItems, (String) orderRequest.get("notes"), 0.0)
+                            .<ResponseEntity<?>>thenApply(createdOrder -> {
+                                Map<String, Object> response = Map.of(
+                                        "orderNumber", createdOrder.getOrderNumber(),
+                                        "tableNumber", table.getTableNumber(),
+                                        "status", "PENDING",
+                                        "message", "Order placed successfully"
+                                );
+
+                                logger.info("✅ [{}] Order created successfully: {}", requestId, createdOrder.getOrderNumber());
+                                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                            });
+                })
+                .exceptionally(e -> orderFailure(requestId, e));
     }
 
     /**
@@ -446,60 +562,33 @@ public class PublicMenuController {
     }
 
     /**
-     * Serve HTML menu page directly - FIXED VERSION
+     * Serve HTML menu page directly
+     * Assembled from the precompiled menu page template; gzip when the client accepts it
      */
     @GetMapping("/page/{entityId}")
-    public ResponseEntity<String> getMenuPage(@PathVariable String entityId,
+    public ResponseEntity<byte[]> getMenuPage(@PathVariable String entityId,
                                             @RequestParam(required = false) String table,
-                                            @RequestParam(required = false) String qr) {
-        logger.info("=== MENU PAGE REQUEST RECEIVED ===");
-        logger.info("Entity ID: {}", entityId);
-        logger.info("Table: {}", table);
-        logger.info("QR Code: {}", qr);
-        logger.info("Request URL: /api/public/page/{}", entityId);
-
-        try {
-            // Read the HTML file and inject parameters
-            ClassPathResource resource = new ClassPathResource("static/menu.html");
-            String htmlContent = new String(resource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-
-            // Inject parameters into the HTML
-            String modifiedHtml = htmlContent.replace(
-                "const entityId = urlParams.get('entityId');",
-                String.format("const entityId = '%s';", entityId)
-            );
-
-            if (table != null) {
-                modifiedHtml = modifiedHtml.replace(
-                    "const tableNumber = urlParams.get('table');",
-                    String.format("const tableNumber = '%s';", table)
-                );
-            }
-
-            if (qr != null) {
-                modifiedHtml = modifiedHtml.replace(
-                    "const qrCode = urlParams.get('qr');",
-                    String.format("const qrCode = '%s';", qr)
-                );
-            }
-
-            logger.info("=== HTML CONTENT SERVED SUCCESSFULLY ===");
-            logger.info("Content length: {} characters", modifiedHtml.length());
-
+                                            @RequestParam(required = false) String qr,
+                                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        logger.debug("Menu page request for entity: {}, table: {}", entityId, table);
+
+        if (!menuPageTemplate.isAvailable()) {
+            String fallbackHtml = String.format(
+                "<html><body><h1>Restaurant Menu</h1><p>Loading menu for entity: %s, table: %s</p></body></html>",
+                HtmlUtils.htmlEscape(entityId), table != null ? HtmlUtils.htmlEscape(table) : "");
             return ResponseEntity.ok()
-                    .contentType(MediaType.TEXT_HTML)
-                    .body(modifiedHtml);
+                    .contentType(HTML_UTF8)
+                    .body(fallbackHtml.getBytes(StandardCharsets.UTF_8));
+        }
 
-        } catch (Exception e) {
-            logger.error("=== ERROR SERVING HTML CONTENT ===", e);
-            String errorHtml = String.format(
-                "<html><body><h1>Restaurant Menu</h1><p>Loading menu for entity: %s, table: %s</p><script>console.log('Error: %s'); setTimeout(() => window.location.reload(), 2000);</script></body></html>",
-                entityId, table, e.getMessage()
-            );
-            return ResponseEntity.ok()
-                    .contentType(MediaType.TEXT_HTML)
-                    .body(errorHtml);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(HTML_UTF8)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (menuPageTemplate.supportsGzip() && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(menuPageTemplate.renderGzip(entityId, table, qr));
         }
+        return response.body(menuPageTemplate.render(entityId, table, qr));
     }
 
     /**
@@ -541,6 +630,110 @@ public class PublicMenuController {
                 .body(debugInfo);
     }
 
+    /**
+     * Whether Accept-Encoding allows gzip (an explicit q=0 refuses it)
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(parameter.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private Organization requireOrganization(String entityId) {
+        return Optional.ofNullable(entityId)
+                .flatMap(organizationResolver::findByEntityId)
+                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+    }
+
+    private MenuSnapshot requireMenu(String entityId) {
+        return Optional.ofNullable(entityId)
+                .flatMap(menuSnapshotCache::get)
+                .orElseThrow(() -> new IllegalArgumentException("Organization not found"));
+    }
+
+    /**
+     * Completes once every lookup has succeeded, or with the first failure; the first failure
+     * cancels the rest, which for remote lookups cancels their calls
+     */
+    private static CompletableFuture<Void> allOrFirstFailure(CompletableFuture<?>... lookups) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(lookups);
+        for (CompletableFuture<?> lookup : lookups) {
+            lookup.whenComplete((value, error) -> {
+                if (error != null && all.completeExceptionally(error)) {
+                    for (CompletableFuture<?> other : lookups) {
+                        other.cancel(true);
+                    }
+                }
+            });
+        }
+        return all;
+    }
+
+    /**
+     * Check requested items against the menu snapshot, so unknown or unavailable items are
+     * rejected without a call to order-service
+     */
+    private static List<OrderItemDto> orderableItems(MenuSnapshot menu, List<OrderItemDto> requested) {
+        List<OrderItemDto> orderItems = new ArrayList<>();
+        for (OrderItemDto line : requested) {
+            if (line.getItemId() == null || line.getQuantity() == null || line.getQuantity() < 1) {
+                throw new IllegalArgumentException("Each item needs an ID and a positive quantity");
+            }
+            ItemDto item = menu.items().get(line.getItemId());
+            if (item == null) {
+                throw new IllegalArgumentException("Item not found: " + line.getItemId());
+            }
+            if (Boolean.FALSE.equals(item.getIsActive()) || Boolean.FALSE.equals(item.getIsAvailable())) {
+                throw new IllegalArgumentException("Item is not available: " + item.getName());
+            }
+            OrderItemDto orderItem = new OrderItemDto(line.getItemId(), line.getQuantity(), item.getPrice());
+            orderItem.setItemName(item.getName());
+            orderItem.setSpecialInstructions(line.getSpecialInstructions());
+            orderItems.add(orderItem);
+        }
+        return orderItems;
+    }
+
+    private ResponseEntity<?> orderFailure(String requestId, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof IllegalArgumentException) {
+            logger.warn("[{}] Order rejected: {}", requestId, cause.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", cause.getMessage()));
+        }
+        if (cause instanceof RejectedExecutionException) {
+            logger.warn("[{}] Order lookups rejected: executor saturated", requestId);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", "Service busy, try again"));
+        }
+        if (cause instanceof StatusRuntimeException statusException) {
+            logger.error("[{}] Failed to place order: {}", requestId, statusException.getStatus());
+            HttpStatus status = statusException.getStatus().getCode() == Status.Code.DEADLINE_EXCEEDED
+                    ? HttpStatus.GATEWAY_TIMEOUT : HttpStatus.BAD_GATEWAY;
+            return ResponseEntity.status(status).body(Map.of("error", "Failed to place order"));
+        }
+        logger.error("[{}] Failed to place order: {}", requestId, cause.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", cause.getMessage() != null ? cause.getMessage() : "Failed to place order"));
+    }
+
     private String getEstimatedTime(OrderStatus status) {
         switch (status) {
             case PENDING:
@@ -0,0 +1,147 @@
+package com.example.attendancesystem.menu.controller;
+
+import com.example.attendancesystem.menu.service.MenuImageService;
+import com.example.attendancesystem.menu.service.MenuImageService.ImageFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Public Menu Image Controller
+ * Serves item image variants without copying them through the JVM heap: Tomcat sendfile when
+ * the connector supports it, FileChannel.transferTo otherwise. Supports single byte ranges.
+ */
+@RestController
+@RequestMapping("/api/public/menu/images")
+@CrossOrigin(origins = "*")
+public class PublicMenuImageController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicMenuImageController.class);
+
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private static final String IMMUTABLE_CACHE = "public, max-age=31536000, immutable";
+    // Served while the variant is still rendering; revalidate so clients pick up the variant
+    private static final String FALLBACK_CACHE = "public, max-age=60";
+
+    @Autowired
+    private MenuImageService menuImageService;
+
+    /**
+     * Get an item image variant (public access)
+     */
+    @GetMapping("/{fileName:.+}")
+    public void getImage(@PathVariable String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<ImageFile> resolved = menuImageService.resolve(fileName);
+        if (resolved.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        ImageFile image = resolved.get();
+
+        try (FileChannel channel = FileChannel.open(image.path(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            String etag = "\"" + fileName + (image.immutable() ? "" : "-original") + "\"";
+
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, image.immutable() ? IMMUTABLE_CACHE : FALLBACK_CACHE);
+            response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+            // Spring matches lists, '*' and weak W/ validators per RFC 9110 and sets the 304
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+
+            long start = 0;
+            long end = length;
+            long[] range = parseRange(request.getHeader(HttpHeaders.RANGE), length);
+            if (range != null) {
+                if (range.length == 0) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+
+            response.setContentType(image.contentType());
+            response.setContentLengthLong(end - start);
+            if ("HEAD".equals(request.getMethod())) {
+                return;
+            }
+
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+                // Tomcat writes the file with sendfile after this method returns
+                request.setAttribute(SENDFILE_FILENAME, image.path().toString());
+                request.setAttribute(SENDFILE_START, start);
+                request.setAttribute(SENDFILE_END, end);
+                return;
+            }
+
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        } catch (IOException e) {
+            // Usually the client went away mid-transfer
+            logger.debug("Failed to send image {}: {}", fileName, e.getMessage());
+        }
+    }
+
+    /**
+     * Single byte range as [start, endExclusive], an empty array when unsatisfiable, or null
+     * to send the whole file (no header, malformed, or multiple ranges)
+     */
+    private static long[] parseRange(String header, long length) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the final N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                return new long[] {Math.max(0, length - suffix), length};
+            }
+            long start = Long.parseLong(first);
+            long end = last.isEmpty() ? length : Math.min(Long.parseLong(last) + 1, length);
+            if (start >= length || end <= start) {
+                return new long[0];
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.attendancesystem.menu.controller;
+
+import com.example.attendancesystem.menu.service.TableCartService;
+import com.example.attendancesystem.shared.dto.OrderDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Public Table Cart Controller
+ * Shared cart for everyone ordering at a table; the whole cart is submitted as one order
+ */
+@RestController
+@RequestMapping("/api/public/menu/tables/{tableId}/cart")
+@CrossOrigin(origins = "*")
+public class PublicTableCartController {
+
+    private static final Logger logger = LoggerFactory.getLogger(PublicTableCartController.class);
+
+    @Autowired
+    private TableCartService tableCartService;
+
+    /**
+     * Get the table's cart (public access)
+     */
+    @GetMapping
+    public ResponseEntity<?> getCart(@PathVariable Long tableId) {
+        return handle(tableId, () -> tableCartService.getCart(tableId));
+    }
+
+    /**
+     * Add an item to the table's cart (public access)
+     */
+    @PostMapping("/items")
+    public ResponseEntity<?> addItem(@PathVariable Long tableId, @RequestBody Map<String, Object> request) {
+        return handle(tableId, () -> tableCartService.addItem(tableId,
+                longValue(request, "itemId"),
+                request.get("quantity") != null ? intValue(request, "quantity") : 1,
+                (String) request.get("specialInstructions")));
+    }
+
+    /**
+     * Change the quantity of a cart line; zero removes it (public access)
+     */
+    @PutMapping("/items/{lineId}")
+    public ResponseEntity<?> updateLine(@PathVariable Long tableId, @PathVariable Long lineId,
+                                        @RequestBody Map<String, Object> request) {
+        return handle(tableId, () -> tableCartService.updateLine(tableId, lineId, intValue(request, "quantity")));
+    }
+
+    /**
+     * Remove a cart line (public access)
+     */
+    @DeleteMapping("/items/{lineId}")
+    public ResponseEntity<?> removeLine(@PathVariable Long tableId, @PathVariable Long lineId) {
+        return handle(tableId, () -> tableCartService.removeLine(tableId, lineId));
+    }
+
+    /**
+     * Empty the table's cart (public access)
+     */
+    @DeleteMapping
+    public ResponseEntity<?> clear(@PathVariable Long tableId) {
+        return handle(tableId, () -> tableCartService.clear(tableId));
+    }
+
+    /**
+     * Submit the table's cart as one order (public access)
+     */
+    @PostMapping("/submit")
+    public ResponseEntity<?> submit(@PathVariable Long tableId, @RequestBody(required = false) Map<String, Object> request) {
+        Map<String, Object> body = request != null ? request : Map.of();
+        try {
+            OrderDto order = tableCartService.submit(tableId,
+                    body.get("version") != null ? longValue(body, "version") : null,
+                    (String) body.getOrDefault("customerName", "Customer"),
+                    (String) body.get("customerPhone"),
+                    (String) body.get("notes"));
+
+            Map<String, Object> response = Map.of(
+                    "message", "Order placed successfully",
+                    "orderNumber", order.getOrderNumber(),
+                    "tableNumber", order.getTableNumber() != null ? order.getTableNumber() : 0,
+                    "status", order.getStatus(),
+                    "totalAmount", order.getTotalAmount()
+            );
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to submit cart of table {}: {}", tableId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .body(Map.of("error", "Failed to place order"));
+        }
+    }
+
+    private ResponseEntity<?> handle(Long tableId, Supplier<Object> action) {
+        try {
+            return ResponseEntity.ok(action.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            logger.error("Failed to update cart of table {}: {}", tableId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Table not found"));
+        }
+    }
+
+    private static Long longValue(Map<String, Object> request, String field) {
+        Object value = request.get(field);
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        try {
+            return Long.valueOf(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+
+    private static int intValue(Map<String, Object> request, String field) {
+        long value = longValue(request, field);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(field + " is out of range");
+        }
+        return (int) value;
+    }
+}
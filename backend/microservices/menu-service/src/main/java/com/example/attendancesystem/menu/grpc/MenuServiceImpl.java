@@ -4,9 +4,14 @@ import com.example.attendancesystem.grpc.menu.*;
 import com.example.attendancesystem.shared.dto.CategoryDto;
 import com.example.attendancesystem.shared.dto.ItemDto;
 import com.example.attendancesystem.shared.model.Organization;
-import com.example.attendancesystem.shared.repository.OrganizationRepository;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
+import com.example.attendancesystem.menu.service.MenuSearchIndex;
 import com.example.attendancesystem.menu.service.MenuService;
+import com.example.attendancesystem.menu.service.MenuSnapshotCache;
+import com.example.attendancesystem.menu.service.MenuSnapshotCache.MenuSnapshot;
+import com.example.attendancesystem.menu.service.MenuVersionFeed;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
@@ -14,8 +19,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,11 +34,22 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
 
     private static final Logger logger = LoggerFactory.getLogger(MenuServiceImpl.class);
 
+    private static final int MAX_ITEMS_BY_IDS = 1000;
+
     @Autowired
     private MenuService menuService;
 
     @Autowired
-    private OrganizationRepository organizationRepository;
+    private OrganizationResolver organizationResolver;
+
+    @Autowired
+    private MenuSnapshotCache menuSnapshotCache;
+
+    @Autowired
+    private MenuSearchIndex menuSearchIndex;
+
+    @Autowired
+    private MenuVersionFeed menuVersionFeed;
 
     @Override
     public void createCategory(CreateCategoryRequest request, StreamObserver<CategoryResponse> responseObserver) {
@@ -39,7 +57,7 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
 
         try {
             // Validate organization
-            Optional<Organization> organizationOpt = organizationRepository.findById(request.getOrganizationId());
+            Optional<Organization> organizationOpt = organizationResolver.findById(request.getOrganizationId());
             if (organizationOpt.isEmpty()) {
                 CategoryResponse response = CategoryResponse.newBuilder()
                         .setSuccess(false)
@@ -170,7 +188,7 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
 
         try {
             // Validate organization
-            Optional<Organization> organizationOpt = organizationRepository.findById(request.getOrganizationId());
+            Optional<Organization> organizationOpt = organizationResolver.findById(request.getOrganizationId());
             if (organizationOpt.isEmpty()) {
                 ListCategoriesResponse response = ListCategoriesResponse.newBuilder()
                         .setSuccess(false)
@@ -218,7 +236,7 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
 
         try {
             // Validate organization
-            Optional<Organization> organizationOpt = organizationRepository.findById(request.getOrganizationId());
+            Optional<Organization> organizationOpt = organizationResolver.findById(request.getOrganizationId());
             if (organizationOpt.isEmpty()) {
                 ItemResponse response = ItemResponse.newBuilder()
                         .setSuccess(false)
@@ -350,14 +368,17 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
 
     @Override
     public void getPublicMenu(GetPublicMenuRequest request, StreamObserver<PublicMenuResponse> responseObserver) {
-        logger.info("Menu service - getPublicMenu called for organization: {}", request.getOrganizationId());
+        logger.debug("Menu service - getPublicMenu called for organization: {}", request.getOrganizationId());
         
         try {
-            PublicMenuResponse response = PublicMenuResponse.newBuilder()
-                    .setSuccess(false)
-                    .setMessage("Menu service not implemented yet - public menu retrieval pending")
-                    .build();
-            
+            // Snapshots hold active, available items only, so available_only needs no filtering
+            PublicMenuResponse response = menuSnapshotCache.get(request.getOrganizationId())
+                    .map(MenuSnapshot::response)
+                    .orElseGet(() -> PublicMenuResponse.newBuilder()
+                            .setSuccess(false)
+                            .setMessage("Organization not found")
+                            .build());
+
             responseObserver.onNext(response);
             responseObserver.onCompleted();
             
@@ -437,15 +458,44 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
 
     @Override
     public void searchMenuItems(SearchMenuItemsRequest request, StreamObserver<ListItemsResponse> responseObserver) {
-        logger.info("Menu service - searchMenuItems called with query: {}", request.getSearchQuery());
+        logger.debug("Menu service - searchMenuItems called with query: {}", request.getSearchQuery());
 
         try {
+            if (organizationResolver.findById(request.getOrganizationId()).isEmpty()) {
+                ListItemsResponse response = ListItemsResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage("Organization not found")
+                        .setTotalCount(0)
+                        .setPage(request.getPage())
+                        .setSize(request.getSize())
+                        .build();
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+                return;
+            }
+
+            MenuSearchIndex.SearchFilter filter = new MenuSearchIndex.SearchFilter(
+                    request.getAvailableOnly(),
+                    request.getCategoryIdsCount() > 0 ? Set.copyOf(request.getCategoryIdsList()) : null,
+                    request.getMinPrice() > 0 ? BigDecimal.valueOf(request.getMinPrice()) : null,
+                    request.getMaxPrice() > 0 ? BigDecimal.valueOf(request.getMaxPrice()) : null);
+            List<MenuSearchIndex.IndexedItem> matches = menuSearchIndex.search(
+                    request.getOrganizationId(), request.getSearchQuery(), filter);
+
+            // Pages are zero-based
+            int size = request.getSize() > 0 ? request.getSize() : 20;
+            int from = (int) Math.min((long) Math.max(request.getPage(), 0) * size, matches.size());
+            int to = Math.min(from + size, matches.size());
+
             ListItemsResponse response = ListItemsResponse.newBuilder()
-                    .setSuccess(false)
-                    .setMessage("Menu service not implemented yet - menu item search pending")
-                    .setTotalCount(0)
+                    .setSuccess(true)
+                    .setMessage("Items retrieved successfully")
+                    .addAllItems(matches.subList(from, to).stream()
+                            .map(match -> convertToGrpcItem(match.toItemDto()))
+                            .collect(Collectors.toList()))
+                    .setTotalCount(matches.size())
                     .setPage(request.getPage())
-                    .setSize(request.getSize())
+                    .setSize(size)
                     .build();
 
             responseObserver.onNext(response);
@@ -459,6 +509,67 @@ public class MenuServiceImpl extends MenuServiceGrpc.MenuServiceImplBase {
         }
     }
 
+    @Override
+    public void getItemsByIds(GetItemsByIdsRequest request, StreamObserver<GetItemsByIdsResponse> responseObserver) {
+        logger.debug("Menu service - getItemsByIds called for {} items in organization: {}",
+                request.getItemIdsCount(), request.getOrganizationId());
+
+        try {
+            Optional<MenuSnapshot> snapshot = request.getItemIdsCount() > MAX_ITEMS_BY_IDS
+                    ? Optional.empty()
+                    : menuSnapshotCache.get(request.getOrganizationId());
+            if (snapshot.isEmpty()) {
+                GetItemsByIdsResponse response = GetItemsByIdsResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage(request.getItemIdsCount() > MAX_ITEMS_BY_IDS
+                                ? "At most " + MAX_ITEMS_BY_IDS + " items per request"
+                                : "Organization not found")
+                        .build();
+                responseObserver.onNext(response);
+                responseObserver.onCompleted();
+                return;
+            }
+
+            // Served from the snapshot, so the items and the version always match
+            GetItemsByIdsResponse.Builder response = GetItemsByIdsResponse.newBuilder()
+                    .setSuccess(true)
+                    .setMessage("Items retrieved successfully")
+                    .setMenuVersion(snapshot.get().version())
+                    .setEpoch(menuVersionFeed.epoch());
+            for (Long itemId : new LinkedHashSet<>(request.getItemIdsList())) {
+                ItemDto item = snapshot.get().items().get(itemId);
+                if (item != null) {
+                    response.addItems(convertToGrpcItem(item).toBuilder()
+                            .setOrganizationId(request.getOrganizationId())
+                            .build());
+                } else {
+                    response.addMissingItemIds(itemId);
+                }
+            }
+
+            responseObserver.onNext(response.build());
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error in getItemsByIds", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Failed to get items: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void watchMenuVersions(WatchMenuVersionsRequest request, StreamObserver<MenuVersionChange> responseObserver) {
+        try {
+            menuVersionFeed.watch((ServerCallStreamObserver<MenuVersionChange>) responseObserver);
+        } catch (Exception e) {
+            logger.error("Error starting menu version watch", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Failed to start menu version watch: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
     // Conversion methods
     private Category convertToGrpcCategory(CategoryDto categoryDto) {
         return Category.newBuilder()
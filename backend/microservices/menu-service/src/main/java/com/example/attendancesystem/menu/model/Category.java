@@ -1,6 +1,8 @@
 package com.example.attendancesystem.menu.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
+import com.example.attendancesystem.menu.service.MenuChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -12,6 +14,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "categories")
+@EntityListeners({EntityCountListener.class, MenuChangeListener.class})
 public class Category {
     
     @Id
@@ -1,6 +1,8 @@
 package com.example.attendancesystem.menu.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
+import com.example.attendancesystem.menu.service.MenuChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
@@ -13,6 +15,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "items")
+@EntityListeners({EntityCountListener.class, MenuChangeListener.class})
 public class Item {
     
     @Id
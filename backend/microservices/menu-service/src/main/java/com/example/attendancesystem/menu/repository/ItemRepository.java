@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -101,4 +102,16 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
      */
     @Query("SELECT i FROM Item i WHERE i.organization = :organization AND (LOWER(i.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR LOWER(i.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) ORDER BY i.displayOrder ASC, i.name ASC")
     List<Item> searchByNameOrDescription(@Param("organization") Organization organization, @Param("searchTerm") String searchTerm);
+    
+    /**
+     * Find active items of an organization with their categories, for the search index
+     */
+    @Query("SELECT i FROM Item i JOIN FETCH i.category c WHERE i.organization.id = :organizationId AND i.isActive = true AND c.isActive = true")
+    List<Item> findActiveWithCategoryByOrganizationId(@Param("organizationId") Long organizationId);
+    
+    /**
+     * Find items by IDs with their categories, for incremental search index updates
+     */
+    @Query("SELECT i FROM Item i JOIN FETCH i.category WHERE i.id IN :ids")
+    List<Item> findWithCategoryByIdIn(@Param("ids") Collection<Long> ids);
 }
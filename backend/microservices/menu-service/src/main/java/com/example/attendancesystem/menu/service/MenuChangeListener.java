@@ -0,0 +1,70 @@
+package com.example.attendancesystem.menu.service;
+
+import com.example.attendancesystem.menu.model.Category;
+import com.example.attendancesystem.menu.model.Item;
+import com.example.attendancesystem.menu.service.MenuUpdateStream.MenuDelta;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener invalidating the organization's menu snapshot and search index, and
+ * pushing a delta to open menu pages, when a category or item changes
+ */
+@Component
+public class MenuChangeListener {
+
+    private final ObjectProvider<MenuSnapshotCache> menuSnapshotCache;
+    private final ObjectProvider<MenuSearchIndex> menuSearchIndex;
+    private final ObjectProvider<MenuUpdateStream> menuUpdateStream;
+
+    public MenuChangeListener(ObjectProvider<MenuSnapshotCache> menuSnapshotCache,
+                              ObjectProvider<MenuSearchIndex> menuSearchIndex,
+                              ObjectProvider<MenuUpdateStream> menuUpdateStream) {
+        this.menuSnapshotCache = menuSnapshotCache;
+        this.menuSearchIndex = menuSearchIndex;
+        this.menuUpdateStream = menuUpdateStream;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        // New items need their full card, so pages refetch the (snapshot-served) menu
+        changed(entity, MenuDelta.menuChanged());
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        if (entity instanceof Item item) {
+            changed(entity, MenuDelta.itemUpdated(item.getId(),
+                    item.getCategory() != null ? item.getCategory().getId() : null,
+                    item.getIsAvailable(), item.getIsActive(), item.getPrice()));
+        } else {
+            changed(entity, MenuDelta.menuChanged());
+        }
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        if (entity instanceof Item item) {
+            changed(entity, MenuDelta.itemRemoved(item.getId()));
+        } else {
+            changed(entity, MenuDelta.menuChanged());
+        }
+    }
+
+    private void changed(Object entity, MenuDelta delta) {
+        if (entity instanceof Category category && category.getOrganization() != null) {
+            Long organizationId = category.getOrganization().getId();
+            menuSnapshotCache.ifAvailable(cache -> cache.invalidateAfterCommit(organizationId));
+            menuSearchIndex.ifAvailable(index -> index.categoryChangedAfterCommit(organizationId));
+            menuUpdateStream.ifAvailable(stream -> stream.publishAfterCommit(organizationId, delta));
+        } else if (entity instanceof Item item && item.getOrganization() != null) {
+            Long organizationId = item.getOrganization().getId();
+            menuSnapshotCache.ifAvailable(cache -> cache.invalidateAfterCommit(organizationId));
+            menuSearchIndex.ifAvailable(index -> index.itemChangedAfterCommit(organizationId, item.getId()));
+            menuUpdateStream.ifAvailable(stream -> stream.publishAfterCommit(organizationId, delta));
+        }
+    }
+}
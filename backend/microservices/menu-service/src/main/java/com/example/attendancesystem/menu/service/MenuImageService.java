@@ -0,0 +1,359 @@
+package com.example.attendancesystem.menu.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Menu Image Service
+ * Stores uploaded item images under their content hash and renders thumb, medium and large
+ * JPEG variants in the background. Variant names (hash-variant.jpg) never change content, so
+ * they are served as immutable; until a variant exists its original is served instead.
+ */
+@Service
+public class MenuImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImageService.class);
+
+    public enum Variant {
+        THUMB("thumb", 160),
+        MEDIUM("medium", 480),
+        LARGE("large", 1080);
+
+        private final String suffix;
+        private final int maxDimension;
+
+        Variant(String suffix, int maxDimension) {
+            this.suffix = suffix;
+            this.maxDimension = maxDimension;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+    }
+
+    private static final Pattern VARIANT_NAME = Pattern.compile("([0-9a-f]{32})-(thumb|medium|large)\\.jpg");
+    // Accepted upload formats (ImageIO format name) with the extension and type originals are kept under
+    private static final Map<String, String[]> ORIGINAL_FORMATS = Map.of(
+            "jpeg", new String[] {"jpg", "image/jpeg"},
+            "png", new String[] {"png", "image/png"},
+            "gif", new String[] {"gif", "image/gif"},
+            "bmp", new String[] {"bmp", "image/bmp"});
+    // Decoding cost is proportional to pixels; refuse decompression bombs before decoding
+    private static final long MAX_PIXELS = 40_000_000L;
+
+    @Value("${app.images.dir:data/menu-images}")
+    private String imageDir;
+
+    @Value("${app.images.public-path:/menu/api/public/menu/images/}")
+    private String publicPath;
+
+    @Value("${app.images.max-upload-bytes:10485760}")
+    private long maxUploadBytes;
+
+    @Value("${app.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.images.workers:2}")
+    private int workers;
+
+    private Path originalsDir;
+    private Path variantsDir;
+    private ExecutorService renderExecutor;
+    private final Set<String> rendering = ConcurrentHashMap.newKeySet();
+    // Originals that could not be rendered are retried with backoff rather than on every request
+    private final Map<String, RenderFailure> failed = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Path base = Paths.get(imageDir).toAbsolutePath().normalize();
+        originalsDir = Files.createDirectories(base.resolve("originals"));
+        variantsDir = Files.createDirectories(base.resolve("variants"));
+        AtomicInteger threads = new AtomicInteger();
+        renderExecutor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "menu-image-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        logger.info("Menu images stored under {}", base);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Store an uploaded image and queue its variants; returns the public URL of the medium variant
+     */
+    public String store(byte[] content) {
+        if (content == null || content.length == 0) {
+            throw new IllegalArgumentException("Image file is required");
+        }
+        if (content.length > maxUploadBytes) {
+            throw new IllegalArgumentException("Image exceeds the " + (maxUploadBytes / (1024 * 1024)) + " MB upload limit");
+        }
+        String format = probeFormat(content);
+
+        String hash = hash(content);
+        Path original = originalsDir.resolve(hash + "." + ORIGINAL_FORMATS.get(format)[0]);
+        try {
+            if (Files.notExists(original)) {
+                writeAtomically(original, out -> out.write(content));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to store image", e);
+        }
+        logger.info("Stored {} image {} ({} bytes)", format, hash, content.length);
+
+        // A fresh upload of the same content is worth another attempt straight away
+        failed.remove(hash);
+        scheduleVariants(hash);
+        return url(hash, Variant.MEDIUM);
+    }
+
+    public String url(String hash, Variant variant) {
+        return publicPath + hash + "-" + variant.getSuffix() + ".jpg";
+    }
+
+    /**
+     * File to serve for a variant name: the variant once rendered (immutable), else its original
+     */
+    public Optional<ImageFile> resolve(String fileName) {
+        Matcher matcher = VARIANT_NAME.matcher(fileName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        Path variant = variantsDir.resolve(fileName);
+        if (Files.isRegularFile(variant)) {
+            return Optional.of(new ImageFile(variant, "image/jpeg", true));
+        }
+        String hash = matcher.group(1);
+        Optional<ImageFile> original = findOriginal(hash);
+        if (original.isPresent()) {
+            // Variants lost with the disk or interrupted by a restart are rendered again on demand
+            scheduleVariants(hash);
+        }
+        return original;
+    }
+
+    private void scheduleVariants(String hash) {
+        RenderFailure failure = failed.get(hash);
+        if (failure != null && System.currentTimeMillis() < failure.retryAt()) {
+            return;
+        }
+        if (!rendering.add(hash)) {
+            return;
+        }
+        renderExecutor.execute(() -> {
+            try {
+                renderVariants(hash);
+                failed.remove(hash);
+            } catch (Exception e) {
+                RenderFailure next = failed.merge(hash, RenderFailure.first(), (previous, first) -> previous.next());
+                logger.error("Failed to render variants for image {} (attempt {}), retrying in {}s",
+                        hash, next.attempts(), (next.retryAt() - System.currentTimeMillis()) / 1000, e);
+            } finally {
+                rendering.remove(hash);
+            }
+        });
+    }
+
+    private void renderVariants(String hash) throws IOException {
+        BufferedImage source = null;
+        for (Variant variant : Variant.values()) {
+            Path target = variantsDir.resolve(hash + "-" + variant.getSuffix() + ".jpg");
+            if (Files.exists(target)) {
+                continue;
+            }
+            if (source == null) {
+                Path original = findOriginal(hash)
+                        .orElseThrow(() -> new IOException("Original image is missing"))
+                        .path();
+                source = ImageIO.read(original.toFile());
+                if (source == null) {
+                    throw new IOException("Original is not a decodable image");
+                }
+            }
+            BufferedImage resized = resize(source, variant.getMaxDimension());
+            writeAtomically(target, out -> writeJpeg(resized, out));
+            logger.debug("Rendered {} variant of image {} ({}x{})", variant.getSuffix(), hash, resized.getWidth(), resized.getHeight());
+        }
+    }
+
+    /**
+     * Scale to fit maxDimension (never up), halving in steps for quality, onto an opaque RGB canvas
+     */
+    private static BufferedImage resize(BufferedImage source, int maxDimension) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                // JPEG has no alpha; transparent areas become white
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private void writeJpeg(BufferedImage image, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Format name of a decodable upload, checked from the header without decoding pixels
+     */
+    private static String probeFormat(byte[] content) {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(content))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format; upload JPEG, PNG, GIF or BMP");
+            }
+            ImageReader reader = readers.next();
+            try {
+                String format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                if (!ORIGINAL_FORMATS.containsKey(format)) {
+                    throw new IllegalArgumentException("Unsupported image format: " + format);
+                }
+                reader.setInput(input, true, true);
+                if ((long) reader.getWidth(0) * reader.getHeight(0) > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image dimensions are too large");
+                }
+                return format;
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Image could not be read: " + e.getMessage());
+        }
+    }
+
+    private Optional<ImageFile> findOriginal(String hash) {
+        for (String[] extensionAndType : ORIGINAL_FORMATS.values()) {
+            Path original = originalsDir.resolve(hash + "." + extensionAndType[0]);
+            if (Files.isRegularFile(original)) {
+                return Optional.of(new ImageFile(original, extensionAndType[1], false));
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                writer.write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Consecutive render failures of one original and when it may be tried again:
+     * 30 seconds doubling per attempt, capped at an hour
+     */
+    private record RenderFailure(int attempts, long retryAt) {
+
+        static RenderFailure first() {
+            return after(1);
+        }
+
+        RenderFailure next() {
+            return after(attempts + 1);
+        }
+
+        private static RenderFailure after(int attempts) {
+            long delaySeconds = Math.min(3600, 30L << Math.min(attempts - 1, 7));
+            return new RenderFailure(attempts, System.currentTimeMillis() + delaySeconds * 1000);
+        }
+    }
+
+    /**
+     * Image file on disk; immutable files may be cached by clients indefinitely
+     */
+    public record ImageFile(Path path, String contentType, boolean immutable) {
+    }
+}
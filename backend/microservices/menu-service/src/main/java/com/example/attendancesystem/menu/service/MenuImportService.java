@@ -0,0 +1,402 @@
+package com.example.attendancesystem.menu.service;
+
+import com.example.attendancesystem.menu.service.MenuUpdateStream.MenuDelta;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.model.Organization;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Menu Import Service
+ * Bulk menu transfer in NDJSON, one category or item per line (items name their category).
+ * An import is validated as a whole, checked against existing names with one query per
+ * table, and written with JDBC batch inserts in one transaction per organization; menu
+ * caches are invalidated once per import. Export writes the same format, so a template menu
+ * can be cloned to many organizations from a single read.
+ */
+@Service
+public class MenuImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuImportService.class);
+
+    public static final String CATEGORY = "category";
+    public static final String ITEM = "item";
+
+    private static final String INSERT_CATEGORY_SQL =
+            "INSERT INTO categories (name, description, image_url, display_order, is_active, organization_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM_SQL =
+            "INSERT INTO items (name, description, price, image_url, display_order, is_active, is_available, " +
+            "category_id, organization_id, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrganizationResolver organizationResolver;
+    private final EntityCounters entityCounters;
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuUpdateStream menuUpdateStream;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate importTransaction;
+    private final int maxRecords;
+
+    public MenuImportService(JdbcTemplate jdbcTemplate,
+                             OrganizationResolver organizationResolver,
+                             EntityCounters entityCounters,
+                             MenuSnapshotCache menuSnapshotCache,
+                             MenuSearchIndex menuSearchIndex,
+                             MenuUpdateStream menuUpdateStream,
+                             ObjectMapper objectMapper,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.menu-import.max-records:10000}") int maxRecords) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.organizationResolver = organizationResolver;
+        this.entityCounters = entityCounters;
+        this.menuSnapshotCache = menuSnapshotCache;
+        this.menuSearchIndex = menuSearchIndex;
+        this.menuUpdateStream = menuUpdateStream;
+        this.objectMapper = objectMapper;
+        this.importTransaction = new TransactionTemplate(transactionManager);
+        this.maxRecords = maxRecords;
+    }
+
+    /**
+     * Parse an NDJSON menu; every malformed or invalid line is reported, with its line number
+     */
+    public List<MenuRecord> read(InputStream input) throws IOException {
+        List<MenuRecord> records = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (records.size() >= maxRecords) {
+                throw new IllegalArgumentException("Import exceeds " + maxRecords + " records");
+            }
+            try {
+                records.add(parse(objectMapper.readTree(line)));
+            } catch (JsonProcessingException e) {
+                errors.add("Line " + lineNumber + ": malformed JSON");
+            } catch (IllegalArgumentException e) {
+                errors.add("Line " + lineNumber + ": " + e.getMessage());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new MenuImportException(errors);
+        }
+        return records;
+    }
+
+    /**
+     * Import records into one organization in a single transaction. Categories and items whose
+     * names already exist are skipped, not updated.
+     */
+    public ImportResult importMenu(String entityId, List<MenuRecord> records) {
+        long started = System.nanoTime();
+        Organization organization = organizationResolver.findByEntityId(entityId)
+                .orElseThrow(() -> new IllegalArgumentException("Organization not found: " + entityId));
+        validate(records);
+
+        ImportResult result = importTransaction.execute(tx -> insert(organization.getId(), records));
+        logger.info("Imported menu into {}: {} categories and {} items created, {} skipped in {} ms",
+                entityId, result.categoriesCreated(), result.itemsCreated(),
+                result.categoriesSkipped() + result.itemsSkipped(), (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    /**
+     * Copy the source organization's menu into each target; each target is its own transaction,
+     * so one failing target does not undo the others
+     */
+    public Map<String, Object> cloneMenu(String sourceEntityId, List<String> targetEntityIds) {
+        List<MenuRecord> records = exportRecords(sourceEntityId);
+        Map<String, Object> results = new LinkedHashMap<>();
+        for (String targetEntityId : new LinkedHashSet<>(targetEntityIds)) {
+            if (targetEntityId.equals(sourceEntityId)) {
+                results.put(targetEntityId, Map.of("error", "Target is the source organization"));
+                continue;
+            }
+            try {
+                results.put(targetEntityId, importMenu(targetEntityId, records));
+            } catch (Exception e) {
+                logger.warn("Failed to clone menu of {} into {}: {}", sourceEntityId, targetEntityId, e.getMessage());
+                results.put(targetEntityId, Map.of("error", e.getMessage() != null ? e.getMessage() : "Import failed"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Write the organization's whole menu, inactive entries included, as NDJSON
+     */
+    public int export(String entityId, Writer writer) throws IOException {
+        List<MenuRecord> records = exportRecords(entityId);
+        for (MenuRecord record : records) {
+            writer.write(objectMapper.writeValueAsString(record));
+            writer.write('\n');
+        }
+        writer.flush();
+        return records.size();
+    }
+
+    private List<MenuRecord> exportRecords(String entityId) {
+        Organization organization = organizationResolver.findByEntityId(entityId)
+                .orElseThrow(() -> new IllegalArgumentException("Organization not found: " + entityId));
+
+        List<MenuRecord> records = new ArrayList<>();
+        jdbcTemplate.query(
+                "SELECT name, description, image_url, display_order, is_active FROM categories " +
+                "WHERE organization_id = ? ORDER BY display_order, name",
+                rs -> {
+                    records.add(new MenuRecord(CATEGORY, rs.getString("name"), null,
+                            rs.getString("description"), null, rs.getString("image_url"),
+                            (Integer) rs.getObject("display_order"), (Boolean) rs.getObject("is_active"), null));
+                },
+                organization.getId());
+        jdbcTemplate.query(
+                "SELECT i.name, c.name AS category_name, i.description, i.price, i.image_url, i.display_order, " +
+                "i.is_active, i.is_available FROM items i JOIN categories c ON c.id = i.category_id " +
+                "WHERE i.organization_id = ? ORDER BY c.display_order, c.name, i.display_order, i.name",
+                rs -> {
+                    records.add(new MenuRecord(ITEM, rs.getString("name"), rs.getString("category_name"),
+                            rs.getString("description"), rs.getBigDecimal("price"), rs.getString("image_url"),
+                            (Integer) rs.getObject("display_order"), (Boolean) rs.getObject("is_active"),
+                            (Boolean) rs.getObject("is_available")));
+                },
+                organization.getId());
+        return records;
+    }
+
+    private MenuRecord parse(JsonNode node) {
+        String type = text(node, "type");
+        String name = text(node, "name");
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (name.length() > 100) {
+            throw new IllegalArgumentException("name must not exceed 100 characters");
+        }
+        String description = text(node, "description");
+        Integer displayOrder = node.hasNonNull("displayOrder") ? node.get("displayOrder").asInt() : null;
+        Boolean isActive = node.hasNonNull("isActive") ? node.get("isActive").asBoolean() : null;
+
+        if (CATEGORY.equals(type)) {
+            if (description != null && description.length() > 500) {
+                throw new IllegalArgumentException("description must not exceed 500 characters");
+            }
+            return new MenuRecord(CATEGORY, name.trim(), null, description, null, text(node, "imageUrl"),
+                    displayOrder, isActive, null);
+        }
+        if (ITEM.equals(type)) {
+            String category = text(node, "category");
+            if (category == null || category.isBlank()) {
+                throw new IllegalArgumentException("category is required for items");
+            }
+            if (!node.hasNonNull("price") || !node.get("price").isNumber()) {
+                throw new IllegalArgumentException("price is required");
+            }
+            BigDecimal price = node.get("price").decimalValue();
+            if (price.signum() <= 0) {
+                throw new IllegalArgumentException("price must be greater than 0");
+            }
+            if (description != null && description.length() > 1000) {
+                throw new IllegalArgumentException("description must not exceed 1000 characters");
+            }
+            Boolean isAvailable = node.hasNonNull("isAvailable") ? node.get("isAvailable").asBoolean() : null;
+            return new MenuRecord(ITEM, name.trim(), category.trim(), description, price, text(node, "imageUrl"),
+                    displayOrder, isActive, isAvailable);
+        }
+        throw new IllegalArgumentException("type must be '" + CATEGORY + "' or '" + ITEM + "'");
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Names must be unique within the import: categories per organization, items per category
+     */
+    private static void validate(List<MenuRecord> records) {
+        List<String> errors = new ArrayList<>();
+        Set<String> categories = new HashSet<>();
+        Set<String> items = new HashSet<>();
+        for (MenuRecord record : records) {
+            if (CATEGORY.equals(record.type()) && !categories.add(record.name())) {
+                errors.add("Duplicate category in import: " + record.name());
+            } else if (ITEM.equals(record.type()) && !items.add(record.category() + "\u0000" + record.name())) {
+                errors.add("Duplicate item in import: " + record.category() + " / " + record.name());
+            }
+        }
+        if (!errors.isEmpty()) {
+            throw new MenuImportException(errors);
+        }
+    }
+
+    private ImportResult insert(Long organizationId, List<MenuRecord> records) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // One query per table for everything the organization already has
+        Map<String, Long> categoryIds = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM categories WHERE organization_id = ?",
+                rs -> {
+                    categoryIds.put(rs.getString("name"), rs.getLong("id"));
+                },
+                organizationId);
+        Set<String> existingItems = new HashSet<>();
+        jdbcTemplate.query("SELECT category_id, name FROM items WHERE organization_id = ?",
+                rs -> {
+                    existingItems.add(rs.getLong("category_id") + "\u0000" + rs.getString("name"));
+                },
+                organizationId);
+
+        List<MenuRecord> newCategories = new ArrayList<>();
+        List<MenuRecord> itemRecords = new ArrayList<>();
+        for (MenuRecord record : records) {
+            if (ITEM.equals(record.type())) {
+                itemRecords.add(record);
+            } else if (!categoryIds.containsKey(record.name())) {
+                newCategories.add(record);
+            }
+        }
+        int categoriesSkipped = records.size() - itemRecords.size() - newCategories.size();
+
+        if (!newCategories.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CATEGORY_SQL, newCategories, newCategories.size(), (ps, category) -> {
+                ps.setString(1, category.name());
+                ps.setString(2, category.description());
+                ps.setString(3, category.imageUrl());
+                ps.setInt(4, category.displayOrder() != null ? category.displayOrder() : 0);
+                ps.setBoolean(5, category.isActive() == null || category.isActive());
+                ps.setLong(6, organizationId);
+                ps.setTimestamp(7, now);
+                ps.setTimestamp(8, now);
+            });
+            String[] names = newCategories.stream().map(MenuRecord::name).toArray(String[]::new);
+            // (name, organization_id) is unique
+            jdbcTemplate.query("SELECT id, name FROM categories WHERE organization_id = ? AND name = ANY(?)",
+                    ps -> {
+                        ps.setLong(1, organizationId);
+                        ps.setArray(2, ps.getConnection().createArrayOf("varchar", names));
+                    },
+                    rs -> {
+                        categoryIds.put(rs.getString("name"), rs.getLong("id"));
+                    });
+        }
+
+        List<MenuRecord> newItems = new ArrayList<>();
+        List<Long> newItemCategoryIds = new ArrayList<>();
+        List<String> missingCategories = new ArrayList<>();
+        for (MenuRecord item : itemRecords) {
+            Long categoryId = categoryIds.get(item.category());
+            if (categoryId == null) {
+                missingCategories.add(item.category() + " / " + item.name());
+            } else if (!existingItems.contains(categoryId + "\u0000" + item.name())) {
+                newItems.add(item);
+                newItemCategoryIds.add(categoryId);
+            }
+        }
+        if (!missingCategories.isEmpty()) {
+            throw new MenuImportException(missingCategories.stream()
+                    .map(entry -> "Unknown category for item: " + entry)
+                    .toList());
+        }
+        int itemsSkipped = itemRecords.size() - newItems.size();
+
+        if (!newItems.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(newItems.size());
+            for (int i = 0; i < newItems.size(); i++) {
+                MenuRecord item = newItems.get(i);
+                rows.add(new Object[] {
+                        item.name(), item.description(), item.price(), item.imageUrl(),
+                        item.displayOrder() != null ? item.displayOrder() : 0,
+                        item.isActive() == null || item.isActive(),
+                        item.isAvailable() == null || item.isAvailable(),
+                        newItemCategoryIds.get(i), organizationId, now, now });
+            }
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, rows, new int[] {
+                    Types.VARCHAR, Types.VARCHAR, Types.DECIMAL, Types.VARCHAR, Types.INTEGER, Types.BOOLEAN,
+                    Types.BOOLEAN, Types.BIGINT, Types.BIGINT, Types.TIMESTAMP, Types.TIMESTAMP });
+        }
+
+        // Batched inserts bypass the entity listeners: counters and caches are updated once here
+        if (!newCategories.isEmpty() || !newItems.isEmpty()) {
+            entityCounters.addAfterCommit("categories", organizationId, newCategories.size());
+            entityCounters.addAfterCommit("items", organizationId, newItems.size());
+            menuSnapshotCache.invalidateAfterCommit(organizationId);
+            menuSearchIndex.categoryChangedAfterCommit(organizationId);
+            menuUpdateStream.publishAfterCommit(organizationId, MenuDelta.menuChanged());
+        }
+
+        return new ImportResult(newCategories.size(), categoriesSkipped, newItems.size(), itemsSkipped);
+    }
+
+    /**
+     * One NDJSON line: a category, or an item naming its category
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record MenuRecord(String type,
+                             String name,
+                             String category,
+                             String description,
+                             BigDecimal price,
+                             String imageUrl,
+                             Integer displayOrder,
+                             Boolean isActive,
+                             Boolean isAvailable) {
+    }
+
+    public record ImportResult(int categoriesCreated, int categoriesSkipped, int itemsCreated, int itemsSkipped) {
+    }
+
+    /**
+     * Import rejected as a whole, with every problem found
+     */
+    public static class MenuImportException extends IllegalArgumentException {
+
+        private final List<String> errors;
+
+        public MenuImportException(List<String> errors) {
+            super(errors.size() == 1 ? errors.get(0) : errors.size() + " problems in import");
+            this.errors = List.copyOf(errors);
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.example.attendancesystem.menu.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Menu Page Template
+ * static/menu.html compiled once at startup into UTF-8 byte segments and injection slots
+ * for entityId, table and qr. Every static part is also stored as an independently deflated,
+ * byte-aligned block run, so a gzip page is assembled from precompressed parts with only the
+ * escaped slot values written as stored blocks; no file I/O or compression per request.
+ */
+@Component
+public class MenuPageTemplate {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuPageTemplate.class);
+
+    public static final String ENTITY_ID = "entityId";
+    public static final String TABLE = "table";
+    public static final String QR = "qr";
+
+    // Statements in menu.html that read a URL parameter, replaced by a literal when the value is known
+    private static final SlotDefinition[] SLOTS = {
+            new SlotDefinition(ENTITY_ID, "const entityId = urlParams.get('entityId');", "const entityId = '", "';"),
+            new SlotDefinition(TABLE, "const tableNumber = urlParams.get('table');", "const tableNumber = '", "';"),
+            new SlotDefinition(QR, "const qrCode = urlParams.get('qr');", "const qrCode = '", "';")
+    };
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    // Final fixed-Huffman block holding only end-of-block
+    private static final byte[] DEFLATE_END = {0x03, 0x00};
+    private static final int MAX_STORED_BLOCK = 0xffff;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Resource templateResource;
+
+    private List<Part> parts;
+    private boolean gzipVerified;
+
+    public MenuPageTemplate(@Value("${app.menu-page.template:classpath:static/menu.html}") Resource templateResource) {
+        this.templateResource = templateResource;
+    }
+
+    @PostConstruct
+    public void compile() {
+        if (!templateResource.exists()) {
+            logger.warn("Menu page template {} not found; menu pages will use the fallback page", templateResource);
+            return;
+        }
+        String html;
+        try (InputStream input = templateResource.getInputStream()) {
+            html = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.error("Failed to read menu page template {}", templateResource, e);
+            return;
+        }
+
+        List<Part> compiled = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int next = -1;
+            SlotDefinition slot = null;
+            for (SlotDefinition candidate : SLOTS) {
+                int index = html.indexOf(candidate.statement(), position);
+                if (index >= 0 && (next < 0 || index < next)) {
+                    next = index;
+                    slot = candidate;
+                }
+            }
+            if (slot == null) {
+                break;
+            }
+            if (next > position) {
+                compiled.add(Part.text(html.substring(position, next)));
+            }
+            compiled.add(Part.slot(slot));
+            position = next + slot.statement().length();
+        }
+        if (position < html.length()) {
+            compiled.add(Part.text(html.substring(position)));
+        }
+        parts = List.copyOf(compiled);
+
+        gzipVerified = verifyGzip();
+        logger.info("Compiled menu page template: {} parts, {} slots, {} bytes",
+                parts.size(), parts.stream().filter(part -> part.slot != null).count(), html.length());
+    }
+
+    public boolean isAvailable() {
+        return parts != null;
+    }
+
+    public boolean supportsGzip() {
+        return gzipVerified;
+    }
+
+    /**
+     * Page bytes with the given slot values injected; a null value leaves the URL-parameter lookup in place
+     */
+    public byte[] render(String entityId, String table, String qr) {
+        List<byte[]> chunks = new ArrayList<>(parts.size() * 3);
+        for (Part part : parts) {
+            if (part.slot == null) {
+                chunks.add(part.plain);
+                continue;
+            }
+            String value = valueFor(part.slot, entityId, table, qr);
+            if (value == null) {
+                chunks.add(part.plain);
+            } else {
+                chunks.add(part.prefix);
+                chunks.add(escape(value));
+                chunks.add(part.suffix);
+            }
+        }
+        return concat(chunks, 0);
+    }
+
+    /**
+     * Same page as render, as a gzip member assembled from the precompressed parts
+     */
+    public byte[] renderGzip(String entityId, String table, String qr) {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        List<byte[]> chunks = new ArrayList<>(parts.size() * 3 + 3);
+        chunks.add(GZIP_HEADER);
+        for (Part part : parts) {
+            String value = part.slot == null ? null : valueFor(part.slot, entityId, table, qr);
+            if (value == null) {
+                chunks.add(part.deflated);
+                crc.update(part.plain);
+                size += part.plain.length;
+            } else {
+                byte[] escaped = escape(value);
+                chunks.add(part.deflatedPrefix);
+                chunks.add(stored(escaped));
+                chunks.add(part.deflatedSuffix);
+                crc.update(part.prefix);
+                crc.update(escaped);
+                crc.update(part.suffix);
+                size += part.prefix.length + escaped.length + part.suffix.length;
+            }
+        }
+        chunks.add(DEFLATE_END);
+        byte[] page = concat(chunks, 8);
+        writeIntLE(page, page.length - 8, (int) crc.getValue());
+        writeIntLE(page, page.length - 4, (int) size);
+        return page;
+    }
+
+    private static String valueFor(SlotDefinition slot, String entityId, String table, String qr) {
+        return switch (slot.name()) {
+            case ENTITY_ID -> entityId;
+            case TABLE -> table;
+            case QR -> qr;
+            default -> null;
+        };
+    }
+
+    /**
+     * Escape a value for a single-quoted JavaScript string inside an HTML script element:
+     * anything outside [A-Za-z0-9 _.-] becomes a \\uXXXX escape
+     */
+    private static byte[] escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 16);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == ' ' || c == '_' || c == '.' || c == '-') {
+                escaped.append(c);
+            } else {
+                escaped.append("\\u")
+                        .append(HEX[(c >>> 12) & 0xf]).append(HEX[(c >>> 8) & 0xf])
+                        .append(HEX[(c >>> 4) & 0xf]).append(HEX[c & 0xf]);
+            }
+        }
+        return escaped.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Raw deflate of the bytes ending in a sync flush, so the output is byte-aligned, not final,
+     * and references nothing outside itself; such runs can be concatenated into one stream
+     */
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(input);
+            ByteArrayOutputStream output = new ByteArrayOutputStream(input.length / 3 + 16);
+            byte[] buffer = new byte[8192];
+            int written;
+            do {
+                written = deflater.deflate(buffer, 0, buffer.length, Deflater.SYNC_FLUSH);
+                output.write(buffer, 0, written);
+            } while (written == buffer.length);
+            return output.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Bytes as non-final stored deflate blocks
+     */
+    private static byte[] stored(byte[] input) {
+        int blocks = Math.max(1, (input.length + MAX_STORED_BLOCK - 1) / MAX_STORED_BLOCK);
+        byte[] output = new byte[input.length + blocks * 5];
+        int offset = 0;
+        int position = 0;
+        do {
+            int length = Math.min(MAX_STORED_BLOCK, input.length - position);
+            output[offset++] = 0x00;
+            output[offset++] = (byte) length;
+            output[offset++] = (byte) (length >>> 8);
+            output[offset++] = (byte) ~length;
+            output[offset++] = (byte) (~length >>> 8);
+            System.arraycopy(input, position, output, offset, length);
+            offset += length;
+            position += length;
+        } while (position < input.length);
+        return output;
+    }
+
+    private static byte[] concat(List<byte[]> chunks, int extra) {
+        int length = extra;
+        for (byte[] chunk : chunks) {
+            length += chunk.length;
+        }
+        byte[] result = new byte[length];
+        int offset = 0;
+        for (byte[] chunk : chunks) {
+            System.arraycopy(chunk, 0, result, offset, chunk.length);
+            offset += chunk.length;
+        }
+        return result;
+    }
+
+    private static void writeIntLE(byte[] target, int offset, int value) {
+        target[offset] = (byte) value;
+        target[offset + 1] = (byte) (value >>> 8);
+        target[offset + 2] = (byte) (value >>> 16);
+        target[offset + 3] = (byte) (value >>> 24);
+    }
+
+    /**
+     * Check once that the assembled gzip inflates to the plain page; gzip is not offered otherwise
+     */
+    private boolean verifyGzip() {
+        String[] sample = {"MSD12345", "7", "TABLE-7-'</script>"};
+        byte[] plain = render(sample[0], sample[1], sample[2]);
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(renderGzip(sample[0], sample[1], sample[2])))) {
+            if (Arrays.equals(plain, input.readAllBytes())) {
+                return true;
+            }
+            logger.error("Precompressed menu page does not match the plain page; serving it uncompressed");
+        } catch (IOException e) {
+            logger.error("Precompressed menu page is not valid gzip; serving it uncompressed", e);
+        }
+        return false;
+    }
+
+    private record SlotDefinition(String name, String statement, String prefix, String suffix) {
+    }
+
+    /**
+     * Static text, or a slot with its default statement and injected prefix/suffix, in plain and deflated form
+     */
+    private static final class Part {
+        private final SlotDefinition slot;
+        private final byte[] plain;
+        private final byte[] deflated;
+        private final byte[] prefix;
+        private final byte[] deflatedPrefix;
+        private final byte[] suffix;
+        private final byte[] deflatedSuffix;
+
+        private Part(SlotDefinition slot, String text) {
+            this.slot = slot;
+            this.plain = text.getBytes(StandardCharsets.UTF_8);
+            this.deflated = deflate(plain);
+            this.prefix = slot != null ? slot.prefix().getBytes(StandardCharsets.UTF_8) : null;
+            this.deflatedPrefix = prefix != null ? deflate(prefix) : null;
+            this.suffix = slot != null ? slot.suffix().getBytes(StandardCharsets.UTF_8) : null;
+            this.deflatedSuffix = suffix != null ? deflate(suffix) : null;
+        }
+
+        private static Part text(String text) {
+            return new Part(null, text);
+        }
+
+        private static Part slot(SlotDefinition slot) {
+            return new Part(slot, slot.statement());
+        }
+    }
+}
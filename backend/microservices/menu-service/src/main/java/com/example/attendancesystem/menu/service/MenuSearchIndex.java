@@ -0,0 +1,475 @@
+package com.example.attendancesystem.menu.service;
+
+import com.example.attendancesystem.menu.model.Item;
+import com.example.attendancesystem.menu.repository.ItemRepository;
+import com.example.attendancesystem.shared.dto.ItemDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Menu Search Index
+ * Per-organization in-memory inverted index over active item names, descriptions and category
+ * names. Query tokens match index terms exactly, by prefix, or within a small edit distance;
+ * every token must match. Results rank by match quality and field, then available items first
+ * in menu display order. An organization is loaded on its first search and then kept current
+ * from committed item and category changes, so searches do not touch the database.
+ */
+@Component
+public class MenuSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSearchIndex.class);
+
+    private static final Object PENDING_UPDATES_KEY = new Object();
+
+    private static final int NAME = 0;
+    private static final int CATEGORY = 1;
+    private static final int DESCRIPTION = 2;
+    private static final int[] FIELD_WEIGHT = {3, 2, 1};
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int FUZZY = 1;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    private final ItemRepository itemRepository;
+
+    private final ConcurrentHashMap<Long, OrganizationIndex> indexes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Object> buildLocks = new ConcurrentHashMap<>();
+    private final ExecutorService updateExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MenuSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    /**
+     * Matching items in rank order; a query without terms returns every item passing the filter
+     */
+    public List<IndexedItem> search(Long organizationId, String query, SearchFilter filter) {
+        return index(organizationId).search(tokenize(query), filter != null ? filter : SearchFilter.ANY);
+    }
+
+    /**
+     * Re-read one item into its organization's index once the surrounding transaction commits
+     */
+    public void itemChangedAfterCommit(Long organizationId, Long itemId) {
+        if (organizationId != null && itemId != null) {
+            schedule(organizationId, update -> update.itemIds.add(itemId));
+        }
+    }
+
+    /**
+     * Rebuild the organization's index once the surrounding transaction commits; category
+     * names and display order are copied into every item of the category
+     */
+    public void categoryChangedAfterCommit(Long organizationId) {
+        if (organizationId != null) {
+            schedule(organizationId, update -> update.rebuild = true);
+        }
+    }
+
+    public void evict(Long organizationId) {
+        indexes.remove(organizationId);
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        updateExecutor.shutdownNow();
+    }
+
+    private OrganizationIndex index(Long organizationId) {
+        OrganizationIndex index = indexes.get(organizationId);
+        if (index != null) {
+            return index;
+        }
+        synchronized (lockFor(organizationId)) {
+            index = indexes.get(organizationId);
+            if (index == null) {
+                index = load(organizationId);
+                indexes.put(organizationId, index);
+            }
+            return index;
+        }
+    }
+
+    private OrganizationIndex load(Long organizationId) {
+        long started = System.nanoTime();
+        List<IndexedItem> items = itemRepository.findActiveWithCategoryByOrganizationId(organizationId).stream()
+                .map(IndexedItem::of)
+                .toList();
+        OrganizationIndex index = OrganizationIndex.build(items);
+        logger.debug("Indexed {} items ({} terms) for organization {} in {} ms", items.size(), index.terms.length,
+                organizationId, (System.nanoTime() - started) / 1_000_000);
+        return index;
+    }
+
+    private void schedule(Long organizationId, Consumer<PendingUpdate> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingUpdate update = new PendingUpdate();
+            change.accept(update);
+            updateExecutor.execute(() -> apply(organizationId, update));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, PendingUpdate> pending = (Map<Long, PendingUpdate>) TransactionSynchronizationManager.getResource(PENDING_UPDATES_KEY);
+        if (pending == null) {
+            Map<Long, PendingUpdate> updates = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_UPDATES_KEY, updates);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    updates.forEach((organizationId, update) -> updateExecutor.execute(() -> apply(organizationId, update)));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_UPDATES_KEY);
+                }
+            });
+            pending = updates;
+        }
+        change.accept(pending.computeIfAbsent(organizationId, id -> new PendingUpdate()));
+    }
+
+    private void apply(Long organizationId, PendingUpdate update) {
+        try {
+            synchronized (lockFor(organizationId)) {
+                OrganizationIndex current = indexes.get(organizationId);
+                if (current == null) {
+                    // Not searched yet; the first search loads committed state
+                    return;
+                }
+                if (update.rebuild) {
+                    indexes.put(organizationId, load(organizationId));
+                    return;
+                }
+                if (update.itemIds.isEmpty()) {
+                    return;
+                }
+                Map<Long, IndexedItem> items = new HashMap<>(current.itemsById);
+                update.itemIds.forEach(items::remove);
+                for (Item item : itemRepository.findWithCategoryByIdIn(update.itemIds)) {
+                    if (Boolean.TRUE.equals(item.getIsActive())
+                            && Boolean.TRUE.equals(item.getCategory().getIsActive())
+                            && item.getOrganization() != null
+                            && organizationId.equals(item.getOrganization().getId())) {
+                        items.put(item.getId(), IndexedItem.of(item));
+                    }
+                }
+                indexes.put(organizationId, OrganizationIndex.build(items.values()));
+            }
+        } catch (Exception e) {
+            // Drop the index so the next search reloads it rather than serving stale results
+            logger.warn("Failed to update search index for organization {}: {}", organizationId, e.getMessage());
+            indexes.remove(organizationId);
+        }
+    }
+
+    private Object lockFor(Long organizationId) {
+        return buildLocks.computeIfAbsent(organizationId, id -> new Object());
+    }
+
+    /**
+     * Lowercased, accent-stripped letter/digit runs
+     */
+    private static String[] tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return new String[0];
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> !token.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Typos tolerated for a query token of the given length
+     */
+    private static int maxEdits(int length) {
+        return length < 4 ? 0 : length < 8 ? 1 : 2;
+    }
+
+    /**
+     * Levenshtein distance, or limit + 1 once it is certain to exceed the limit
+     */
+    private static int boundedDistance(String a, int aLength, String b, int limit) {
+        int bLength = b.length();
+        if (Math.abs(aLength - bLength) > limit) {
+            return limit + 1;
+        }
+        int[] previous = new int[bLength + 1];
+        int[] current = new int[bLength + 1];
+        for (int j = 0; j <= bLength; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= aLength; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= bLength; j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[bLength];
+    }
+
+    /**
+     * Search filters; null fields do not filter
+     */
+    public record SearchFilter(boolean availableOnly, Set<Long> categoryIds, BigDecimal minPrice, BigDecimal maxPrice) {
+
+        public static final SearchFilter ANY = new SearchFilter(false, null, null, null);
+
+        private boolean accepts(IndexedItem item) {
+            if (availableOnly && !item.available()) {
+                return false;
+            }
+            if (categoryIds != null && !categoryIds.isEmpty() && !categoryIds.contains(item.categoryId())) {
+                return false;
+            }
+            if (minPrice != null && (item.price() == null || item.price().compareTo(minPrice) < 0)) {
+                return false;
+            }
+            return maxPrice == null || (item.price() != null && item.price().compareTo(maxPrice) <= 0);
+        }
+    }
+
+    /**
+     * Indexed copy of an active item and the category fields search needs
+     */
+    public record IndexedItem(Long id,
+                              Long categoryId,
+                              String categoryName,
+                              int categoryDisplayOrder,
+                              String name,
+                              String description,
+                              BigDecimal price,
+                              String imageUrl,
+                              int displayOrder,
+                              boolean available,
+                              LocalDateTime createdAt,
+                              LocalDateTime updatedAt) {
+
+        private static IndexedItem of(Item item) {
+            return new IndexedItem(item.getId(),
+                    item.getCategory().getId(),
+                    item.getCategory().getName(),
+                    item.getCategory().getDisplayOrder() != null ? item.getCategory().getDisplayOrder() : 0,
+                    item.getName(),
+                    item.getDescription(),
+                    item.getPrice(),
+                    item.getImageUrl(),
+                    item.getDisplayOrder() != null ? item.getDisplayOrder() : 0,
+                    Boolean.TRUE.equals(item.getIsAvailable()),
+                    item.getCreatedAt(),
+                    item.getUpdatedAt());
+        }
+
+        public ItemDto toItemDto() {
+            ItemDto dto = new ItemDto();
+            dto.setId(id);
+            dto.setName(name);
+            dto.setDescription(description);
+            dto.setPrice(price);
+            dto.setImageUrl(imageUrl);
+            dto.setDisplayOrder(displayOrder);
+            dto.setIsActive(true);
+            dto.setIsAvailable(available);
+            dto.setCategoryId(categoryId);
+            dto.setCategoryName(categoryName);
+            dto.setCreatedAt(createdAt);
+            dto.setUpdatedAt(updatedAt);
+            return dto;
+        }
+    }
+
+    /**
+     * Immutable index of one organization. Items are held in rank order (available first, then
+     * category and item display order, then name); each posting is itemPosition << 2 | field.
+     */
+    private static final class OrganizationIndex {
+
+        private static final Comparator<IndexedItem> RANK = Comparator
+                .comparing((IndexedItem item) -> !item.available())
+                .thenComparingInt(IndexedItem::categoryDisplayOrder)
+                .thenComparingInt(IndexedItem::displayOrder)
+                .thenComparing(item -> item.name() != null ? item.name() : "", String.CASE_INSENSITIVE_ORDER);
+
+        private final Map<Long, IndexedItem> itemsById;
+        private final IndexedItem[] items;
+        private final String[] terms;
+        private final int[][] postings;
+
+        private OrganizationIndex(Map<Long, IndexedItem> itemsById, IndexedItem[] items, String[] terms, int[][] postings) {
+            this.itemsById = itemsById;
+            this.items = items;
+            this.terms = terms;
+            this.postings = postings;
+        }
+
+        private static OrganizationIndex build(Collection<IndexedItem> source) {
+            IndexedItem[] items = source.toArray(new IndexedItem[0]);
+            Arrays.sort(items, RANK);
+
+            Map<String, Set<Integer>> termPostings = new HashMap<>();
+            for (int position = 0; position < items.length; position++) {
+                addTerms(termPostings, items[position].name(), position, NAME);
+                addTerms(termPostings, items[position].categoryName(), position, CATEGORY);
+                addTerms(termPostings, items[position].description(), position, DESCRIPTION);
+            }
+            String[] terms = termPostings.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[][] postings = new int[terms.length][];
+            for (int i = 0; i < terms.length; i++) {
+                postings[i] = termPostings.get(terms[i]).stream().mapToInt(Integer::intValue).toArray();
+            }
+
+            Map<Long, IndexedItem> itemsById = new HashMap<>(items.length * 2);
+            for (IndexedItem item : items) {
+                itemsById.put(item.id(), item);
+            }
+            return new OrganizationIndex(Map.copyOf(itemsById), items, terms, postings);
+        }
+
+        private static void addTerms(Map<String, Set<Integer>> termPostings, String text, int position, int field) {
+            for (String term : tokenize(text)) {
+                termPostings.computeIfAbsent(term, key -> new HashSet<>()).add(position << 2 | field);
+            }
+        }
+
+        private List<IndexedItem> search(String[] tokens, SearchFilter filter) {
+            int[] scores = new int[items.length];
+            boolean[] excluded = new boolean[items.length];
+            int[] best = new int[items.length];
+
+            for (int k = 0; k < tokens.length; k++) {
+                Arrays.fill(best, 0);
+                matchToken(tokens[k], k == tokens.length - 1, best);
+                for (int position = 0; position < items.length; position++) {
+                    if (best[position] == 0) {
+                        excluded[position] = true;
+                    } else {
+                        scores[position] += best[position];
+                    }
+                }
+            }
+
+            List<Integer> matches = new ArrayList<>();
+            for (int position = 0; position < items.length; position++) {
+                if (!excluded[position] && filter.accepts(items[position])) {
+                    matches.add(position);
+                }
+            }
+            // Positions are already in rank order, so ties keep menu order
+            matches.sort((a, b) -> scores[a] != scores[b] ? Integer.compare(scores[b], scores[a]) : Integer.compare(a, b));
+
+            List<IndexedItem> results = new ArrayList<>(matches.size());
+            for (int position : matches) {
+                results.add(items[position]);
+            }
+            return results;
+        }
+
+        /**
+         * Best score per item for one query token. The last token is also matched as a
+         * possibly misspelled prefix, since the diner may still be typing it.
+         */
+        private void matchToken(String token, boolean last, int[] best) {
+            int edits = maxEdits(token.length());
+            int start = lowerBound(token);
+            int prefixEnd = start;
+            while (prefixEnd < terms.length && terms[prefixEnd].startsWith(token)) {
+                score(prefixEnd, terms[prefixEnd].length() == token.length() ? EXACT : PREFIX, best);
+                prefixEnd++;
+            }
+            if (edits == 0) {
+                return;
+            }
+            for (int i = 0; i < terms.length; i++) {
+                if (i >= start && i < prefixEnd) {
+                    continue;
+                }
+                String term = terms[i];
+                boolean fuzzy = boundedDistance(token, token.length(), term, edits) <= edits;
+                if (!fuzzy && last && term.length() > token.length()) {
+                    fuzzy = boundedDistance(token, token.length(), term.substring(0, token.length()), edits) <= edits;
+                }
+                if (fuzzy) {
+                    score(i, FUZZY, best);
+                }
+            }
+        }
+
+        private void score(int termIndex, int quality, int[] best) {
+            for (int posting : postings[termIndex]) {
+                int position = posting >>> 2;
+                int score = quality * FIELD_WEIGHT[posting & 3];
+                if (score > best[position]) {
+                    best[position] = score;
+                }
+            }
+        }
+
+        private int lowerBound(String token) {
+            int low = 0;
+            int high = terms.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (terms[mid].compareTo(token) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private static final class PendingUpdate {
+        private final Set<Long> itemIds = new HashSet<>();
+        private boolean rebuild;
+    }
+}
@@ -3,7 +3,7 @@ package com.example.attendancesystem.menu.service;
 import com.example.attendancesystem.shared.dto.CategoryDto;
 import com.example.attendancesystem.shared.dto.ItemDto;
 import com.example.attendancesystem.shared.model.Organization;
-import com.example.attendancesystem.shared.repository.OrganizationRepository;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
 import com.example.attendancesystem.menu.model.Category;
 import com.example.attendancesystem.menu.model.Item;
 import com.example.attendancesystem.menu.repository.CategoryRepository;
@@ -31,7 +31,7 @@ public class MenuService {
     private ItemRepository itemRepository;
     
     @Autowired
-    private OrganizationRepository organizationRepository;
+    private OrganizationResolver organizationResolver;
     
     // Category Management
     
@@ -43,7 +43,7 @@ public class MenuService {
     
     public List<CategoryDto> getCategoriesWithItemsByOrganization(String entityId) {
         logger.debug("Getting categories with items for organization: {}", entityId);
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         List<Category> categories = categoryRepository.findCategoriesWithItems(organization);
@@ -53,7 +53,7 @@ public class MenuService {
     public CategoryDto createCategory(String entityId, CategoryDto categoryDto) {
         logger.info("Creating category '{}' for organization: {}", categoryDto.getName(), entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         // Check if category name already exists
@@ -78,7 +78,7 @@ public class MenuService {
     public CategoryDto updateCategory(String entityId, Long categoryId, CategoryDto categoryDto) {
         logger.info("Updating category {} for organization: {}", categoryId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Category category = categoryRepository.findByIdAndOrganization(categoryId, organization)
@@ -105,7 +105,7 @@ public class MenuService {
     public void deleteCategory(String entityId, Long categoryId) {
         logger.info("Deleting category {} for organization: {}", categoryId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Category category = categoryRepository.findByIdAndOrganization(categoryId, organization)
@@ -132,7 +132,7 @@ public class MenuService {
     public List<ItemDto> getItemsByCategory(String entityId, Long categoryId) {
         logger.debug("Getting items for category {} in organization: {}", categoryId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Category category = categoryRepository.findByIdAndOrganization(categoryId, organization)
@@ -145,7 +145,7 @@ public class MenuService {
     public ItemDto createItem(String entityId, ItemDto itemDto) {
         logger.info("Creating item '{}' for organization: {}", itemDto.getName(), entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Category category = categoryRepository.findByIdAndOrganization(itemDto.getCategoryId(), organization)
@@ -176,7 +176,7 @@ public class MenuService {
     public ItemDto updateItem(String entityId, Long itemId, ItemDto itemDto) {
         logger.info("Updating item {} for organization: {}", itemId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Item item = itemRepository.findByIdAndOrganization(itemId, organization)
@@ -209,10 +209,23 @@ public class MenuService {
         return convertToItemDto(savedItem);
     }
     
+    public ItemDto updateItemImage(String entityId, Long itemId, String imageUrl) {
+        logger.info("Updating image of item {} for organization: {}", itemId, entityId);
+        
+        Organization organization = organizationResolver.findByEntityId(entityId)
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
+        
+        Item item = itemRepository.findByIdAndOrganization(itemId, organization)
+                .orElseThrow(() -> new RuntimeException("Item not found"));
+        
+        item.setImageUrl(imageUrl);
+        return convertToItemDto(itemRepository.save(item));
+    }
+    
     public void deleteItem(String entityId, Long itemId) {
         logger.info("Deleting item {} for organization: {}", itemId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Item item = itemRepository.findByIdAndOrganization(itemId, organization)
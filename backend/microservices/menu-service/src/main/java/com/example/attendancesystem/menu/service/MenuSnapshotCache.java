@@ -0,0 +1,302 @@
+package com.example.attendancesystem.menu.service;
+
+import com.example.attendancesystem.grpc.menu.PublicMenuResponse;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
+import com.example.attendancesystem.shared.dto.CategoryDto;
+import com.example.attendancesystem.shared.dto.ItemDto;
+import com.example.attendancesystem.shared.model.Organization;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Menu Snapshot Cache
+ * One ready-to-send public menu per organization: the JSON body and the PublicMenuResponse
+ * protobuf, each with a gzip copy, plus a version and ETag. A snapshot is built on first
+ * read and rebuilt in the background after a category or item change commits, so serving
+ * a menu is a map lookup and a byte copy.
+ */
+@Component
+public class MenuSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshotCache.class);
+
+    private static final Object PENDING_INVALIDATIONS_KEY = new Object();
+
+    private final MenuService menuService;
+    private final OrganizationResolver organizationResolver;
+    private final ObjectMapper objectMapper;
+
+    // Keyed by organization id; entity listeners only see the organization proxy, not its entity ID
+    private final ConcurrentHashMap<Long, MenuSnapshot> snapshots = new ConcurrentHashMap<>();
+    // Bumped on every invalidation; a build that started before the bump is discarded
+    private final ConcurrentHashMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Object> buildLocks = new ConcurrentHashMap<>();
+    private final Set<Long> queuedRebuilds = ConcurrentHashMap.newKeySet();
+    private final List<LongConsumer> invalidationListeners = new CopyOnWriteArrayList<>();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-snapshot-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public MenuSnapshotCache(MenuService menuService, OrganizationResolver organizationResolver, ObjectMapper objectMapper) {
+        this.menuService = menuService;
+        this.organizationResolver = organizationResolver;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Current snapshot for the organization, building it if none is held
+     */
+    public Optional<MenuSnapshot> get(String entityId) {
+        return organizationResolver.findByEntityId(entityId).map(this::get);
+    }
+
+    public Optional<MenuSnapshot> get(Long organizationId) {
+        return organizationResolver.findById(organizationId).map(this::get);
+    }
+
+    /**
+     * Drop the organization's snapshot once the surrounding transaction commits, then rebuild it
+     */
+    public void invalidateAfterCommit(Long organizationId) {
+        if (organizationId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(organizationId);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING_INVALIDATIONS_KEY);
+        if (pending == null) {
+            Set<Long> organizationIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(PENDING_INVALIDATIONS_KEY, organizationIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    organizationIds.forEach(MenuSnapshotCache.this::invalidate);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_INVALIDATIONS_KEY);
+                }
+            });
+            pending = organizationIds;
+        }
+        pending.add(organizationId);
+    }
+
+    public void invalidate(Long organizationId) {
+        generations.computeIfAbsent(organizationId, id -> new AtomicLong()).incrementAndGet();
+        // Removed before listeners run, so a listener reading the menu never gets the stale snapshot
+        MenuSnapshot previous = snapshots.remove(organizationId);
+        for (LongConsumer listener : invalidationListeners) {
+            try {
+                listener.accept(organizationId);
+            } catch (Exception e) {
+                logger.warn("Menu invalidation listener failed for organization {}: {}", organizationId, e.getMessage());
+            }
+        }
+        // Only menus that are being read are worth rebuilding ahead of the next request
+        if (previous != null && queuedRebuilds.add(organizationId)) {
+            rebuildExecutor.execute(() -> {
+                queuedRebuilds.remove(organizationId);
+                try {
+                    get(organizationId);
+                } catch (Exception e) {
+                    logger.warn("Failed to rebuild menu snapshot for organization {}: {}", organizationId, e.getMessage());
+                }
+            });
+        }
+    }
+
+    /**
+     * Version the organization's next snapshot will carry; it moves past every held snapshot on invalidation
+     */
+    public long currentVersion(Long organizationId) {
+        AtomicLong generation = generations.get(organizationId);
+        return (generation != null ? generation.get() : 0) + 1;
+    }
+
+    /**
+     * Called with the organization id after each invalidation, on the invalidating thread
+     */
+    public void addInvalidationListener(LongConsumer listener) {
+        invalidationListeners.add(listener);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private MenuSnapshot get(Organization organization) {
+        MenuSnapshot snapshot = snapshots.get(organization.getId());
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (buildLocks.computeIfAbsent(organization.getId(), id -> new Object())) {
+            snapshot = snapshots.get(organization.getId());
+            if (snapshot != null) {
+                return snapshot;
+            }
+            AtomicLong generation = generations.computeIfAbsent(organization.getId(), id -> new AtomicLong());
+            long startedAt = generation.get();
+            MenuSnapshot built = build(organization, startedAt + 1);
+            if (generation.get() == startedAt) {
+                snapshots.put(organization.getId(), built);
+            }
+            return built;
+        }
+    }
+
+    private MenuSnapshot build(Organization organization, long version) {
+        long started = System.nanoTime();
+        List<CategoryDto> menu = menuService.getCategoriesWithItemsByOrganization(organization.getEntityId());
+        long builtAt = System.currentTimeMillis();
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("entityId", organization.getEntityId());
+        body.put("version", version);
+        body.put("menu", menu);
+        body.put("timestamp", builtAt);
+
+        byte[] json;
+        String etag;
+        try {
+            json = objectMapper.writeValueAsBytes(body);
+            // Hash only the menu so every instance derives the same ETag for the same content
+            etag = "W/\"" + digest(objectMapper.writeValueAsBytes(menu)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize menu for " + organization.getEntityId(), e);
+        }
+
+        PublicMenuResponse response = PublicMenuResponse.newBuilder()
+                .setSuccess(true)
+                .setMessage("Menu retrieved successfully")
+                .setOrganizationName(organization.getName() != null ? organization.getName() : "")
+                .addAllCategories(menu.stream().map(category -> toGrpcCategory(category, organization.getId())).toList())
+                .build();
+        byte[] protobuf = response.toByteArray();
+
+        Map<Long, ItemDto> items = new LinkedHashMap<>();
+        for (CategoryDto category : menu) {
+            if (category.getItems() != null) {
+                category.getItems().forEach(item -> items.put(item.getId(), item));
+            }
+        }
+
+        MenuSnapshot snapshot = new MenuSnapshot(organization.getEntityId(), version, etag, builtAt, menu,
+                Map.copyOf(items), json, gzip(json), response, protobuf, gzip(protobuf));
+        logger.debug("Built menu snapshot v{} for {} ({} categories, {} JSON bytes) in {} ms",
+                version, organization.getEntityId(), menu.size(), json.length, (System.nanoTime() - started) / 1_000_000);
+        return snapshot;
+    }
+
+    private static com.example.attendancesystem.grpc.menu.Category toGrpcCategory(CategoryDto category, Long organizationId) {
+        com.example.attendancesystem.grpc.menu.Category.Builder builder = com.example.attendancesystem.grpc.menu.Category.newBuilder()
+                .setId(category.getId())
+                .setName(category.getName() != null ? category.getName() : "")
+                .setDescription(category.getDescription() != null ? category.getDescription() : "")
+                .setOrganizationId(organizationId)
+                .setActive(category.getIsActive() == null || category.getIsActive())
+                .setSortOrder(category.getDisplayOrder() != null ? category.getDisplayOrder() : 0)
+                .setImageUrl(category.getImageUrl() != null ? category.getImageUrl() : "")
+                .setCreatedAt(category.getCreatedAt() != null ? category.getCreatedAt().toString() : "")
+                .setUpdatedAt(category.getUpdatedAt() != null ? category.getUpdatedAt().toString() : "");
+        if (category.getItems() != null) {
+            for (ItemDto item : category.getItems()) {
+                builder.addItems(toGrpcItem(item, organizationId));
+            }
+        }
+        return builder.build();
+    }
+
+    private static com.example.attendancesystem.grpc.menu.Item toGrpcItem(ItemDto item, Long organizationId) {
+        return com.example.attendancesystem.grpc.menu.Item.newBuilder()
+                .setId(item.getId())
+                .setName(item.getName() != null ? item.getName() : "")
+                .setDescription(item.getDescription() != null ? item.getDescription() : "")
+                .setPrice(item.getPrice() != null ? item.getPrice().doubleValue() : 0.0)
+                .setCategoryId(item.getCategoryId() != null ? item.getCategoryId() : 0)
+                .setOrganizationId(organizationId)
+                .setAvailable(item.getIsAvailable() == null || item.getIsAvailable())
+                .setActive(item.getIsActive() == null || item.getIsActive())
+                .setSortOrder(item.getDisplayOrder() != null ? item.getDisplayOrder() : 0)
+                .setImageUrl(item.getImageUrl() != null ? item.getImageUrl() : "")
+                .setCreatedAt(item.getCreatedAt() != null ? item.getCreatedAt().toString() : "")
+                .setUpdatedAt(item.getUpdatedAt() != null ? item.getUpdatedAt().toString() : "")
+                .build();
+    }
+
+    /**
+     * gzip copy, or null when compression would not make the body smaller
+     */
+    private static byte[] gzip(byte[] raw) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(raw);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to gzip menu snapshot", e);
+        }
+        return buffer.size() < raw.length ? buffer.toByteArray() : null;
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(hash, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Immutable public menu for one organization, with its items by id; byte arrays are shared and must not be modified.
+     * The gzip fields are null when compression does not pay off.
+     */
+    public record MenuSnapshot(String entityId,
+                               long version,
+                               String etag,
+                               long builtAt,
+                               List<CategoryDto> menu,
+                               Map<Long, ItemDto> items,
+                               byte[] json,
+                               byte[] jsonGzip,
+                               PublicMenuResponse response,
+                               byte[] protobuf,
+                               byte[] protobufGzip) {
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.attendancesystem.menu.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Menu Update Stream
+ * Server-sent events for open menu pages: committed item availability and price changes are
+ * serialized once and fanned out to every subscriber of the organization. Each event id is a
+ * resume token (stream epoch + sequence); a client reconnecting with Last-Event-ID gets the
+ * deltas it missed from the retained history, or a reset telling it to refetch the menu.
+ * Every subscriber has a bounded queue drained by a small sender pool, so one slow client
+ * only delays itself; a client whose queue fills is completed and resumes by reconnecting.
+ */
+@Service
+public class MenuUpdateStream {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuUpdateStream.class);
+
+    private static final Object PENDING_DELTAS_KEY = new Object();
+    private static final Event HEARTBEAT = new Event(null, null, null);
+
+    public static final String ITEM_UPDATED = "ITEM_UPDATED";
+    public static final String ITEM_REMOVED = "ITEM_REMOVED";
+    public static final String MENU_CHANGED = "MENU_CHANGED";
+
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeoutMs;
+    private final int historySize;
+    private final int maxSubscribers;
+    private final int subscriberQueueSize;
+
+    // Distinguishes tokens issued before a restart, whose sequence numbers no longer apply
+    private final long epoch = System.currentTimeMillis();
+    private long sequence;
+    private final ConcurrentHashMap<Long, Channel> channels = new ConcurrentHashMap<>();
+    // History updates and enqueueing run here: off the committing thread, and in one order, so
+    // replay and live events cannot interleave. It never writes to a client itself.
+    private final ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "menu-update-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Blocking writes to clients; a subscriber is drained by at most one of these at a time
+    private final ExecutorService senderExecutor;
+
+    public MenuUpdateStream(ObjectMapper objectMapper,
+                            @Value("${app.menu-updates.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                            @Value("${app.menu-updates.history-size:256}") int historySize,
+                            @Value("${app.menu-updates.max-subscribers:2000}") int maxSubscribers,
+                            @Value("${app.menu-updates.subscriber-queue-size:256}") int subscriberQueueSize,
+                            @Value("${app.menu-updates.sender-threads:4}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.historySize = historySize;
+        this.maxSubscribers = maxSubscribers;
+        this.subscriberQueueSize = subscriberQueueSize;
+        AtomicInteger threads = new AtomicInteger();
+        this.senderExecutor = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "menu-update-sender-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Open a stream for an organization, replaying from lastEventId when it is still retained
+     */
+    public SseEmitter subscribe(Long organizationId, String lastEventId) {
+        Channel existing = channels.get(organizationId);
+        if (existing != null && existing.subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many open menu streams for this organization");
+        }
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> unsubscribe(organizationId, emitter));
+        emitter.onTimeout(() -> unsubscribe(organizationId, emitter));
+        emitter.onError(error -> unsubscribe(organizationId, emitter));
+
+        fanOutExecutor.execute(() -> {
+            Channel channel = channels.computeIfAbsent(organizationId, id -> new Channel());
+            Subscriber subscriber = new Subscriber(emitter);
+            List<Event> missed = channel.eventsAfter(lastEventId, epoch);
+            if (missed == null || missed.size() >= subscriberQueueSize) {
+                // "reset": the client's position is unknown or too far behind, so it refetches the menu
+                subscriber.offer(new Event(channel.currentToken(epoch),
+                        lastEventId == null || lastEventId.isEmpty() ? "ready" : "reset", "{}"));
+            } else {
+                missed.forEach(subscriber::offer);
+            }
+            channel.subscribers.add(subscriber);
+        });
+        return emitter;
+    }
+
+    /**
+     * Publish a delta for the item once the surrounding transaction commits; several changes to
+     * one item in a transaction collapse into the last one
+     */
+    public void publishAfterCommit(Long organizationId, MenuDelta delta) {
+        if (organizationId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(organizationId, List.of(delta));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, Map<String, MenuDelta>> pending = (Map<Long, Map<String, MenuDelta>>) TransactionSynchronizationManager.getResource(PENDING_DELTAS_KEY);
+        if (pending == null) {
+            Map<Long, Map<String, MenuDelta>> deltas = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_DELTAS_KEY, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deltas.forEach((id, byItem) -> publish(id, new ArrayList<>(byItem.values())));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_DELTAS_KEY);
+                }
+            });
+            pending = deltas;
+        }
+        Map<String, MenuDelta> byItem = pending.computeIfAbsent(organizationId, id -> new LinkedHashMap<>());
+        if (MENU_CHANGED.equals(delta.type())) {
+            // The client refetches the whole menu, which covers every item delta
+            byItem.clear();
+            byItem.put(MENU_CHANGED, delta);
+        } else if (!byItem.containsKey(MENU_CHANGED)) {
+            byItem.put(String.valueOf(delta.itemId()), delta);
+        }
+    }
+
+    /**
+     * Comment line to every subscriber so proxies keep idle streams open and dead ones are found
+     */
+    @Scheduled(fixedRateString = "${app.menu-updates.heartbeat-ms:15000}")
+    public void heartbeat() {
+        fanOutExecutor.execute(() -> channels.forEach((organizationId, channel) -> {
+            channel.offerAll(HEARTBEAT);
+            if (channel.subscribers.isEmpty() && channel.isIdle()) {
+                channels.remove(organizationId, channel);
+            }
+        }));
+    }
+
+    public int subscriberCount() {
+        return channels.values().stream().mapToInt(channel -> channel.subscribers.size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+        senderExecutor.shutdownNow();
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void unsubscribe(Long organizationId, SseEmitter emitter) {
+        Channel channel = channels.get(organizationId);
+        if (channel != null) {
+            channel.subscribers.removeIf(subscriber -> {
+                if (subscriber.emitter != emitter) {
+                    return false;
+                }
+                subscriber.close();
+                return true;
+            });
+        }
+    }
+
+    private void publish(Long organizationId, List<MenuDelta> deltas) {
+        List<String> payloads = new ArrayList<>(deltas.size());
+        for (MenuDelta delta : deltas) {
+            try {
+                payloads.add(objectMapper.writeValueAsString(delta));
+            } catch (JsonProcessingException e) {
+                logger.warn("Failed to serialize menu delta {}: {}", delta, e.getMessage());
+            }
+        }
+        fanOutExecutor.execute(() -> {
+            Channel channel = channels.computeIfAbsent(organizationId, id -> new Channel());
+            for (int i = 0; i < payloads.size(); i++) {
+                Event event = new Event(epoch + "-" + ++sequence, deltas.get(i).type(), payloads.get(i));
+                channel.retain(event, historySize);
+                channel.offerAll(event);
+            }
+            logger.debug("Published {} menu deltas for organization {} to {} subscribers",
+                    payloads.size(), organizationId, channel.subscribers.size());
+        });
+    }
+
+    private static void send(SseEmitter emitter, Event event) throws IOException {
+        // Builders are single use, so each subscriber gets its own
+        if (event == HEARTBEAT) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+        } else {
+            emitter.send(SseEmitter.event().id(event.token()).name(event.type()).data(event.payload()));
+        }
+    }
+
+    /**
+     * Change sent to menu pages. ITEM_UPDATED carries the item's current availability and
+     * price; ITEM_REMOVED only the id; MENU_CHANGED means refetch the menu.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record MenuDelta(String type, Long itemId, Long categoryId, Boolean available, Boolean active, BigDecimal price) {
+
+        public static MenuDelta itemUpdated(Long itemId, Long categoryId, Boolean available, Boolean active, BigDecimal price) {
+            return new MenuDelta(ITEM_UPDATED, itemId, categoryId, available, active, price);
+        }
+
+        public static MenuDelta itemRemoved(Long itemId) {
+            return new MenuDelta(ITEM_REMOVED, itemId, null, null, null, null);
+        }
+
+        public static MenuDelta menuChanged() {
+            return new MenuDelta(MENU_CHANGED, null, null, null, null, null);
+        }
+    }
+
+    private record Event(String token, String type, String payload) {
+    }
+
+    /**
+     * One open stream: events wait in a bounded queue and are written in order by one sender
+     * task at a time. A full queue means the client is not keeping up; it is dropped rather than
+     * allowed to hold events (or a sender thread) for everyone else.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<Event> queue = new ArrayDeque<>();
+        private boolean draining;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Queue an event without blocking; false once the subscriber is closed or has overflowed
+         */
+        private synchronized boolean offer(Event event) {
+            if (closed) {
+                return false;
+            }
+            if (queue.size() >= subscriberQueueSize) {
+                // The draining sender completes the emitter after its current write returns
+                logger.debug("Dropping menu stream subscriber {} events behind", queue.size());
+                closed = true;
+                queue.clear();
+                return false;
+            }
+            queue.addLast(event);
+            if (!draining) {
+                draining = true;
+                senderExecutor.execute(this::drain);
+            }
+            return true;
+        }
+
+        private synchronized void close() {
+            closed = true;
+            queue.clear();
+        }
+
+        private void drain() {
+            while (true) {
+                Event event;
+                boolean complete;
+                synchronized (this) {
+                    event = queue.pollFirst();
+                    complete = event == null && closed;
+                    if (event == null) {
+                        draining = false;
+                    }
+                }
+                if (event == null) {
+                    if (complete) {
+                        emitter.complete();
+                    }
+                    return;
+                }
+                try {
+                    send(emitter, event);
+                } catch (IOException | IllegalStateException e) {
+                    synchronized (this) {
+                        closed = true;
+                        draining = false;
+                        queue.clear();
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Subscribers and retained events of one organization; only touched from the fan-out thread
+     */
+    private static final class Channel {
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        private final ArrayDeque<Event> history = new ArrayDeque<>();
+        private long lastSequence;
+        // Sequence of the newest event evicted from history; older tokens cannot be resumed
+        private long droppedUpTo;
+
+        private void retain(Event event, int historySize) {
+            history.addLast(event);
+            if (history.size() > historySize) {
+                droppedUpTo = sequenceOf(history.removeFirst().token());
+            }
+            lastSequence = sequenceOf(event.token());
+        }
+
+        private void offerAll(Event event) {
+            for (Subscriber subscriber : subscribers) {
+                if (!subscriber.offer(event)) {
+                    subscribers.remove(subscriber);
+                }
+            }
+        }
+
+        private String currentToken(long epoch) {
+            return epoch + "-" + lastSequence;
+        }
+
+        private boolean isIdle() {
+            return history.isEmpty();
+        }
+
+        /**
+         * Retained events after the token, or null when the token is missing, from an earlier
+         * epoch, or older than the retained history
+         */
+        private List<Event> eventsAfter(String token, long epoch) {
+            if (token == null || token.isEmpty()) {
+                return null;
+            }
+            int separator = token.indexOf('-');
+            if (separator < 0) {
+                return null;
+            }
+            long tokenEpoch;
+            long tokenSequence;
+            try {
+                tokenEpoch = Long.parseLong(token.substring(0, separator));
+                tokenSequence = Long.parseLong(token.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (tokenEpoch != epoch || tokenSequence > lastSequence || tokenSequence < droppedUpTo) {
+                return null;
+            }
+            List<Event> missed = new ArrayList<>();
+            for (Event event : history) {
+                if (sequenceOf(event.token()) > tokenSequence) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+
+        private static long sequenceOf(String token) {
+            return Long.parseLong(token.substring(token.indexOf('-') + 1));
+        }
+    }
+}
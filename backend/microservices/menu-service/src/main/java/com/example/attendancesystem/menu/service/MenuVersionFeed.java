@@ -0,0 +1,119 @@
+package com.example.attendancesystem.menu.service;
+
+import com.example.attendancesystem.grpc.menu.MenuVersionChange;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Menu Version Feed
+ * Pushes an organization's new menu version to WatchMenuVersions subscribers whenever its
+ * snapshot is invalidated, so remote price caches can drop stale entries without polling.
+ * Versions are only comparable within one epoch (one run of this instance).
+ */
+@Service
+public class MenuVersionFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuVersionFeed.class);
+
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final int maxLag;
+
+    private final long epoch = System.currentTimeMillis();
+    private final List<Watcher> watchers = new CopyOnWriteArrayList<>();
+
+    public MenuVersionFeed(MenuSnapshotCache menuSnapshotCache,
+                           @Value("${app.menu-version-feed.max-lag:1000}") int maxLag) {
+        this.menuSnapshotCache = menuSnapshotCache;
+        this.maxLag = maxLag;
+        menuSnapshotCache.addInvalidationListener(this::publish);
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+
+    /**
+     * Attach a watcher; the immediate heartbeat tells it which epoch it is following
+     */
+    public synchronized void watch(ServerCallStreamObserver<MenuVersionChange> observer) {
+        Watcher watcher = new Watcher(observer);
+        observer.setOnCancelHandler(() -> watchers.remove(watcher));
+        send(watcher, heartbeatMessage());
+        watchers.add(watcher);
+    }
+
+    public synchronized void publish(long organizationId) {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        MenuVersionChange change = MenuVersionChange.newBuilder()
+                .setOrganizationId(organizationId)
+                .setMenuVersion(menuSnapshotCache.currentVersion(organizationId))
+                .setEpoch(epoch)
+                .build();
+        for (Watcher watcher : watchers) {
+            send(watcher, change);
+        }
+        logger.debug("Published menu version {} for organization {} to {} watchers",
+                change.getMenuVersion(), organizationId, watchers.size());
+    }
+
+    @Scheduled(fixedRateString = "${app.menu-version-feed.heartbeat-ms:15000}")
+    public synchronized void heartbeat() {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        MenuVersionChange heartbeat = heartbeatMessage();
+        for (Watcher watcher : watchers) {
+            send(watcher, heartbeat);
+        }
+    }
+
+    public int watcherCount() {
+        return watchers.size();
+    }
+
+    private MenuVersionChange heartbeatMessage() {
+        return MenuVersionChange.newBuilder().setEpoch(epoch).build();
+    }
+
+    private void send(Watcher watcher, MenuVersionChange change) {
+        ServerCallStreamObserver<MenuVersionChange> observer = watcher.observer;
+        if (observer.isCancelled()) {
+            watchers.remove(watcher);
+            return;
+        }
+        // A watcher that stops draining is dropped; it clears its cache when it reconnects
+        if (!observer.isReady() && ++watcher.lag > maxLag) {
+            watchers.remove(watcher);
+            observer.onError(Status.ABORTED.withDescription("Watcher fell behind; reconnect").asRuntimeException());
+            return;
+        }
+        if (observer.isReady()) {
+            watcher.lag = 0;
+        }
+        try {
+            observer.onNext(change);
+        } catch (Exception e) {
+            logger.debug("Dropping menu version watcher: {}", e.getMessage());
+            watchers.remove(watcher);
+        }
+    }
+
+    private static final class Watcher {
+        private final ServerCallStreamObserver<MenuVersionChange> observer;
+        private int lag;
+
+        private Watcher(ServerCallStreamObserver<MenuVersionChange> observer) {
+            this.observer = observer;
+        }
+    }
+}
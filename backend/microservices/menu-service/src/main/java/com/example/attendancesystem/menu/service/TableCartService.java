@@ -0,0 +1,432 @@
+package com.example.attendancesystem.menu.service;
+
+import com.example.attendancesystem.menu.client.OrderServiceClient;
+import com.example.attendancesystem.menu.client.TableServiceClient;
+import com.example.attendancesystem.menu.service.MenuSnapshotCache.MenuSnapshot;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
+import com.example.attendancesystem.shared.dto.ItemDto;
+import com.example.attendancesystem.shared.dto.OrderDto;
+import com.example.attendancesystem.shared.dto.OrderItemDto;
+import com.example.attendancesystem.shared.dto.RestaurantTableDto;
+import com.example.attendancesystem.shared.model.Organization;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Table Cart Service
+ * One in-memory cart per table that every diner at the table adds to. Items are checked and
+ * priced against the menu snapshot, so browsing costs no database writes or service calls;
+ * the table is resolved once when its cart opens, and the cart is submitted as a single
+ * order under an idempotency key, so a retry after a timed-out submit cannot order twice.
+ * Carts expire after a period without use.
+ */
+@Service
+public class TableCartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableCartService.class);
+
+    // Failures after which the order may or may not have been created
+    private static final Set<Status.Code> UNCERTAIN_OUTCOMES = Set.of(
+            Status.Code.DEADLINE_EXCEEDED, Status.Code.UNAVAILABLE, Status.Code.CANCELLED, Status.Code.UNKNOWN);
+
+    private final TableServiceClient tableServiceClient;
+    private final OrderServiceClient orderServiceClient;
+    private final OrganizationResolver organizationResolver;
+    private final MenuSnapshotCache menuSnapshotCache;
+    private final long idleTimeoutMs;
+    private final int maxLines;
+    private final int maxQuantity;
+
+    private final ConcurrentHashMap<Long, TableCart> carts = new ConcurrentHashMap<>();
+
+    public TableCartService(TableServiceClient tableServiceClient,
+                            OrderServiceClient orderServiceClient,
+                            OrganizationResolver organizationResolver,
+                            MenuSnapshotCache menuSnapshotCache,
+                            @Value("${app.table-cart.idle-timeout-ms:7200000}") long idleTimeoutMs,
+                            @Value("${app.table-cart.max-lines:100}") int maxLines,
+                            @Value("${app.table-cart.max-quantity:50}") int maxQuantity) {
+        this.tableServiceClient = tableServiceClient;
+        this.orderServiceClient = orderServiceClient;
+        this.organizationResolver = organizationResolver;
+        this.menuSnapshotCache = menuSnapshotCache;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxLines = maxLines;
+        this.maxQuantity = maxQuantity;
+    }
+
+    public CartView getCart(Long tableId) {
+        return withCart(tableId, (cart, snapshot) -> cart.view(snapshot));
+    }
+
+    /**
+     * Add an item; the same item with the same instructions is merged into one line
+     */
+    public CartView addItem(Long tableId, Long itemId, int quantity, String specialInstructions) {
+        if (itemId == null) {
+            throw new IllegalArgumentException("Item ID is required");
+        }
+        checkQuantity(quantity, 1);
+        String instructions = normalize(specialInstructions);
+
+        return withCart(tableId, (cart, snapshot) -> {
+            ItemDto item = orderable(snapshot, itemId);
+            cart.checkModifiable();
+            CartLine line = cart.lines.values().stream()
+                    .filter(existing -> existing.itemId.equals(itemId) && Objects.equals(existing.specialInstructions, instructions))
+                    .findFirst()
+                    .orElse(null);
+            if (line == null) {
+                if (cart.lines.size() >= maxLines) {
+                    throw new IllegalArgumentException("Cart cannot hold more than " + maxLines + " lines");
+                }
+                line = new CartLine(++cart.lastLineId, itemId, item.getName(), instructions);
+                cart.lines.put(line.lineId, line);
+            }
+            checkQuantity(line.quantity + quantity, 1);
+            line.quantity += quantity;
+            cart.touch();
+            return cart.view(snapshot);
+        });
+    }
+
+    /**
+     * Set a line's quantity; zero removes the line
+     */
+    public CartView updateLine(Long tableId, Long lineId, int quantity) {
+        checkQuantity(quantity, 0);
+        return withCart(tableId, (cart, snapshot) -> {
+            cart.checkModifiable();
+            CartLine line = cart.lines.get(lineId);
+            if (line == null) {
+                throw new IllegalArgumentException("Cart line not found: " + lineId);
+            }
+            if (quantity == 0) {
+                cart.lines.remove(lineId);
+            } else {
+                line.quantity = quantity;
+            }
+            cart.touch();
+            return cart.view(snapshot);
+        });
+    }
+
+    public CartView removeLine(Long tableId, Long lineId) {
+        return updateLine(tableId, lineId, 0);
+    }
+
+    public CartView clear(Long tableId) {
+        return withCart(tableId, (cart, snapshot) -> {
+            cart.checkModifiable();
+            cart.lines.clear();
+            cart.touch();
+            return cart.view(snapshot);
+        });
+    }
+
+    /**
+     * Submit the cart as one order. When expectedVersion is given and another diner has changed
+     * the cart since, nothing is submitted. Lines are repriced against the current menu first.
+     * If a submit ends without knowing whether the order was created (e.g. a timeout), the cart
+     * stays locked with its idempotency key; the next submit reuses the key, so order-service
+     * returns the order already created instead of creating a second one.
+     */
+    public OrderDto submit(Long tableId, Long expectedVersion, String customerName, String customerPhone, String notes) {
+        List<OrderItemDto> orderItems = new ArrayList<>();
+        TableCart cart = withCart(tableId, (locked, snapshot) -> {
+            if (locked.submitting) {
+                throw new IllegalStateException("This table's order is being submitted");
+            }
+            if (locked.pendingKey != null) {
+                // Reconcile the unconfirmed attempt: same lines, same key
+                orderItems.addAll(locked.pendingItems);
+                locked.submitting = true;
+                return locked;
+            }
+            if (expectedVersion != null && expectedVersion != locked.version) {
+                throw new IllegalStateException("Cart has changed; review it before ordering");
+            }
+            if (locked.lines.isEmpty()) {
+                throw new IllegalArgumentException("Cart is empty");
+            }
+            List<String> unavailable = new ArrayList<>();
+            for (CartLine line : locked.lines.values()) {
+                ItemDto item = snapshot.items().get(line.itemId);
+                if (!isOrderable(item)) {
+                    unavailable.add(line.name);
+                    continue;
+                }
+                OrderItemDto orderItem = new OrderItemDto(line.itemId, line.quantity, item.getPrice());
+                orderItem.setItemName(item.getName());
+                orderItem.setSpecialInstructions(line.specialInstructions);
+                orderItems.add(orderItem);
+            }
+            if (!unavailable.isEmpty()) {
+                throw new IllegalArgumentException("No longer available: " + String.join(", ", unavailable));
+            }
+            // Diners cannot change the cart while its order is in flight or unconfirmed
+            locked.submitting = true;
+            locked.pendingKey = UUID.randomUUID().toString();
+            locked.pendingItems = List.copyOf(orderItems);
+            return locked;
+        });
+
+        String idempotencyKey;
+        synchronized (cart) {
+            idempotencyKey = cart.pendingKey;
+        }
+        boolean uncertain = false;
+        try {
+            OrderDto order = orderServiceClient.createOrder(tableId, cart.organizationId, customerName, customerPhone,
+                    orderItems, notes, 0.0, idempotencyKey);
+            synchronized (cart) {
+                cart.lines.clear();
+                cart.touch();
+            }
+            logger.info("Submitted cart of table {} as order {} ({} lines)", tableId, order.getOrderNumber(), orderItems.size());
+            return order;
+        } catch (RuntimeException e) {
+            uncertain = isUncertain(e);
+            if (uncertain) {
+                logger.warn("Order for table {} may not have been created ({}); kept for retry under key {}",
+                        tableId, e.getMessage(), idempotencyKey);
+            }
+            throw e;
+        } finally {
+            synchronized (cart) {
+                cart.submitting = false;
+                if (!uncertain) {
+                    cart.pendingKey = null;
+                    cart.pendingItems = List.of();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop carts that have not been used within the idle timeout. The check and the eviction
+     * mark happen under the cart's lock, so a request that looked the cart up just before is
+     * sent to a fresh cart rather than changing one no longer in the map.
+     */
+    @Scheduled(fixedDelayString = "${app.table-cart.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        int before = carts.size();
+        carts.values().removeIf(cart -> {
+            synchronized (cart) {
+                if (cart.submitting || cart.lastAccessedAt >= cutoff) {
+                    return false;
+                }
+                cart.evicted = true;
+                return true;
+            }
+        });
+        if (carts.size() < before) {
+            logger.debug("Evicted {} idle table carts", before - carts.size());
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * Run an action on the table's cart under its lock, retrying on a fresh cart when the one
+     * looked up was evicted meanwhile
+     */
+    private <T> T withCart(Long tableId, BiFunction<TableCart, MenuSnapshot, T> action) {
+        while (true) {
+            TableCart cart = cart(tableId);
+            MenuSnapshot snapshot = snapshot(cart);
+            synchronized (cart) {
+                if (!cart.evicted) {
+                    cart.lastAccessedAt = System.currentTimeMillis();
+                    return action.apply(cart, snapshot);
+                }
+            }
+        }
+    }
+
+    private static boolean isUncertain(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StatusRuntimeException status) {
+                return UNCERTAIN_OUTCOMES.contains(status.getStatus().getCode());
+            }
+        }
+        return false;
+    }
+
+    private TableCart cart(Long tableId) {
+        if (tableId == null) {
+            throw new IllegalArgumentException("Table ID is required");
+        }
+        TableCart cart = carts.get(tableId);
+        if (cart != null) {
+            return cart;
+        }
+        // Resolved outside the map so a slow table lookup does not block other tables
+        RestaurantTableDto table = tableServiceClient.getTableById(tableId);
+        if (Boolean.FALSE.equals(table.getIsActive())) {
+            throw new IllegalArgumentException("Table is not active");
+        }
+        Organization organization = organizationResolver.findByEntityId(table.getOrganizationEntityId())
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
+        TableCart created = new TableCart(tableId, table.getTableNumber(), organization.getId(), organization.getEntityId());
+        TableCart existing = carts.putIfAbsent(tableId, created);
+        return existing != null ? existing : created;
+    }
+
+    private MenuSnapshot snapshot(TableCart cart) {
+        return menuSnapshotCache.get(cart.organizationId)
+                .orElseThrow(() -> new RuntimeException("Organization not found"));
+    }
+
+    private static ItemDto orderable(MenuSnapshot snapshot, Long itemId) {
+        ItemDto item = snapshot.items().get(itemId);
+        if (item == null) {
+            throw new IllegalArgumentException("Item not found: " + itemId);
+        }
+        if (!isOrderable(item)) {
+            throw new IllegalArgumentException("Item is not available: " + item.getName());
+        }
+        return item;
+    }
+
+    private static boolean isOrderable(ItemDto item) {
+        return item != null && !Boolean.FALSE.equals(item.getIsActive()) && !Boolean.FALSE.equals(item.getIsAvailable());
+    }
+
+    private void checkQuantity(int quantity, int min) {
+        if (quantity < min || quantity > maxQuantity) {
+            throw new IllegalArgumentException("Quantity must be between " + min + " and " + maxQuantity);
+        }
+    }
+
+    private static String normalize(String specialInstructions) {
+        if (specialInstructions == null || specialInstructions.isBlank()) {
+            return null;
+        }
+        String trimmed = specialInstructions.trim();
+        if (trimmed.length() > 500) {
+            throw new IllegalArgumentException("Special instructions must not exceed 500 characters");
+        }
+        return trimmed;
+    }
+
+    /**
+     * Cart state of one table; guarded by the cart's monitor
+     */
+    private static final class TableCart {
+        private final Long tableId;
+        private final Integer tableNumber;
+        private final Long organizationId;
+        private final String entityId;
+        private final Map<Long, CartLine> lines = new LinkedHashMap<>();
+        private long lastLineId;
+        private long version;
+        private long updatedAt = System.currentTimeMillis();
+        private long lastAccessedAt = updatedAt;
+        private boolean submitting;
+        private boolean evicted;
+        // Key and lines of a submit whose outcome is not yet known; reused by the next submit
+        private String pendingKey;
+        private List<OrderItemDto> pendingItems = List.of();
+
+        private TableCart(Long tableId, Integer tableNumber, Long organizationId, String entityId) {
+            this.tableId = tableId;
+            this.tableNumber = tableNumber;
+            this.organizationId = organizationId;
+            this.entityId = entityId;
+        }
+
+        private void checkModifiable() {
+            if (submitting) {
+                throw new IllegalStateException("This table's order is being submitted");
+            }
+            if (pendingKey != null) {
+                throw new IllegalStateException("This table's last order was not confirmed; submit again to complete it");
+            }
+        }
+
+        private void touch() {
+            version++;
+            updatedAt = System.currentTimeMillis();
+        }
+
+        /**
+         * Lines priced at the snapshot's current prices; lines whose item went away are flagged, not dropped
+         */
+        private CartView view(MenuSnapshot snapshot) {
+            List<CartLineView> views = new ArrayList<>(lines.size());
+            BigDecimal total = BigDecimal.ZERO;
+            int itemCount = 0;
+            for (CartLine line : lines.values()) {
+                ItemDto item = snapshot.items().get(line.itemId);
+                boolean available = isOrderable(item);
+                BigDecimal unitPrice = item != null && item.getPrice() != null ? item.getPrice() : BigDecimal.ZERO;
+                BigDecimal subtotal = unitPrice.multiply(BigDecimal.valueOf(line.quantity));
+                if (available) {
+                    total = total.add(subtotal);
+                    itemCount += line.quantity;
+                }
+                views.add(new CartLineView(line.lineId, line.itemId, item != null ? item.getName() : line.name,
+                        unitPrice, line.quantity, subtotal, line.specialInstructions, available));
+            }
+            return new CartView(tableId, tableNumber, entityId, version, views, itemCount, total, updatedAt);
+        }
+    }
+
+    private static final class CartLine {
+        private final long lineId;
+        private final Long itemId;
+        private final String name;
+        private final String specialInstructions;
+        private int quantity;
+
+        private CartLine(long lineId, Long itemId, String name, String specialInstructions) {
+            this.lineId = lineId;
+            this.itemId = itemId;
+            this.name = name;
+            this.specialInstructions = specialInstructions;
+        }
+    }
+
+    /**
+     * Cart as shown to diners; version changes with every modification
+     */
+    public record CartView(Long tableId,
+                           Integer tableNumber,
+                           String entityId,
+                           long version,
+                           List<CartLineView> lines,
+                           int itemCount,
+                           BigDecimal total,
+                           long updatedAt) {
+    }
+
+    public record CartLineView(long lineId,
+                               Long itemId,
+                               String name,
+                               BigDecimal unitPrice,
+                               int quantity,
+                               BigDecimal subtotal,
+                               String specialInstructions,
+                               boolean available) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.example.attendancesystem.order.client;
+
+import com.example.attendancesystem.grpc.menu.GetItemsByIdsRequest;
+import com.example.attendancesystem.grpc.menu.GetItemsByIdsResponse;
+import com.example.attendancesystem.grpc.menu.Item;
+import com.example.attendancesystem.grpc.menu.MenuServiceGrpc;
+import com.example.attendancesystem.grpc.menu.MenuVersionChange;
+import com.example.attendancesystem.grpc.menu.WatchMenuVersionsRequest;
+import io.grpc.Channel;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Menu Price Cache
+ * Local copy of menu item prices and availability used to price orders. Items are fetched
+ * with one GetItemsByIds call per order and kept per organization under the menu version
+ * they were read at; the WatchMenuVersions stream announces every newer version, which drops
+ * the organization's entries. An order whose items are all cached needs no call at all.
+ * While the stream is down nothing cached is trusted, and every order costs one call.
+ */
+public class MenuPriceCache implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuPriceCache.class);
+
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    /**
+     * Menu state of one item; orderable is false for items that are unavailable, inactive or not on the menu
+     */
+    public record MenuItemPrice(Long id, String name, BigDecimal price, boolean orderable) {
+    }
+
+    private final MenuServiceGrpc.MenuServiceBlockingStub blockingStub;
+    private final MenuServiceGrpc.MenuServiceStub stub;
+    private final long deadlineMillis;
+    private final long staleAfterMillis;
+    private final ScheduledExecutorService reconnectScheduler;
+
+    private final ConcurrentHashMap<Long, OrganizationPrices> organizations = new ConcurrentHashMap<>();
+    // Epoch of the menu-service run being watched; versions from another epoch are not comparable
+    private volatile long epoch;
+    private volatile boolean streaming;
+    private volatile long lastMessageAt;
+    private volatile boolean closed;
+    private volatile ClientCallStreamObserver<WatchMenuVersionsRequest> call;
+
+    // Only touched from the stream's callback thread
+    private int failures;
+
+    /**
+     * @param deadlineMillis   deadline of each GetItemsByIds call
+     * @param staleAfterMillis how long without any message (changes or heartbeats) before
+     *                         cached prices stop being trusted
+     */
+    public MenuPriceCache(Channel channel, long deadlineMillis, long staleAfterMillis) {
+        this.blockingStub = MenuServiceGrpc.newBlockingStub(channel);
+        this.stub = MenuServiceGrpc.newStub(channel);
+        this.deadlineMillis = deadlineMillis;
+        this.staleAfterMillis = staleAfterMillis;
+        this.reconnectScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "menu-price-cache");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        connect();
+    }
+
+    /**
+     * True when the version stream is live, so cached entries are known to be current
+     */
+    public boolean isReady() {
+        return epoch != 0 && streaming && System.currentTimeMillis() - lastMessageAt < staleAfterMillis;
+    }
+
+    /**
+     * Current menu state of the items, keyed by item id. Served from the cache when every item
+     * is cached; otherwise all of them are read in one call, so the result is from one version.
+     */
+    public Map<Long, MenuItemPrice> getItems(Long organizationId, Collection<Long> itemIds) {
+        Set<Long> ids = new LinkedHashSet<>(itemIds);
+        if (ids.contains(null)) {
+            throw new IllegalArgumentException("Item ID is required");
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        if (isReady()) {
+            OrganizationPrices cached = organizations.get(organizationId);
+            if (cached != null && cached.items.keySet().containsAll(ids)) {
+                Map<Long, MenuItemPrice> hits = new HashMap<>();
+                for (Long id : ids) {
+                    hits.put(id, cached.items.get(id));
+                }
+                return hits;
+            }
+        }
+
+        GetItemsByIdsResponse response = fetch(organizationId, ids);
+        OrganizationPrices known = organizations.get(organizationId);
+        if (known != null && response.getEpoch() == epoch && response.getMenuVersion() < known.version) {
+            // Read before a change this cache has already been told about; read once more
+            response = fetch(organizationId, ids);
+        }
+
+        Map<Long, MenuItemPrice> items = new HashMap<>();
+        for (Item item : response.getItemsList()) {
+            items.put(item.getId(), new MenuItemPrice(item.getId(), item.getName(),
+                    BigDecimal.valueOf(item.getPrice()), item.getActive() && item.getAvailable()));
+        }
+        for (Long missing : response.getMissingItemIdsList()) {
+            items.put(missing, new MenuItemPrice(missing, null, null, false));
+        }
+        store(organizationId, response, items);
+        return items;
+    }
+
+    public int size() {
+        return organizations.values().stream().mapToInt(prices -> prices.items.size()).sum();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        streaming = false;
+        ClientCallStreamObserver<WatchMenuVersionsRequest> current = call;
+        if (current != null) {
+            current.cancel("Price cache closed", null);
+        }
+        reconnectScheduler.shutdownNow();
+    }
+
+    private GetItemsByIdsResponse fetch(Long organizationId, Set<Long> ids) {
+        GetItemsByIdsResponse response = blockingStub.withDeadlineAfter(deadlineMillis, TimeUnit.MILLISECONDS)
+                .getItemsByIds(GetItemsByIdsRequest.newBuilder()
+                        .setOrganizationId(organizationId)
+                        .addAllItemIds(ids)
+                        .build());
+        if (!response.getSuccess()) {
+            throw new IllegalArgumentException("Failed to load menu items: " + response.getMessage());
+        }
+        return response;
+    }
+
+    private void store(Long organizationId, GetItemsByIdsResponse response, Map<Long, MenuItemPrice> items) {
+        if (!isReady() || response.getEpoch() != epoch) {
+            return;
+        }
+        long version = response.getMenuVersion();
+        organizations.compute(organizationId, (id, current) -> {
+            if (current == null || current.version < version) {
+                OrganizationPrices prices = new OrganizationPrices(version);
+                prices.items.putAll(items);
+                return prices;
+            }
+            if (current.version == version) {
+                current.items.putAll(items);
+            }
+            return current;
+        });
+    }
+
+    private void connect() {
+        if (closed) {
+            return;
+        }
+        stub.watchMenuVersions(WatchMenuVersionsRequest.getDefaultInstance(),
+                new ClientResponseObserver<WatchMenuVersionsRequest, MenuVersionChange>() {
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<WatchMenuVersionsRequest> requestStream) {
+                        call = requestStream;
+                    }
+
+                    @Override
+                    public void onNext(MenuVersionChange change) {
+                        failures = 0;
+                        lastMessageAt = System.currentTimeMillis();
+                        apply(change);
+                        streaming = true;
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        disconnected(t.getMessage());
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        disconnected("stream completed");
+                    }
+                });
+    }
+
+    private void apply(MenuVersionChange change) {
+        if (change.getEpoch() != epoch) {
+            // A different menu-service run; its versions restart, so nothing cached carries over
+            organizations.clear();
+            epoch = change.getEpoch();
+            logger.info("Menu price cache following menu epoch {}", epoch);
+        }
+        if (change.getOrganizationId() == 0) {
+            return;
+        }
+        long version = change.getMenuVersion();
+        organizations.compute(change.getOrganizationId(), (id, current) ->
+                current == null || current.version < version ? new OrganizationPrices(version) : current);
+    }
+
+    private void disconnected(String reason) {
+        streaming = false;
+        call = null;
+        // Changes made while disconnected are never announced, so drop everything
+        organizations.clear();
+        if (closed) {
+            return;
+        }
+        // Full jitter: uniform in [0, min(max, initial * 2^failures)]
+        long ceiling = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(failures, 16));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        failures++;
+        logger.warn("Menu version watch disconnected ({}); reconnecting in {} ms", reason, delay);
+        try {
+            reconnectScheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.debug("Menu price cache reconnect not scheduled: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cached items of one organization, all read at the same menu version
+     */
+    private static final class OrganizationPrices {
+        private final long version;
+        private final Map<Long, MenuItemPrice> items = new ConcurrentHashMap<>();
+
+        private OrganizationPrices(long version) {
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.attendancesystem.order.config;
+
+import com.example.attendancesystem.order.client.MenuPriceCache;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Menu item prices for order pricing, kept current by menu-service's WatchMenuVersions stream
+ */
+@Configuration
+public class MenuPriceCacheConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public MenuPriceCache menuPriceCache(GrpcChannelFactory channelFactory,
+                                         @Value("${app.menu-prices.deadline-ms:2000}") long deadlineMs,
+                                         @Value("${app.menu-prices.stale-after-ms:45000}") long staleAfterMs) {
+        return new MenuPriceCache(channelFactory.createChannel("menu-service"), deadlineMs, staleAfterMs);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.attendancesystem.order.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Order Schema Initializer
+ * Adds the idempotency key column and its per-organization unique index to orders.
+ * Hibernate does not manage the schema, so these are applied at startup with IF NOT EXISTS.
+ */
+@Component
+public class OrderSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSchemaInitializer.class);
+
+    static final List<String> STATEMENTS = List.of(
+            "ALTER TABLE orders ADD COLUMN IF NOT EXISTS idempotency_key VARCHAR(64)",
+            // NULL keys (orders created without one) never conflict
+            "CREATE UNIQUE INDEX IF NOT EXISTS idx_orders_org_idempotency_key ON orders (organization_id, idempotency_key)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        STATEMENTS.forEach(jdbcTemplate::execute);
+        logger.info("Order schema objects verified ({} statements)", STATEMENTS.size());
+    }
+}
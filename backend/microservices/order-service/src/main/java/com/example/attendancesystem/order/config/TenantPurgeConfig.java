@@ -0,0 +1,32 @@
+package com.example.attendancesystem.order.config;
+
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.purge.PurgeStep;
+import com.example.attendancesystem.shared.purge.TenantPurgeRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+/**
+ * Tenant purge steps for this service's tables, children before parents
+ */
+@Configuration
+public class TenantPurgeConfig {
+
+    @Bean
+    public TenantPurgeRunner tenantPurgeRunner(JdbcTemplate jdbcTemplate,
+                                               PlatformTransactionManager transactionManager,
+                                               EntityCounters entityCounters,
+                                               @Value("${app.tenant-purge.chunk-size:1000}") int chunkSize,
+                                               @Value("${app.tenant-purge.rows-per-second:5000}") int rowsPerSecond,
+                                               @Value("${app.tenant-purge.max-attempts:20}") int maxAttempts) {
+        return new TenantPurgeRunner("order-service", jdbcTemplate, transactionManager, List.of(
+                new PurgeStep("order_items", "order_items", "id", "order_id IN (SELECT id FROM orders WHERE organization_id = ?)"),
+                PurgeStep.byOrganization("orders")),
+                chunkSize, rowsPerSecond, maxAttempts, organizationId -> entityCounters.reconcile());
+    }
+}
@@ -1,36 +1,81 @@
-package com.example.attendancesystem.organization.grpc;
+package com.example.attendancesystem.order.grpc;
 
 import com.example.attendancesystem.grpc.order.*;
+import com.example.attendancesystem.order.service.OrderService;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
+import com.example.attendancesystem.shared.dto.OrderDto;
+import com.example.attendancesystem.shared.dto.OrderItemDto;
+import com.example.attendancesystem.shared.model.Organization;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Order Service Implementation for gRPC
- * Currently provides placeholder implementations for all order management operations
- * This service will be fully implemented when order management functionality is added to the system
+ * Creates orders through OrderService; the remaining operations are placeholders
+ * until order management is exposed over gRPC
  */
 @GrpcService
 public class OrderServiceImpl extends OrderServiceGrpc.OrderServiceImplBase {
 
     private static final Logger logger = LoggerFactory.getLogger(OrderServiceImpl.class);
 
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrganizationResolver organizationResolver;
+
     @Override
     public void createOrder(CreateOrderRequest request, StreamObserver<OrderResponse> responseObserver) {
         logger.info("Order service - createOrder called for table: {}", request.getTableId());
         
         try {
-            // TODO: Implement order creation when order models are added
-            OrderResponse response = OrderResponse.newBuilder()
+            Optional<Organization> organization = organizationResolver.findById(request.getOrganizationId());
+            if (organization.isEmpty()) {
+                responseObserver.onNext(OrderResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage("Organization not found")
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
+
+            OrderDto orderDto = new OrderDto();
+            orderDto.setCustomerName(emptyToNull(request.getCustomerName()));
+            orderDto.setCustomerPhone(emptyToNull(request.getCustomerPhone()));
+            orderDto.setNotes(emptyToNull(request.getSpecialInstructions()));
+            List<OrderItemDto> items = new ArrayList<>(request.getOrderItemsCount());
+            for (CreateOrderItemRequest item : request.getOrderItemsList()) {
+                OrderItemDto itemDto = new OrderItemDto(item.getItemId(), item.getQuantity(), null);
+                itemDto.setSpecialInstructions(emptyToNull(item.getSpecialInstructions()));
+                items.add(itemDto);
+            }
+            orderDto.setOrderItems(items);
+
+            OrderDto created = orderService.createOrder(organization.get().getEntityId(),
+                    request.getTableId() > 0 ? request.getTableId() : null, orderDto,
+                    emptyToNull(request.getIdempotencyKey()));
+            responseObserver.onNext(OrderResponse.newBuilder()
+                    .setSuccess(true)
+                    .setMessage("Order created successfully")
+                    .setOrder(toGrpcOrder(created, request.getTableId(), request.getOrganizationId()))
+                    .build());
+            responseObserver.onCompleted();
+
+        } catch (IllegalArgumentException e) {
+            responseObserver.onNext(OrderResponse.newBuilder()
                     .setSuccess(false)
-                    .setMessage("Order service not implemented yet - order creation pending")
-                    .build();
-            
-            responseObserver.onNext(response);
+                    .setMessage(e.getMessage())
+                    .build());
             responseObserver.onCompleted();
-            
         } catch (Exception e) {
             logger.error("Error in createOrder", e);
             responseObserver.onError(Status.INTERNAL
@@ -276,4 +321,47 @@ public class OrderServiceImpl extends OrderServiceGrpc.OrderServiceImplBase {
                     .asRuntimeException());
         }
     }
+
+    private static Order toGrpcOrder(OrderDto order, long tableId, long organizationId) {
+        Order.Builder builder = Order.newBuilder()
+                .setId(order.getId())
+                .setOrderNumber(order.getOrderNumber())
+                .setTableId(tableId)
+                .setOrganizationId(organizationId)
+                .setCustomerName(order.getCustomerName() != null ? order.getCustomerName() : "")
+                .setCustomerPhone(order.getCustomerPhone() != null ? order.getCustomerPhone() : "")
+                .setStatus(order.getStatus().name())
+                .setTotalAmount(order.getTotalAmount() != null ? order.getTotalAmount().doubleValue() : 0.0)
+                .setSpecialInstructions(order.getNotes() != null ? order.getNotes() : "")
+                .setCreatedAt(order.getCreatedAt() != null ? order.getCreatedAt().toString() : "")
+                .setUpdatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt().toString() : "");
+        if (order.getTableNumber() != null) {
+            builder.setTable(RestaurantTable.newBuilder()
+                    .setId(tableId)
+                    .setTableNumber(String.valueOf(order.getTableNumber()))
+                    .build());
+        }
+        if (order.getOrderItems() != null) {
+            for (OrderItemDto item : order.getOrderItems()) {
+                builder.addOrderItems(OrderItem.newBuilder()
+                        .setId(item.getId() != null ? item.getId() : 0L)
+                        .setOrderId(order.getId())
+                        .setItemId(item.getItemId())
+                        .setQuantity(item.getQuantity())
+                        .setUnitPrice(item.getPrice() != null ? item.getPrice().doubleValue() : 0.0)
+                        .setTotalPrice(item.getSubtotal() != null ? item.getSubtotal().doubleValue() : 0.0)
+                        .setSpecialInstructions(item.getSpecialInstructions() != null ? item.getSpecialInstructions() : "")
+                        .setItem(Item.newBuilder()
+                                .setId(item.getItemId())
+                                .setName(item.getItemName() != null ? item.getItemName() : "")
+                                .build())
+                        .build());
+            }
+        }
+        return builder.build();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
 }
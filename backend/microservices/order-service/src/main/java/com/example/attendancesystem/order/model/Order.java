@@ -1,6 +1,7 @@
 package com.example.attendancesystem.order.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import com.example.attendancesystem.shared.model.Organization;
@@ -9,10 +10,12 @@ import com.example.attendancesystem.shared.model.OrderStatus;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 @Entity
 @Table(name = "orders")
+@EntityListeners(EntityCountListener.class)
 public class Order {
     
     @Id
@@ -61,6 +64,10 @@ public class Order {
     
     @Column(name = "completed_at")
     private LocalDateTime completedAt;
+
+    // Client-chosen key of the submission that created this order; unique per organization
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
     
     // Constructors
     public Order() {}
@@ -102,6 +109,17 @@ public class Order {
         calculateTotalAmount();
     }
     
+    /**
+     * Add several items with a single total recalculation
+     */
+    public void addOrderItems(Collection<OrderItem> items) {
+        for (OrderItem orderItem : items) {
+            orderItems.add(orderItem);
+            orderItem.setOrder(this);
+        }
+        calculateTotalAmount();
+    }
+    
     public void removeOrderItem(OrderItem orderItem) {
         orderItems.remove(orderItem);
         orderItem.setOrder(null);
@@ -202,6 +220,14 @@ public class Order {
     public void setNotes(String notes) {
         this.notes = notes;
     }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
     
     public LocalDateTime getCreatedAt() {
         return createdAt;
@@ -40,6 +40,11 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      */
     Optional<Order> findByOrderNumber(String orderNumber);
     
+    /**
+     * Find the order an earlier attempt of the same submission created
+     */
+    Optional<Order> findByOrganizationAndIdempotencyKey(Organization organization, String idempotencyKey);
+
     /**
      * Find order by order number and organization
      */
@@ -2,21 +2,29 @@ package com.example.attendancesystem.order.service;
 
 import com.example.attendancesystem.shared.dto.OrderDto;
 import com.example.attendancesystem.shared.dto.OrderItemDto;
+import com.example.attendancesystem.order.client.MenuPriceCache;
+import com.example.attendancesystem.order.client.MenuPriceCache.MenuItemPrice;
 import com.example.attendancesystem.order.model.Order;
 import com.example.attendancesystem.order.model.OrderItem;
 import com.example.attendancesystem.order.repository.OrderRepository;
 import com.example.attendancesystem.shared.model.Organization;
-import com.example.attendancesystem.shared.repository.OrganizationRepository;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
 import com.example.attendancesystem.shared.model.OrderStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,11 +37,15 @@ public class OrderService {
     private OrderRepository orderRepository;
 
     @Autowired
-    private OrganizationRepository organizationRepository;
+    private OrganizationResolver organizationResolver;
 
-    // TODO: Replace with gRPC clients for menu-service and table-service
-    // @Autowired
-    // private MenuServiceClient menuServiceClient;
+    @Autowired
+    private MenuPriceCache menuPriceCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // TODO: Replace with gRPC client for table-service
     // @Autowired
     // private TableServiceClient tableServiceClient;
     
@@ -45,7 +57,7 @@ public class OrderService {
     
     public List<OrderDto> getPendingOrdersByOrganization(String entityId) {
         logger.debug("Getting pending orders for organization: {}", entityId);
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         List<Order> orders = orderRepository.findPendingOrdersByOrganization(organization);
@@ -54,7 +66,7 @@ public class OrderService {
     
     public List<OrderDto> getTodaysOrdersByOrganization(String entityId) {
         logger.debug("Getting today's orders for organization: {}", entityId);
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         List<Order> orders = orderRepository.findTodaysOrdersByOrganization(organization);
@@ -63,7 +75,7 @@ public class OrderService {
     
     public OrderDto getOrderById(String entityId, Long orderId) {
         logger.debug("Getting order {} for organization: {}", orderId, entityId);
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Order order = orderRepository.findByIdAndOrganization(orderId, organization)
@@ -72,53 +84,92 @@ public class OrderService {
         return convertToOrderDto(order);
     }
     
+    /**
+     * Self-invocation skips the proxy, so each entry point that prices items declares
+     * NOT_SUPPORTED itself rather than relying on the overload it delegates to
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderDto createOrder(String entityId, OrderDto orderDto) {
+        return createOrder(entityId, null, orderDto, null);
+    }
+
+    /**
+     * Create an order for a table. When an idempotency key is given and an order was already
+     * created with it, that order is returned instead, so a retry after a timeout cannot order
+     * twice; the unique index on (organization_id, idempotency_key) rejects a concurrent repeat.
+     * Items are priced before the transaction starts, so no connection is held across the menu call.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public OrderDto createOrder(String entityId, Long tableId, OrderDto orderDto, String idempotencyKey) {
         String requestId = java.util.UUID.randomUUID().toString().substring(0, 8);
         logger.info("🚀 [{}] Creating order for table {} in organization: {}", requestId, orderDto.getTableNumber(), entityId);
 
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        String key = idempotencyKey != null && !idempotencyKey.isBlank() ? idempotencyKey : null;
+        if (key != null && key.length() > 64) {
+            throw new IllegalArgumentException("Idempotency key must not exceed 64 characters");
+        }
+        List<OrderItemDto> itemDtos = orderDto.getOrderItems() != null ? orderDto.getOrderItems() : List.of();
+        itemDtos.forEach(this::validateItem);
+
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
 
+        if (key != null) {
+            Optional<OrderDto> existing = findByIdempotencyKey(organization, key);
+            if (existing.isPresent()) {
+                logger.info("[{}] Order {} already created for idempotency key {}", requestId, existing.get().getOrderNumber(), key);
+                return existing.get();
+            }
+        }
+
+        // Add order items, priced from the menu and totalled once for the whole batch
+        List<OrderItem> orderItems = new ArrayList<>(itemDtos.size());
+        if (!itemDtos.isEmpty()) {
+            Map<Long, MenuItemPrice> menuItems = menuPriceCache.getItems(organization.getId(),
+                    itemDtos.stream().map(OrderItemDto::getItemId).toList());
+            for (OrderItemDto itemDto : itemDtos) {
+                orderItems.add(toOrderItem(itemDto, orderable(menuItems, itemDto.getItemId())));
+            }
+        }
+
         // TODO: Validate table via gRPC call to table-service
         // For now, we'll just store the table number without validation
-        
+
         Order order = new Order();
         order.setOrganization(organization);
+        order.setTableId(tableId);
+        order.setIdempotencyKey(key);
         order.setTableNumber(orderDto.getTableNumber());
         order.setCustomerName(orderDto.getCustomerName());
         order.setCustomerPhone(orderDto.getCustomerPhone());
         order.setNotes(orderDto.getNotes());
         order.setStatus(OrderStatus.PENDING);
-        order.setTableNumber(orderDto.getTableNumber());
-        
-        // Add order items
-        if (orderDto.getOrderItems() != null && !orderDto.getOrderItems().isEmpty()) {
-            for (OrderItemDto itemDto : orderDto.getOrderItems()) {
-                // TODO: Validate item via gRPC call to menu-service
-                // For now, we'll create order items without validation
-
-                OrderItem orderItem = new OrderItem();
-                orderItem.setItemId(itemDto.getItemId());
-                orderItem.setItemName(itemDto.getItemName());
-                orderItem.setQuantity(itemDto.getQuantity());
-                orderItem.setPrice(itemDto.getPrice()); // Use provided price
-                orderItem.setSpecialInstructions(itemDto.getSpecialInstructions());
-
-                order.addOrderItem(orderItem);
+        if (!orderItems.isEmpty()) {
+            order.addOrderItems(orderItems);
+        }
+
+        OrderDto saved;
+        try {
+            saved = transactionTemplate.execute(status -> convertToOrderDto(orderRepository.save(order)));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request with the same key committed first
+            Optional<OrderDto> existing = key != null ? findByIdempotencyKey(organization, key) : Optional.empty();
+            if (existing.isEmpty()) {
+                throw e;
             }
+            logger.info("[{}] Order {} created concurrently for idempotency key {}", requestId, existing.get().getOrderNumber(), key);
+            return existing.get();
         }
-        
-        order.calculateTotalAmount();
-        Order savedOrder = orderRepository.save(order);
 
-        logger.info("✅ [{}] Order {} created with total amount: {}", requestId, savedOrder.getOrderNumber(), savedOrder.getTotalAmount());
-        return convertToOrderDto(savedOrder);
+        logger.info("✅ [{}] Order {} created with total amount: {}", requestId, saved.getOrderNumber(), saved.getTotalAmount());
+        return saved;
     }
 
     /**
      * Create order by QR code for public access
      * TODO: Implement via gRPC call to table-service
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderDto createOrderByQrCode(String qrCode, OrderDto orderDto) {
         String requestId = java.util.UUID.randomUUID().toString().substring(0, 8);
         logger.info("🚀 [{}] Creating order by QR code: {}", requestId, qrCode);
@@ -142,7 +193,7 @@ public class OrderService {
     public OrderDto updateOrderStatus(String entityId, Long orderId, OrderStatus newStatus) {
         logger.info("Updating order {} status to {} for organization: {}", orderId, newStatus, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Order order = orderRepository.findByIdAndOrganization(orderId, organization)
@@ -164,42 +215,40 @@ public class OrderService {
         return convertToOrderDto(savedOrder);
     }
     
+    /**
+     * Add an item to a pending order; the item is priced before the transaction starts
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public OrderDto addItemToOrder(String entityId, Long orderId, OrderItemDto itemDto) {
         logger.info("Adding item {} to order {} for organization: {}", itemDto.getItemId(), orderId, entityId);
-        
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        validateItem(itemDto);
+
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
-        
-        Order order = orderRepository.findByIdAndOrganization(orderId, organization)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-        
-        if (order.getStatus() != OrderStatus.PENDING) {
-            throw new RuntimeException("Cannot modify order that is not in PENDING status");
-        }
-        
-        // TODO: Validate item via gRPC call to menu-service
-        // For now, we'll create order items without validation
 
-        OrderItem orderItem = new OrderItem();
-        orderItem.setItemId(itemDto.getItemId());
-        orderItem.setItemName(itemDto.getItemName());
-        orderItem.setQuantity(itemDto.getQuantity());
-        orderItem.setPrice(itemDto.getPrice());
-        orderItem.setSpecialInstructions(itemDto.getSpecialInstructions());
-        
-        order.addOrderItem(orderItem);
-        order.calculateTotalAmount();
-        
-        Order savedOrder = orderRepository.save(order);
-        logger.info("Item added to order {}, new total: {}", savedOrder.getOrderNumber(), savedOrder.getTotalAmount());
-        
-        return convertToOrderDto(savedOrder);
+        OrderItem orderItem = toOrderItem(itemDto, orderable(
+                menuPriceCache.getItems(organization.getId(), List.of(itemDto.getItemId())), itemDto.getItemId()));
+
+        OrderDto saved = transactionTemplate.execute(status -> {
+            Order order = orderRepository.findByIdAndOrganization(orderId, organization)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+
+            if (order.getStatus() != OrderStatus.PENDING) {
+                throw new RuntimeException("Cannot modify order that is not in PENDING status");
+            }
+
+            order.addOrderItem(orderItem);
+            return convertToOrderDto(orderRepository.save(order));
+        });
+        logger.info("Item added to order {}, new total: {}", saved.getOrderNumber(), saved.getTotalAmount());
+
+        return saved;
     }
     
     public void cancelOrder(String entityId, Long orderId) {
         logger.info("Cancelling order {} for organization: {}", orderId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         Order order = orderRepository.findByIdAndOrganization(orderId, organization)
@@ -215,6 +264,44 @@ public class OrderService {
         logger.info("Order {} cancelled", order.getOrderNumber());
     }
     
+    /**
+     * Order already created under the key, converted inside a transaction since its items load lazily
+     */
+    private Optional<OrderDto> findByIdempotencyKey(Organization organization, String key) {
+        return transactionTemplate.execute(status -> orderRepository.findByOrganizationAndIdempotencyKey(organization, key)
+                .map(this::convertToOrderDto));
+    }
+
+    private void validateItem(OrderItemDto itemDto) {
+        if (itemDto == null || itemDto.getItemId() == null) {
+            throw new IllegalArgumentException("Item ID is required");
+        }
+        if (itemDto.getQuantity() == null || itemDto.getQuantity() <= 0) {
+            throw new IllegalArgumentException("Quantity must be positive for item " + itemDto.getItemId());
+        }
+    }
+
+    private OrderItem toOrderItem(OrderItemDto itemDto, MenuItemPrice menuItem) {
+        OrderItem orderItem = new OrderItem();
+        orderItem.setItemId(itemDto.getItemId());
+        orderItem.setItemName(menuItem.name());
+        orderItem.setQuantity(itemDto.getQuantity());
+        orderItem.setPrice(menuItem.price());
+        orderItem.setSpecialInstructions(itemDto.getSpecialInstructions());
+        return orderItem;
+    }
+
+    /**
+     * Menu state of an ordered item; client-sent names and prices are never used
+     */
+    private MenuItemPrice orderable(Map<Long, MenuItemPrice> menuItems, Long itemId) {
+        MenuItemPrice menuItem = menuItems.get(itemId);
+        if (menuItem == null || !menuItem.orderable()) {
+            throw new RuntimeException("Item " + itemId + " is not available");
+        }
+        return menuItem;
+    }
+    
     private boolean isValidStatusTransition(OrderStatus currentStatus, OrderStatus newStatus) {
         switch (currentStatus) {
             case PENDING:
@@ -274,7 +361,7 @@ public class OrderService {
     public OrderDto updateOrder(String entityId, Long orderId, OrderDto orderDto) {
         logger.info("Updating order {} for organization: {}", orderId, entityId);
 
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
 
         Order order = orderRepository.findByIdAndOrganization(orderId, organization)
@@ -298,7 +385,7 @@ public class OrderService {
     public void deleteOrder(String entityId, Long orderId) {
         logger.info("Deleting order {} for organization: {}", orderId, entityId);
 
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
 
         Order order = orderRepository.findByIdAndOrganization(orderId, organization)
@@ -315,7 +402,7 @@ public class OrderService {
     public OrderDto removeOrderItem(String entityId, Long orderId, Long itemId) {
         logger.info("Removing item {} from order {} for organization: {}", itemId, orderId, entityId);
 
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
 
         Order order = orderRepository.findByIdAndOrganization(orderId, organization)
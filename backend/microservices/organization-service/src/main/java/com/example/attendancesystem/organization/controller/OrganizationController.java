@@ -3,6 +3,7 @@ package com.example.attendancesystem.organization.controller;
 import com.example.attendancesystem.organization.model.Organization;
 import com.example.attendancesystem.organization.repository.OrganizationRepository;
 import com.example.attendancesystem.organization.service.EntityIdService;
+import com.example.attendancesystem.organization.service.OrganizationPermissionMatrix;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +30,9 @@ public class OrganizationController {
     @Autowired
     private EntityIdService entityIdService;
 
+    @Autowired
+    private OrganizationPermissionMatrix permissionMatrix;
+
     /**
      * Get all organizations
      */
@@ -98,6 +102,7 @@ public class OrganizationController {
             }
 
             Organization savedOrganization = organizationRepository.save(organization);
+            permissionMatrix.refreshAfterCommit(savedOrganization.getEntityId());
             logger.info("Created organization: {} with entity ID: {}", 
                     savedOrganization.getName(), savedOrganization.getEntityId());
             
@@ -132,6 +137,7 @@ public class OrganizationController {
             organization.setEmail(organizationDetails.getEmail());
 
             Organization updatedOrganization = organizationRepository.save(organization);
+            permissionMatrix.refreshAfterCommit(updatedOrganization.getEntityId());
             logger.info("Updated organization: {}", updatedOrganization.getName());
             
             return ResponseEntity.ok(updatedOrganization);
@@ -158,6 +164,7 @@ public class OrganizationController {
             // Soft delete
             organization.setIsActive(false);
             organizationRepository.save(organization);
+            permissionMatrix.refreshAfterCommit(organization.getEntityId());
             
             logger.info("Soft deleted organization: {}", organization.getName());
             return ResponseEntity.ok("Organization deleted successfully");
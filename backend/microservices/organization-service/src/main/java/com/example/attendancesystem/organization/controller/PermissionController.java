@@ -257,20 +257,11 @@ public class PermissionController {
     @GetMapping("/organizations/summary")
     public ResponseEntity<?> getOrganizationsPermissionSummary() {
         try {
-            List<Organization> organizations = organizationRepository.findAll();
-            
-            List<Map<String, Object>> summary = organizations.stream()
-                    .map(org -> {
-                        Map<String, Object> orgSummary = permissionService.getPermissionSummary(org.getEntityId());
-                        orgSummary.put("organizationName", org.getName());
-                        orgSummary.put("organizationId", org.getId());
-                        return orgSummary;
-                    })
-                    .collect(Collectors.toList());
+            List<Map<String, Object>> summary = permissionService.getAllPermissionSummaries();
             
             return ResponseEntity.ok(Map.of(
                     "organizations", summary,
-                    "totalOrganizations", organizations.size(),
+                    "totalOrganizations", summary.size(),
                     "timestamp", LocalDateTime.now()
             ));
             
@@ -6,6 +6,9 @@ import com.example.attendancesystem.organization.model.Organization;
 import com.example.attendancesystem.organization.repository.OrganizationRepository;
 import com.example.attendancesystem.organization.repository.OrganizationPermissionRepository;
 import com.example.attendancesystem.organization.service.EntityIdService;
+import com.example.attendancesystem.organization.service.OrganizationPermissionMatrix;
+import com.example.attendancesystem.organization.service.SystemMetricsAggregator;
+import com.example.attendancesystem.organization.service.TenantPurgeService;
 // Removed UserResponse import for microservices independence
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -49,6 +52,15 @@ public class SuperAdminController {
     @Autowired
     private EntityIdService entityIdService;
 
+    @Autowired
+    private OrganizationPermissionMatrix permissionMatrix;
+
+    @Autowired
+    private SystemMetricsAggregator metricsAggregator;
+
+    @Autowired
+    private TenantPurgeService tenantPurgeService;
+
     /**
      * Create new organization
      * POST /organization/super/organizations
@@ -85,6 +97,7 @@ public class SuperAdminController {
             organization.setEntityId(entityId);
 
             Organization savedOrganization = organizationRepository.save(organization);
+            permissionMatrix.refreshAfterCommit(savedOrganization.getEntityId());
 
             logger.info("Organization created successfully: {} with Entity ID: {}",
                        savedOrganization.getName(), savedOrganization.getEntityId());
@@ -239,32 +252,28 @@ public class SuperAdminController {
     }
 
     /**
-     * Get system metrics (organization-related metrics)
-     * TODO: Aggregate metrics from other services via gRPC
+     * Get system metrics across all services
+     * Served from the background-refreshed SystemMetricsAggregator snapshot
      */
     @GetMapping("/system-metrics")
     public ResponseEntity<?> getSystemMetrics() {
         try {
-            // Organization-specific metrics
-            long totalOrganizations = organizationRepository.count();
-            long activeOrganizations = organizationRepository.findByIsActiveTrue().size();
-            long totalPermissions = organizationPermissionRepository.count();
-
-            // TODO: Get metrics from other services via gRPC
-            // long totalUsers = subscriberServiceClient.getTotalSubscribers();
-            // long totalSessions = attendanceServiceClient.getTotalSessions();
-            // long totalOrders = orderServiceClient.getTotalOrders();
+            SystemMetricsAggregator.Snapshot snapshot = metricsAggregator.getSnapshot();
 
             Map<String, Object> metrics = new HashMap<>();
-            metrics.put("totalOrganizations", totalOrganizations);
-            metrics.put("activeOrganizations", activeOrganizations);
-            metrics.put("totalPermissions", totalPermissions);
-            
-            // Placeholder values until gRPC clients are implemented
-            metrics.put("totalUsers", 0);
-            metrics.put("totalSessions", 0);
-            metrics.put("totalOrders", 0);
+            metrics.put("totalOrganizations", snapshot.total("organizations"));
+            metrics.put("activeOrganizations", snapshot.total("activeOrganizations"));
+            metrics.put("totalPermissions", snapshot.total("organizationPermissions"));
+            metrics.put("totalUsers", snapshot.total("members"));
+            metrics.put("totalEntityAdmins", snapshot.total("entityAdmins"));
+            metrics.put("totalSessions", snapshot.total("attendanceSessions"));
+            metrics.put("totalCategories", snapshot.total("categories"));
+            metrics.put("totalItems", snapshot.total("items"));
+            metrics.put("totalOrders", snapshot.total("orders"));
+            metrics.put("totalTables", snapshot.total("tables"));
             metrics.put("systemLoad", getSystemLoad());
+            metrics.put("services", serviceStatus(snapshot));
+            metrics.put("generatedAt", snapshot.generatedAt());
 
             return ResponseEntity.ok(metrics);
         } catch (Exception e) {
@@ -314,7 +323,7 @@ public class SuperAdminController {
 
     /**
      * Get organization-specific data count
-     * TODO: Implement cross-service data counting via gRPC
+     * Served from the background-refreshed SystemMetricsAggregator snapshot
      */
     @GetMapping("/organization/{entityId}/data-count")
     public ResponseEntity<?> getOrganizationDataCount(@PathVariable String entityId) {
@@ -325,30 +334,20 @@ public class SuperAdminController {
             }
 
             Organization organization = organizationOpt.get();
-            
-            // Organization-specific data
-            long organizationPermissionsCount = organizationPermissionRepository.countByOrganization(organization);
-
-            // TODO: Get data counts from other services via gRPC
-            // long subscribersCount = subscriberServiceClient.countByOrganization(organization.getId());
-            // long entityAdminsCount = authServiceClient.countEntityAdminsByOrganization(organization.getId());
-            // long attendanceSessionsCount = attendanceServiceClient.countByOrganization(organization.getId());
-            // long categoriesCount = menuServiceClient.countCategoriesByOrganization(organization.getId());
-            // long itemsCount = menuServiceClient.countItemsByOrganization(organization.getId());
-            // long ordersCount = orderServiceClient.countByOrganization(organization.getId());
-            // long tablesCount = tableServiceClient.countByOrganization(organization.getId());
+            SystemMetricsAggregator.Snapshot snapshot = metricsAggregator.getSnapshot();
+            Long organizationId = organization.getId();
 
             Map<String, Object> dataCount = new HashMap<>();
-            dataCount.put("organizationPermissions", organizationPermissionsCount);
-            
-            // Placeholder values until gRPC clients are implemented
-            dataCount.put("subscribers", 0);
-            dataCount.put("entityAdmins", 0);
-            dataCount.put("attendanceSessions", 0);
-            dataCount.put("categories", 0);
-            dataCount.put("items", 0);
-            dataCount.put("orders", 0);
-            dataCount.put("tables", 0);
+            dataCount.put("organizationPermissions", snapshot.count(organizationId, "organizationPermissions"));
+            dataCount.put("subscribers", snapshot.count(organizationId, "members"));
+            dataCount.put("entityAdmins", snapshot.count(organizationId, "entityAdmins"));
+            dataCount.put("attendanceSessions", snapshot.count(organizationId, "attendanceSessions"));
+            dataCount.put("categories", snapshot.count(organizationId, "categories"));
+            dataCount.put("items", snapshot.count(organizationId, "items"));
+            dataCount.put("orders", snapshot.count(organizationId, "orders"));
+            dataCount.put("tables", snapshot.count(organizationId, "tables"));
+            dataCount.put("services", serviceStatus(snapshot));
+            dataCount.put("generatedAt", snapshot.generatedAt());
 
             return ResponseEntity.ok(dataCount);
         } catch (Exception e) {
@@ -360,7 +359,8 @@ public class SuperAdminController {
 
     /**
      * Cleanup organization data
-     * TODO: Implement cross-service cleanup via gRPC
+     * Organization permissions are removed inline; data owned by other services is purged by
+     * background jobs, one per service, whose progress is reported by GET on the same path
      */
     @DeleteMapping("/organization/{entityId}/cleanup")
     public ResponseEntity<?> cleanupOrganizationData(@PathVariable String entityId) {
@@ -379,22 +379,18 @@ public class SuperAdminController {
 
             // Delete organization-specific data
             organizationPermissionRepository.deleteByOrganization(organization);
+            permissionMatrix.evict(organization.getEntityId());
             logger.info("CLEANUP: Deleted {} organization permissions", organizationPermissionsCount);
 
-            // TODO: Delete data from other services via gRPC
-            // subscriberServiceClient.deleteByOrganization(organization.getId());
-            // authServiceClient.deleteEntityAdminsByOrganization(organization.getId());
-            // attendanceServiceClient.deleteByOrganization(organization.getId());
-            // menuServiceClient.deleteByOrganization(organization.getId());
-            // orderServiceClient.deleteByOrganization(organization.getId());
-            // tableServiceClient.deleteByOrganization(organization.getId());
+            List<Map<String, Object>> jobs = tenantPurgeService.schedulePurge(organization.getId());
 
             Map<String, Object> deletedRecords = new HashMap<>();
             deletedRecords.put("organizationPermissions", organizationPermissionsCount);
-            deletedRecords.put("message", "Organization data cleanup completed");
+            deletedRecords.put("purgeJobs", jobs);
+            deletedRecords.put("message", "Organization data cleanup scheduled");
 
-            logger.info("CLEANUP: Organization data cleanup completed for: {}", organization.getName());
-            return ResponseEntity.ok(deletedRecords);
+            logger.info("CLEANUP: Scheduled purge jobs for: {}", organization.getName());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(deletedRecords);
 
         } catch (Exception e) {
             logger.error("Error during organization cleanup for entity ID: {}", entityId, e);
@@ -403,6 +399,51 @@ public class SuperAdminController {
         }
     }
 
+    /**
+     * Get organization cleanup progress per service
+     */
+    @GetMapping("/organization/{entityId}/cleanup")
+    public ResponseEntity<?> getOrganizationCleanupStatus(@PathVariable String entityId) {
+        try {
+            Optional<Organization> organizationOpt = organizationRepository.findByEntityId(entityId);
+            if (organizationOpt.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+
+            List<Map<String, Object>> jobs = tenantPurgeService.getStatus(organizationOpt.get().getId());
+            boolean completed = !jobs.isEmpty() && jobs.stream().allMatch(job -> "COMPLETED".equals(job.get("status")));
+            long rowsDeleted = jobs.stream().mapToLong(job -> (Long) job.get("rowsDeleted")).sum();
+
+            Map<String, Object> status = new HashMap<>();
+            status.put("entityId", entityId);
+            status.put("completed", completed);
+            status.put("rowsDeleted", rowsDeleted);
+            status.put("jobs", jobs);
+            return ResponseEntity.ok(status);
+        } catch (Exception e) {
+            logger.error("Error getting cleanup status for entity ID: {}", entityId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get cleanup status"));
+        }
+    }
+
+    /**
+     * Per-service availability of the metrics snapshot
+     */
+    private Map<String, Object> serviceStatus(SystemMetricsAggregator.Snapshot snapshot) {
+        Map<String, Object> status = new HashMap<>();
+        snapshot.services().forEach((service, counts) -> {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("available", counts.available());
+            entry.put("updatedAt", counts.updatedAt());
+            if (counts.error() != null) {
+                entry.put("error", counts.error());
+            }
+            status.put(service, entry);
+        });
+        return status;
+    }
+
     /**
      * Get system load (simplified implementation)
      */
@@ -4,7 +4,10 @@ import com.example.attendancesystem.grpc.organization.*;
 import com.example.attendancesystem.organization.model.Organization;
 import com.example.attendancesystem.organization.repository.OrganizationRepository;
 import com.example.attendancesystem.organization.service.EntityIdService;
+import com.example.attendancesystem.organization.service.OrganizationChangeFeed;
+import com.example.attendancesystem.organization.service.OrganizationPermissionMatrix;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
@@ -31,6 +34,12 @@ public class SimpleOrganizationServiceImpl extends OrganizationServiceGrpc.Organ
     @Autowired
     private EntityIdService entityIdService;
 
+    @Autowired
+    private OrganizationChangeFeed changeFeed;
+
+    @Autowired
+    private OrganizationPermissionMatrix permissionMatrix;
+
     @Override
     public void createOrganization(CreateOrganizationRequest request, StreamObserver<OrganizationResponse> responseObserver) {
         try {
@@ -59,6 +68,7 @@ public class SimpleOrganizationServiceImpl extends OrganizationServiceGrpc.Organ
             organization.setEntityId(entityId);
 
             Organization savedOrganization = organizationRepository.save(organization);
+            permissionMatrix.refreshAfterCommit(savedOrganization.getEntityId());
 
             com.example.attendancesystem.grpc.organization.Organization grpcOrganization = convertToGrpcOrganization(savedOrganization);
 
@@ -135,6 +145,7 @@ public class SimpleOrganizationServiceImpl extends OrganizationServiceGrpc.Organ
             organization.setEmail(request.getContactEmail());
 
             Organization savedOrganization = organizationRepository.save(organization);
+            permissionMatrix.refreshAfterCommit(savedOrganization.getEntityId());
 
             com.example.attendancesystem.grpc.organization.Organization grpcOrganization = convertToGrpcOrganization(savedOrganization);
 
@@ -172,6 +183,8 @@ public class SimpleOrganizationServiceImpl extends OrganizationServiceGrpc.Organ
 
             // For now, just mark as deleted (you can implement actual deletion logic)
             organizationRepository.deleteById(request.getId());
+            // Finds nothing, so the row is removed and the entity ID remembered as unknown
+            permissionMatrix.refreshAfterCommit(organizationOpt.get().getEntityId());
 
             DeleteResponse response = DeleteResponse.newBuilder()
                     .setSuccess(true)
@@ -338,4 +351,16 @@ public class SimpleOrganizationServiceImpl extends OrganizationServiceGrpc.Organ
         responseObserver.onNext(response);
         responseObserver.onCompleted();
     }
+
+    @Override
+    public void watchOrganizations(WatchOrganizationsRequest request, StreamObserver<OrganizationChange> responseObserver) {
+        try {
+            changeFeed.watch(request.getResumeToken(), (ServerCallStreamObserver<OrganizationChange>) responseObserver);
+        } catch (Exception e) {
+            logger.error("Error starting organization watch", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Failed to start organization watch: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package com.example.attendancesystem.organization.model;
 
+import com.example.attendancesystem.organization.service.OrganizationChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "organizations")
+@EntityListeners(OrganizationChangeListener.class)
 public class Organization {
 
     @Id
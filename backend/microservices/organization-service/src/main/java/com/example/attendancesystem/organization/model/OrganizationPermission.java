@@ -1,11 +1,13 @@
 package com.example.attendancesystem.organization.model;
 
+import com.example.attendancesystem.organization.service.OrganizationChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "organization_permissions", 
        uniqueConstraints = @UniqueConstraint(columnNames = {"organization_id", "feature_permission"}))
+@EntityListeners(OrganizationChangeListener.class)
 public class OrganizationPermission {
     
     @Id
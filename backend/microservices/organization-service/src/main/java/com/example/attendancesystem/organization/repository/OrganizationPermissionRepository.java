@@ -77,6 +77,13 @@ public interface OrganizationPermissionRepository extends JpaRepository<Organiza
                                          @Param("permission") FeaturePermission permission,
                                          @Param("now") LocalDateTime now);
     
+    /**
+     * Find all active permissions with their organizations (permission matrix load)
+     */
+    @Query("SELECT op FROM OrganizationPermission op JOIN FETCH op.organization " +
+           "WHERE op.isEnabled = true AND (op.expiresAt IS NULL OR op.expiresAt > :now)")
+    List<OrganizationPermission> findAllActivePermissions(@Param("now") LocalDateTime now);
+
     /**
      * Find permissions granted by specific super admin
      */
@@ -120,6 +127,12 @@ public interface OrganizationPermissionRepository extends JpaRepository<Organiza
     List<Organization> findOrganizationsWithPermission(@Param("permission") FeaturePermission permission,
                                                       @Param("now") LocalDateTime now);
     
+    /**
+     * Permission count per organization id, as [organizationId, count] rows
+     */
+    @Query("SELECT op.organization.id, COUNT(op) FROM OrganizationPermission op GROUP BY op.organization.id")
+    List<Object[]> countPermissionsByOrganization();
+    
     /**
      * Delete all permissions for an organization
      */
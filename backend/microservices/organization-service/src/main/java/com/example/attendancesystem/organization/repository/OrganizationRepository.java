@@ -21,6 +21,7 @@ public interface OrganizationRepository extends JpaRepository<Organization, Long
 
     // Find all active organizations
     java.util.List<Organization> findByIsActiveTrue();
+    long countByIsActiveTrue();
 
     // Pagination support
     Page<Organization> findByIsActiveTrue(Pageable pageable);
@@ -1,6 +1,9 @@
 package com.example.attendancesystem.organization.security;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import jakarta.servlet.FilterChain;
@@ -18,14 +21,20 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import javax.crypto.SecretKey;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Generic JWT Authentication Filter for Organization Service
  * Standard implementation that validates JWT tokens from Auth Service
- * Automatically detects and handles SuperAdmin, EntityAdmin, and Subscriber tokens
+ * Automatically detects and handles SuperAdmin, EntityAdmin, and Subscriber tokens.
+ * The unverified payload is read once to pick the signing key, so a token costs one
+ * signature verification; verified tokens are cached until they expire.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -37,9 +46,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final String ENTITY_ADMIN_SECRET = "EntityAdminSecretKeyForJWTTokenGenerationAndValidation2024!@#$%^&*()";
     private static final String SUBSCRIBER_SECRET = "subscriberSecretKey123456789012345678901234567890SubscriberSecretExtension";
 
+    private static final int MAX_CACHED_TOKENS = 10_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     // Pre-computed secret keys for performance
     private final List<TokenValidator> tokenValidators;
 
+    // Verified tokens, valid until their exp claim
+    private final ConcurrentHashMap<String, CachedAuthentication> verifiedTokens = new ConcurrentHashMap<>();
+
     public JwtAuthenticationFilter() {
         logger.info("JwtAuthenticationFilter initialized - Generic JWT validation enabled");
 
@@ -103,16 +119,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Validate JWT token using all available validators
+     * Validate JWT token: cached result if still live, else verify with the key its claims point to
      */
     private AuthenticationResult validateJwtToken(String token) {
-        logger.debug("Testing token with {} validators", tokenValidators.size());
-        for (TokenValidator validator : tokenValidators) {
+        long now = System.currentTimeMillis();
+        CachedAuthentication cached = verifiedTokens.get(token);
+        if (cached != null) {
+            if (cached.expiresAtMillis() > now) {
+                return cached.result();
+            }
+            verifiedTokens.remove(token, cached);
+        }
+
+        for (TokenValidator validator : candidateValidators(token)) {
             try {
                 logger.debug("Testing token with {} validator", validator.getUserType());
-                AuthenticationResult result = validator.validateToken(token);
+                Claims claims = validator.verify(token);
+                AuthenticationResult result = validator.validateClaims(claims);
                 if (result.isValid()) {
                     logger.debug("Token validated successfully with {} validator", validator.getUserType());
+                    cache(token, result, claims.getExpiration());
                     return result;
                 }
             } catch (Exception e) {
@@ -120,33 +146,100 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        logger.debug("Token validation failed with all validators");
+        logger.debug("Token validation failed with all candidate validators");
         return new AuthenticationResult(false, null, null, null);
     }
 
+    /**
+     * Validators to try, most likely first, chosen from the unverified payload.
+     * A recognised token type yields exactly one validator; unknown formats fall back to all.
+     */
+    private List<TokenValidator> candidateValidators(String token) {
+        String userType = null;
+        try {
+            JsonNode payload = decodePayload(token);
+            String tokenType = payload.path("tokenType").asText(null);
+            String type = payload.path("type").asText(null);
+            String role = payload.path("role").asText(null);
+            String claimedUserType = payload.path("userType").asText(null);
+
+            if (tokenType != null && tokenType.startsWith("SUPER_ADMIN")) {
+                userType = "SUPER_ADMIN";
+            } else if (tokenType != null && tokenType.startsWith("ENTITY_ADMIN")) {
+                userType = "ENTITY_ADMIN";
+            } else if ("ACCESS".equals(type) && "SUBSCRIBER".equals(role)) {
+                userType = "SUBSCRIBER";
+            } else if (claimedUserType != null) {
+                // User service tokens: try the matching key first, but keep the others as fallback
+                List<TokenValidator> ordered = new ArrayList<>(tokenValidators);
+                String preferred = claimedUserType;
+                ordered.sort((a, b) -> Boolean.compare(!a.getUserType().equals(preferred), !b.getUserType().equals(preferred)));
+                return ordered;
+            }
+        } catch (Exception e) {
+            logger.debug("Unreadable JWT payload: {}", e.getMessage());
+            return List.of();
+        }
+
+        if (userType != null) {
+            for (TokenValidator validator : tokenValidators) {
+                if (validator.getUserType().equals(userType)) {
+                    return List.of(validator);
+                }
+            }
+        }
+        return tokenValidators;
+    }
+
+    private JsonNode decodePayload(String token) throws IOException {
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first < 0 || second < 0) {
+            throw new IllegalArgumentException("Not a signed JWT");
+        }
+        byte[] payload = Base64.getUrlDecoder().decode(token.substring(first + 1, second));
+        return objectMapper.readTree(new String(payload, StandardCharsets.UTF_8));
+    }
+
+    private void cache(String token, AuthenticationResult result, Date expiration) {
+        if (expiration == null) {
+            return;
+        }
+        if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+            long now = System.currentTimeMillis();
+            verifiedTokens.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (verifiedTokens.size() >= MAX_CACHED_TOKENS) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(token, new CachedAuthentication(result, expiration.getTime()));
+    }
+
+    private record CachedAuthentication(AuthenticationResult result, long expiresAtMillis) {
+    }
+
     /**
      * Token Validator class for handling different JWT types
      */
     private static class TokenValidator {
         private final String userType;
-        private final SecretKey secretKey;
+        private final JwtParser parser;
 
         public TokenValidator(String userType, SecretKey secretKey) {
             this.userType = userType;
-            this.secretKey = secretKey;
+            // Parsers are immutable and thread-safe; build once per key
+            this.parser = Jwts.parser().verifyWith(secretKey).build();
         }
 
         public String getUserType() {
             return userType;
         }
 
-        public AuthenticationResult validateToken(String token) {
-            Claims claims = Jwts.parser()
-                    .verifyWith(secretKey)
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+        public Claims verify(String token) {
+            return parser.parseSignedClaims(token).getPayload();
+        }
 
+        public AuthenticationResult validateClaims(Claims claims) {
             // Check token expiration
             if (claims.getExpiration().before(new Date())) {
                 return new AuthenticationResult(false, null, null, null);
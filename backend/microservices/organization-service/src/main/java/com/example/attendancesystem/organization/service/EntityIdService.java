@@ -1,13 +1,21 @@
 package com.example.attendancesystem.organization.service;
 
 import com.example.attendancesystem.organization.repository.OrganizationRepository;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.Random;
-
+/**
+ * Entity ID Service
+ * Allocates MSD + 5 digit Entity IDs without random probing. Counters are reserved in blocks
+ * from the organization_entity_id_seq sequence (HiLo), so instances never hand out the same
+ * counter and most allocations are served from memory. Each counter is mapped through a
+ * keyed Feistel permutation of the 90,000-value ID space so issued IDs do not look sequential.
+ */
 @Service
 public class EntityIdService {
 
@@ -16,55 +24,61 @@ public class EntityIdService {
     @Autowired
     private OrganizationRepository organizationRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private static final String PREFIX = "MSD";
     private static final int NUMERIC_LENGTH = 5;
-    private static final Random random = new Random();
+    private static final int NUMERIC_BASE = 10000;
 
-    /**
-     * Generates a unique 8-character Entity ID with format: MSD + 5 digits
-     * Example: MSD12345, MSD67890
-     */
-    public String generateUniqueEntityId() {
-        String entityId;
-        int attempts = 0;
-        final int maxAttempts = 100; // Reduced attempts since we're using random generation
+    // 90,000 IDs (10000..99999) split into two 300-value halves for the Feistel network
+    private static final int HALF_RADIX = 300;
+    private static final int ID_SPACE = HALF_RADIX * HALF_RADIX;
+    private static final int FEISTEL_ROUNDS = 4;
 
-        logger.info("Starting entity ID generation. Current organization count: {}", organizationRepository.count());
+    // Upper bound on skips over IDs issued before block allocation existed
+    private static final int MAX_LEGACY_SKIPS = 1000;
 
-        // Log existing entity IDs for debugging
-        organizationRepository.findAll().forEach(org ->
-            logger.info("Existing entity ID: {}", org.getEntityId()));
+    @Value("${app.entity-id.block-size:50}")
+    private int blockSize;
 
-        do {
-            entityId = generateEntityId();
-            attempts++;
+    @Value("${app.entity-id.permute:true}")
+    private boolean permute;
 
-            logger.info("Generated entity ID attempt {}: {}", attempts, entityId);
-            boolean exists = organizationRepository.existsByEntityId(entityId);
-            logger.info("Entity ID {} exists: {}", entityId, exists);
+    @Value("${app.entity-id.permutation-key:0x5f3759df}")
+    private String permutationKey;
 
-            if (attempts > maxAttempts) {
-                logger.error("Failed to generate unique Entity ID after {} attempts. Current organization count: {}",
-                           maxAttempts, organizationRepository.count());
-                throw new RuntimeException("Unable to generate unique Entity ID after " + maxAttempts + " attempts");
-            }
-        } while (organizationRepository.existsByEntityId(entityId));
+    private long[] roundKeys;
+    private long nextCounter;
+    private long blockEnd;
 
-        logger.info("Successfully generated unique entity ID: {} after {} attempts", entityId, attempts);
-        return entityId;
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS organization_entity_id_seq MINVALUE 0 START WITH 0");
+        long key = Long.decode(permutationKey);
+        roundKeys = new long[FEISTEL_ROUNDS];
+        for (int i = 0; i < FEISTEL_ROUNDS; i++) {
+            key = mix(key + 0x9E3779B97F4A7C15L);
+            roundKeys[i] = key;
+        }
     }
 
     /**
-     * Generates an Entity ID with MSD prefix and 5 sequential/random digits
+     * Generates a unique 8-character Entity ID with format: MSD + 5 digits
+     * Example: MSD12345, MSD67890
      */
-    private String generateEntityId() {
-        // Use a completely different approach: random generation with collision detection
-        Random random = new Random();
-
-        // Generate a random 5-digit number between 10000 and 99999
-        int randomNumber = 10000 + random.nextInt(90000);
-
-        return PREFIX + String.format("%05d", randomNumber);
+    public synchronized String generateUniqueEntityId() {
+        for (int skipped = 0; skipped <= MAX_LEGACY_SKIPS; skipped++) {
+            String entityId = format(nextCounterValue());
+            // Block-allocated IDs never repeat; this only skips IDs created by the old random generator
+            if (!organizationRepository.existsByEntityId(entityId)) {
+                logger.debug("Allocated entity ID: {}", entityId);
+                return entityId;
+            }
+            logger.debug("Skipping entity ID {} already taken by an existing organization", entityId);
+        }
+        throw new IllegalStateException("Unable to allocate an unused Entity ID after skipping "
+                + MAX_LEGACY_SKIPS + " existing IDs");
     }
 
     /**
@@ -74,11 +88,11 @@ public class EntityIdService {
         if (entityId == null || entityId.length() != 8) {
             return false;
         }
-        
+
         if (!entityId.startsWith(PREFIX)) {
             return false;
         }
-        
+
         String numericPart = entityId.substring(3);
         try {
             Integer.parseInt(numericPart);
@@ -95,7 +109,52 @@ public class EntityIdService {
         if (!isValidEntityIdFormat(entityId)) {
             throw new IllegalArgumentException("Invalid Entity ID format: " + entityId);
         }
-        
+
         return Integer.parseInt(entityId.substring(3));
     }
+
+    /**
+     * Next counter from the in-memory block, reserving a new block when it runs out
+     */
+    private long nextCounterValue() {
+        if (nextCounter >= blockEnd) {
+            Long hi = jdbcTemplate.queryForObject("SELECT nextval('organization_entity_id_seq')", Long.class);
+            nextCounter = hi * blockSize;
+            blockEnd = nextCounter + blockSize;
+            logger.info("Reserved entity ID block {} (counters {}..{})", hi, nextCounter, blockEnd - 1);
+        }
+        if (nextCounter >= ID_SPACE) {
+            throw new IllegalStateException("Entity ID space exhausted: all " + ID_SPACE + " IDs have been allocated");
+        }
+        return nextCounter++;
+    }
+
+    private String format(long counter) {
+        int value = permute ? permute((int) counter) : (int) counter;
+        return PREFIX + String.format("%0" + NUMERIC_LENGTH + "d", NUMERIC_BASE + value);
+    }
+
+    /**
+     * Balanced Feistel network over [0, 300 * 300): a keyed bijection, so distinct counters
+     * always map to distinct IDs with no cycle-walking
+     */
+    private int permute(int value) {
+        int left = value / HALF_RADIX;
+        int right = value % HALF_RADIX;
+        for (long roundKey : roundKeys) {
+            int next = (int) ((left + Math.floorMod(mix(right ^ roundKey), HALF_RADIX)) % HALF_RADIX);
+            left = right;
+            right = next;
+        }
+        return left * HALF_RADIX + right;
+    }
+
+    /**
+     * SplitMix64 finalizer used as the Feistel round function
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
 }
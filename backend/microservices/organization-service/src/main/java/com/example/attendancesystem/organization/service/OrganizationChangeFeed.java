@@ -0,0 +1,370 @@
+package com.example.attendancesystem.organization.service;
+
+import com.example.attendancesystem.grpc.organization.OrganizationChange;
+import com.example.attendancesystem.grpc.organization.OrganizationChangeType;
+import com.example.attendancesystem.organization.model.Organization;
+import com.example.attendancesystem.organization.model.OrganizationPermission;
+import com.example.attendancesystem.organization.repository.OrganizationPermissionRepository;
+import com.example.attendancesystem.organization.repository.OrganizationRepository;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Organization Change Feed
+ * Backs the WatchOrganizations stream: a new watcher receives a full snapshot followed by
+ * every committed organization and permission change. Each change carries a resume token
+ * (feed epoch + sequence); a reconnecting watcher whose token is still in the retained
+ * history gets only the changes it missed, otherwise a fresh snapshot.
+ * Database reads happen outside the feed lock: a change is built under a per-organization
+ * stripe lock (so one organization's events stay in commit order) and only appended and fanned
+ * out under the feed lock; a snapshot is read and streamed while the new watcher buffers live
+ * changes, which are flushed to it once the snapshot is complete.
+ */
+@Service
+public class OrganizationChangeFeed {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationChangeFeed.class);
+
+    private static final Object PENDING_CHANGES_KEY = new Object();
+
+    private static final int PUBLISH_STRIPES = 64;
+
+    private final OrganizationRepository organizationRepository;
+    private final OrganizationPermissionRepository permissionRepository;
+    private final int historySize;
+    private final int maxLag;
+
+    // Distinguishes tokens issued before a restart, whose sequence numbers no longer apply
+    private final long epoch = System.currentTimeMillis();
+    private long sequence;
+    private final ArrayDeque<OrganizationChange> history = new ArrayDeque<>();
+    private final List<Watcher> watchers = new CopyOnWriteArrayList<>();
+    private final Object[] publishStripes = new Object[PUBLISH_STRIPES];
+
+    public OrganizationChangeFeed(OrganizationRepository organizationRepository,
+                                  OrganizationPermissionRepository permissionRepository,
+                                  @Value("${app.change-feed.history-size:4096}") int historySize,
+                                  @Value("${app.change-feed.max-lag:1000}") int maxLag) {
+        this.organizationRepository = organizationRepository;
+        this.permissionRepository = permissionRepository;
+        this.historySize = historySize;
+        this.maxLag = maxLag;
+        for (int i = 0; i < PUBLISH_STRIPES; i++) {
+            publishStripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Queue a change for publication when the current transaction commits.
+     * Several changes to one organization in a transaction collapse into one event.
+     */
+    public void recordChange(OrganizationChangeType type, Long organizationId, String entityId) {
+        if (organizationId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(type, organizationId, entityId);
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<Long, PendingChange> pending = (Map<Long, PendingChange>) TransactionSynchronizationManager.getResource(PENDING_CHANGES_KEY);
+        if (pending == null) {
+            Map<Long, PendingChange> changes = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_CHANGES_KEY, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changes.values().forEach(change -> publish(change.type(), change.organizationId(), change.entityId()));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_CHANGES_KEY);
+                }
+            });
+            pending = changes;
+        }
+        pending.merge(organizationId, new PendingChange(type, organizationId, entityId), PendingChange::stronger);
+    }
+
+    /**
+     * Build the change from current state and fan it out to every watcher
+     */
+    public void publish(OrganizationChangeType type, Long organizationId, String entityId) {
+        // Two publishes for one organization must not reorder, or the older state would land last
+        synchronized (publishStripes[Math.floorMod(organizationId.hashCode(), PUBLISH_STRIPES)]) {
+            OrganizationChange.Builder change = OrganizationChange.newBuilder()
+                    .setType(type)
+                    .setOrganizationId(organizationId);
+
+            if (type != OrganizationChangeType.DELETED) {
+                Organization organization = organizationRepository.findById(organizationId).orElse(null);
+                if (organization == null) {
+                    // Deleted after this change was queued; the delete event follows
+                    return;
+                }
+                change.setEntityId(organization.getEntityId() != null ? organization.getEntityId() : "")
+                        .setOrganization(toGrpcOrganization(organization))
+                        .addAllActivePermissions(activePermissionNames(organization.getEntityId()));
+            } else {
+                change.setEntityId(entityId != null ? entityId : "");
+            }
+            append(change);
+        }
+        logger.debug("Published {} for organization {} to {} watchers", type, organizationId, watchers.size());
+    }
+
+    private synchronized void append(OrganizationChange.Builder change) {
+        OrganizationChange built = change.setResumeToken(nextToken()).build();
+        history.addLast(built);
+        if (history.size() > historySize) {
+            history.removeFirst();
+        }
+        for (Watcher watcher : watchers) {
+            send(watcher, built);
+        }
+    }
+
+    /**
+     * Attach a watcher: replay from its resume token if possible, else send a full snapshot
+     */
+    public void watch(String resumeToken, ServerCallStreamObserver<OrganizationChange> observer) {
+        Watcher watcher = new Watcher(observer);
+        observer.setOnCancelHandler(() -> watchers.remove(watcher));
+
+        String snapshotToken;
+        synchronized (this) {
+            List<OrganizationChange> missed = changesAfter(resumeToken);
+            if (missed != null) {
+                logger.debug("Resuming organization watcher from {} ({} changes)", resumeToken, missed.size());
+                missed.forEach(observer::onNext);
+                watchers.add(watcher);
+                return;
+            }
+            // Live changes from here on are held for this watcher until its snapshot is sent
+            watcher.buffer = new ArrayList<>();
+            watchers.add(watcher);
+            snapshotToken = currentToken();
+        }
+
+        try {
+            sendSnapshot(observer, snapshotToken);
+        } catch (RuntimeException e) {
+            watchers.remove(watcher);
+            throw e;
+        }
+
+        synchronized (this) {
+            List<OrganizationChange> buffered = watcher.buffer;
+            watcher.buffer = null;
+            if (watcher.overflowed) {
+                watchers.remove(watcher);
+                observer.onError(Status.ABORTED.withDescription("Watcher fell behind; resume from last token").asRuntimeException());
+                return;
+            }
+            // Changes that raced the snapshot read are replayed; each carries full state, so a
+            // change already reflected in the snapshot is harmless
+            buffered.forEach(change -> send(watcher, change));
+        }
+    }
+
+    /**
+     * Heartbeat with the current token, so idle watchers can confirm the stream is live
+     */
+    @Scheduled(fixedRateString = "${app.change-feed.heartbeat-ms:15000}")
+    public synchronized void heartbeat() {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        OrganizationChange heartbeat = OrganizationChange.newBuilder()
+                .setType(OrganizationChangeType.HEARTBEAT)
+                .setResumeToken(currentToken())
+                .build();
+        for (Watcher watcher : watchers) {
+            send(watcher, heartbeat);
+        }
+    }
+
+    public int watcherCount() {
+        return watchers.size();
+    }
+
+    private void sendSnapshot(ServerCallStreamObserver<OrganizationChange> observer, String token) {
+        Map<Long, List<String>> permissions = new HashMap<>();
+        for (OrganizationPermission permission : permissionRepository.findAllActivePermissions(LocalDateTime.now())) {
+            permissions.computeIfAbsent(permission.getOrganization().getId(), id -> new ArrayList<>())
+                    .add(permission.getFeaturePermission().name());
+        }
+
+        int count = 0;
+        for (Organization organization : organizationRepository.findAll()) {
+            observer.onNext(OrganizationChange.newBuilder()
+                    .setType(OrganizationChangeType.SNAPSHOT)
+                    .setOrganizationId(organization.getId())
+                    .setEntityId(organization.getEntityId() != null ? organization.getEntityId() : "")
+                    .setOrganization(toGrpcOrganization(organization))
+                    .addAllActivePermissions(permissions.getOrDefault(organization.getId(), List.of()))
+                    .setResumeToken(token)
+                    .build());
+            count++;
+        }
+        observer.onNext(OrganizationChange.newBuilder()
+                .setType(OrganizationChangeType.SNAPSHOT_COMPLETE)
+                .setResumeToken(token)
+                .build());
+        logger.info("Sent organization snapshot ({} organizations) to new watcher", count);
+    }
+
+    /**
+     * Retained changes after the token, or null when the token is unknown, from an earlier
+     * epoch, or older than the retained history
+     */
+    private List<OrganizationChange> changesAfter(String resumeToken) {
+        if (resumeToken == null || resumeToken.isEmpty()) {
+            return null;
+        }
+        int separator = resumeToken.indexOf('-');
+        if (separator < 0) {
+            return null;
+        }
+        long tokenEpoch;
+        long tokenSequence;
+        try {
+            tokenEpoch = Long.parseLong(resumeToken.substring(0, separator));
+            tokenSequence = Long.parseLong(resumeToken.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (tokenEpoch != epoch || tokenSequence > sequence) {
+            return null;
+        }
+        long oldestRetained = sequence - history.size() + 1;
+        if (tokenSequence < oldestRetained - 1) {
+            return null;
+        }
+
+        List<OrganizationChange> missed = new ArrayList<>();
+        long changeSequence = oldestRetained;
+        for (OrganizationChange change : history) {
+            if (changeSequence > tokenSequence) {
+                missed.add(change);
+            }
+            changeSequence++;
+        }
+        return missed;
+    }
+
+    private void send(Watcher watcher, OrganizationChange change) {
+        if (watcher.buffer != null) {
+            // Still receiving its snapshot on another thread; the observer is not ours to call
+            if (watcher.buffer.size() >= maxLag) {
+                watcher.overflowed = true;
+            } else if (!watcher.overflowed) {
+                watcher.buffer.add(change);
+            }
+            return;
+        }
+        ServerCallStreamObserver<OrganizationChange> observer = watcher.observer;
+        if (observer.isCancelled()) {
+            watchers.remove(watcher);
+            return;
+        }
+        // A watcher that stops draining is dropped; it resumes from its last token on reconnect
+        if (!observer.isReady() && ++watcher.lag > maxLag) {
+            watchers.remove(watcher);
+            observer.onError(Status.ABORTED.withDescription("Watcher fell behind; resume from last token").asRuntimeException());
+            return;
+        }
+        if (observer.isReady()) {
+            watcher.lag = 0;
+        }
+        try {
+            observer.onNext(change);
+        } catch (Exception e) {
+            logger.debug("Dropping organization watcher: {}", e.getMessage());
+            watchers.remove(watcher);
+        }
+    }
+
+    private List<String> activePermissionNames(String entityId) {
+        List<String> names = new ArrayList<>();
+        if (entityId != null) {
+            for (OrganizationPermission permission : permissionRepository.findActivePermissionsByEntityId(entityId, LocalDateTime.now())) {
+                names.add(permission.getFeaturePermission().name());
+            }
+        }
+        return names;
+    }
+
+    private String nextToken() {
+        sequence++;
+        return currentToken();
+    }
+
+    private String currentToken() {
+        return epoch + "-" + sequence;
+    }
+
+    /**
+     * Convert Organization entity to gRPC Organization message
+     */
+    public static com.example.attendancesystem.grpc.organization.Organization toGrpcOrganization(Organization organization) {
+        return com.example.attendancesystem.grpc.organization.Organization.newBuilder()
+                .setId(organization.getId())
+                .setName(organization.getName() != null ? organization.getName() : "")
+                .setEntityId(organization.getEntityId() != null ? organization.getEntityId() : "")
+                .setContactEmail(organization.getEmail() != null ? organization.getEmail() : "")
+                .setAddress(organization.getAddress() != null ? organization.getAddress() : "")
+                .setActive(organization.getIsActive() == null || organization.getIsActive())
+                .setCreatedAt(organization.getCreatedAt() != null ? organization.getCreatedAt().toString() : "")
+                .setUpdatedAt(organization.getUpdatedAt() != null ? organization.getUpdatedAt().toString() : "")
+                .build();
+    }
+
+    private static final class Watcher {
+        private final ServerCallStreamObserver<OrganizationChange> observer;
+        private int lag;
+        // Non-null while the snapshot is being sent; guarded by the feed lock
+        private List<OrganizationChange> buffer;
+        private boolean overflowed;
+
+        private Watcher(ServerCallStreamObserver<OrganizationChange> observer) {
+            this.observer = observer;
+        }
+    }
+
+    private record PendingChange(OrganizationChangeType type, Long organizationId, String entityId) {
+        /**
+         * DELETED beats CREATED beats UPDATED beats PERMISSIONS_CHANGED; every event carries full state
+         */
+        private static PendingChange stronger(PendingChange current, PendingChange candidate) {
+            return rank(candidate.type) >= rank(current.type) ? candidate : current;
+        }
+
+        private static int rank(OrganizationChangeType type) {
+            return switch (type) {
+                case DELETED -> 3;
+                case CREATED -> 2;
+                case UPDATED -> 1;
+                default -> 0;
+            };
+        }
+    }
+}
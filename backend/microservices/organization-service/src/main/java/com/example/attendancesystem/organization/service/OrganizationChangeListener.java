@@ -0,0 +1,52 @@
+package com.example.attendancesystem.organization.service;
+
+import com.example.attendancesystem.grpc.organization.OrganizationChangeType;
+import com.example.attendancesystem.organization.model.Organization;
+import com.example.attendancesystem.organization.model.OrganizationPermission;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener feeding the organization change feed
+ * Catches every write path (REST, gRPC, cleanup) without touching each call site.
+ * The feed is resolved lazily because entity listeners are created with the EntityManagerFactory.
+ */
+@Component
+public class OrganizationChangeListener {
+
+    private final ObjectProvider<OrganizationChangeFeed> changeFeed;
+
+    public OrganizationChangeListener(ObjectProvider<OrganizationChangeFeed> changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        record(entity, OrganizationChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void updated(Object entity) {
+        record(entity, OrganizationChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        record(entity, OrganizationChangeType.DELETED);
+    }
+
+    private void record(Object entity, OrganizationChangeType type) {
+        OrganizationChangeFeed feed = changeFeed.getIfAvailable();
+        if (feed == null) {
+            return;
+        }
+        if (entity instanceof Organization organization) {
+            feed.recordChange(type, organization.getId(), organization.getEntityId());
+        } else if (entity instanceof OrganizationPermission permission && permission.getOrganization() != null) {
+            feed.recordChange(OrganizationChangeType.PERMISSIONS_CHANGED, permission.getOrganization().getId(), null);
+        }
+    }
+}
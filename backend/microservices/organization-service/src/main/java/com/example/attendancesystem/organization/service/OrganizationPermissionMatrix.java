@@ -0,0 +1,370 @@
+package com.example.attendancesystem.organization.service;
+
+import com.example.attendancesystem.grpc.organization.OrganizationChangeType;
+import com.example.attendancesystem.organization.model.FeaturePermission;
+import com.example.attendancesystem.organization.model.Organization;
+import com.example.attendancesystem.organization.model.OrganizationPermission;
+import com.example.attendancesystem.organization.repository.OrganizationPermissionRepository;
+import com.example.attendancesystem.organization.repository.OrganizationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Organization Permission Matrix
+ * In-memory organization x feature matrix: each organization's active feature permissions
+ * are one bitmask over FeaturePermission, so permission checks are a map lookup and a bit test.
+ * Loaded at startup, refreshed per organization after grant/revoke commits, fully reloaded on
+ * a schedule, and timed grants are cleared when their expiresAt passes. Unknown entity IDs are
+ * remembered briefly so repeated checks for them do not each query the database. Every load is
+ * stamped when it starts, so a slow load never overwrites a row written by a later one.
+ */
+@Component
+public class OrganizationPermissionMatrix {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationPermissionMatrix.class);
+
+    private static final FeaturePermission[] FEATURES = FeaturePermission.values();
+
+    private static final int MAX_MISSES = 10_000;
+
+    static {
+        if (FEATURES.length > Long.SIZE) {
+            throw new IllegalStateException("FeaturePermission has more than 64 values; widen the permission matrix");
+        }
+    }
+
+    private final OrganizationRepository organizationRepository;
+    private final OrganizationPermissionRepository permissionRepository;
+    private final ObjectProvider<OrganizationChangeFeed> changeFeed;
+
+    private final long missTtlMillis;
+
+    private final ConcurrentHashMap<String, OrganizationRow> rows = new ConcurrentHashMap<>();
+    // Start stamp of the load or eviction that last wrote each entity's row; only written
+    // inside rows.compute for that entity, so it always matches the row it describes
+    private final ConcurrentHashMap<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Entity IDs found not to exist, with the time until which that answer is trusted
+    private final ConcurrentHashMap<String, Long> misses = new ConcurrentHashMap<>();
+    private final PriorityQueue<Expiry> expiries = new PriorityQueue<>();
+
+    public OrganizationPermissionMatrix(OrganizationRepository organizationRepository,
+                                        OrganizationPermissionRepository permissionRepository,
+                                        ObjectProvider<OrganizationChangeFeed> changeFeed,
+                                        @Value("${app.permission-matrix.miss-ttl-ms:5000}") long missTtlMillis) {
+        this.organizationRepository = organizationRepository;
+        this.permissionRepository = permissionRepository;
+        this.changeFeed = changeFeed;
+        this.missTtlMillis = missTtlMillis;
+    }
+
+    /**
+     * Bitmask with one bit per permission
+     */
+    public static long maskOf(FeaturePermission... permissions) {
+        long mask = 0L;
+        for (FeaturePermission permission : permissions) {
+            mask |= 1L << permission.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Currently active permissions of the organization as a bitmask (0 for unknown organizations)
+     */
+    public long activeMask(String entityId) {
+        OrganizationRow row = row(entityId);
+        return row == null ? 0L : row.activeMask(System.currentTimeMillis());
+    }
+
+    public boolean hasPermission(String entityId, FeaturePermission permission) {
+        return (activeMask(entityId) & (1L << permission.ordinal())) != 0;
+    }
+
+    public boolean hasAny(String entityId, long mask) {
+        return (activeMask(entityId) & mask) != 0;
+    }
+
+    public boolean hasAll(String entityId, long mask) {
+        return (activeMask(entityId) & mask) == mask;
+    }
+
+    /**
+     * Known organizations, as of the last load
+     */
+    public Collection<OrganizationRow> organizations() {
+        return rows.values();
+    }
+
+    /**
+     * Reload one organization once the surrounding transaction commits
+     */
+    public void refreshAfterCommit(String entityId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh(entityId);
+                }
+            });
+        } else {
+            refresh(entityId);
+        }
+    }
+
+    public void evict(String entityId) {
+        rows.compute(entityId, (id, current) -> {
+            versions.put(id, sequence.incrementAndGet());
+            return null;
+        });
+    }
+
+    /**
+     * Full reload: all organizations and all active permissions in two queries
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.permission-matrix.reload-interval:300000}",
+               initialDelayString = "${app.permission-matrix.reload-interval:300000}")
+    @Transactional(readOnly = true)
+    public void reload() {
+        long startedAt = sequence.incrementAndGet();
+        Map<String, RowBuilder> builders = new HashMap<>();
+        for (Organization organization : organizationRepository.findAll()) {
+            builders.put(organization.getEntityId(), new RowBuilder(organization));
+        }
+        for (OrganizationPermission permission : permissionRepository.findAllActivePermissions(LocalDateTime.now())) {
+            RowBuilder builder = builders.get(permission.getOrganization().getEntityId());
+            if (builder != null) {
+                builder.add(permission);
+            }
+        }
+
+        Map<String, OrganizationRow> loaded = new HashMap<>();
+        builders.forEach((entityId, builder) -> loaded.put(entityId, builder.build()));
+        // Rows refreshed or evicted since this load started are newer than it and are kept as they are
+        loaded.forEach((entityId, row) -> install(entityId, row, startedAt));
+        for (String entityId : rows.keySet()) {
+            if (!loaded.containsKey(entityId)) {
+                install(entityId, null, startedAt);
+            }
+        }
+        misses.clear();
+
+        synchronized (expiries) {
+            expiries.clear();
+            rows.values().forEach(this::scheduleExpiries);
+        }
+        logger.info("Loaded permission matrix for {} organizations", loaded.size());
+    }
+
+    /**
+     * Clear permission bits whose expiresAt has passed
+     */
+    @Scheduled(fixedRate = 1000)
+    public void expire() {
+        long now = System.currentTimeMillis();
+        List<Expiry> due = new ArrayList<>();
+        synchronized (expiries) {
+            while (!expiries.isEmpty() && expiries.peek().atMillis() <= now) {
+                due.add(expiries.poll());
+            }
+        }
+        for (Expiry expiry : due) {
+            OrganizationRow row = rows.computeIfPresent(expiry.entityId(), (entityId, current) -> current.withoutExpired(now));
+            if (row != null) {
+                // Expiry is not a database write, so the change feed is told directly
+                changeFeed.ifAvailable(feed -> feed.publish(
+                        OrganizationChangeType.PERMISSIONS_CHANGED, row.getOrganizationId(), row.getEntityId()));
+            }
+        }
+    }
+
+    private OrganizationRow row(String entityId) {
+        if (entityId == null) {
+            return null;
+        }
+        OrganizationRow row = rows.get(entityId);
+        if (row != null) {
+            return row;
+        }
+        Long missUntil = misses.get(entityId);
+        if (missUntil != null && missUntil > System.currentTimeMillis()) {
+            return null;
+        }
+        // Organizations created since the last reload are loaded on first use
+        return refresh(entityId);
+    }
+
+    private OrganizationRow refresh(String entityId) {
+        long startedAt = sequence.incrementAndGet();
+        OrganizationRow loaded = organizationRepository.findByEntityId(entityId)
+                .map(organization -> {
+                    RowBuilder builder = new RowBuilder(organization);
+                    permissionRepository.findActivePermissionsByEntityId(entityId, LocalDateTime.now())
+                            .forEach(builder::add);
+                    return builder.build();
+                })
+                .orElse(null);
+
+        if (loaded == null) {
+            if (misses.size() >= MAX_MISSES) {
+                misses.clear();
+            }
+            misses.put(entityId, System.currentTimeMillis() + missTtlMillis);
+        } else {
+            misses.remove(entityId);
+        }
+        OrganizationRow installed = install(entityId, loaded, startedAt);
+        if (installed != null && installed == loaded) {
+            synchronized (expiries) {
+                scheduleExpiries(installed);
+            }
+        }
+        return installed;
+    }
+
+    /**
+     * Replace the entity's row (null removes it) unless a load or eviction that started later
+     * already wrote it; returns the row now in place
+     */
+    private OrganizationRow install(String entityId, OrganizationRow row, long startedAt) {
+        return rows.compute(entityId, (id, current) -> {
+            if (row == null && current == null) {
+                // Nothing to replace; unknown IDs are not tracked here (see misses)
+                return null;
+            }
+            Long writtenBy = versions.get(id);
+            if (writtenBy != null && writtenBy > startedAt) {
+                return current;
+            }
+            versions.put(id, startedAt);
+            return row;
+        });
+    }
+
+    private void scheduleExpiries(OrganizationRow row) {
+        if (row.expiresAtMillis == null) {
+            return;
+        }
+        for (long atMillis : row.expiresAtMillis) {
+            if (atMillis != 0) {
+                expiries.add(new Expiry(atMillis, row.entityId));
+            }
+        }
+    }
+
+    /**
+     * Immutable matrix row: bit i is FeaturePermission.values()[i].
+     * expiresAtMillis is null when no grant is timed; otherwise 0 means no expiry.
+     */
+    public static final class OrganizationRow {
+        private final Long organizationId;
+        private final String entityId;
+        private final String name;
+        private final long mask;
+        private final long[] expiresAtMillis;
+
+        private OrganizationRow(Long organizationId, String entityId, String name, long mask, long[] expiresAtMillis) {
+            this.organizationId = organizationId;
+            this.entityId = entityId;
+            this.name = name;
+            this.mask = mask;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public Long getOrganizationId() {
+            return organizationId;
+        }
+
+        public String getEntityId() {
+            return entityId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long activeMask(long now) {
+            if (expiresAtMillis == null) {
+                return mask;
+            }
+            long active = mask;
+            for (int i = 0; i < expiresAtMillis.length; i++) {
+                if (expiresAtMillis[i] != 0 && expiresAtMillis[i] <= now) {
+                    active &= ~(1L << i);
+                }
+            }
+            return active;
+        }
+
+        private OrganizationRow withoutExpired(long now) {
+            if (expiresAtMillis == null) {
+                return this;
+            }
+            long[] remaining = expiresAtMillis.clone();
+            boolean anyTimed = false;
+            for (int i = 0; i < remaining.length; i++) {
+                if (remaining[i] != 0 && remaining[i] <= now) {
+                    remaining[i] = 0;
+                } else if (remaining[i] != 0) {
+                    anyTimed = true;
+                }
+            }
+            return new OrganizationRow(organizationId, entityId, name, activeMask(now), anyTimed ? remaining : null);
+        }
+    }
+
+    private static final class RowBuilder {
+        private final Organization organization;
+        private long mask;
+        private long[] expiresAtMillis;
+
+        private RowBuilder(Organization organization) {
+            this.organization = organization;
+        }
+
+        private void add(OrganizationPermission permission) {
+            int ordinal = permission.getFeaturePermission().ordinal();
+            mask |= 1L << ordinal;
+            if (permission.getExpiresAt() != null) {
+                if (expiresAtMillis == null) {
+                    expiresAtMillis = new long[FEATURES.length];
+                }
+                expiresAtMillis[ordinal] = permission.getExpiresAt()
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+        }
+
+        private OrganizationRow build() {
+            return new OrganizationRow(organization.getId(), organization.getEntityId(), organization.getName(),
+                    mask, expiresAtMillis);
+        }
+    }
+
+    private record Expiry(long atMillis, String entityId) implements Comparable<Expiry> {
+        @Override
+        public int compareTo(Expiry other) {
+            return Long.compare(atMillis, other.atMillis);
+        }
+    }
+}
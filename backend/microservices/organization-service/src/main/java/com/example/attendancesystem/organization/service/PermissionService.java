@@ -9,10 +9,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -22,41 +25,51 @@ import java.util.stream.Collectors;
 public class PermissionService {
     
     private static final Logger logger = LoggerFactory.getLogger(PermissionService.class);
+
+    private static final long MENU_ORDERING_MASK =
+            OrganizationPermissionMatrix.maskOf(FeaturePermission.getMenuOrderingPermissions());
+    private static final long ATTENDANCE_MASK =
+            OrganizationPermissionMatrix.maskOf(FeaturePermission.getAttendancePermissions());
     
     @Autowired
     private OrganizationPermissionRepository permissionRepository;
     
     @Autowired
     private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationPermissionMatrix permissionMatrix;
     
     /**
      * Check if organization has specific permission
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasPermission(String entityId, FeaturePermission permission) {
-        return permissionRepository.hasActivePermissionByEntityId(entityId, permission, LocalDateTime.now());
+        return permissionMatrix.hasPermission(entityId, permission);
     }
     
     /**
      * Check if organization has specific permission
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasPermission(Organization organization, FeaturePermission permission) {
-        return permissionRepository.hasActivePermission(organization, permission, LocalDateTime.now());
+        return permissionMatrix.hasPermission(organization.getEntityId(), permission);
     }
     
     /**
      * Check if organization has any of the specified permissions
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasAnyPermission(String entityId, FeaturePermission... permissions) {
-        return Arrays.stream(permissions)
-                .anyMatch(permission -> hasPermission(entityId, permission));
+        return permissionMatrix.hasAny(entityId, OrganizationPermissionMatrix.maskOf(permissions));
     }
     
     /**
      * Check if organization has all of the specified permissions
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasAllPermissions(String entityId, FeaturePermission... permissions) {
-        return Arrays.stream(permissions)
-                .allMatch(permission -> hasPermission(entityId, permission));
+        return permissionMatrix.hasAll(entityId, OrganizationPermissionMatrix.maskOf(permissions));
     }
     
     /**
@@ -96,6 +109,7 @@ public class PermissionService {
             perm.setNotes(notes);
             
             OrganizationPermission saved = permissionRepository.save(perm);
+            permissionMatrix.refreshAfterCommit(entityId);
             logger.info("Updated existing permission {} for organization {}", permission, entityId);
             return saved;
         } else {
@@ -105,6 +119,7 @@ public class PermissionService {
             newPermission.setNotes(notes);
             
             OrganizationPermission saved = permissionRepository.save(newPermission);
+            permissionMatrix.refreshAfterCommit(entityId);
             logger.info("Created new permission {} for organization {}", permission, entityId);
             return saved;
         }
@@ -134,6 +149,7 @@ public class PermissionService {
             perm.setNotes("Revoked by " + revokedBy + " at " + LocalDateTime.now());
             
             permissionRepository.save(perm);
+            permissionMatrix.refreshAfterCommit(entityId);
             logger.info("Revoked permission {} from organization {}", permission, entityId);
         } else {
             logger.warn("Attempted to revoke non-existent permission {} from organization {}", permission, entityId);
@@ -160,15 +176,9 @@ public class PermissionService {
     /**
      * Get permission status map for an organization
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<FeaturePermission, Boolean> getPermissionStatus(String entityId) {
-        List<OrganizationPermission> activePermissions = getActivePermissions(entityId);
-        
-        return Arrays.stream(FeaturePermission.values())
-                .collect(Collectors.toMap(
-                        permission -> permission,
-                        permission -> activePermissions.stream()
-                                .anyMatch(p -> p.getFeaturePermission() == permission && p.isActive())
-                ));
+        return permissionStatus(permissionMatrix.activeMask(entityId));
     }
     
     /**
@@ -204,6 +214,7 @@ public class PermissionService {
     /**
      * Check if organization has menu/ordering permissions
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasMenuOrderingAccess(String entityId) {
         return hasAnyPermission(entityId, FeaturePermission.getMenuOrderingPermissions());
     }
@@ -211,6 +222,7 @@ public class PermissionService {
     /**
      * Check if organization has attendance permissions
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public boolean hasAttendanceAccess(String entityId) {
         return hasAnyPermission(entityId, FeaturePermission.getAttendancePermissions());
     }
@@ -218,17 +230,43 @@ public class PermissionService {
     /**
      * Get permission summary for an organization
      */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Map<String, Object> getPermissionSummary(String entityId) {
-        List<OrganizationPermission> activePermissions = getActivePermissions(entityId);
-        Map<FeaturePermission, Boolean> permissionStatus = getPermissionStatus(entityId);
-        
-        return Map.of(
-                "entityId", entityId,
-                "totalActivePermissions", activePermissions.size(),
-                "hasMenuAccess", hasMenuOrderingAccess(entityId),
-                "hasAttendanceAccess", hasAttendanceAccess(entityId),
-                "permissions", permissionStatus,
-                "lastUpdated", LocalDateTime.now()
-        );
+        return permissionSummary(entityId, permissionMatrix.activeMask(entityId));
+    }
+
+    /**
+     * Permission summaries for every organization, served from the permission matrix
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Map<String, Object>> getAllPermissionSummaries() {
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> summaries = new ArrayList<>();
+        for (OrganizationPermissionMatrix.OrganizationRow row : permissionMatrix.organizations()) {
+            Map<String, Object> summary = permissionSummary(row.getEntityId(), row.activeMask(now));
+            summary.put("organizationName", row.getName());
+            summary.put("organizationId", row.getOrganizationId());
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+
+    private Map<String, Object> permissionSummary(String entityId, long activeMask) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("entityId", entityId);
+        summary.put("totalActivePermissions", Long.bitCount(activeMask));
+        summary.put("hasMenuAccess", (activeMask & MENU_ORDERING_MASK) != 0);
+        summary.put("hasAttendanceAccess", (activeMask & ATTENDANCE_MASK) != 0);
+        summary.put("permissions", permissionStatus(activeMask));
+        summary.put("lastUpdated", LocalDateTime.now());
+        return summary;
+    }
+
+    private static Map<FeaturePermission, Boolean> permissionStatus(long activeMask) {
+        Map<FeaturePermission, Boolean> status = new EnumMap<>(FeaturePermission.class);
+        for (FeaturePermission permission : FeaturePermission.values()) {
+            status.put(permission, (activeMask & (1L << permission.ordinal())) != 0);
+        }
+        return status;
     }
 }
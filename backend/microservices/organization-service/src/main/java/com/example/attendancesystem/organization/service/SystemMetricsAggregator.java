@@ -0,0 +1,183 @@
+package com.example.attendancesystem.organization.service;
+
+import com.example.attendancesystem.grpc.metrics.EntityCountsRequest;
+import com.example.attendancesystem.grpc.metrics.EntityCountsResponse;
+import com.example.attendancesystem.grpc.metrics.MetricsServiceGrpc;
+import com.example.attendancesystem.grpc.metrics.OrganizationCounts;
+import com.example.attendancesystem.organization.repository.OrganizationPermissionRepository;
+import com.example.attendancesystem.organization.repository.OrganizationRepository;
+import com.google.common.util.concurrent.ListenableFuture;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * System Metrics Aggregator
+ * Scatter-gathers per-organization entity counts from every service's MetricsService in
+ * parallel, each call with its own deadline, and keeps the merged result as an immutable
+ * snapshot refreshed in the background. Requests read the snapshot and never wait on
+ * other services; a service that fails keeps its previous counts, marked unavailable.
+ */
+@Service
+public class SystemMetricsAggregator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsAggregator.class);
+
+    private static final String LOCAL_SERVICE = "organization-service";
+
+    @GrpcClient("user-service")
+    private MetricsServiceGrpc.MetricsServiceFutureStub userServiceMetrics;
+
+    @GrpcClient("auth-service")
+    private MetricsServiceGrpc.MetricsServiceFutureStub authServiceMetrics;
+
+    @GrpcClient("attendance-service")
+    private MetricsServiceGrpc.MetricsServiceFutureStub attendanceServiceMetrics;
+
+    @GrpcClient("menu-service")
+    private MetricsServiceGrpc.MetricsServiceFutureStub menuServiceMetrics;
+
+    @GrpcClient("order-service")
+    private MetricsServiceGrpc.MetricsServiceFutureStub orderServiceMetrics;
+
+    @GrpcClient("table-service")
+    private MetricsServiceGrpc.MetricsServiceFutureStub tableServiceMetrics;
+
+    @Autowired
+    private OrganizationRepository organizationRepository;
+
+    @Autowired
+    private OrganizationPermissionRepository organizationPermissionRepository;
+
+    @Value("${app.system-metrics.call-deadline-ms:2000}")
+    private long callDeadlineMs;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of(), Map.of(), 0L);
+
+    /**
+     * Latest merged counts; never blocks
+     */
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Fan out to all services at once, then merge whatever answered within its deadline
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.system-metrics.refresh-interval:30000}",
+               initialDelayString = "${app.system-metrics.refresh-interval:30000}")
+    public void refresh() {
+        Map<String, MetricsServiceGrpc.MetricsServiceFutureStub> stubs = new LinkedHashMap<>();
+        stubs.put("user-service", userServiceMetrics);
+        stubs.put("auth-service", authServiceMetrics);
+        stubs.put("attendance-service", attendanceServiceMetrics);
+        stubs.put("menu-service", menuServiceMetrics);
+        stubs.put("order-service", orderServiceMetrics);
+        stubs.put("table-service", tableServiceMetrics);
+
+        long startedAt = System.currentTimeMillis();
+        Map<String, ListenableFuture<EntityCountsResponse>> calls = new LinkedHashMap<>();
+        stubs.forEach((service, stub) -> calls.put(service,
+                stub.withDeadlineAfter(callDeadlineMs, TimeUnit.MILLISECONDS)
+                        .getEntityCounts(EntityCountsRequest.getDefaultInstance())));
+
+        // Local counts are gathered while the remote calls are in flight
+        Map<String, ServiceCounts> services = new LinkedHashMap<>();
+        services.put(LOCAL_SERVICE, localCounts());
+
+        Snapshot previous = snapshot;
+        calls.forEach((service, call) -> {
+            try {
+                // Each call carries its own deadline, so this wait is bounded by it
+                services.put(service, toServiceCounts(call.get(callDeadlineMs + 500, TimeUnit.MILLISECONDS)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                call.cancel(true);
+            } catch (ExecutionException | TimeoutException e) {
+                call.cancel(true);
+                String reason = e instanceof ExecutionException && e.getCause() != null ? e.getCause().getMessage() : e.getMessage();
+                logger.warn("System metrics from {} unavailable: {}", service, reason);
+                ServiceCounts stale = previous.services().get(service);
+                services.put(service, stale != null
+                        ? stale.unavailable(reason)
+                        : new ServiceCounts(false, reason, 0L, Map.of(), Map.of()));
+            }
+        });
+
+        Map<String, Long> totals = new HashMap<>();
+        Map<Long, Map<String, Long>> byOrganization = new HashMap<>();
+        for (ServiceCounts counts : services.values()) {
+            counts.totals().forEach((kind, value) -> totals.merge(kind, value, Long::sum));
+            counts.byOrganization().forEach((organizationId, organizationCounts) ->
+                    byOrganization.computeIfAbsent(organizationId, id -> new HashMap<>()).putAll(organizationCounts));
+        }
+
+        snapshot = new Snapshot(Collections.unmodifiableMap(services), Collections.unmodifiableMap(totals),
+                Collections.unmodifiableMap(byOrganization), System.currentTimeMillis());
+        logger.debug("Refreshed system metrics from {} services in {} ms", services.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    private ServiceCounts localCounts() {
+        Map<String, Long> totals = new HashMap<>();
+        totals.put("organizations", organizationRepository.count());
+        totals.put("activeOrganizations", organizationRepository.countByIsActiveTrue());
+
+        long permissions = 0;
+        Map<Long, Map<String, Long>> byOrganization = new HashMap<>();
+        for (Object[] row : organizationPermissionRepository.countPermissionsByOrganization()) {
+            long count = ((Number) row[1]).longValue();
+            byOrganization.put(((Number) row[0]).longValue(), Map.of("organizationPermissions", count));
+            permissions += count;
+        }
+        totals.put("organizationPermissions", permissions);
+        return new ServiceCounts(true, null, System.currentTimeMillis(), totals, byOrganization);
+    }
+
+    private static ServiceCounts toServiceCounts(EntityCountsResponse response) {
+        Map<Long, Map<String, Long>> byOrganization = new HashMap<>();
+        for (OrganizationCounts organization : response.getOrganizationsList()) {
+            byOrganization.put(organization.getOrganizationId(), Map.copyOf(organization.getCountsMap()));
+        }
+        return new ServiceCounts(true, null, System.currentTimeMillis(), Map.copyOf(response.getTotalsMap()), byOrganization);
+    }
+
+    /**
+     * Counts reported by one service
+     */
+    public record ServiceCounts(boolean available, String error, long updatedAt,
+                                Map<String, Long> totals, Map<Long, Map<String, Long>> byOrganization) {
+        private ServiceCounts unavailable(String reason) {
+            return new ServiceCounts(false, reason, updatedAt, totals, byOrganization);
+        }
+    }
+
+    /**
+     * Merged counts across services
+     */
+    public record Snapshot(Map<String, ServiceCounts> services, Map<String, Long> totals,
+                           Map<Long, Map<String, Long>> byOrganization, long generatedAt) {
+
+        public long total(String kind) {
+            return totals.getOrDefault(kind, 0L);
+        }
+
+        public long count(Long organizationId, String kind) {
+            return byOrganization.getOrDefault(organizationId, Map.of()).getOrDefault(kind, 0L);
+        }
+    }
+}
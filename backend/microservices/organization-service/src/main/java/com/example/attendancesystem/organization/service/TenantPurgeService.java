@@ -0,0 +1,77 @@
+package com.example.attendancesystem.organization.service;
+
+import com.example.attendancesystem.shared.purge.TenantPurgeRunner;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tenant Purge Service
+ * Schedules an organization's data removal as one tenant_purge_jobs row per service.
+ * Each service's TenantPurgeRunner claims its row and deletes in throttled keyset chunks,
+ * recording progress on the row; this service only enqueues and reports status.
+ */
+@Service
+public class TenantPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantPurgeService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.tenant-purge.services:user-service,auth-service,attendance-service,menu-service,order-service,table-service}")
+    private List<String> services;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute(TenantPurgeRunner.CREATE_TABLE_SQL);
+    }
+
+    /**
+     * Enqueue a purge of the organization's data in every service.
+     * A job already pending or running is left as is; a finished one is restarted.
+     */
+    @Transactional
+    public List<Map<String, Object>> schedulePurge(Long organizationId) {
+        for (String service : services) {
+            jdbcTemplate.update("INSERT INTO tenant_purge_jobs (organization_id, service, status) VALUES (?, ?, 'PENDING') " +
+                    "ON CONFLICT (organization_id, service) DO UPDATE SET status = 'PENDING', step = NULL, last_key = 0, " +
+                    "rows_deleted = 0, attempts = 0, lease_until = NULL, last_error = NULL, completed_at = NULL, updated_at = now() " +
+                    "WHERE tenant_purge_jobs.status IN ('COMPLETED', 'FAILED')",
+                    organizationId, service.trim());
+        }
+        logger.info("Scheduled tenant purge of organization {} across {} services", organizationId, services.size());
+        return getStatus(organizationId);
+    }
+
+    /**
+     * Per-service purge progress for an organization
+     */
+    public List<Map<String, Object>> getStatus(Long organizationId) {
+        return jdbcTemplate.query("SELECT service, status, step, rows_deleted, attempts, last_error, created_at, " +
+                        "updated_at, completed_at FROM tenant_purge_jobs WHERE organization_id = ? ORDER BY service",
+                (rs, rowNum) -> {
+                    Map<String, Object> job = new LinkedHashMap<>();
+                    job.put("service", rs.getString("service"));
+                    job.put("status", rs.getString("status"));
+                    job.put("step", rs.getString("step"));
+                    job.put("rowsDeleted", rs.getLong("rows_deleted"));
+                    job.put("attempts", rs.getInt("attempts"));
+                    job.put("lastError", rs.getString("last_error"));
+                    job.put("createdAt", rs.getTimestamp("created_at"));
+                    job.put("updatedAt", rs.getTimestamp("updated_at"));
+                    job.put("completedAt", rs.getTimestamp("completed_at"));
+                    return job;
+                },
+                organizationId);
+    }
+}
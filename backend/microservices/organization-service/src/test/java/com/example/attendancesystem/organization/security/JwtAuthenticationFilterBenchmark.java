@@ -0,0 +1,156 @@
+package com.example.attendancesystem.organization.security;
+
+import ch.qos.logback.classic.Level;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.lang.reflect.Method;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-call cost of JWT verification in JwtAuthenticationFilter, per user type.
+ * "legacy" is the previous approach, kept here for comparison: a new parser per key, tried
+ * in order until one verifies. "first" is a token the filter has not seen, so it is verified;
+ * "repeat" is the same token again, served from the verified-token cache.
+ *
+ * Not part of the regular build (surefire only picks up *Test classes); run with
+ * mvn test -Dtest=JwtAuthenticationFilterBenchmark -Dsurefire.failIfNoSpecifiedTests=false
+ */
+class JwtAuthenticationFilterBenchmark {
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 20_000;
+
+    private static JwtAuthenticationFilter filter;
+    private static Method validate;
+    private static Method isValid;
+    private static Map<String, SecretKey> keys;
+    private static List<SecretKey> legacyOrder;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(JwtAuthenticationFilter.class)).setLevel(Level.WARN);
+        filter = new JwtAuthenticationFilter();
+        validate = JwtAuthenticationFilter.class.getDeclaredMethod("validateJwtToken", String.class);
+        validate.setAccessible(true);
+        isValid = validate.getReturnType().getDeclaredMethod("isValid");
+        isValid.setAccessible(true);
+
+        keys = Map.of(
+                "SUPER_ADMIN", key("SUPER_ADMIN_SECRET"),
+                "ENTITY_ADMIN", key("ENTITY_ADMIN_SECRET"),
+                "SUBSCRIBER", key("SUBSCRIBER_SECRET"));
+        legacyOrder = List.of(keys.get("SUPER_ADMIN"), keys.get("ENTITY_ADMIN"), keys.get("SUBSCRIBER"));
+    }
+
+    @Test
+    void verificationCostPerUserType() throws Exception {
+        // The first round warms every path for every type; only the second is reported
+        for (int round = 0; round < 2; round++) {
+            measure(round == 1);
+        }
+    }
+
+    private static void measure(boolean report) throws Exception {
+        if (report) {
+            System.out.printf("%-14s %12s %12s %12s%n", "user type", "legacy", "first", "repeat");
+        }
+        for (String userType : List.of("ENTITY_ADMIN", "SUBSCRIBER", "SUPER_ADMIN")) {
+            String[] fresh = tokens(userType, WARMUP + ITERATIONS);
+            String repeated = token(userType);
+
+            for (int i = 0; i < WARMUP; i++) {
+                legacyVerify(fresh[i]);
+                assertTrue(verify(fresh[i]));
+                verify(repeated);
+            }
+            // Token generation above leaves garbage; collect it outside the timed loops
+            System.gc();
+
+            long start = System.nanoTime();
+            for (int i = WARMUP; i < WARMUP + ITERATIONS; i++) {
+                legacyVerify(fresh[i]);
+            }
+            double legacy = micros(start);
+
+            start = System.nanoTime();
+            for (int i = WARMUP; i < WARMUP + ITERATIONS; i++) {
+                verify(fresh[i]);
+            }
+            double first = micros(start);
+
+            start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                verify(repeated);
+            }
+            double repeat = micros(start);
+
+            if (report) {
+                System.out.printf("%-14s %9.2f us %9.2f us %9.2f us%n", userType, legacy, first, repeat);
+            }
+        }
+    }
+
+    private static boolean verify(String token) throws Exception {
+        return (boolean) isValid.invoke(validate.invoke(filter, token));
+    }
+
+    /**
+     * Previous approach: build a parser per key and try each in order
+     */
+    private static boolean legacyVerify(String token) {
+        for (SecretKey key : legacyOrder) {
+            try {
+                Jwts.parser().verifyWith(key).build().parseSignedClaims(token);
+                return true;
+            } catch (Exception e) {
+                // Next key
+            }
+        }
+        return false;
+    }
+
+    private static String[] tokens(String userType, int count) {
+        String[] tokens = new String[count];
+        for (int i = 0; i < count; i++) {
+            tokens[i] = token(userType);
+        }
+        return tokens;
+    }
+
+    /**
+     * Token in the format each issuer uses; the random id makes every token distinct
+     */
+    private static String token(String userType) {
+        var builder = Jwts.builder()
+                .subject("user-" + userType.toLowerCase())
+                .id(UUID.randomUUID().toString())
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + 3_600_000));
+        switch (userType) {
+            case "SUPER_ADMIN" -> builder.claim("tokenType", "SUPER_ADMIN_ACCESS");
+            case "ENTITY_ADMIN" -> builder.claim("tokenType", "ENTITY_ADMIN_ACCESS");
+            default -> builder.claim("type", "ACCESS").claim("role", "SUBSCRIBER");
+        }
+        return builder.signWith(keys.get(userType)).compact();
+    }
+
+    private static SecretKey key(String field) {
+        String secret = (String) ReflectionTestUtils.getField(JwtAuthenticationFilter.class, field);
+        return Keys.hmacShaKeyFor(secret.getBytes());
+    }
+
+    private static double micros(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.attendancesystem.shared.metrics;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener keeping EntityCounters in step with inserts and deletes.
+ * Services declare it as a bean so Hibernate obtains it from Spring; which entity
+ * feeds which kind is registered with {@link EntityCounters#track}.
+ */
+public class EntityCountListener {
+
+    private final ObjectProvider<EntityCounters> entityCounters;
+
+    public EntityCountListener(ObjectProvider<EntityCounters> entityCounters) {
+        this.entityCounters = entityCounters;
+    }
+
+    @PostPersist
+    public void created(Object entity) {
+        adjust(entity, 1);
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        adjust(entity, -1);
+    }
+
+    private void adjust(Object entity, long delta) {
+        EntityCounters counters = entityCounters.getIfAvailable();
+        if (counters != null) {
+            counters.adjust(entity, delta);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.attendancesystem.shared.metrics;
+
+import com.example.attendancesystem.grpc.metrics.EntityCountsResponse;
+import com.example.attendancesystem.grpc.metrics.OrganizationCounts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Entity Counters
+ * Per-organization row counts kept in memory so metrics never run COUNT(*) on request.
+ * Seeded with one GROUP BY per kind at startup, adjusted by entity listeners after each
+ * commit, and periodically reconciled against the database to absorb bulk statements
+ * that bypass the listeners. Services declare which entity type feeds which kind with
+ * {@link #track} and annotate those entities with {@link EntityCountListener}.
+ */
+public class EntityCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(EntityCounters.class);
+
+    private final String service;
+    private final JdbcTemplate jdbcTemplate;
+    // kind -> SELECT organization_id, COUNT(*) ... GROUP BY organization_id
+    private final Map<String, String> countQueries;
+    private final List<Tracked<?>> tracked = new CopyOnWriteArrayList<>();
+
+    private volatile Map<String, ConcurrentHashMap<Long, LongAdder>> counts = new ConcurrentHashMap<>();
+    private volatile long reconciledAt;
+
+    public EntityCounters(String service, JdbcTemplate jdbcTemplate, Map<String, String> countQueries) {
+        this.service = service;
+        this.jdbcTemplate = jdbcTemplate;
+        this.countQueries = countQueries;
+    }
+
+    /**
+     * Replace all counters with fresh GROUP BY results
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.entity-counters.reconcile-interval:600000}",
+               initialDelayString = "${app.entity-counters.reconcile-interval:600000}")
+    public void reconcile() {
+        Map<String, ConcurrentHashMap<Long, LongAdder>> fresh = new ConcurrentHashMap<>();
+        countQueries.forEach((kind, sql) -> {
+            ConcurrentHashMap<Long, LongAdder> byOrganization = new ConcurrentHashMap<>();
+            jdbcTemplate.query(sql, rs -> {
+                long organizationId = rs.getLong(1);
+                if (!rs.wasNull()) {
+                    LongAdder adder = new LongAdder();
+                    adder.add(rs.getLong(2));
+                    byOrganization.put(organizationId, adder);
+                }
+            });
+            fresh.put(kind, byOrganization);
+        });
+        // Adjustments landing between the queries and this swap are corrected by the next reconcile
+        counts = fresh;
+        reconciledAt = System.currentTimeMillis();
+        logger.info("Reconciled {} entity counters for {}", fresh.size(), service);
+    }
+
+    /**
+     * Count inserts and deletes of an entity type under a kind; a null organization id
+     * (e.g. a row that is not counted) is ignored
+     */
+    public <T> EntityCounters track(Class<T> type, String kind, Function<? super T, Long> organizationId) {
+        tracked.add(new Tracked<>(type, kind, organizationId));
+        return this;
+    }
+
+    /**
+     * Apply a delta for every kind tracking the entity's type, after commit
+     */
+    public void adjust(Object entity, long delta) {
+        for (Tracked<?> entry : tracked) {
+            entry.adjust(this, entity, delta);
+        }
+    }
+
+    public void increment(String kind, Long organizationId) {
+        addAfterCommit(kind, organizationId, 1);
+    }
+
+    public void decrement(String kind, Long organizationId) {
+        addAfterCommit(kind, organizationId, -1);
+    }
+
+    /**
+     * Apply a delta once the surrounding transaction commits (immediately outside one)
+     */
+    public void addAfterCommit(String kind, Long organizationId, long delta) {
+        if (organizationId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(kind, organizationId, delta);
+                }
+            });
+        } else {
+            add(kind, organizationId, delta);
+        }
+    }
+
+    public long count(String kind, Long organizationId) {
+        ConcurrentHashMap<Long, LongAdder> byOrganization = counts.get(kind);
+        LongAdder adder = byOrganization == null ? null : byOrganization.get(organizationId);
+        return adder == null ? 0 : Math.max(0, adder.sum());
+    }
+
+    public EntityCountsResponse toResponse() {
+        Map<String, Long> totals = new TreeMap<>();
+        Map<Long, Map<String, Long>> byOrganization = new HashMap<>();
+        counts.forEach((kind, organizations) -> {
+            long total = 0;
+            for (Map.Entry<Long, LongAdder> entry : organizations.entrySet()) {
+                long value = Math.max(0, entry.getValue().sum());
+                if (value > 0) {
+                    byOrganization.computeIfAbsent(entry.getKey(), id -> new HashMap<>()).put(kind, value);
+                    total += value;
+                }
+            }
+            totals.put(kind, total);
+        });
+
+        EntityCountsResponse.Builder response = EntityCountsResponse.newBuilder()
+                .setService(service)
+                .putAllTotals(totals)
+                .setReconciledAt(reconciledAt);
+        byOrganization.forEach((organizationId, organizationCounts) -> response.addOrganizations(
+                OrganizationCounts.newBuilder()
+                        .setOrganizationId(organizationId)
+                        .putAllCounts(organizationCounts)
+                        .build()));
+        return response.build();
+    }
+
+    private void add(String kind, Long organizationId, long delta) {
+        counts.computeIfAbsent(kind, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(organizationId, id -> new LongAdder())
+                .add(delta);
+    }
+
+    private record Tracked<T>(Class<T> type, String kind, Function<? super T, Long> organizationId) {
+
+        void adjust(EntityCounters counters, Object entity, long delta) {
+            if (type.isInstance(entity)) {
+                counters.addAfterCommit(kind, organizationId.apply(type.cast(entity)), delta);
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.attendancesystem.shared.metrics;
+
+import com.example.attendancesystem.grpc.metrics.EntityCountsRequest;
+import com.example.attendancesystem.grpc.metrics.EntityCountsResponse;
+import com.example.attendancesystem.grpc.metrics.MetricsServiceGrpc;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Metrics Service Implementation for gRPC
+ * Serves per-organization entity counts from in-memory counters. Each service exposes it
+ * as a bean annotated with @GrpcService.
+ */
+public class EntityCountsGrpcService extends MetricsServiceGrpc.MetricsServiceImplBase {
+
+    private final EntityCounters entityCounters;
+
+    public EntityCountsGrpcService(EntityCounters entityCounters) {
+        this.entityCounters = entityCounters;
+    }
+
+    @Override
+    public void getEntityCounts(EntityCountsRequest request, StreamObserver<EntityCountsResponse> responseObserver) {
+        responseObserver.onNext(entityCounters.toResponse());
+        responseObserver.onCompleted();
+    }
+}
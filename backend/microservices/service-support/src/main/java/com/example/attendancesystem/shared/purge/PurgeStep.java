@@ -0,0 +1,21 @@
+package com.example.attendancesystem.shared.purge;
+
+/**
+ * One table of a tenant purge, deleted in chunks ordered by keyColumn.
+ * scope is a WHERE condition with a single ? bound to the organization id; child tables
+ * scope through their parent (e.g. "order_id IN (SELECT id FROM orders WHERE organization_id = ?)").
+ * keyColumn need not be unique: every row sharing a key is deleted in the same chunk.
+ */
+public record PurgeStep(String name, String table, String keyColumn, String scope) {
+
+    public static PurgeStep byOrganization(String table) {
+        return new PurgeStep(table, table, "id", "organization_id = ?");
+    }
+
+    String deleteChunkSql() {
+        return "WITH doomed AS (SELECT " + keyColumn + " AS k FROM " + table +
+               " WHERE " + scope + " AND " + keyColumn + " > ? ORDER BY " + keyColumn + " LIMIT ?) " +
+               "DELETE FROM " + table + " WHERE " + keyColumn + " IN (SELECT k FROM doomed) " +
+               "RETURNING " + keyColumn;
+    }
+}
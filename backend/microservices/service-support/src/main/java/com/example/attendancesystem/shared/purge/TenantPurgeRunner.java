@@ -0,0 +1,226 @@
+package com.example.attendancesystem.shared.purge;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongConsumer;
+
+/**
+ * Tenant Purge Runner
+ * Executes this service's rows of the tenant_purge_jobs table: deletes an organization's
+ * data table by table in keyset-ordered chunks, each chunk in its own short transaction
+ * together with the job's progress, so a crash resumes at the last committed chunk.
+ * Deletion is throttled to a rows-per-second budget. Jobs are claimed with an expiring
+ * lease, so a job abandoned by a dead instance is picked up again once its lease lapses.
+ */
+public class TenantPurgeRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TenantPurgeRunner.class);
+
+    // The only definition of tenant_purge_jobs: organization-service creates it before enqueueing,
+    // and each runner before its first claim, whichever service starts first
+    public static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS tenant_purge_jobs (" +
+            "id BIGSERIAL PRIMARY KEY, " +
+            "organization_id BIGINT NOT NULL, " +
+            "service VARCHAR(64) NOT NULL, " +
+            "status VARCHAR(16) NOT NULL, " +
+            "step VARCHAR(64), " +
+            "last_key BIGINT NOT NULL DEFAULT 0, " +
+            "rows_deleted BIGINT NOT NULL DEFAULT 0, " +
+            "attempts INT NOT NULL DEFAULT 0, " +
+            "lease_until TIMESTAMP, " +
+            "last_error TEXT, " +
+            "created_at TIMESTAMP NOT NULL DEFAULT now(), " +
+            "updated_at TIMESTAMP NOT NULL DEFAULT now(), " +
+            "completed_at TIMESTAMP, " +
+            "UNIQUE (organization_id, service))";
+
+    private static final String CLAIM_SQL =
+            "UPDATE tenant_purge_jobs SET status = 'RUNNING', attempts = attempts + 1, " +
+            "lease_until = now() + make_interval(secs => ?), updated_at = now() " +
+            "WHERE id = (SELECT id FROM tenant_purge_jobs WHERE service = ? " +
+            "AND status IN ('PENDING', 'RUNNING') AND (lease_until IS NULL OR lease_until < now()) " +
+            "ORDER BY id LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+            "RETURNING id, organization_id, step, last_key, attempts";
+
+    private static final String PROGRESS_SQL =
+            "UPDATE tenant_purge_jobs SET step = ?, last_key = ?, rows_deleted = rows_deleted + ?, " +
+            "lease_until = now() + make_interval(secs => ?), updated_at = now() WHERE id = ?";
+
+    private final String service;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate chunkTransaction;
+    private final List<PurgeStep> steps;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+    private final int leaseSeconds;
+    private final int maxAttempts;
+    private final LongConsumer onComplete;
+
+    private final ExecutorService worker;
+    private final AtomicBoolean busy = new AtomicBoolean();
+    private volatile boolean stopping;
+    private volatile boolean tableReady;
+
+    public TenantPurgeRunner(String service, JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             List<PurgeStep> steps, int chunkSize, int rowsPerSecond, int maxAttempts,
+                             LongConsumer onComplete) {
+        this.service = service;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.steps = List.copyOf(steps);
+        this.chunkSize = chunkSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.leaseSeconds = 60;
+        this.maxAttempts = maxAttempts;
+        this.onComplete = onComplete;
+        // Own thread: a long purge must not hold up the shared @Scheduled thread
+        this.worker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tenant-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Pick up the next claimable job for this service, if the worker is idle
+     */
+    @Scheduled(fixedDelayString = "${app.tenant-purge.poll-interval:5000}")
+    public void poll() {
+        if (stopping || !busy.compareAndSet(false, true)) {
+            return;
+        }
+        worker.execute(() -> {
+            try {
+                while (!stopping && runNextJob()) {
+                    // Drain every claimable job before going idle
+                }
+            } catch (Exception e) {
+                logger.warn("Tenant purge poll failed for {}: {}", service, e.getMessage());
+            } finally {
+                busy.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        worker.shutdown();
+    }
+
+    private boolean runNextJob() {
+        if (!tableReady) {
+            jdbcTemplate.execute(CREATE_TABLE_SQL);
+            tableReady = true;
+        }
+        List<Job> claimed = jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new Job(rs.getLong("id"), rs.getLong("organization_id"),
+                        rs.getString("step"), rs.getLong("last_key"), rs.getInt("attempts")),
+                leaseSeconds, service);
+        if (claimed.isEmpty()) {
+            return false;
+        }
+        Job job = claimed.get(0);
+        logger.info("Tenant purge job {} started for organization {} on {} (attempt {})",
+                job.id(), job.organizationId(), service, job.attempts());
+        try {
+            if (purge(job)) {
+                jdbcTemplate.update("UPDATE tenant_purge_jobs SET status = 'COMPLETED', step = NULL, " +
+                        "lease_until = NULL, last_error = NULL, completed_at = now(), updated_at = now() WHERE id = ?", job.id());
+                logger.info("Tenant purge job {} completed for organization {} on {}", job.id(), job.organizationId(), service);
+                onComplete.accept(job.organizationId());
+            } else {
+                // Stopping: release the lease so the next start resumes immediately
+                jdbcTemplate.update("UPDATE tenant_purge_jobs SET lease_until = NULL, updated_at = now() WHERE id = ?", job.id());
+            }
+        } catch (Exception e) {
+            failed(job, e);
+        }
+        return true;
+    }
+
+    /**
+     * Run the remaining steps; false when interrupted by shutdown
+     */
+    private boolean purge(Job job) throws InterruptedException {
+        int stepIndex = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            if (steps.get(i).name().equals(job.step())) {
+                stepIndex = i;
+            }
+        }
+        long lastKey = job.step() == null ? 0 : job.lastKey();
+
+        for (int i = stepIndex; i < steps.size(); i++) {
+            PurgeStep step = steps.get(i);
+            String sql = step.deleteChunkSql();
+            while (true) {
+                if (stopping) {
+                    return false;
+                }
+                long startedAt = System.nanoTime();
+                long fromKey = lastKey;
+                long[] chunk = chunkTransaction.execute(tx -> {
+                    List<Long> keys = jdbcTemplate.queryForList(sql, Long.class, job.organizationId(), fromKey, chunkSize);
+                    long maxKey = keys.stream().mapToLong(Long::longValue).max().orElse(fromKey);
+                    jdbcTemplate.update(PROGRESS_SQL, step.name(), maxKey, keys.size(), leaseSeconds, job.id());
+                    return new long[] { keys.size(), maxKey };
+                });
+                if (chunk[0] == 0) {
+                    break;
+                }
+                lastKey = chunk[1];
+                throttle(chunk[0], startedAt);
+            }
+            lastKey = 0;
+            if (i + 1 < steps.size()) {
+                jdbcTemplate.update(PROGRESS_SQL, steps.get(i + 1).name(), 0L, 0, leaseSeconds, job.id());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sleep long enough that deleted rows stay within the rows-per-second budget
+     */
+    private void throttle(long deleted, long startedAtNanos) throws InterruptedException {
+        if (rowsPerSecond <= 0) {
+            return;
+        }
+        long budgetMillis = deleted * 1000 / rowsPerSecond;
+        long elapsedMillis = (System.nanoTime() - startedAtNanos) / 1_000_000;
+        if (budgetMillis > elapsedMillis) {
+            Thread.sleep(budgetMillis - elapsedMillis);
+        }
+    }
+
+    private void failed(Job job, Exception e) {
+        String error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (job.attempts() >= maxAttempts) {
+            logger.error("Tenant purge job {} failed permanently on {} after {} attempts", job.id(), service, job.attempts(), e);
+            jdbcTemplate.update("UPDATE tenant_purge_jobs SET status = 'FAILED', lease_until = NULL, last_error = ?, " +
+                    "updated_at = now() WHERE id = ?", error, job.id());
+            return;
+        }
+        // Typically a row still referenced by another service's table; retry after that purge has progressed
+        long retrySeconds = Math.min(600, 15L << Math.min(job.attempts(), 5));
+        logger.warn("Tenant purge job {} on {} failed (attempt {}), retrying in {}s: {}",
+                job.id(), service, job.attempts(), retrySeconds, error);
+        jdbcTemplate.update("UPDATE tenant_purge_jobs SET status = 'PENDING', last_error = ?, " +
+                "lease_until = now() + make_interval(secs => ?), updated_at = now() WHERE id = ?", error, retrySeconds, job.id());
+    }
+
+    private record Job(long id, long organizationId, String step, long lastKey, int attempts) {
+    }
+}
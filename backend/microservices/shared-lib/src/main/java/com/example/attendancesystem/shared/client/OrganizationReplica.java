@@ -0,0 +1,230 @@
+package com.example.attendancesystem.shared.client;
+
+import com.example.attendancesystem.grpc.organization.OrganizationChange;
+import com.example.attendancesystem.grpc.organization.OrganizationServiceGrpc;
+import com.example.attendancesystem.grpc.organization.WatchOrganizationsRequest;
+import io.grpc.Channel;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Organization Replica
+ * Local read replica of organization-service data, kept current by the WatchOrganizations
+ * stream: a full snapshot on first connect, then pushed changes. Reconnects with jittered
+ * exponential backoff and resumes from the last token, so a short outage replays only the
+ * missed changes. Callers should check isReady() and fall back to their own source when
+ * the replica is not loaded or has not heard from the server recently.
+ */
+public class OrganizationReplica implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrganizationReplica.class);
+
+    private static final long INITIAL_BACKOFF_MS = 500;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    /**
+     * Replicated organization state
+     */
+    public record ReplicatedOrganization(Long id, String entityId, String name, String address,
+                                         String email, boolean active, Set<String> permissions) {
+    }
+
+    private final OrganizationServiceGrpc.OrganizationServiceStub stub;
+    private final long staleAfterMillis;
+    private final ScheduledExecutorService reconnectScheduler;
+
+    private volatile Map<String, ReplicatedOrganization> byEntityId = new ConcurrentHashMap<>();
+    private volatile Map<Long, ReplicatedOrganization> byId = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private volatile boolean streaming;
+    private volatile long lastMessageAt;
+    private volatile boolean closed;
+    private volatile ClientCallStreamObserver<WatchOrganizationsRequest> call;
+
+    // Only touched from the stream's callback thread
+    private String resumeToken = "";
+    private Map<Long, ReplicatedOrganization> snapshot;
+    private int failures;
+
+    /**
+     * @param staleAfterMillis how long without any message (changes or heartbeats) before
+     *                         the replica reports itself not ready
+     */
+    public OrganizationReplica(Channel channel, long staleAfterMillis) {
+        this.stub = OrganizationServiceGrpc.newStub(channel);
+        this.staleAfterMillis = staleAfterMillis;
+        this.reconnectScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "organization-replica");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        connect();
+    }
+
+    /**
+     * True when a snapshot has been loaded and the stream is live
+     */
+    public boolean isReady() {
+        return loaded && streaming && System.currentTimeMillis() - lastMessageAt < staleAfterMillis;
+    }
+
+    public Optional<ReplicatedOrganization> findByEntityId(String entityId) {
+        return entityId == null ? Optional.empty() : Optional.ofNullable(byEntityId.get(entityId));
+    }
+
+    public Optional<ReplicatedOrganization> findById(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(byId.get(id));
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        streaming = false;
+        ClientCallStreamObserver<WatchOrganizationsRequest> current = call;
+        if (current != null) {
+            current.cancel("Replica closed", null);
+        }
+        reconnectScheduler.shutdownNow();
+    }
+
+    private void connect() {
+        if (closed) {
+            return;
+        }
+        WatchOrganizationsRequest request = WatchOrganizationsRequest.newBuilder()
+                .setResumeToken(resumeToken)
+                .build();
+        stub.watchOrganizations(request, new ClientResponseObserver<WatchOrganizationsRequest, OrganizationChange>() {
+            @Override
+            public void beforeStart(ClientCallStreamObserver<WatchOrganizationsRequest> requestStream) {
+                call = requestStream;
+            }
+
+            @Override
+            public void onNext(OrganizationChange change) {
+                streaming = true;
+                failures = 0;
+                lastMessageAt = System.currentTimeMillis();
+                apply(change);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                disconnected(t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                disconnected("stream completed");
+            }
+        });
+    }
+
+    private void apply(OrganizationChange change) {
+        switch (change.getType()) {
+            case SNAPSHOT -> {
+                if (snapshot == null) {
+                    snapshot = new HashMap<>();
+                }
+                ReplicatedOrganization organization = toReplicated(change);
+                snapshot.put(organization.id(), organization);
+                // Snapshot rows share one token; it only becomes the resume point once complete
+                return;
+            }
+            case SNAPSHOT_COMPLETE -> {
+                Map<Long, ReplicatedOrganization> ids = new ConcurrentHashMap<>();
+                Map<String, ReplicatedOrganization> entityIds = new ConcurrentHashMap<>();
+                if (snapshot != null) {
+                    for (ReplicatedOrganization organization : snapshot.values()) {
+                        ids.put(organization.id(), organization);
+                        if (!organization.entityId().isEmpty()) {
+                            entityIds.put(organization.entityId(), organization);
+                        }
+                    }
+                }
+                byId = ids;
+                byEntityId = entityIds;
+                snapshot = null;
+                loaded = true;
+                logger.info("Organization replica loaded {} organizations", ids.size());
+            }
+            case CREATED, UPDATED, PERMISSIONS_CHANGED -> upsert(toReplicated(change));
+            case DELETED -> remove(change.getOrganizationId(), change.getEntityId());
+            default -> {
+                // HEARTBEAT only advances the token
+            }
+        }
+        if (!change.getResumeToken().isEmpty()) {
+            resumeToken = change.getResumeToken();
+        }
+    }
+
+    private void upsert(ReplicatedOrganization organization) {
+        ReplicatedOrganization previous = byId.put(organization.id(), organization);
+        if (previous != null && !previous.entityId().equals(organization.entityId())) {
+            byEntityId.remove(previous.entityId(), previous);
+        }
+        if (!organization.entityId().isEmpty()) {
+            byEntityId.put(organization.entityId(), organization);
+        }
+    }
+
+    private void remove(long organizationId, String entityId) {
+        ReplicatedOrganization previous = byId.remove(organizationId);
+        if (previous != null) {
+            byEntityId.remove(previous.entityId(), previous);
+        } else if (!entityId.isEmpty()) {
+            byEntityId.remove(entityId);
+        }
+    }
+
+    private void disconnected(String reason) {
+        streaming = false;
+        snapshot = null;
+        call = null;
+        if (closed) {
+            return;
+        }
+        // Full jitter: uniform in [0, min(max, initial * 2^failures)]
+        long ceiling = Math.min(MAX_BACKOFF_MS, INITIAL_BACKOFF_MS << Math.min(failures, 16));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        failures++;
+        logger.warn("Organization watch disconnected ({}); reconnecting in {} ms", reason, delay);
+        try {
+            reconnectScheduler.schedule(this::connect, delay, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            logger.debug("Organization replica reconnect not scheduled: {}", e.getMessage());
+        }
+    }
+
+    private static ReplicatedOrganization toReplicated(OrganizationChange change) {
+        com.example.attendancesystem.grpc.organization.Organization organization = change.getOrganization();
+        return new ReplicatedOrganization(
+                change.getOrganizationId(),
+                change.getEntityId(),
+                organization.getName(),
+                organization.getAddress(),
+                organization.getContactEmail(),
+                organization.getActive(),
+                Set.copyOf(change.getActivePermissionsList()));
+    }
+}
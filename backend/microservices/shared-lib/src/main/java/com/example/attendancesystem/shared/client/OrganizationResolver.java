@@ -0,0 +1,55 @@
+package com.example.attendancesystem.shared.client;
+
+import com.example.attendancesystem.shared.model.Organization;
+import com.example.attendancesystem.shared.repository.OrganizationRepository;
+
+import java.util.Optional;
+
+/**
+ * Organization Resolver
+ * Resolves organizations from the local OrganizationReplica when it is live, and from the
+ * shared organizations table otherwise. Replica hits return a detached Organization carrying
+ * the id, so it can still be assigned to @ManyToOne associations.
+ */
+public class OrganizationResolver {
+
+    private final OrganizationReplica replica;
+    private final OrganizationRepository organizationRepository;
+
+    public OrganizationResolver(OrganizationReplica replica, OrganizationRepository organizationRepository) {
+        this.replica = replica;
+        this.organizationRepository = organizationRepository;
+    }
+
+    public Optional<Organization> findByEntityId(String entityId) {
+        if (replica != null && replica.isReady()) {
+            Optional<Organization> replicated = replica.findByEntityId(entityId).map(OrganizationResolver::toOrganization);
+            if (replicated.isPresent()) {
+                return replicated;
+            }
+            // A miss may be an organization created moments ago whose change has not arrived yet
+        }
+        return organizationRepository.findByEntityId(entityId);
+    }
+
+    public Optional<Organization> findById(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        if (replica != null && replica.isReady()) {
+            Optional<Organization> replicated = replica.findById(id).map(OrganizationResolver::toOrganization);
+            if (replicated.isPresent()) {
+                return replicated;
+            }
+        }
+        return organizationRepository.findById(id);
+    }
+
+    private static Organization toOrganization(OrganizationReplica.ReplicatedOrganization replicated) {
+        Organization organization = new Organization(replicated.id(), replicated.entityId(), replicated.name());
+        organization.setAddress(replicated.address().isEmpty() ? null : replicated.address());
+        organization.setEmail(replicated.email().isEmpty() ? null : replicated.email());
+        organization.setIsActive(replicated.active());
+        return organization;
+    }
+}
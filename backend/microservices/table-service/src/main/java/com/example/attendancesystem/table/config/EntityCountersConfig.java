@@ -0,0 +1,38 @@
+package com.example.attendancesystem.table.config;
+
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.shared.metrics.EntityCountsGrpcService;
+import com.example.attendancesystem.table.model.RestaurantTable;
+import net.devh.boot.grpc.server.service.GrpcService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+/**
+ * Per-organization entity counters served to the system metrics aggregator
+ */
+@Configuration
+public class EntityCountersConfig {
+
+    @Bean
+    public EntityCounters entityCounters(JdbcTemplate jdbcTemplate) {
+        return new EntityCounters("table-service", jdbcTemplate, Map.of(
+                "tables", "SELECT organization_id, COUNT(*) FROM restaurant_tables GROUP BY organization_id"))
+                .track(RestaurantTable.class, "tables", table -> table.getOrganization() != null ? table.getOrganization().getId() : null);
+    }
+
+    @Bean
+    public EntityCountListener entityCountListener(ObjectProvider<EntityCounters> entityCounters) {
+        return new EntityCountListener(entityCounters);
+    }
+
+    @Bean
+    @GrpcService
+    public EntityCountsGrpcService metricsService(EntityCounters entityCounters) {
+        return new EntityCountsGrpcService(entityCounters);
+    }
+}
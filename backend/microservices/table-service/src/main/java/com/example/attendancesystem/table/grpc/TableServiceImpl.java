@@ -1,22 +1,32 @@
 package com.example.attendancesystem.organization.grpc;
 
 import com.example.attendancesystem.grpc.table.*;
+import com.example.attendancesystem.shared.util.GrpcUtils;
+import com.example.attendancesystem.table.service.TableDirectory;
+import com.example.attendancesystem.table.service.TableDirectory.TableEntry;
 import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 
 /**
  * Table Service Implementation for gRPC
- * Currently provides placeholder implementations for all table management operations
- * This service will be fully implemented when table management functionality is added to the system
+ * Lookups by number and QR code are served from the in-memory TableDirectory; the other
+ * table management operations are still placeholders
  */
 @GrpcService
 public class TableServiceImpl extends TableServiceGrpc.TableServiceImplBase {
 
     private static final Logger logger = LoggerFactory.getLogger(TableServiceImpl.class);
 
+    @Autowired
+    private TableDirectory tableDirectory;
+
     @Override
     public void createTable(CreateTableRequest request, StreamObserver<TableResponse> responseObserver) {
         logger.info("Table service - createTable called for: {}", request.getTableNumber());
@@ -126,6 +136,51 @@ public class TableServiceImpl extends TableServiceGrpc.TableServiceImplBase {
         }
     }
 
+    @Override
+    public void getTableByNumber(GetTableByNumberRequest request, StreamObserver<TableResponse> responseObserver) {
+        logger.debug("Table service - getTableByNumber called for organization: {}, table: {}",
+                request.getOrganizationId(), request.getTableNumber());
+
+        if (request.getOrganizationId() <= 0) {
+            responseObserver.onError(GrpcUtils.invalidArgument("organization_id is required"));
+            return;
+        }
+        try {
+            // Public lookups, like the QR one: inactive tables are not served
+            responseObserver.onNext(toResponse(tableDirectory.findByNumber(request.getOrganizationId(), request.getTableNumber())
+                    .filter(table -> !Boolean.FALSE.equals(table.isActive()))));
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error in getTableByNumber", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Failed to get table by number: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void getTableByQrCode(GetTableByQrCodeRequest request, StreamObserver<TableResponse> responseObserver) {
+        logger.debug("Table service - getTableByQrCode called");
+
+        if (request.getQrCodeData().isEmpty()) {
+            responseObserver.onError(GrpcUtils.invalidArgument("qr_code_data is required"));
+            return;
+        }
+        try {
+            // Inactive tables keep their QR code but cannot be ordered from
+            responseObserver.onNext(toResponse(tableDirectory.findByQrCode(request.getQrCodeData())
+                    .filter(table -> !Boolean.FALSE.equals(table.isActive()))));
+            responseObserver.onCompleted();
+
+        } catch (Exception e) {
+            logger.error("Error in getTableByQrCode", e);
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Failed to get table by QR code: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
     @Override
     public void updateTableStatus(UpdateTableStatusRequest request, StreamObserver<TableResponse> responseObserver) {
         logger.info("Table service - updateTableStatus called for ID: {} to status: {}", 
@@ -321,4 +376,36 @@ public class TableServiceImpl extends TableServiceGrpc.TableServiceImplBase {
                     .asRuntimeException());
         }
     }
+
+    private static TableResponse toResponse(Optional<TableEntry> table) {
+        return table
+                .map(entry -> TableResponse.newBuilder()
+                        .setSuccess(true)
+                        .setMessage("Table found")
+                        .setTable(toProto(entry))
+                        .build())
+                .orElseGet(() -> TableResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage("Table not found")
+                        .build());
+    }
+
+    private static RestaurantTable toProto(TableEntry table) {
+        RestaurantTable.Builder builder = RestaurantTable.newBuilder()
+                .setId(table.id())
+                .setTableNumber(String.valueOf(table.tableNumber()))
+                .setOrganizationId(table.organizationId())
+                .setActive(!Boolean.FALSE.equals(table.isActive()))
+                .setCapacity(table.capacity() != null ? table.capacity() : 0)
+                .setLocation(GrpcUtils.safeString(table.locationDescription()))
+                .setQrCodeData(GrpcUtils.safeString(table.qrCode()))
+                .setQrCodeUrl(GrpcUtils.safeString(table.qrCodeUrl()));
+        if (table.createdAt() != null) {
+            builder.setCreatedAt(table.createdAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        if (table.updatedAt() != null) {
+            builder.setUpdatedAt(table.updatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        }
+        return builder.build();
+    }
 }
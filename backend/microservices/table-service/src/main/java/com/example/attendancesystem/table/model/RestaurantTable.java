@@ -1,6 +1,8 @@
 package com.example.attendancesystem.table.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
+import com.example.attendancesystem.table.service.TableDirectoryListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import com.example.attendancesystem.shared.model.Organization;
@@ -8,7 +10,9 @@ import com.example.attendancesystem.shared.model.Organization;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "restaurant_tables")
+@Table(name = "restaurant_tables",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"organization_id", "table_number"}))
+@EntityListeners({EntityCountListener.class, TableDirectoryListener.class})
 public class RestaurantTable {
     
     @Id
@@ -81,6 +81,18 @@ public interface RestaurantTableRepository extends JpaRepository<RestaurantTable
     @Query("SELECT t FROM RestaurantTable t WHERE t.qrCode = :qrCode AND t.isActive = true AND t.deletedAt IS NULL")
     Optional<RestaurantTable> findActiveByQrCode(@Param("qrCode") String qrCode);
     
+    /**
+     * Organization of a live table, through the unique qr_code index
+     */
+    @Query("SELECT t.organization.id FROM RestaurantTable t WHERE t.qrCode = :qrCode AND t.deletedAt IS NULL")
+    Optional<Long> findOrganizationIdByQrCode(@Param("qrCode") String qrCode);
+
+    /**
+     * All live tables of an organization, for the in-memory table directory
+     */
+    @Query("SELECT t FROM RestaurantTable t WHERE t.organization.id = :organizationId AND t.deletedAt IS NULL")
+    List<RestaurantTable> findLiveByOrganizationId(@Param("organizationId") Long organizationId);
+    
     /**
      * Delete all tables by organization
      */
@@ -0,0 +1,271 @@
+package com.example.attendancesystem.table.service;
+
+import com.example.attendancesystem.table.model.RestaurantTable;
+import com.example.attendancesystem.table.repository.RestaurantTableRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table Directory
+ * In-memory tables per organization, keyed by table number and QR code. An organization's
+ * tables are read with one query on first use and then kept current from committed creates,
+ * updates and deletes, so resolving a table is a map lookup. A QR code from an organization
+ * not yet loaded is found through the unique qr_code index, which loads that organization.
+ * Only this instance's changes are seen as they commit; changes made by other instances are
+ * picked up when an organization's tables are read again, at most ttl-ms after they were
+ * loaded, or at once for a QR code the index knows but the loaded tables do not.
+ */
+@Service
+public class TableDirectory {
+
+    private static final Logger logger = LoggerFactory.getLogger(TableDirectory.class);
+
+    /**
+     * Immutable copy of one table as last committed
+     */
+    public record TableEntry(Long id,
+                             Integer tableNumber,
+                             Long organizationId,
+                             String qrCode,
+                             String qrCodeUrl,
+                             Boolean isActive,
+                             Integer capacity,
+                             String locationDescription,
+                             LocalDateTime createdAt,
+                             LocalDateTime updatedAt) {
+
+        static TableEntry of(RestaurantTable table) {
+            return new TableEntry(table.getId(), table.getTableNumber(),
+                    table.getOrganization() != null ? table.getOrganization().getId() : null,
+                    table.getQrCode(), table.getQrCodeUrl(), table.getIsActive(), table.getCapacity(),
+                    table.getLocationDescription(), table.getCreatedAt(), table.getUpdatedAt());
+        }
+    }
+
+    private final RestaurantTableRepository tableRepository;
+    private final long ttlMillis;
+
+    private final ConcurrentHashMap<Long, OrganizationTables> organizations = new ConcurrentHashMap<>();
+    // QR code to organization, for loaded organizations only
+    private final ConcurrentHashMap<String, Long> organizationByQrCode = new ConcurrentHashMap<>();
+    // Bumped on every change; a load that started before the bump is served but not kept
+    private final ConcurrentHashMap<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+
+    public TableDirectory(RestaurantTableRepository tableRepository,
+                          @Value("${app.table-directory.ttl-ms:60000}") long ttlMillis) {
+        this.tableRepository = tableRepository;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * Live table by number, active or not; callers decide whether inactive tables count
+     */
+    public Optional<TableEntry> findByNumber(Long organizationId, Integer tableNumber) {
+        return Optional.ofNullable(tables(organizationId, false).byNumber.get(tableNumber));
+    }
+
+    /**
+     * Live table by QR code, active or not; callers decide whether inactive tables count
+     */
+    public Optional<TableEntry> findByQrCode(String qrCode) {
+        Long organizationId = organizationByQrCode.get(qrCode);
+        if (organizationId != null) {
+            TableEntry entry = tables(organizationId, false).byQrCode.get(qrCode);
+            if (entry != null) {
+                return Optional.of(entry);
+            }
+        }
+        Long owner = tableRepository.findOrganizationIdByQrCode(qrCode).orElse(null);
+        if (owner == null) {
+            return Optional.empty();
+        }
+        // The index knows the code, so tables loaded without it are stale
+        TableEntry entry = tables(owner, false).byQrCode.get(qrCode);
+        if (entry == null) {
+            entry = tables(owner, true).byQrCode.get(qrCode);
+        }
+        return Optional.ofNullable(entry);
+    }
+
+    /**
+     * Apply a created or updated table once the surrounding transaction commits
+     */
+    public void putAfterCommit(RestaurantTable table) {
+        TableEntry entry = TableEntry.of(table);
+        // Soft-deleted tables leave the directory like deleted ones
+        TableEntry live = table.getDeletedAt() == null ? entry : null;
+        afterCommit(() -> apply(entry.organizationId(), entry.id(), live));
+    }
+
+    /**
+     * Drop a deleted table once the surrounding transaction commits
+     */
+    public void removeAfterCommit(RestaurantTable table) {
+        TableEntry entry = TableEntry.of(table);
+        afterCommit(() -> apply(entry.organizationId(), entry.id(), null));
+    }
+
+    /**
+     * Forget an organization entirely, e.g. after its rows were deleted outside JPA
+     */
+    public void evict(long organizationId) {
+        generation(organizationId).incrementAndGet();
+        OrganizationTables removed = organizations.remove(organizationId);
+        if (removed != null) {
+            removed.byQrCode.keySet().forEach(organizationByQrCode::remove);
+        }
+    }
+
+    public int organizationCount() {
+        return organizations.size();
+    }
+
+    private OrganizationTables tables(Long organizationId, boolean reload) {
+        if (organizationId == null) {
+            return OrganizationTables.EMPTY;
+        }
+        OrganizationTables loaded = organizations.get(organizationId);
+        if (loaded != null && !reload && System.currentTimeMillis() - loaded.loadedAt < ttlMillis) {
+            return loaded;
+        }
+
+        long seen = generation(organizationId).get();
+        List<RestaurantTable> rows = tableRepository.findLiveByOrganizationId(organizationId);
+        OrganizationTables candidate = OrganizationTables.of(rows.stream().map(TableEntry::of).toList());
+        OrganizationTables[] replaced = new OrganizationTables[1];
+        OrganizationTables installed = organizations.compute(organizationId, (id, current) -> {
+            if (current != null && current != loaded) {
+                // Loaded or changed by someone else meanwhile
+                return current;
+            }
+            replaced[0] = current;
+            return generation(organizationId).get() == seen ? candidate : null;
+        });
+        if (installed == candidate) {
+            if (replaced[0] != null) {
+                replaced[0].byQrCode.keySet().stream()
+                        .filter(qrCode -> !candidate.byQrCode.containsKey(qrCode))
+                        .forEach(qrCode -> organizationByQrCode.remove(qrCode, organizationId));
+            }
+            candidate.byQrCode.keySet().forEach(qrCode -> organizationByQrCode.put(qrCode, organizationId));
+            logger.debug("Loaded {} tables for organization {}", rows.size(), organizationId);
+        }
+        return installed != null ? installed : candidate;
+    }
+
+    private void apply(Long organizationId, Long tableId, TableEntry entry) {
+        if (organizationId == null || tableId == null) {
+            return;
+        }
+        generation(organizationId).incrementAndGet();
+        OrganizationTables[] replaced = new OrganizationTables[2];
+        organizations.computeIfPresent(organizationId, (id, current) -> {
+            replaced[0] = current;
+            replaced[1] = current.with(tableId, entry);
+            return replaced[1];
+        });
+        if (replaced[0] == null) {
+            return;
+        }
+        TableEntry previous = replaced[0].byId.get(tableId);
+        if (previous != null && previous.qrCode() != null && (entry == null || !previous.qrCode().equals(entry.qrCode()))) {
+            organizationByQrCode.remove(previous.qrCode(), organizationId);
+        }
+        if (entry != null && entry.qrCode() != null) {
+            organizationByQrCode.put(entry.qrCode(), organizationId);
+        }
+    }
+
+    private AtomicLong generation(Long organizationId) {
+        return generations.computeIfAbsent(organizationId, id -> new AtomicLong());
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Tables of one organization; replaced as a whole on every change so readers never see
+     * a table half-moved between keys
+     */
+    private static final class OrganizationTables {
+
+        private static final OrganizationTables EMPTY = new OrganizationTables(Map.of(), Map.of(), Map.of(), 0);
+
+        private final Map<Long, TableEntry> byId;
+        private final Map<Integer, TableEntry> byNumber;
+        private final Map<String, TableEntry> byQrCode;
+        // When these tables were read from the database; local changes applied since keep it
+        private final long loadedAt;
+
+        private OrganizationTables(Map<Long, TableEntry> byId, Map<Integer, TableEntry> byNumber,
+                                   Map<String, TableEntry> byQrCode, long loadedAt) {
+            this.byId = byId;
+            this.byNumber = byNumber;
+            this.byQrCode = byQrCode;
+            this.loadedAt = loadedAt;
+        }
+
+        private static OrganizationTables of(List<TableEntry> entries) {
+            Map<Long, TableEntry> ids = new HashMap<>();
+            Map<Integer, TableEntry> numbers = new HashMap<>();
+            Map<String, TableEntry> qrCodes = new HashMap<>();
+            for (TableEntry entry : entries) {
+                ids.put(entry.id(), entry);
+                numbers.put(entry.tableNumber(), entry);
+                if (entry.qrCode() != null) {
+                    qrCodes.put(entry.qrCode(), entry);
+                }
+            }
+            return new OrganizationTables(Collections.unmodifiableMap(ids), Collections.unmodifiableMap(numbers),
+                    Collections.unmodifiableMap(qrCodes), System.currentTimeMillis());
+        }
+
+        /**
+         * Copy with the table replaced by the entry, or removed when the entry is null
+         */
+        private OrganizationTables with(Long tableId, TableEntry entry) {
+            Map<Long, TableEntry> ids = new HashMap<>(byId);
+            Map<Integer, TableEntry> numbers = new HashMap<>(byNumber);
+            Map<String, TableEntry> qrCodes = new HashMap<>(byQrCode);
+            TableEntry previous = ids.remove(tableId);
+            if (previous != null) {
+                numbers.remove(previous.tableNumber(), previous);
+                if (previous.qrCode() != null) {
+                    qrCodes.remove(previous.qrCode(), previous);
+                }
+            }
+            if (entry != null) {
+                ids.put(tableId, entry);
+                numbers.put(entry.tableNumber(), entry);
+                if (entry.qrCode() != null) {
+                    qrCodes.put(entry.qrCode(), entry);
+                }
+            }
+            return new OrganizationTables(Collections.unmodifiableMap(ids), Collections.unmodifiableMap(numbers),
+                    Collections.unmodifiableMap(qrCodes), loadedAt);
+        }
+    }
+}
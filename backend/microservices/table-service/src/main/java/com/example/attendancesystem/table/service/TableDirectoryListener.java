@@ -0,0 +1,38 @@
+package com.example.attendancesystem.table.service;
+
+import com.example.attendancesystem.table.model.RestaurantTable;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener keeping the TableDirectory in step with table changes
+ */
+@Component
+public class TableDirectoryListener {
+
+    private final ObjectProvider<TableDirectory> tableDirectory;
+
+    public TableDirectoryListener(ObjectProvider<TableDirectory> tableDirectory) {
+        this.tableDirectory = tableDirectory;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void saved(RestaurantTable table) {
+        TableDirectory directory = tableDirectory.getIfAvailable();
+        if (directory != null) {
+            directory.putAfterCommit(table);
+        }
+    }
+
+    @PostRemove
+    public void removed(RestaurantTable table) {
+        TableDirectory directory = tableDirectory.getIfAvailable();
+        if (directory != null) {
+            directory.removeAfterCommit(table);
+        }
+    }
+}
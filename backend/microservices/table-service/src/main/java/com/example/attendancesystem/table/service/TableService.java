@@ -2,7 +2,7 @@ package com.example.attendancesystem.table.service;
 
 import com.example.attendancesystem.shared.dto.RestaurantTableDto;
 import com.example.attendancesystem.shared.model.Organization;
-import com.example.attendancesystem.shared.repository.OrganizationRepository;
+import com.example.attendancesystem.shared.client.OrganizationResolver;
 import com.example.attendancesystem.table.model.RestaurantTable;
 import com.example.attendancesystem.table.repository.RestaurantTableRepository;
 import org.slf4j.Logger;
@@ -26,12 +26,12 @@ public class TableService {
     private RestaurantTableRepository tableRepository;
     
     @Autowired
-    private OrganizationRepository organizationRepository;
+    private OrganizationResolver organizationResolver;
     
     public List<RestaurantTableDto> getTablesByOrganization(String entityId) {
         logger.info("Getting tables for organization: {}", entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         List<RestaurantTable> tables = tableRepository.findByOrganizationOrderByTableNumberAsc(organization);
@@ -43,7 +43,7 @@ public class TableService {
     public RestaurantTableDto getTableById(String entityId, Long tableId) {
         logger.info("Getting table {} for organization: {}", tableId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         RestaurantTable table = tableRepository.findByIdAndOrganization(tableId, organization)
@@ -55,7 +55,7 @@ public class TableService {
     public RestaurantTableDto getTableByNumber(String entityId, Integer tableNumber) {
         logger.info("Getting table {} for organization: {}", tableNumber, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         RestaurantTable table = tableRepository.findByTableNumberAndOrganization(tableNumber, organization)
@@ -76,7 +76,7 @@ public class TableService {
     public RestaurantTableDto createTable(String entityId, RestaurantTableDto tableDto) {
         logger.info("Creating table for organization: {}", entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         // Check if table number already exists
@@ -105,7 +105,7 @@ public class TableService {
     public RestaurantTableDto updateTable(String entityId, Long tableId, RestaurantTableDto tableDto) {
         logger.info("Updating table {} for organization: {}", tableId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         RestaurantTable table = tableRepository.findByIdAndOrganization(tableId, organization)
@@ -131,7 +131,7 @@ public class TableService {
     public void deleteTable(String entityId, Long tableId) {
         logger.info("Deleting table {} for organization: {}", tableId, entityId);
         
-        Organization organization = organizationRepository.findByEntityId(entityId)
+        Organization organization = organizationResolver.findByEntityId(entityId)
                 .orElseThrow(() -> new RuntimeException("Organization not found"));
         
         RestaurantTable table = tableRepository.findByIdAndOrganization(tableId, organization)
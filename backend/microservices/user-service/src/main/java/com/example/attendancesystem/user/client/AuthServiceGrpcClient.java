@@ -0,0 +1,154 @@
+package com.example.attendancesystem.user.client;
+
+import com.example.attendancesystem.grpc.auth.AuthServiceGrpc;
+import com.example.attendancesystem.grpc.auth.CreateEntityAdminForAuthRequest;
+import com.example.attendancesystem.grpc.auth.CreateEntityAdminForAuthResponse;
+import io.grpc.Channel;
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import net.devh.boot.grpc.client.inject.GrpcClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * gRPC client for Auth Service
+ * Registers Entity Admins for authentication over the shared, keep-alive auth-service channel.
+ * Every call carries a deadline, concurrent calls are capped, and failed calls are retried
+ * with exponential backoff and full jitter; auth-service treats a repeat of a create that
+ * already went through as success, so retrying after a timeout is safe.
+ */
+@Service
+public class AuthServiceGrpcClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AuthServiceGrpcClient.class);
+
+    @GrpcClient("auth-service")
+    private AuthServiceGrpc.AuthServiceBlockingStub authServiceStub;
+
+    @GrpcClient("auth-service")
+    private Channel authServiceChannel;
+
+    @Value("${auth.service.client.deadline-ms:3000}")
+    private long deadlineMs;
+
+    @Value("${auth.service.client.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${auth.service.client.backoff-base-ms:100}")
+    private long backoffBaseMs;
+
+    @Value("${auth.service.client.backoff-max-ms:2000}")
+    private long backoffMaxMs;
+
+    @Value("${auth.service.client.acquire-timeout-ms:1000}")
+    private long acquireTimeoutMs;
+
+    /**
+     * Outcome of registering a login: REJECTED means auth-service did not create it,
+     * UNCERTAIN that it may have (the last attempt failed in transit)
+     */
+    public enum Registration {
+        CREATED, REJECTED, UNCERTAIN
+    }
+
+    private final Semaphore inFlight;
+
+    public AuthServiceGrpcClient(@Value("${auth.service.client.max-in-flight:32}") int maxInFlight) {
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Create Entity Admin in Auth Service for authentication
+     * This ensures EntityAdmins can login after being created in User Service
+     */
+    public Registration createEntityAdminForAuth(String username, String password, Long organizationId) {
+        logger.info("Creating Entity Admin in Auth Service: {} for organization: {}", username, organizationId);
+
+        CreateEntityAdminForAuthRequest request = CreateEntityAdminForAuthRequest.newBuilder()
+                .setUsername(username)
+                .setPassword(password)
+                .setOrganizationId(organizationId)
+                .build();
+
+        try {
+            if (!inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                logger.warn("Auth Service call limit reached, rejecting Entity Admin creation: {}", username);
+                return Registration.REJECTED;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Registration.REJECTED;
+        }
+
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    CreateEntityAdminForAuthResponse response = authServiceStub
+                            .withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)
+                            .createEntityAdminForAuth(request);
+
+                    if (response.getSuccess()) {
+                        logger.info("Successfully created Entity Admin in Auth Service: {}", username);
+                        return Registration.CREATED;
+                    }
+                    logger.warn("Failed to create Entity Admin in Auth Service: {} - {}", username, response.getMessage());
+                    return Registration.REJECTED;
+
+                } catch (StatusRuntimeException e) {
+                    if (!isRetryable(e.getStatus()) || attempt >= maxAttempts) {
+                        logger.error("Error creating Entity Admin in Auth Service: {} - {} (attempt {})",
+                                    username, e.getStatus(), attempt);
+                        return Registration.UNCERTAIN;
+                    }
+                    long backoff = backoffMillis(attempt);
+                    logger.debug("Auth Service unavailable for {}, retrying in {} ms (attempt {})", username, backoff, attempt);
+                    Thread.sleep(backoff);
+                }
+            }
+        } catch (InterruptedException e) {
+            // Interrupted while backing off after a failed attempt, which may have landed
+            Thread.currentThread().interrupt();
+            return Registration.UNCERTAIN;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /**
+     * Check if Auth Service is available (channel connected or connecting)
+     */
+    public boolean isAuthServiceAvailable() {
+        if (authServiceChannel instanceof ManagedChannel managedChannel) {
+            ConnectivityState state = managedChannel.getState(true);
+            return state == ConnectivityState.READY || state == ConnectivityState.IDLE
+                    || state == ConnectivityState.CONNECTING;
+        }
+        return true;
+    }
+
+    /**
+     * Transient failures; a deadline may fire after auth-service created the admin, and the
+     * retry then gets that admin back as success
+     */
+    private static boolean isRetryable(Status status) {
+        return status.getCode() == Status.Code.UNAVAILABLE
+                || status.getCode() == Status.Code.RESOURCE_EXHAUSTED
+                || status.getCode() == Status.Code.DEADLINE_EXCEEDED;
+    }
+
+    /**
+     * Exponential backoff with full jitter: uniform in [0, min(max, base * 2^(attempt-1))]
+     */
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.attendancesystem.user.config;
+
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.ChannelOption;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for outbound gRPC channels
+ */
+@Configuration
+public class GrpcClientConfig {
+
+    /**
+     * Bound TCP connect time to auth-service so a dead peer fails fast instead of waiting on the OS default
+     */
+    @Bean
+    public GrpcChannelConfigurer authServiceConnectTimeoutConfigurer(
+            @Value("${auth.service.client.connect-timeout-ms:2000}") int connectTimeoutMs) {
+        return (channelBuilder, name) -> {
+            if ("auth-service".equals(name) && channelBuilder instanceof NettyChannelBuilder nettyChannelBuilder) {
+                nettyChannelBuilder.withOption(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs);
+            }
+        };
+    }
+}
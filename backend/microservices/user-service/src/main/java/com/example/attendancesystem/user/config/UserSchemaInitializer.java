@@ -0,0 +1,88 @@
+package com.example.attendancesystem.user.config;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * User Schema Initializer
+ * Creates the search column and the search and keyset indexes the user queries rely on.
+ * Hibernate only validates the schema, so these are applied at startup with IF NOT EXISTS.
+ * The docker init script installs pg_trgm as the superuser, which makes the first statement a no-op;
+ * it does not create the users table, so the column and indexes are only defined here.
+ * Indexes are built CONCURRENTLY (each statement in its own autocommit call, outside any
+ * transaction) so a boot on a populated table does not block writes to users; an index left
+ * invalid by an interrupted build is dropped and rebuilt. The column is added only when missing,
+ * since ALTER TABLE takes an exclusive lock even when IF NOT EXISTS makes it a no-op.
+ */
+@Component
+public class UserSchemaInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSchemaInitializer.class);
+
+    static final String CREATE_EXTENSION_SQL = "CREATE EXTENSION IF NOT EXISTS pg_trgm";
+
+    // Lower-cased names, username, email and mobile in one string so a single GIN index
+    // serves substring search of 3+ character terms
+    static final String ADD_SEARCH_COLUMN_SQL =
+            "ALTER TABLE users ADD COLUMN IF NOT EXISTS search_text TEXT GENERATED ALWAYS AS (LOWER("
+                    + "COALESCE(first_name, '') || ' ' || COALESCE(last_name, '') || ' ' || username || ' ' || "
+                    + "COALESCE(email, '') || ' ' || COALESCE(mobile_number, ''))) STORED";
+
+    private static final String SEARCH_COLUMN_EXISTS_SQL =
+            "SELECT COUNT(*) FROM information_schema.columns "
+                    + "WHERE table_schema = current_schema() AND table_name = 'users' AND column_name = 'search_text'";
+
+    private static final String INVALID_INDEXES_SQL =
+            "SELECT c.relname FROM pg_index i "
+                    + "JOIN pg_class c ON c.oid = i.indexrelid "
+                    + "JOIN pg_class t ON t.oid = i.indrelid "
+                    + "WHERE t.relname = 'users' AND t.relnamespace = (SELECT oid FROM pg_namespace WHERE nspname = current_schema()) "
+                    + "AND NOT i.indisvalid AND c.relname LIKE 'idx_users_%'";
+
+    static final List<String> INDEXES = List.of(
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_search_text_trgm ON users USING GIN (search_text gin_trgm_ops)",
+            // Prefix matching for terms too short for trigrams, and relevance ranking
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_username_prefix ON users (LOWER(username) text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_first_name_prefix ON users (LOWER(first_name) text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_last_name_prefix ON users (LOWER(last_name) text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_prefix ON users (LOWER(email) text_pattern_ops)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_mobile_number_prefix ON users (mobile_number text_pattern_ops)",
+            // Keyset pagination: one index per (filter, sort key, id) so a page is a bounded range scan;
+            // NULL first names sort as the empty string
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_org_id_keyset ON users (organization_id, id)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_org_type_id_keyset ON users (organization_id, user_type, id)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_type_id_keyset ON users (user_type, id)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_first_name_keyset ON users (COALESCE(first_name, ''), id)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_org_first_name_keyset ON users (organization_id, COALESCE(first_name, ''), id)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_org_type_first_name_keyset "
+                    + "ON users (organization_id, user_type, COALESCE(first_name, ''), id)",
+            "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_type_first_name_keyset ON users (user_type, COALESCE(first_name, ''), id)");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserSchemaInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate.execute(CREATE_EXTENSION_SQL);
+        Integer columns = jdbcTemplate.queryForObject(SEARCH_COLUMN_EXISTS_SQL, Integer.class);
+        if (columns == null || columns == 0) {
+            jdbcTemplate.execute(ADD_SEARCH_COLUMN_SQL);
+            logger.info("Added users.search_text");
+        }
+
+        for (String invalid : jdbcTemplate.queryForList(INVALID_INDEXES_SQL, String.class)) {
+            logger.warn("Dropping invalid index {} left by an interrupted build", invalid);
+            jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + invalid);
+        }
+        INDEXES.forEach(jdbcTemplate::execute);
+        logger.info("User schema objects verified ({} indexes)", INDEXES.size());
+    }
+}
@@ -1,10 +1,19 @@
 package com.example.attendancesystem.user.controller;
 
+import com.example.attendancesystem.user.dto.MemberImportResult;
+import com.example.attendancesystem.user.dto.UserCursorPage;
 import com.example.attendancesystem.user.dto.UserDto;
 import com.example.attendancesystem.user.dto.CreateUserRequest;
 import com.example.attendancesystem.user.model.Permission;
 import com.example.attendancesystem.user.model.UserType;
+import com.example.attendancesystem.user.service.MemberImportReader;
+import com.example.attendancesystem.user.service.MemberImportService;
+import com.example.attendancesystem.user.service.OtpService;
 import com.example.attendancesystem.user.service.UserService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +26,9 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -35,6 +47,15 @@ public class UserController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private OtpService otpService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // ========== SUPER ADMIN ENDPOINTS ==========
 
     /**
@@ -225,6 +246,47 @@ public class UserController {
         }
     }
 
+    /**
+     * Bulk import Members from a CSV or NDJSON body
+     * Streams one NDJSON result line per input row, flushed per chunk, followed by a summary line.
+     */
+    @PostMapping(value = "/members/import", produces = "application/x-ndjson")
+    public void importMembers(@RequestParam Long organizationId,
+                              @RequestHeader("X-User-ID") Long currentUserId,
+                              HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        logger.info("Importing Members for organization: {} by user: {}", organizationId, currentUserId);
+        long startNanos = System.nanoTime();
+
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter writer = response.getWriter();
+
+        MemberImportReader reader = new MemberImportReader(request.getInputStream(),
+                MemberImportReader.formatFor(request.getContentType()), organizationId, currentUserId);
+        long[] failed = new long[1];
+        long created = memberImportService.importAll(reader, results -> {
+            for (MemberImportResult result : results) {
+                if (!result.success()) {
+                    failed[0]++;
+                }
+                writer.println(toJson(result));
+            }
+            writer.flush();
+        });
+
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        writer.println(toJson(Map.of(
+            "success", true,
+            "created", created,
+            "failed", failed[0],
+            "elapsedMs", elapsedMs
+        )));
+        writer.flush();
+        logger.info("Member import for organization {} finished: {} created, {} failed in {} ms",
+                   organizationId, created, failed[0], elapsedMs);
+    }
+
     /**
      * Get Members by Organization with pagination
      */
@@ -260,6 +322,85 @@ public class UserController {
         }
     }
 
+    /**
+     * Get Members by Organization with keyset (cursor) pagination
+     * Pass the returned nextCursor to fetch the following page; totalElements only when includeTotal=true
+     */
+    @GetMapping("/members/organization/{organizationId}/cursor")
+    public ResponseEntity<?> getMembersByOrganizationCursor(@PathVariable Long organizationId,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "20") int size,
+                                                            @RequestParam(defaultValue = "firstName") String sortBy,
+                                                            @RequestParam(defaultValue = "false") boolean includeTotal,
+                                                            @RequestHeader("X-User-ID") Long currentUserId) {
+        try {
+            UserCursorPage members = userService.getMembersByOrganizationAfter(
+                    organizationId, cursor, sortBy, size, includeTotal);
+
+            Map<String, Object> response = cursorPageResponse(members);
+            response.put("organizationId", organizationId);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            logger.error("Error fetching Members for organization: {}", organizationId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to fetch Members"
+            ));
+        }
+    }
+
+    // ========== OTP ENDPOINTS ==========
+
+    /**
+     * Issue an OTP for a member's mobile number
+     * The code is sent to the number by SMS and never included in the response.
+     */
+    @PostMapping("/otp/request")
+    public ResponseEntity<?> requestOtp(@RequestBody Map<String, String> request) {
+        String mobileNumber = request.get("mobileNumber");
+        try {
+            otpService.issueOtp(mobileNumber);
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "expiresIn", otpService.getTtlSeconds()
+            ));
+        } catch (OtpService.DeliveryException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            logger.error("Error issuing OTP", e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Verify an OTP for a member's mobile number
+     */
+    @PostMapping("/otp/verify")
+    public ResponseEntity<?> verifyOtp(@RequestBody Map<String, String> request) {
+        OtpService.VerificationResult result = otpService.verifyOtp(request.get("mobileNumber"), request.get("otpCode"));
+        boolean verified = result == OtpService.VerificationResult.VERIFIED;
+        return ResponseEntity.status(verified ? HttpStatus.OK : HttpStatus.UNAUTHORIZED).body(Map.of(
+            "success", verified,
+            "result", result.name()
+        ));
+    }
+
     // ========== GENERIC USER ENDPOINTS ==========
 
     /**
@@ -382,6 +523,8 @@ public class UserController {
 
     /**
      * Get all users with pagination and filtering
+     * sortBy/sortDir order plain listings; search results are always ranked by relevance,
+     * and search terms shorter than three characters match name, username, email or mobile prefixes
      */
     @GetMapping
     public ResponseEntity<?> getAllUsers(@RequestParam(defaultValue = "0") int page,
@@ -397,7 +540,10 @@ public class UserController {
                 sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending());
 
             Page<UserDto> users;
-            if (userType != null && !userType.isEmpty()) {
+            if (search != null && !search.isEmpty() && userType != null && !userType.isEmpty()) {
+                UserType type = UserType.valueOf(userType.toUpperCase());
+                users = userService.searchUsersByNameAndType(search, type, organizationId, pageable);
+            } else if (userType != null && !userType.isEmpty()) {
                 UserType type = UserType.valueOf(userType.toUpperCase());
                 users = userService.getUsersByType(type, pageable);
             } else if (organizationId != null) {
@@ -425,6 +571,42 @@ public class UserController {
         }
     }
 
+    /**
+     * Get users with keyset (cursor) pagination
+     * Filters mirror GET /api/users and combine with search; search results are ordered by id
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<?> getUsersCursor(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(defaultValue = "id") String sortBy,
+                                            @RequestParam(required = false) String userType,
+                                            @RequestParam(required = false) Long organizationId,
+                                            @RequestParam(required = false) String search,
+                                            @RequestParam(defaultValue = "false") boolean activeOnly,
+                                            @RequestParam(defaultValue = "false") boolean includeTotal,
+                                            @RequestHeader("X-User-ID") Long currentUserId) {
+        try {
+            UserType type = userType != null && !userType.isEmpty() ? UserType.valueOf(userType.toUpperCase()) : null;
+
+            UserCursorPage users = search != null && !search.isEmpty()
+                    ? userService.searchUsersAfter(search, organizationId, type, activeOnly, cursor, size, includeTotal)
+                    : userService.getUsersAfter(organizationId, type, activeOnly, cursor, sortBy, size, includeTotal);
+
+            return ResponseEntity.ok(cursorPageResponse(users));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            logger.error("Error fetching users", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "success", false,
+                "message", "Failed to fetch users"
+            ));
+        }
+    }
+
     /**
      * Get current user profile
      */
@@ -569,6 +751,29 @@ public class UserController {
         }
     }
 
+    /**
+     * Record a user's login and device (called by Auth Service after authentication)
+     */
+    @PostMapping("/{userId}/login-activity")
+    public ResponseEntity<?> recordLogin(@PathVariable Long userId,
+                                         @RequestBody(required = false) Map<String, String> request) {
+        try {
+            userService.recordLogin(userId,
+                    request != null ? request.get("deviceId") : null,
+                    request != null ? request.get("deviceInfo") : null);
+            return ResponseEntity.accepted().body(Map.of(
+                "success", true,
+                "message", "Login recorded"
+            ));
+        } catch (Exception e) {
+            logger.error("Error recording login for user: {}", userId, e);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "success", false,
+                "message", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Activate/Deactivate user
      */
@@ -729,4 +934,27 @@ public class UserController {
             ));
         }
     }
+
+    private Map<String, Object> cursorPageResponse(UserCursorPage page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("users", page.getUsers());
+        response.put("size", page.getUsers().size());
+        response.put("hasMore", page.isHasMore());
+        if (page.getNextCursor() != null) {
+            response.put("nextCursor", page.getNextCursor());
+        }
+        if (page.getTotalCount() != null) {
+            response.put("totalElements", page.getTotalCount());
+        }
+        return response;
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize import result", e);
+        }
+    }
 }
@@ -0,0 +1,21 @@
+package com.example.attendancesystem.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Per-row outcome of a bulk member import
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MemberImportResult(long rowNumber,
+                                 boolean success,
+                                 Long userId,
+                                 String message) {
+
+    public static MemberImportResult created(long rowNumber, Long userId) {
+        return new MemberImportResult(rowNumber, true, userId, "Member created");
+    }
+
+    public static MemberImportResult failed(long rowNumber, String message) {
+        return new MemberImportResult(rowNumber, false, null, message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.attendancesystem.user.dto;
+
+/**
+ * One member row of a bulk import (CSV, NDJSON or gRPC stream)
+ * password is the member's plain PIN; blank means the default PIN.
+ */
+public record MemberImportRow(long rowNumber,
+                              Long organizationId,
+                              Long createdBy,
+                              String mobileNumber,
+                              String firstName,
+                              String lastName,
+                              String email,
+                              String password) {
+}
@@ -0,0 +1,93 @@
+package com.example.attendancesystem.user.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for user listings
+ * Encodes the sort order, the last row's sort key and its id as URL-safe Base64,
+ * so the next page continues strictly after (sortKey, id) instead of using an offset.
+ */
+public class UserCursor {
+
+    public static final String SORT_BY_ID = "id";
+    public static final String SORT_BY_FIRST_NAME = "firstName";
+
+    private static final String SEPARATOR = "\n";
+
+    private final String sortBy;
+    private final String sortKey;
+    private final long id;
+
+    public UserCursor(String sortBy, String sortKey, long id) {
+        this.sortBy = sortBy;
+        this.sortKey = sortKey != null ? sortKey : "";
+        this.id = id;
+    }
+
+    /**
+     * Cursor positioned before the first row of the given sort order
+     */
+    public static UserCursor start(String sortBy) {
+        return new UserCursor(normalizeSortBy(sortBy), "", 0L);
+    }
+
+    /**
+     * Decode a client-supplied cursor; null or blank means the first page
+     */
+    public static UserCursor decode(String cursor, String sortBy) {
+        String expectedSort = normalizeSortBy(sortBy);
+        if (cursor == null || cursor.isBlank()) {
+            return start(expectedSort);
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        String[] parts = raw.split(SEPARATOR, 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (!parts[0].equals(expectedSort)) {
+            throw new IllegalArgumentException("Cursor was issued for sort '" + parts[0] + "'");
+        }
+        try {
+            return new UserCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    public static String normalizeSortBy(String sortBy) {
+        if (sortBy == null || sortBy.isBlank() || SORT_BY_ID.equalsIgnoreCase(sortBy)) {
+            return SORT_BY_ID;
+        }
+        if (SORT_BY_FIRST_NAME.equalsIgnoreCase(sortBy)) {
+            return SORT_BY_FIRST_NAME;
+        }
+        throw new IllegalArgumentException("Unsupported cursor sort: " + sortBy + " (use id or firstName)");
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public boolean isSortedByFirstName() {
+        return SORT_BY_FIRST_NAME.equals(sortBy);
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
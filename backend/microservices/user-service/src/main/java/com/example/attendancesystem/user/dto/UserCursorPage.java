@@ -0,0 +1,41 @@
+package com.example.attendancesystem.user.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) user listing
+ * totalCount is only populated when explicitly requested, since it costs a COUNT(*).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class UserCursorPage {
+
+    private final List<UserDto> users;
+    private final String nextCursor;
+    private final boolean hasMore;
+    private final Long totalCount;
+
+    public UserCursorPage(List<UserDto> users, String nextCursor, boolean hasMore, Long totalCount) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.totalCount = totalCount;
+    }
+
+    public List<UserDto> getUsers() {
+        return users;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public Long getTotalCount() {
+        return totalCount;
+    }
+}
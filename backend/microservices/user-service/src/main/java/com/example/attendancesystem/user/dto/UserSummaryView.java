@@ -0,0 +1,24 @@
+package com.example.attendancesystem.user.dto;
+
+/**
+ * Read-only projection of the user columns needed for bulk lookups
+ * (attendance rosters, enrichment). Avoids loading full User entities and permissions.
+ */
+public interface UserSummaryView {
+
+    Long getId();
+
+    String getUsername();
+
+    String getFirstName();
+
+    String getLastName();
+
+    String getMobileNumber();
+
+    String getUserType();
+
+    Long getOrganizationId();
+
+    Boolean getIsActive();
+}
@@ -1,9 +1,18 @@
 package com.example.attendancesystem.user.grpc;
 
 import com.example.attendancesystem.grpc.user.*;
+import com.example.attendancesystem.user.client.AuthServiceGrpcClient;
+import com.example.attendancesystem.user.dto.MemberImportResult;
+import com.example.attendancesystem.user.dto.MemberImportRow;
+import com.example.attendancesystem.user.dto.UserCursorPage;
+import com.example.attendancesystem.user.dto.UserDto;
+import com.example.attendancesystem.user.dto.UserSummaryView;
 import com.example.attendancesystem.user.model.User;
+import com.example.attendancesystem.user.model.UserType;
+import com.example.attendancesystem.user.service.MemberImportService;
 import com.example.attendancesystem.user.service.UserService;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.slf4j.Logger;
@@ -14,7 +23,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -26,26 +38,66 @@ public class UserServiceImpl extends UserServiceGrpc.UserServiceImplBase {
 
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int STREAM_PAGE_SIZE = 1000;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MemberImportService memberImportService;
+
+    @Autowired
+    private AuthServiceGrpcClient authServiceGrpcClient;
+
     @Override
     public void createEntityAdmin(CreateEntityAdminRequest request, StreamObserver<UserResponse> responseObserver) {
         try {
             logger.info("Creating Entity Admin via gRPC: {}", request.getUsername());
 
-            // Create Entity Admin user
-            User user = userService.createEntityAdmin(
-                    request.getUsername(),
-                    request.getPassword(),
-                    request.getEmail(),
-                    request.getFirstName(),
-                    request.getLastName(),
-                    request.getMobileNumber(),
-                    request.getOrganizationId(),
-                    request.getCreatedByUserId()
-            );
+            // A retry after an unknown registration outcome finds the user already created and
+            // only repeats the registration, which auth-service answers idempotently
+            User user = userService.findEntityAdminForRetry(request.getUsername(), request.getPassword(),
+                    request.getOrganizationId()).orElse(null);
+            if (user == null) {
+                // Create Entity Admin user
+                user = userService.createEntityAdmin(
+                        request.getUsername(),
+                        request.getPassword(),
+                        request.getEmail(),
+                        request.getFirstName(),
+                        request.getLastName(),
+                        request.getMobileNumber(),
+                        request.getOrganizationId(),
+                        request.getCreatedByUserId()
+                );
+            }
+
+            // Register the login in auth-service once the user is committed, so the RPC never
+            // holds a transaction open. A definite rejection removes the user so neither side is
+            // half-created; an unknown outcome keeps it, since the login may exist, and the
+            // caller's retry completes the registration
+            AuthServiceGrpcClient.Registration registration = authServiceGrpcClient.createEntityAdminForAuth(
+                    request.getUsername(), request.getPassword(), request.getOrganizationId());
+            if (registration == AuthServiceGrpcClient.Registration.REJECTED) {
+                userService.hardDeleteUser(user.getId(), request.getCreatedByUserId());
+                responseObserver.onNext(UserResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage("Failed to create Entity Admin: could not register login with Auth Service")
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
+            if (registration == AuthServiceGrpcClient.Registration.UNCERTAIN) {
+                logger.warn("Login registration outcome unknown for Entity Admin {}, keeping user {} for retry",
+                        request.getUsername(), user.getId());
+                responseObserver.onNext(UserResponse.newBuilder()
+                        .setSuccess(false)
+                        .setMessage("Entity Admin created but login registration with Auth Service did not complete; "
+                                + "retry the same request to finish it")
+                        .build());
+                responseObserver.onCompleted();
+                return;
+            }
 
             // Convert to gRPC response
             com.example.attendancesystem.grpc.user.User grpcUser = convertToGrpcUser(user);
@@ -155,6 +207,224 @@ public class UserServiceImpl extends UserServiceGrpc.UserServiceImplBase {
         }
     }
 
+    @Override
+    public void listUsers(ListUsersRequest request, StreamObserver<ListUsersResponse> responseObserver) {
+        try {
+            logger.debug("Listing users via gRPC: org={}, search={}", request.getOrganizationId(), request.getSearch());
+
+            int size = request.getSize() > 0 ? request.getSize() : 20;
+            Long organizationId = request.getOrganizationId() > 0 ? request.getOrganizationId() : null;
+            UserType userType = parseUserType(request.getUserType());
+            UserCursorPage page = !request.getSearch().isEmpty()
+                    ? userService.searchUsersAfter(request.getSearch(), organizationId, userType, request.getActiveOnly(),
+                            request.getCursor(), size, request.getIncludeTotal())
+                    : userService.getUsersAfter(organizationId, userType, request.getActiveOnly(),
+                            request.getCursor(), request.getSortBy(), size, request.getIncludeTotal());
+
+            responseObserver.onNext(toListUsersResponse(page));
+            responseObserver.onCompleted();
+
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+            logger.error("Error listing users via gRPC", e);
+            responseObserver.onNext(ListUsersResponse.newBuilder()
+                    .setSuccess(false)
+                    .setMessage("Failed to list users: " + e.getMessage())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Override
+    public void getUsersByOrganization(GetUsersByOrganizationRequest request,
+                                       StreamObserver<ListUsersResponse> responseObserver) {
+        try {
+            logger.debug("Getting users by organization via gRPC: {}", request.getOrganizationId());
+
+            int size = request.getSize() > 0 ? request.getSize() : 20;
+            UserCursorPage page = userService.getUsersAfter(request.getOrganizationId(),
+                    parseUserType(request.getUserType()), request.getActiveOnly(), request.getCursor(),
+                    request.getSortBy(), size, request.getIncludeTotal());
+
+            responseObserver.onNext(toListUsersResponse(page));
+            responseObserver.onCompleted();
+
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+            logger.error("Error getting users by organization via gRPC: {}", request.getOrganizationId(), e);
+            responseObserver.onNext(ListUsersResponse.newBuilder()
+                    .setSuccess(false)
+                    .setMessage("Failed to get users: " + e.getMessage())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Override
+    public void getUsersByIds(GetUsersByIdsRequest request, StreamObserver<GetUsersByIdsResponse> responseObserver) {
+        try {
+            Set<Long> requestedIds = new LinkedHashSet<>(request.getUserIdsList());
+            logger.debug("Getting {} users by ids via gRPC", requestedIds.size());
+
+            List<UserSummaryView> summaries = userService.getUserSummariesByIds(requestedIds);
+
+            GetUsersByIdsResponse.Builder builder = GetUsersByIdsResponse.newBuilder()
+                    .setSuccess(true)
+                    .setMessage("Users retrieved successfully");
+            for (UserSummaryView summary : summaries) {
+                builder.addUsers(convertToGrpcUserSummary(summary));
+                requestedIds.remove(summary.getId());
+            }
+            builder.addAllMissingIds(requestedIds);
+
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+        } catch (Exception e) {
+            logger.error("Error getting users by ids via gRPC", e);
+            responseObserver.onNext(GetUsersByIdsResponse.newBuilder()
+                    .setSuccess(false)
+                    .setMessage("Failed to get users: " + e.getMessage())
+                    .build());
+            responseObserver.onCompleted();
+        }
+    }
+
+    @Override
+    public void streamUsersByOrganization(StreamUsersByOrganizationRequest request,
+                                          StreamObserver<UserSummary> responseObserver) {
+        ServerCallStreamObserver<UserSummary> serverObserver = (ServerCallStreamObserver<UserSummary>) responseObserver;
+        logger.debug("Streaming users for organization via gRPC: {}", request.getOrganizationId());
+
+        UserType userType;
+        try {
+            userType = parseUserType(request.getUserType());
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT.withDescription(e.getMessage()).asRuntimeException());
+            return;
+        }
+
+        serverObserver.setOnCancelHandler(() ->
+                logger.debug("User stream for organization {} cancelled", request.getOrganizationId()));
+        // Pages are fetched only while the transport can take more, so a slow consumer leaves
+        // at most one page buffered; gRPC calls the handler again once the client catches up
+        serverObserver.setOnReadyHandler(new Runnable() {
+            private long afterId;
+            private int streamed;
+            private boolean done;
+
+            @Override
+            public void run() {
+                if (done) {
+                    return;
+                }
+                try {
+                    while (serverObserver.isReady() && !serverObserver.isCancelled()) {
+                        List<UserSummaryView> page = userService.getUserSummariesByOrganizationAfter(
+                                request.getOrganizationId(), userType, request.getActiveOnly(), afterId, STREAM_PAGE_SIZE);
+                        for (UserSummaryView summary : page) {
+                            serverObserver.onNext(convertToGrpcUserSummary(summary));
+                        }
+                        streamed += page.size();
+                        if (page.size() < STREAM_PAGE_SIZE) {
+                            done = true;
+                            serverObserver.onCompleted();
+                            logger.debug("Streamed {} users for organization {}", streamed, request.getOrganizationId());
+                            return;
+                        }
+                        afterId = page.get(page.size() - 1).getId();
+                    }
+                    if (serverObserver.isCancelled()) {
+                        done = true;
+                        logger.debug("User stream for organization {} stopped after {} users", request.getOrganizationId(), streamed);
+                    }
+                } catch (Exception e) {
+                    done = true;
+                    logger.error("Error streaming users for organization via gRPC: {}", request.getOrganizationId(), e);
+                    serverObserver.onError(Status.INTERNAL.withDescription("Failed to stream users").asRuntimeException());
+                }
+            }
+        });
+    }
+
+    @Override
+    public StreamObserver<ImportMemberRow> importMembers(StreamObserver<ImportMemberResult> responseObserver) {
+        return new StreamObserver<>() {
+            private final List<MemberImportRow> chunk = new ArrayList<>(memberImportService.getChunkSize());
+            private long rowNumber;
+            private long created;
+            private boolean failed;
+
+            @Override
+            public void onNext(ImportMemberRow row) {
+                if (failed) {
+                    return;
+                }
+                rowNumber++;
+                chunk.add(new MemberImportRow(rowNumber,
+                        row.getOrganizationId() != 0 ? row.getOrganizationId() : null,
+                        row.getCreatedBy() != 0 ? row.getCreatedBy() : null,
+                        emptyToNull(row.getMobileNumber()),
+                        emptyToNull(row.getFirstName()),
+                        emptyToNull(row.getLastName()),
+                        emptyToNull(row.getEmail()),
+                        emptyToNull(row.getPin())));
+                if (chunk.size() >= memberImportService.getChunkSize()) {
+                    flush();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                logger.warn("Member import stream aborted by client after {} rows: {}", rowNumber, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                flush();
+                if (!failed) {
+                    logger.info("Member import via gRPC finished: {} of {} rows created", created, rowNumber);
+                    responseObserver.onCompleted();
+                }
+            }
+
+            private void flush() {
+                if (chunk.isEmpty() || failed) {
+                    return;
+                }
+                try {
+                    for (MemberImportResult result : memberImportService.importChunk(chunk)) {
+                        if (result.success()) {
+                            created++;
+                        }
+                        ImportMemberResult.Builder builder = ImportMemberResult.newBuilder()
+                                .setRowNumber(result.rowNumber())
+                                .setSuccess(result.success())
+                                .setMessage(result.message() != null ? result.message() : "");
+                        if (result.userId() != null) {
+                            builder.setUserId(result.userId());
+                        }
+                        responseObserver.onNext(builder.build());
+                    }
+                } catch (Exception e) {
+                    failed = true;
+                    logger.error("Error importing members via gRPC at row {}", rowNumber, e);
+                    responseObserver.onError(Status.INTERNAL.withDescription("Failed to import members").asRuntimeException());
+                } finally {
+                    chunk.clear();
+                }
+            }
+        };
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
     // REMOVED: validateCredentials method
     // Authentication should be handled by Auth Service, not User Service
     // User Service only manages user data (CRUD operations)
@@ -188,4 +458,76 @@ public class UserServiceImpl extends UserServiceGrpc.UserServiceImplBase {
 
         return builder.build();
     }
+
+    private ListUsersResponse toListUsersResponse(UserCursorPage page) {
+        ListUsersResponse.Builder builder = ListUsersResponse.newBuilder()
+                .setSuccess(true)
+                .setMessage("Users retrieved successfully")
+                .setSize(page.getUsers().size())
+                .setHasMore(page.isHasMore());
+        for (UserDto dto : page.getUsers()) {
+            builder.addUsers(convertToGrpcUser(dto));
+        }
+        if (page.getNextCursor() != null) {
+            builder.setNextCursor(page.getNextCursor());
+        }
+        if (page.getTotalCount() != null) {
+            builder.setTotalCount(page.getTotalCount());
+        }
+        return builder.build();
+    }
+
+    private UserType parseUserType(String userType) {
+        return userType == null || userType.isEmpty() ? null : UserType.valueOf(userType.toUpperCase());
+    }
+
+    /**
+     * Convert UserDto to gRPC User message
+     */
+    private com.example.attendancesystem.grpc.user.User convertToGrpcUser(UserDto user) {
+        com.example.attendancesystem.grpc.user.User.Builder builder =
+                com.example.attendancesystem.grpc.user.User.newBuilder()
+                        .setId(user.getId())
+                        .setUsername(user.getUsername())
+                        .setEmail(user.getEmail() != null ? user.getEmail() : "")
+                        .setFirstName(user.getFirstName() != null ? user.getFirstName() : "")
+                        .setLastName(user.getLastName() != null ? user.getLastName() : "")
+                        .setMobileNumber(user.getMobileNumber() != null ? user.getMobileNumber() : "")
+                        .setUserType(user.getUserType().name())
+                        .setIsActive(Boolean.TRUE.equals(user.getIsActive()));
+
+        if (user.getOrganizationId() != null) {
+            builder.setOrganizationId(user.getOrganizationId());
+        }
+
+        if (user.getCreatedAt() != null) {
+            builder.setCreatedAt(user.getCreatedAt().format(DATE_FORMATTER));
+        }
+
+        if (user.getUpdatedAt() != null) {
+            builder.setUpdatedAt(user.getUpdatedAt().format(DATE_FORMATTER));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Convert projected user row to gRPC UserSummary message
+     */
+    private UserSummary convertToGrpcUserSummary(UserSummaryView user) {
+        UserSummary.Builder builder = UserSummary.newBuilder()
+                .setId(user.getId())
+                .setUsername(user.getUsername())
+                .setFirstName(user.getFirstName() != null ? user.getFirstName() : "")
+                .setLastName(user.getLastName() != null ? user.getLastName() : "")
+                .setMobileNumber(user.getMobileNumber() != null ? user.getMobileNumber() : "")
+                .setUserType(user.getUserType())
+                .setIsActive(Boolean.TRUE.equals(user.getIsActive()));
+
+        if (user.getOrganizationId() != null) {
+            builder.setOrganizationId(user.getOrganizationId());
+        }
+
+        return builder.build();
+    }
 }
@@ -2,6 +2,7 @@ package com.example.attendancesystem.user.model;
 
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.example.attendancesystem.shared.metrics.EntityCountListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
@@ -11,6 +12,7 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "users")
+@EntityListeners(EntityCountListener.class)
 public class User {
 
     @Id
@@ -56,22 +58,16 @@ public class User {
     private Long createdBy; // ID of the user who created this user
 
     // Device information for mobile users (MEMBER/SUBSCRIBER)
-    @Column(name = "last_device_id")
+    // Written only by LoginActivityBuffer; entity updates must not overwrite a buffered login
+    @Column(name = "last_device_id", updatable = false)
     private String lastDeviceId;
 
-    @Column(name = "last_device_info")
+    @Column(name = "last_device_info", updatable = false)
     private String lastDeviceInfo;
 
-    @Column(name = "last_login_time")
+    @Column(name = "last_login_time", updatable = false)
     private LocalDateTime lastLoginTime;
 
-    // OTP fields for mobile authentication
-    @Column(name = "otp_code", length = 6)
-    private String otpCode;
-
-    @Column(name = "otp_expiry_time")
-    private LocalDateTime otpExpiryTime;
-
     // Default constructor
     public User() {}
 
@@ -253,20 +249,4 @@ public class User {
     public void setLastLoginTime(LocalDateTime lastLoginTime) {
         this.lastLoginTime = lastLoginTime;
     }
-
-    public String getOtpCode() {
-        return otpCode;
-    }
-
-    public void setOtpCode(String otpCode) {
-        this.otpCode = otpCode;
-    }
-
-    public LocalDateTime getOtpExpiryTime() {
-        return otpExpiryTime;
-    }
-
-    public void setOtpExpiryTime(LocalDateTime otpExpiryTime) {
-        this.otpExpiryTime = otpExpiryTime;
-    }
 }
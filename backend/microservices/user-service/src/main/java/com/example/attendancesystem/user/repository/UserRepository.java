@@ -1,5 +1,6 @@
 package com.example.attendancesystem.user.repository;
 
+import com.example.attendancesystem.user.dto.UserSummaryView;
 import com.example.attendancesystem.user.model.User;
 import com.example.attendancesystem.user.model.UserType;
 import org.springframework.data.domain.Page;
@@ -19,6 +20,15 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    // Shared fragments of the native search queries below
+    String PREFIX_MATCH = "(LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix " +
+                          "OR LOWER(u.last_name) LIKE :prefix OR LOWER(u.email) LIKE :prefix " +
+                          "OR u.mobile_number LIKE :prefix) ";
+
+    String SEARCH_FILTERS = "AND (CAST(:organizationId AS BIGINT) IS NULL OR u.organization_id = :organizationId) " +
+                            "AND (CAST(:userType AS VARCHAR) IS NULL OR u.user_type = :userType) " +
+                            "AND (:activeOnly = false OR u.is_active = true) ";
+
     // ========== AUTHENTICATION QUERIES ==========
     
     /**
@@ -158,43 +168,295 @@ public interface UserRepository extends JpaRepository<User, Long> {
     List<User> findMembersByMobileNumber(@Param("mobileNumber") String mobileNumber);
 
     // ========== SEARCH QUERIES ==========
-    
+    // Served by the pg_trgm GIN index on users.search_text (created by UserSchemaInitializer).
+    // :pattern is '%term%' and :prefix is 'term%', both lower-cased with LIKE wildcards escaped.
+    // Results are ranked prefix matches first, then by trigram similarity. Terms shorter than a
+    // trigram cannot use that index and go to the *ByPrefix variants instead.
+
     /**
      * Search users by name or username
      */
-    @Query("SELECT u FROM User u WHERE " +
-           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "AND u.userType = :userType")
-    Page<User> searchUsersByNameAndType(@Param("searchTerm") String searchTerm, 
-                                        @Param("userType") UserType userType, 
+    @Query(value = "SELECT u.* FROM users u WHERE u.user_type = :userType " +
+                   "AND u.search_text LIKE :pattern " +
+                   "AND (LOWER(u.first_name) LIKE :pattern OR LOWER(u.last_name) LIKE :pattern OR LOWER(u.username) LIKE :pattern) " +
+                   "ORDER BY (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix) DESC, " +
+                   "similarity(u.search_text, :term) DESC, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.user_type = :userType " +
+                        "AND u.search_text LIKE :pattern " +
+                        "AND (LOWER(u.first_name) LIKE :pattern OR LOWER(u.last_name) LIKE :pattern OR LOWER(u.username) LIKE :pattern)",
+           nativeQuery = true)
+    Page<User> searchUsersByNameAndType(@Param("term") String term,
+                                        @Param("pattern") String pattern,
+                                        @Param("prefix") String prefix,
+                                        @Param("userType") String userType,
                                         Pageable pageable);
 
+    /**
+     * Prefix search of users by name or username for terms too short for trigram matching
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE u.user_type = :userType " +
+                   "AND (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix) " +
+                   "ORDER BY LOWER(u.username), u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.user_type = :userType " +
+                        "AND (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix)",
+           nativeQuery = true)
+    Page<User> searchUsersByNameAndTypePrefix(@Param("prefix") String prefix,
+                                              @Param("userType") String userType,
+                                              Pageable pageable);
+
     /**
      * Search users in organization by name or username
      */
-    @Query("SELECT u FROM User u WHERE " +
-           "u.organizationId = :organizationId AND " +
-           "(LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
-           "AND u.userType = :userType")
+    @Query(value = "SELECT u.* FROM users u WHERE u.organization_id = :organizationId AND u.user_type = :userType " +
+                   "AND u.search_text LIKE :pattern " +
+                   "AND (LOWER(u.first_name) LIKE :pattern OR LOWER(u.last_name) LIKE :pattern OR LOWER(u.username) LIKE :pattern) " +
+                   "ORDER BY (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix) DESC, " +
+                   "similarity(u.search_text, :term) DESC, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.organization_id = :organizationId AND u.user_type = :userType " +
+                        "AND u.search_text LIKE :pattern " +
+                        "AND (LOWER(u.first_name) LIKE :pattern OR LOWER(u.last_name) LIKE :pattern OR LOWER(u.username) LIKE :pattern)",
+           nativeQuery = true)
     Page<User> searchUsersInOrganizationByNameAndType(@Param("organizationId") Long organizationId,
-                                                      @Param("searchTerm") String searchTerm,
-                                                      @Param("userType") UserType userType,
+                                                      @Param("term") String term,
+                                                      @Param("pattern") String pattern,
+                                                      @Param("prefix") String prefix,
+                                                      @Param("userType") String userType,
                                                       Pageable pageable);
 
+    /**
+     * Prefix search of users in organization by name or username for terms too short for trigram matching
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE u.organization_id = :organizationId AND u.user_type = :userType " +
+                   "AND (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix) " +
+                   "ORDER BY LOWER(u.username), u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.organization_id = :organizationId AND u.user_type = :userType " +
+                        "AND (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix)",
+           nativeQuery = true)
+    Page<User> searchUsersInOrganizationByNameAndTypePrefix(@Param("organizationId") Long organizationId,
+                                                            @Param("prefix") String prefix,
+                                                            @Param("userType") String userType,
+                                                            Pageable pageable);
+
     /**
      * Search all users by name, username, email, or mobile number
      */
-    @Query("SELECT u FROM User u WHERE " +
-           "LOWER(u.firstName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.lastName) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.username) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "LOWER(u.email) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
-           "u.mobileNumber LIKE CONCAT('%', :searchTerm, '%')")
-    Page<User> searchUsers(@Param("searchTerm") String searchTerm, Pageable pageable);
+    @Query(value = "SELECT u.* FROM users u WHERE u.search_text LIKE :pattern " +
+                   "ORDER BY (LOWER(u.username) LIKE :prefix OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix) DESC, " +
+                   "similarity(u.search_text, :term) DESC, u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE u.search_text LIKE :pattern",
+           nativeQuery = true)
+    Page<User> searchUsers(@Param("term") String term,
+                           @Param("pattern") String pattern,
+                           @Param("prefix") String prefix,
+                           Pageable pageable);
+
+    /**
+     * Prefix search of name, username, email or mobile number for terms too short for trigram
+     * matching (served by the text_pattern_ops indexes)
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE LOWER(u.username) LIKE :prefix " +
+                   "OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix " +
+                   "OR LOWER(u.email) LIKE :prefix OR u.mobile_number LIKE :prefix " +
+                   "ORDER BY LOWER(u.username), u.id",
+           countQuery = "SELECT COUNT(*) FROM users u WHERE LOWER(u.username) LIKE :prefix " +
+                        "OR LOWER(u.first_name) LIKE :prefix OR LOWER(u.last_name) LIKE :prefix " +
+                        "OR LOWER(u.email) LIKE :prefix OR u.mobile_number LIKE :prefix",
+           nativeQuery = true)
+    Page<User> searchUsersByPrefix(@Param("prefix") String prefix, Pageable pageable);
+
+    // ========== KEYSET (CURSOR) QUERIES ==========
+    // Each query continues strictly after the (sortKey, id) of the previous page and is served
+    // by the composite keyset indexes created by UserSchemaInitializer, so deep pages cost the
+    // same as page 1. activeOnly is a row filter on top of the index range, not an index key.
+    // Pass PageRequest.ofSize(n) as the limit; no COUNT query is issued.
+
+    /**
+     * Next page of all users ordered by id
+     */
+    @Query("SELECT u FROM User u WHERE u.id > :afterId " +
+           "AND (:activeOnly = false OR u.isActive = true) ORDER BY u.id")
+    List<User> findAllAfterId(@Param("afterId") Long afterId,
+                              @Param("activeOnly") boolean activeOnly,
+                              Pageable limit);
+
+    /**
+     * Next page of all users ordered by first name, then id
+     */
+    @Query("SELECT u FROM User u WHERE COALESCE(u.firstName, '') >= :afterName " +
+           "AND (COALESCE(u.firstName, '') > :afterName OR u.id > :afterId) " +
+           "AND (:activeOnly = false OR u.isActive = true) " +
+           "ORDER BY COALESCE(u.firstName, ''), u.id")
+    List<User> findAllAfterFirstName(@Param("afterName") String afterName,
+                                     @Param("afterId") Long afterId,
+                                     @Param("activeOnly") boolean activeOnly,
+                                     Pageable limit);
+
+    /**
+     * Next page of users of a type ordered by id
+     */
+    @Query("SELECT u FROM User u WHERE u.userType = :userType AND u.id > :afterId " +
+           "AND (:activeOnly = false OR u.isActive = true) ORDER BY u.id")
+    List<User> findByUserTypeAfterId(@Param("userType") UserType userType,
+                                     @Param("afterId") Long afterId,
+                                     @Param("activeOnly") boolean activeOnly,
+                                     Pageable limit);
+
+    /**
+     * Next page of users of a type ordered by first name, then id
+     */
+    @Query("SELECT u FROM User u WHERE u.userType = :userType " +
+           "AND COALESCE(u.firstName, '') >= :afterName " +
+           "AND (COALESCE(u.firstName, '') > :afterName OR u.id > :afterId) " +
+           "AND (:activeOnly = false OR u.isActive = true) " +
+           "ORDER BY COALESCE(u.firstName, ''), u.id")
+    List<User> findByUserTypeAfterFirstName(@Param("userType") UserType userType,
+                                            @Param("afterName") String afterName,
+                                            @Param("afterId") Long afterId,
+                                            @Param("activeOnly") boolean activeOnly,
+                                            Pageable limit);
+
+    /**
+     * Next page of users in an organization ordered by id
+     */
+    @Query("SELECT u FROM User u WHERE u.organizationId = :organizationId AND u.id > :afterId " +
+           "AND (:activeOnly = false OR u.isActive = true) ORDER BY u.id")
+    List<User> findByOrganizationIdAfterId(@Param("organizationId") Long organizationId,
+                                           @Param("afterId") Long afterId,
+                                           @Param("activeOnly") boolean activeOnly,
+                                           Pageable limit);
+
+    /**
+     * Next page of users in an organization ordered by first name, then id
+     */
+    @Query("SELECT u FROM User u WHERE u.organizationId = :organizationId " +
+           "AND COALESCE(u.firstName, '') >= :afterName " +
+           "AND (COALESCE(u.firstName, '') > :afterName OR u.id > :afterId) " +
+           "AND (:activeOnly = false OR u.isActive = true) " +
+           "ORDER BY COALESCE(u.firstName, ''), u.id")
+    List<User> findByOrganizationIdAfterFirstName(@Param("organizationId") Long organizationId,
+                                                  @Param("afterName") String afterName,
+                                                  @Param("afterId") Long afterId,
+                                                  @Param("activeOnly") boolean activeOnly,
+                                                  Pageable limit);
+
+    /**
+     * Next page of users of a type in an organization ordered by id
+     */
+    @Query("SELECT u FROM User u WHERE u.organizationId = :organizationId AND u.userType = :userType " +
+           "AND u.id > :afterId AND (:activeOnly = false OR u.isActive = true) ORDER BY u.id")
+    List<User> findByOrganizationIdAndUserTypeAfterId(@Param("organizationId") Long organizationId,
+                                                      @Param("userType") UserType userType,
+                                                      @Param("afterId") Long afterId,
+                                                      @Param("activeOnly") boolean activeOnly,
+                                                      Pageable limit);
+
+    /**
+     * Next page of users of a type in an organization ordered by first name, then id
+     */
+    @Query("SELECT u FROM User u WHERE u.organizationId = :organizationId AND u.userType = :userType " +
+           "AND COALESCE(u.firstName, '') >= :afterName " +
+           "AND (COALESCE(u.firstName, '') > :afterName OR u.id > :afterId) " +
+           "AND (:activeOnly = false OR u.isActive = true) " +
+           "ORDER BY COALESCE(u.firstName, ''), u.id")
+    List<User> findByOrganizationIdAndUserTypeAfterFirstName(@Param("organizationId") Long organizationId,
+                                                             @Param("userType") UserType userType,
+                                                             @Param("afterName") String afterName,
+                                                             @Param("afterId") Long afterId,
+                                                             @Param("activeOnly") boolean activeOnly,
+                                                             Pageable limit);
+
+    /**
+     * Count users matching optional organization, type and active filters (only when a cursor
+     * listing asks for a total)
+     */
+    @Query("SELECT COUNT(u) FROM User u WHERE (:organizationId IS NULL OR u.organizationId = :organizationId) " +
+           "AND (:userType IS NULL OR u.userType = :userType) " +
+           "AND (:activeOnly = false OR u.isActive = true)")
+    long countForListing(@Param("organizationId") Long organizationId,
+                         @Param("userType") UserType userType,
+                         @Param("activeOnly") boolean activeOnly);
+
+    // Search pages are ordered by id. The trigram index (or, for short terms, the prefix
+    // indexes) selects the matches; organization, type and active filters are applied to them.
+    // :organizationId and :userType may be null to skip that filter.
+
+    /**
+     * Next page of search results ordered by id (trigram-filtered like searchUsers)
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE u.search_text LIKE :pattern AND u.id > :afterId " +
+                   SEARCH_FILTERS + "ORDER BY u.id",
+           nativeQuery = true)
+    List<User> searchUsersAfterId(@Param("pattern") String pattern,
+                                  @Param("organizationId") Long organizationId,
+                                  @Param("userType") String userType,
+                                  @Param("activeOnly") boolean activeOnly,
+                                  @Param("afterId") Long afterId,
+                                  Pageable limit);
+
+    /**
+     * Count search matches (only when a cursor listing asks for a total)
+     */
+    @Query(value = "SELECT COUNT(*) FROM users u WHERE u.search_text LIKE :pattern " + SEARCH_FILTERS,
+           nativeQuery = true)
+    long countSearchUsers(@Param("pattern") String pattern,
+                          @Param("organizationId") Long organizationId,
+                          @Param("userType") String userType,
+                          @Param("activeOnly") boolean activeOnly);
+
+    /**
+     * Next page of prefix search results ordered by id (short terms, like searchUsersByPrefix)
+     */
+    @Query(value = "SELECT u.* FROM users u WHERE " + PREFIX_MATCH + "AND u.id > :afterId " +
+                   SEARCH_FILTERS + "ORDER BY u.id",
+           nativeQuery = true)
+    List<User> searchUsersByPrefixAfterId(@Param("prefix") String prefix,
+                                          @Param("organizationId") Long organizationId,
+                                          @Param("userType") String userType,
+                                          @Param("activeOnly") boolean activeOnly,
+                                          @Param("afterId") Long afterId,
+                                          Pageable limit);
+
+    /**
+     * Count prefix search matches (only when a cursor listing asks for a total)
+     */
+    @Query(value = "SELECT COUNT(*) FROM users u WHERE " + PREFIX_MATCH + SEARCH_FILTERS,
+           nativeQuery = true)
+    long countSearchUsersByPrefix(@Param("prefix") String prefix,
+                                  @Param("organizationId") Long organizationId,
+                                  @Param("userType") String userType,
+                                  @Param("activeOnly") boolean activeOnly);
+
+    // ========== BATCH PROJECTION QUERIES ==========
+
+    /**
+     * Projected lookup of many users in one round-trip
+     * Ids are passed as one comma-separated parameter and expanded with = ANY(bigint[]),
+     * so any number of ids binds a single parameter and reuses one cached plan.
+     */
+    @Query(value = "SELECT u.id AS \"id\", u.username AS \"username\", u.first_name AS \"firstName\", " +
+                   "u.last_name AS \"lastName\", u.mobile_number AS \"mobileNumber\", u.user_type AS \"userType\", " +
+                   "u.organization_id AS \"organizationId\", u.is_active AS \"isActive\" " +
+                   "FROM users u WHERE u.id = ANY(CAST(string_to_array(:ids, ',') AS bigint[]))",
+           nativeQuery = true)
+    List<UserSummaryView> findSummariesByIds(@Param("ids") String ids);
+
+    /**
+     * Next keyset page of projected users in an organization ordered by id
+     * userType may be empty to include every type
+     */
+    @Query(value = "SELECT u.id AS \"id\", u.username AS \"username\", u.first_name AS \"firstName\", " +
+                   "u.last_name AS \"lastName\", u.mobile_number AS \"mobileNumber\", u.user_type AS \"userType\", " +
+                   "u.organization_id AS \"organizationId\", u.is_active AS \"isActive\" " +
+                   "FROM users u WHERE u.organization_id = :organizationId AND u.id > :afterId " +
+                   "AND (:userType = '' OR u.user_type = :userType) " +
+                   "AND (:activeOnly = FALSE OR u.is_active = TRUE) " +
+                   "ORDER BY u.id LIMIT :limit",
+           nativeQuery = true)
+    List<UserSummaryView> findSummariesByOrganizationAfterId(@Param("organizationId") Long organizationId,
+                                                             @Param("userType") String userType,
+                                                             @Param("activeOnly") boolean activeOnly,
+                                                             @Param("afterId") Long afterId,
+                                                             @Param("limit") int limit);
 
     // ========== VALIDATION QUERIES ==========
     
@@ -249,4 +511,10 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT COUNT(u) FROM User u WHERE u.organizationId = :organizationId AND u.userType = :userType")
     long countByOrganizationIdAndUserType(@Param("organizationId") Long organizationId,
                                           @Param("userType") UserType userType);
+
+    /**
+     * Count users in organization
+     */
+    @Query("SELECT COUNT(u) FROM User u WHERE u.organizationId = :organizationId")
+    long countByOrganizationId(@Param("organizationId") Long organizationId);
 }
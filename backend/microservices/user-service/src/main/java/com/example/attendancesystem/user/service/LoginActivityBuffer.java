@@ -0,0 +1,146 @@
+package com.example.attendancesystem.user.service;
+
+import com.example.attendancesystem.user.dto.UserDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Login Activity Buffer
+ * Coalesces last-login and device updates per user (newest login wins) and writes them
+ * in periodic batched UPDATEs, so a login peak costs a few statements per second rather
+ * than one users-row update per login. Pending values are merged into UserDto reads and
+ * the buffer is drained on shutdown.
+ */
+@Component
+public class LoginActivityBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginActivityBuffer.class);
+
+    private static final String UPDATE_SQL =
+            "UPDATE users SET last_login_time = ?, " +
+            "last_device_id = COALESCE(?, last_device_id), " +
+            "last_device_info = COALESCE(?, last_device_info) " +
+            "WHERE id = ? AND (last_login_time IS NULL OR last_login_time <= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxBatchSize;
+
+    private final ConcurrentHashMap<Long, LoginActivity> pending = new ConcurrentHashMap<>();
+    // Entries taken by a running flush stay visible to reads until their batch commits
+    private final ConcurrentHashMap<Long, LoginActivity> flushing = new ConcurrentHashMap<>();
+
+    public LoginActivityBuffer(JdbcTemplate jdbcTemplate,
+                               @Value("${app.login-activity.max-batch-size:1000}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Record a login; replaces any older pending login for the same user
+     */
+    public void record(Long userId, String deviceId, String deviceInfo, LocalDateTime loginTime) {
+        pending.merge(userId, new LoginActivity(loginTime, deviceId, deviceInfo), LoginActivity::newest);
+    }
+
+    /**
+     * Overlay a not-yet-written login onto a DTO loaded from the database
+     */
+    public void applyPending(UserDto dto) {
+        if (dto.getId() == null || (pending.isEmpty() && flushing.isEmpty())) {
+            return;
+        }
+        LoginActivity activity = pending.get(dto.getId());
+        if (activity == null) {
+            activity = flushing.get(dto.getId());
+        }
+        if (activity == null || (dto.getLastLoginTime() != null && dto.getLastLoginTime().isAfter(activity.loginTime()))) {
+            return;
+        }
+        dto.setLastLoginTime(activity.loginTime());
+        if (activity.deviceId() != null) {
+            dto.setLastDeviceId(activity.deviceId());
+        }
+        if (activity.deviceInfo() != null) {
+            dto.setLastDeviceInfo(activity.deviceInfo());
+        }
+    }
+
+    /**
+     * Write all pending logins in batched UPDATEs
+     */
+    @Scheduled(fixedDelayString = "${app.login-activity.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, LoginActivity>> batch = new ArrayList<>(Math.min(pending.size(), maxBatchSize));
+        for (Long userId : pending.keySet()) {
+            LoginActivity activity = pending.remove(userId);
+            if (activity == null) {
+                continue;
+            }
+            flushing.put(userId, activity);
+            batch.add(Map.entry(userId, activity));
+            if (batch.size() == maxBatchSize) {
+                write(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            write(batch);
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+        logger.info("Login activity buffer drained");
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    private void write(List<Map.Entry<Long, LoginActivity>> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, entry) -> {
+                Timestamp loginTime = Timestamp.valueOf(entry.getValue().loginTime());
+                ps.setTimestamp(1, loginTime);
+                ps.setString(2, entry.getValue().deviceId());
+                ps.setString(3, entry.getValue().deviceInfo());
+                ps.setLong(4, entry.getKey());
+                ps.setTimestamp(5, loginTime);
+            });
+            logger.debug("Flushed {} coalesced login updates", batch.size());
+        } catch (Exception e) {
+            // Re-queue so the next flush retries; a newer login recorded meanwhile still wins
+            logger.error("Failed to flush {} login updates, will retry", batch.size(), e);
+            for (Map.Entry<Long, LoginActivity> entry : batch) {
+                pending.merge(entry.getKey(), entry.getValue(), LoginActivity::newest);
+            }
+        } finally {
+            for (Map.Entry<Long, LoginActivity> entry : batch) {
+                flushing.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private record LoginActivity(LocalDateTime loginTime, String deviceId, String deviceInfo) {
+        private static LoginActivity newest(LoginActivity current, LoginActivity candidate) {
+            return candidate.loginTime().isBefore(current.loginTime()) ? current : candidate;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.attendancesystem.user.service;
+
+import com.example.attendancesystem.user.dto.MemberImportRow;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader for bulk member imports
+ * Reads CSV (header row required) or NDJSON one line at a time, so a 100k-row upload
+ * is never held in memory. Recognised columns: mobileNumber, firstName, lastName, email, password
+ * (snake_case and case variations accepted). Malformed lines surface as rows with no mobile number
+ * and are reported as failures by the import.
+ */
+public class MemberImportReader implements Iterator<MemberImportRow> {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final Long organizationId;
+    private final Long createdBy;
+
+    private Map<String, Integer> csvColumns;
+    private long lineNumber;
+    private MemberImportRow next;
+
+    public MemberImportReader(InputStream input, Format format, Long organizationId, Long createdBy) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        this.format = format;
+        this.organizationId = organizationId;
+        this.createdBy = createdBy;
+    }
+
+    /**
+     * Pick the format from the request content type (defaults to CSV)
+     */
+    public static Format formatFor(String contentType) {
+        if (contentType != null && (contentType.contains("ndjson") || contentType.contains("json"))) {
+            return Format.NDJSON;
+        }
+        return Format.CSV;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = readRow();
+        }
+        return next != null;
+    }
+
+    @Override
+    public MemberImportRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        MemberImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private MemberImportRow readRow() {
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.NDJSON) {
+                    return parseJson(line);
+                }
+                if (csvColumns == null) {
+                    csvColumns = parseHeader(line);
+                    continue;
+                }
+                return parseCsv(line);
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MemberImportRow parseJson(String line) {
+        try {
+            JsonNode node = objectMapper.readTree(line);
+            return new MemberImportRow(lineNumber, organizationId, createdBy,
+                    text(node, "mobileNumber", "mobile_number"),
+                    text(node, "firstName", "first_name"),
+                    text(node, "lastName", "last_name"),
+                    text(node, "email"),
+                    text(node, "password", "pin"));
+        } catch (IOException e) {
+            return new MemberImportRow(lineNumber, organizationId, createdBy, null, null, null, null, null);
+        }
+    }
+
+    private MemberImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        return new MemberImportRow(lineNumber, organizationId, createdBy,
+                field(fields, "mobilenumber"),
+                field(fields, "firstname"),
+                field(fields, "lastname"),
+                field(fields, "email"),
+                field(fields, "password"));
+    }
+
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsv(line);
+        for (int i = 0; i < names.size(); i++) {
+            String key = names.get(i).trim().replace("_", "").toLowerCase(Locale.ROOT);
+            if (key.equals("mobile") || key.equals("phone")) {
+                key = "mobilenumber";
+            } else if (key.equals("pin")) {
+                key = "password";
+            }
+            columns.put(key, i);
+        }
+        return columns;
+    }
+
+    private String field(List<String> fields, String column) {
+        Integer index = csvColumns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String text(JsonNode node, String... names) {
+        for (String name : names) {
+            JsonNode value = node.get(name);
+            if (value != null && !value.isNull() && !value.asText().isBlank()) {
+                return value.asText().trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted fields and "" escapes
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
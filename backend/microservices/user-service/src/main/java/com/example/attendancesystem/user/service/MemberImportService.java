@@ -0,0 +1,329 @@
+package com.example.attendancesystem.user.service;
+
+import com.example.attendancesystem.shared.metrics.EntityCounters;
+import com.example.attendancesystem.user.dto.MemberImportResult;
+import com.example.attendancesystem.user.dto.MemberImportRow;
+import com.example.attendancesystem.user.dto.UserDto;
+import com.example.attendancesystem.user.model.Permission;
+import com.example.attendancesystem.user.model.UserType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Member Import Service
+ * Bulk-creates members chunk by chunk: one set-based uniqueness query per chunk,
+ * PIN hashing in parallel on a bounded pool, and JDBC batch inserts for users and
+ * their default permissions in a single transaction per chunk.
+ */
+@Service
+public class MemberImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MemberImportService.class);
+
+    private static final String DEFAULT_MEMBER_PIN = "0000";
+    private static final int MAX_MOBILE_LENGTH = 15;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (username, password, email, first_name, last_name, mobile_number, user_type, " +
+            "organization_id, is_active, created_at, updated_at, created_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 'MEMBER', ?, TRUE, ?, ?, ?)";
+
+    private static final String INSERT_PERMISSION_SQL =
+            "INSERT INTO user_permissions (user_id, permission, granted, granted_by, granted_at) VALUES (?, ?, TRUE, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final PermissionMaskCache permissionMaskCache;
+    private final UserService userService;
+    private final EntityCounters entityCounters;
+    private final TransactionTemplate chunkTransaction;
+    private final TransactionTemplate rowTransaction;
+    private final ThreadPoolExecutor hashingPool;
+    private final int chunkSize;
+
+    private volatile String defaultPinHash;
+
+    public MemberImportService(JdbcTemplate jdbcTemplate,
+                               PasswordEncoder passwordEncoder,
+                               PermissionMaskCache permissionMaskCache,
+                               UserService userService,
+                               EntityCounters entityCounters,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.member-import.chunk-size:1000}") int chunkSize,
+                               @Value("${app.member-import.hash-threads:0}") int hashThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.passwordEncoder = passwordEncoder;
+        this.permissionMaskCache = permissionMaskCache;
+        this.userService = userService;
+        this.entityCounters = entityCounters;
+        this.chunkSize = chunkSize;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.rowTransaction = new TransactionTemplate(transactionManager);
+        this.rowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        // Bounded queue + caller-runs: a burst of imports slows down instead of queueing unbounded work
+        this.hashingPool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(chunkSize), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdown();
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Drain a row stream chunk by chunk, handing each chunk's results to the sink as soon as
+     * it is committed; returns the number of members created
+     */
+    public long importAll(Iterator<MemberImportRow> rows, Consumer<List<MemberImportResult>> sink) {
+        long created = 0;
+        List<MemberImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize || !rows.hasNext()) {
+                List<MemberImportResult> results = importChunk(chunk);
+                created += results.stream().filter(MemberImportResult::success).count();
+                sink.accept(results);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Import one chunk of rows; returns one result per input row, in input order
+     */
+    public List<MemberImportResult> importChunk(List<MemberImportRow> rows) {
+        Map<Long, MemberImportResult> results = new HashMap<>();
+        List<MemberImportRow> candidates = validate(rows, results);
+
+        if (!candidates.isEmpty()) {
+            rejectExisting(candidates, results);
+            candidates.removeIf(row -> results.containsKey(row.rowNumber()));
+        }
+
+        if (!candidates.isEmpty()) {
+            Map<Long, String> hashes = hashPasswords(candidates);
+            try {
+                Map<String, Long> ids = chunkTransaction.execute(tx -> insertChunk(candidates, hashes));
+                for (MemberImportRow row : candidates) {
+                    Long userId = ids.get(row.mobileNumber());
+                    permissionMaskCache.invalidate(userId);
+                    results.put(row.rowNumber(), MemberImportResult.created(row.rowNumber(), userId));
+                }
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent writer took one of the values after our check; isolate it row by row
+                logger.warn("Batch insert conflict in member import chunk, retrying {} rows individually", candidates.size());
+                for (MemberImportRow row : candidates) {
+                    results.put(row.rowNumber(), importSingle(row, hashes.get(row.rowNumber())));
+                }
+            }
+        }
+
+        List<MemberImportResult> ordered = new ArrayList<>(rows.size());
+        for (MemberImportRow row : rows) {
+            ordered.add(results.get(row.rowNumber()));
+        }
+        return ordered;
+    }
+
+    /**
+     * Field validation and in-chunk duplicate detection
+     */
+    private List<MemberImportRow> validate(List<MemberImportRow> rows, Map<Long, MemberImportResult> results) {
+        List<MemberImportRow> candidates = new ArrayList<>(rows.size());
+        Set<String> seenMobiles = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        for (MemberImportRow row : rows) {
+            String error = null;
+            if (row.organizationId() == null || row.organizationId() <= 0) {
+                error = "Members must belong to an organization";
+            } else if (row.mobileNumber() == null || row.mobileNumber().isBlank()) {
+                error = "Mobile number is required for members";
+            } else if (row.mobileNumber().length() > MAX_MOBILE_LENGTH) {
+                error = "Mobile number must not exceed " + MAX_MOBILE_LENGTH + " characters";
+            } else if (!seenMobiles.add(row.mobileNumber())) {
+                error = "Duplicate mobile number in import: " + row.mobileNumber();
+            } else if (row.email() != null && !seenEmails.add(row.email())) {
+                error = "Duplicate email in import: " + row.email();
+            }
+
+            if (error != null) {
+                results.put(row.rowNumber(), MemberImportResult.failed(row.rowNumber(), error));
+            } else {
+                candidates.add(row);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * One set-based query per chunk instead of three COUNT queries per row
+     */
+    private void rejectExisting(List<MemberImportRow> candidates, Map<Long, MemberImportResult> results) {
+        String[] mobiles = candidates.stream().map(MemberImportRow::mobileNumber).toArray(String[]::new);
+        String[] emails = candidates.stream().map(MemberImportRow::email).filter(e -> e != null).toArray(String[]::new);
+
+        Set<String> takenMobiles = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        jdbcTemplate.query(
+                "SELECT username, mobile_number, email FROM users " +
+                "WHERE username = ANY(?) OR mobile_number = ANY(?) OR email = ANY(?)",
+                ps -> {
+                    Array mobileArray = ps.getConnection().createArrayOf("varchar", mobiles);
+                    ps.setArray(1, mobileArray);
+                    ps.setArray(2, mobileArray);
+                    ps.setArray(3, ps.getConnection().createArrayOf("varchar", emails));
+                },
+                rs -> {
+                    takenMobiles.add(rs.getString("username"));
+                    if (rs.getString("mobile_number") != null) {
+                        takenMobiles.add(rs.getString("mobile_number"));
+                    }
+                    if (rs.getString("email") != null) {
+                        takenEmails.add(rs.getString("email"));
+                    }
+                });
+
+        for (MemberImportRow row : candidates) {
+            if (takenMobiles.contains(row.mobileNumber())) {
+                results.put(row.rowNumber(), MemberImportResult.failed(row.rowNumber(),
+                        "Mobile number already exists: " + row.mobileNumber()));
+            } else if (row.email() != null && takenEmails.contains(row.email())) {
+                results.put(row.rowNumber(), MemberImportResult.failed(row.rowNumber(),
+                        "Email already exists: " + row.email()));
+            }
+        }
+    }
+
+    /**
+     * BCrypt is deliberately slow, so supplied PINs are hashed in parallel; rows without a PIN
+     * share one hash of the default PIN
+     */
+    private Map<Long, String> hashPasswords(List<MemberImportRow> rows) {
+        Map<Long, CompletableFuture<String>> pending = new HashMap<>();
+        for (MemberImportRow row : rows) {
+            if (row.password() != null && !row.password().isBlank()) {
+                pending.put(row.rowNumber(), CompletableFuture.supplyAsync(
+                        () -> passwordEncoder.encode(row.password()), hashingPool));
+            }
+        }
+
+        Map<Long, String> hashes = new HashMap<>();
+        for (MemberImportRow row : rows) {
+            CompletableFuture<String> hash = pending.get(row.rowNumber());
+            hashes.put(row.rowNumber(), hash != null ? hash.join() : defaultPinHash());
+        }
+        return hashes;
+    }
+
+    private String defaultPinHash() {
+        String hash = defaultPinHash;
+        if (hash == null) {
+            hash = passwordEncoder.encode(DEFAULT_MEMBER_PIN);
+            defaultPinHash = hash;
+        }
+        return hash;
+    }
+
+    /**
+     * Batch-insert users and their default permissions; returns mobile number -> new user id
+     */
+    private Map<String, Long> insertChunk(List<MemberImportRow> rows, Map<Long, String> hashes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, rows, rows.size(), (ps, row) -> {
+            ps.setString(1, row.mobileNumber()); // Mobile number as username for members
+            ps.setString(2, hashes.get(row.rowNumber()));
+            ps.setString(3, row.email());
+            ps.setString(4, row.firstName());
+            ps.setString(5, row.lastName());
+            ps.setString(6, row.mobileNumber());
+            ps.setLong(7, row.organizationId());
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+            if (row.createdBy() != null) {
+                ps.setLong(10, row.createdBy());
+            } else {
+                ps.setNull(10, Types.BIGINT);
+            }
+        });
+
+        Map<String, Long> ids = new HashMap<>();
+        String[] mobiles = rows.stream().map(MemberImportRow::mobileNumber).toArray(String[]::new);
+        // username is unique and equals the mobile number for members
+        jdbcTemplate.query("SELECT id, username FROM users WHERE username = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", mobiles)),
+                rs -> {
+                    ids.put(rs.getString("username"), rs.getLong("id"));
+                });
+
+        Permission[] defaults = Permission.getDefaultPermissions(UserType.MEMBER);
+        List<Object[]> permissionRows = new ArrayList<>(rows.size() * defaults.length);
+        for (MemberImportRow row : rows) {
+            Long userId = ids.get(row.mobileNumber());
+            for (Permission permission : defaults) {
+                permissionRows.add(new Object[] { userId, permission.name(), row.createdBy(), now });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_PERMISSION_SQL, permissionRows);
+
+        // Batched inserts bypass the entity listeners
+        for (MemberImportRow row : rows) {
+            entityCounters.addAfterCommit("members", row.organizationId(), 1);
+        }
+
+        return ids;
+    }
+
+    /**
+     * Fallback for a conflicting chunk: create the row through the regular single-member path
+     */
+    private MemberImportResult importSingle(MemberImportRow row, String passwordHash) {
+        try {
+            UserDto dto = new UserDto();
+            dto.setUserType(UserType.MEMBER);
+            dto.setMobileNumber(row.mobileNumber());
+            dto.setFirstName(row.firstName());
+            dto.setLastName(row.lastName());
+            dto.setEmail(row.email());
+            dto.setOrganizationId(row.organizationId());
+            dto.setPassword(passwordHash);
+            UserDto created = rowTransaction.execute(tx -> userService.createMember(dto, row.createdBy()));
+            return MemberImportResult.created(row.rowNumber(), created.getId());
+        } catch (Exception e) {
+            return MemberImportResult.failed(row.rowNumber(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.attendancesystem.user.service;
+
+/**
+ * Delivers a one-time code to a mobile number out of band.
+ * Codes are never returned to API callers; an implementation that cannot deliver must throw.
+ */
+public interface OtpSender {
+
+    void send(String mobileNumber, String code, long ttlSeconds);
+}
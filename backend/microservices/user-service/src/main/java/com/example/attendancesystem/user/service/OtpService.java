@@ -0,0 +1,207 @@
+package com.example.attendancesystem.user.service;
+
+import com.example.attendancesystem.user.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OTP Service
+ * Issues and verifies one-time codes for member mobile numbers.
+ * Codes live in OtpStore (never on the users row); only a SHA-256 of each code is kept.
+ * The plain code only ever leaves the service through the OtpSender, never in a response.
+ * Each number is limited to a minimum resend interval and a maximum number of codes per
+ * window, and each code to a maximum number of verification attempts.
+ */
+@Service
+public class OtpService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpService.class);
+
+    public enum VerificationResult { VERIFIED, INVALID, EXPIRED, TOO_MANY_ATTEMPTS }
+
+    /**
+     * The code could not be delivered; it has been withdrawn
+     */
+    public static class DeliveryException extends RuntimeException {
+        public DeliveryException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final OtpStore otpStore;
+    private final OtpSender otpSender;
+    private final UserRepository userRepository;
+    private final SecureRandom random = new SecureRandom();
+
+    private final ConcurrentHashMap<String, RateWindow> rateWindows = new ConcurrentHashMap<>();
+
+    @Value("${app.otp.length:6}")
+    private int codeLength;
+
+    @Value("${app.otp.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${app.otp.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.otp.resend-interval-seconds:30}")
+    private long resendIntervalSeconds;
+
+    @Value("${app.otp.max-per-window:5}")
+    private int maxPerWindow;
+
+    @Value("${app.otp.window-seconds:900}")
+    private long windowSeconds;
+
+    public OtpService(OtpStore otpStore, OtpSender otpSender, UserRepository userRepository) {
+        this.otpStore = otpStore;
+        this.otpSender = otpSender;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Issue a new code for a registered mobile number, replacing any outstanding one,
+     * and send it to that number. The plain code is not retrievable afterwards.
+     */
+    public void issueOtp(String mobileNumber) {
+        if (mobileNumber == null || mobileNumber.isBlank()) {
+            throw new IllegalArgumentException("Mobile number is required");
+        }
+        String number = mobileNumber.trim();
+
+        // Rate limit before the user lookup so floods never reach the database
+        acquireIssuePermit(number);
+
+        if (!userRepository.existsByMobileNumber(number)) {
+            throw new IllegalArgumentException("No user registered with mobile number: " + number);
+        }
+
+        String code = generateCode();
+        long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000;
+        OtpStore.OtpEntry entry = otpStore.put(number, hash(code), expiresAt);
+        try {
+            otpSender.send(number, code, ttlSeconds);
+        } catch (RuntimeException e) {
+            otpStore.remove(number, entry);
+            logger.error("Failed to deliver OTP to mobile number: {}", mask(number), e);
+            throw new DeliveryException("OTP could not be delivered; try again later", e);
+        }
+
+        logger.info("Issued OTP for mobile number: {}", mask(number));
+    }
+
+    /**
+     * Verify a code; a successful or exhausted code is consumed
+     */
+    public VerificationResult verifyOtp(String mobileNumber, String code) {
+        if (mobileNumber == null || code == null) {
+            return VerificationResult.INVALID;
+        }
+        String number = mobileNumber.trim();
+        OtpStore.OtpEntry entry = otpStore.get(number);
+        if (entry == null) {
+            return VerificationResult.EXPIRED;
+        }
+        if (entry.getAttempts() >= maxAttempts) {
+            otpStore.remove(number, entry);
+            return VerificationResult.TOO_MANY_ATTEMPTS;
+        }
+
+        byte[] expected = entry.getCodeHash().getBytes(StandardCharsets.US_ASCII);
+        byte[] actual = hash(code.trim()).getBytes(StandardCharsets.US_ASCII);
+        if (MessageDigest.isEqual(expected, actual)) {
+            otpStore.remove(number, entry);
+            logger.info("OTP verified for mobile number: {}", mask(number));
+            return VerificationResult.VERIFIED;
+        }
+
+        int attempts = otpStore.recordFailedAttempt(number, entry);
+        if (attempts >= maxAttempts) {
+            otpStore.remove(number, entry);
+            logger.warn("OTP attempts exhausted for mobile number: {}", mask(number));
+            return VerificationResult.TOO_MANY_ATTEMPTS;
+        }
+        return VerificationResult.INVALID;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    /**
+     * Drop rate-limit windows that have closed
+     */
+    @Scheduled(fixedDelayString = "${app.otp.rate-cleanup-interval:60000}")
+    public void purgeRateWindows() {
+        long now = System.currentTimeMillis();
+        rateWindows.values().removeIf(window -> window.isClosed(now, windowSeconds * 1000));
+    }
+
+    private void acquireIssuePermit(String mobileNumber) {
+        long now = System.currentTimeMillis();
+        long windowMillis = windowSeconds * 1000;
+        RateWindow window = rateWindows.compute(mobileNumber, (number, current) ->
+                current == null || current.isClosed(now, windowMillis) ? new RateWindow(now) : current);
+
+        synchronized (window) {
+            if (window.count > 0 && now - window.lastIssuedAt < resendIntervalSeconds * 1000) {
+                throw new IllegalStateException("OTP recently sent; retry in "
+                        + ((resendIntervalSeconds * 1000 - (now - window.lastIssuedAt)) / 1000 + 1) + " seconds");
+            }
+            if (window.count >= maxPerWindow) {
+                throw new IllegalStateException("Too many OTP requests for this number; try again later");
+            }
+            window.count++;
+            window.lastIssuedAt = now;
+        }
+    }
+
+    private String generateCode() {
+        StringBuilder code = new StringBuilder(codeLength);
+        for (int i = 0; i < codeLength; i++) {
+            code.append(random.nextInt(10));
+        }
+        return code.toString();
+    }
+
+    private static String hash(String code) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String mask(String mobileNumber) {
+        int visible = Math.min(4, mobileNumber.length());
+        return "*".repeat(mobileNumber.length() - visible) + mobileNumber.substring(mobileNumber.length() - visible);
+    }
+
+    /**
+     * Fixed issue window per mobile number
+     */
+    private static final class RateWindow {
+        private final long startedAt;
+        private int count;
+        private long lastIssuedAt;
+
+        private RateWindow(long startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        private boolean isClosed(long now, long windowMillis) {
+            return now - startedAt >= windowMillis;
+        }
+    }
+}
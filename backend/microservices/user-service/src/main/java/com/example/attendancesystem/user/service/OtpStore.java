@@ -0,0 +1,204 @@
+package com.example.attendancesystem.user.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * OTP Store
+ * Holds outstanding OTPs in memory, keyed by mobile number, so issuing and verifying a code
+ * never writes to the users table. Expiry runs on a hashed time-wheel advanced once a second.
+ * With app.otp.persist enabled, entries are also written through to user_otp_codes and
+ * reloaded at startup, so outstanding codes survive a restart.
+ */
+@Component
+public class OtpStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtpStore.class);
+
+    private static final int WHEEL_SLOTS = 1024;
+    private static final long TICK_MILLIS = 1000;
+
+    private static final String CREATE_TABLE_SQL =
+            "CREATE TABLE IF NOT EXISTS user_otp_codes (" +
+            "mobile_number VARCHAR(15) PRIMARY KEY, " +
+            "code_hash VARCHAR(64) NOT NULL, " +
+            "expires_at TIMESTAMP NOT NULL, " +
+            "attempts INT NOT NULL DEFAULT 0)";
+
+    private static final String CREATE_INDEX_SQL =
+            "CREATE INDEX IF NOT EXISTS idx_user_otp_codes_expires_at ON user_otp_codes(expires_at)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean persist;
+
+    private final ConcurrentHashMap<String, OtpEntry> entries = new ConcurrentHashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<ExpiryEntry>[] wheel = new ConcurrentLinkedQueue[WHEEL_SLOTS];
+    private volatile long lastTick = System.currentTimeMillis() / TICK_MILLIS;
+
+    public OtpStore(JdbcTemplate jdbcTemplate,
+                    @Value("${app.otp.persist:false}") boolean persist) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.persist = persist;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Reload unexpired codes written by a previous instance
+     */
+    @PostConstruct
+    public void restore() {
+        if (!persist) {
+            return;
+        }
+        // Hibernate only validates the schema; IF NOT EXISTS keeps this idempotent across instances
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+        jdbcTemplate.execute(CREATE_INDEX_SQL);
+        long now = System.currentTimeMillis();
+        jdbcTemplate.query("SELECT mobile_number, code_hash, expires_at, attempts FROM user_otp_codes WHERE expires_at > ?",
+                ps -> ps.setTimestamp(1, new Timestamp(now)),
+                rs -> {
+                    OtpEntry entry = new OtpEntry(rs.getString("code_hash"),
+                            rs.getTimestamp("expires_at").getTime(), rs.getInt("attempts"));
+                    entries.put(rs.getString("mobile_number"), entry);
+                    schedule(rs.getString("mobile_number"), entry);
+                });
+        logger.info("Restored {} outstanding OTPs", entries.size());
+    }
+
+    /**
+     * Store a new code for the number, replacing any outstanding one
+     */
+    public OtpEntry put(String mobileNumber, String codeHash, long expiresAtMillis) {
+        OtpEntry entry = new OtpEntry(codeHash, expiresAtMillis, 0);
+        entries.put(mobileNumber, entry);
+        schedule(mobileNumber, entry);
+        if (persist) {
+            jdbcTemplate.update(
+                    "INSERT INTO user_otp_codes (mobile_number, code_hash, expires_at, attempts) VALUES (?, ?, ?, 0) " +
+                    "ON CONFLICT (mobile_number) DO UPDATE SET code_hash = EXCLUDED.code_hash, " +
+                    "expires_at = EXCLUDED.expires_at, attempts = 0",
+                    mobileNumber, codeHash, new Timestamp(expiresAtMillis));
+        }
+        return entry;
+    }
+
+    /**
+     * Outstanding, unexpired entry for the number, or null
+     */
+    public OtpEntry get(String mobileNumber) {
+        OtpEntry entry = entries.get(mobileNumber);
+        if (entry == null || entry.expiresAtMillis <= System.currentTimeMillis()) {
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Record a failed verification; returns the attempts used so far
+     */
+    public int recordFailedAttempt(String mobileNumber, OtpEntry entry) {
+        int attempts;
+        synchronized (entry) {
+            attempts = ++entry.attempts;
+        }
+        if (persist) {
+            jdbcTemplate.update("UPDATE user_otp_codes SET attempts = ? WHERE mobile_number = ? AND code_hash = ?",
+                    attempts, mobileNumber, entry.codeHash);
+        }
+        return attempts;
+    }
+
+    /**
+     * Remove the entry if it is still the current one for the number
+     */
+    public void remove(String mobileNumber, OtpEntry entry) {
+        if (entries.remove(mobileNumber, entry) && persist) {
+            jdbcTemplate.update("DELETE FROM user_otp_codes WHERE mobile_number = ? AND code_hash = ?",
+                    mobileNumber, entry.codeHash);
+        }
+    }
+
+    /**
+     * Advance the time-wheel and drop codes whose expiry has passed
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / TICK_MILLIS;
+        long fromTick = Math.max(lastTick + 1, currentTick - WHEEL_SLOTS + 1);
+        int expired = 0;
+        for (long t = fromTick; t <= currentTick; t++) {
+            ConcurrentLinkedQueue<ExpiryEntry> slot = wheel[(int) (t % WHEEL_SLOTS)];
+            int pending = slot.size();
+            for (int i = 0; i < pending; i++) {
+                ExpiryEntry expiry = slot.poll();
+                if (expiry == null) {
+                    break;
+                }
+                if (expiry.entry.expiresAtMillis <= now) {
+                    if (entries.remove(expiry.mobileNumber, expiry.entry)) {
+                        expired++;
+                    }
+                } else {
+                    // Later round of the wheel
+                    slot.add(expiry);
+                }
+            }
+        }
+        lastTick = currentTick;
+
+        if (persist && expired > 0) {
+            jdbcTemplate.update("DELETE FROM user_otp_codes WHERE expires_at <= ?", new Timestamp(now));
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void schedule(String mobileNumber, OtpEntry entry) {
+        wheel[(int) ((entry.expiresAtMillis / TICK_MILLIS) % WHEEL_SLOTS)].add(new ExpiryEntry(mobileNumber, entry));
+    }
+
+    /**
+     * One outstanding code: SHA-256 of the code, absolute expiry and failed attempts so far
+     */
+    public static final class OtpEntry {
+        private final String codeHash;
+        private final long expiresAtMillis;
+        private int attempts;
+
+        private OtpEntry(String codeHash, long expiresAtMillis, int attempts) {
+            this.codeHash = codeHash;
+            this.expiresAtMillis = expiresAtMillis;
+            this.attempts = attempts;
+        }
+
+        public String getCodeHash() {
+            return codeHash;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public synchronized int getAttempts() {
+            return attempts;
+        }
+    }
+
+    private record ExpiryEntry(String mobileNumber, OtpEntry entry) {}
+}
@@ -0,0 +1,293 @@
+package com.example.attendancesystem.user.service;
+
+import com.example.attendancesystem.user.model.Permission;
+import com.example.attendancesystem.user.model.UserPermission;
+import com.example.attendancesystem.user.repository.UserPermissionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Permission Mask Cache
+ * Compiles each user's currently valid permissions into a 64-bit mask over the Permission enum.
+ * Checks are a map lookup plus a bit test; the database is only read on a cache miss.
+ * Temporary grants are tracked on a hashed time-wheel keyed by expires_at, which clears
+ * the bit when the grant lapses. Entries are invalidated on grant, revoke and user deletion.
+ * The cache holds at most max-entries users; past that, a CLOCK sweep evicts users whose
+ * masks were not read since the hand last passed them, approximating least-recently-used.
+ */
+@Component
+public class PermissionMaskCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PermissionMaskCache.class);
+
+    private static final Permission[] PERMISSIONS = Permission.values();
+
+    static {
+        if (PERMISSIONS.length > Long.SIZE) {
+            throw new IllegalStateException("Permission enum has more than 64 values; widen the permission mask");
+        }
+    }
+
+    private static final int WHEEL_SLOTS = 512;
+    private static final long TICK_MILLIS = 1000;
+    // Invalidation counters are striped by user id, so a change only discards racing loads of
+    // users in the same stripe rather than every load in flight
+    private static final int GENERATION_STRIPES = 4096;
+
+    private final UserPermissionRepository userPermissionRepository;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Long, CompiledPermissions> masks = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    // CLOCK hand over the cached users; guarded by evictionLock
+    private Iterator<Long> clockHand;
+
+    @SuppressWarnings("unchecked")
+    private final ConcurrentLinkedQueue<ExpiryEntry>[] wheel = new ConcurrentLinkedQueue[WHEEL_SLOTS];
+    // One wheel entry per (user, expiry) however often the user's mask is reloaded
+    private final Set<ExpiryEntry> scheduled = ConcurrentHashMap.newKeySet();
+    private volatile long lastTick = System.currentTimeMillis() / TICK_MILLIS;
+
+    public PermissionMaskCache(UserPermissionRepository userPermissionRepository,
+                               @Value("${app.permission-cache.max-entries:500000}") int maxEntries) {
+        this.userPermissionRepository = userPermissionRepository;
+        this.maxEntries = maxEntries;
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * Check whether the user currently holds the permission
+     */
+    public boolean hasPermission(Long userId, Permission permission) {
+        return get(userId).has(permission, System.currentTimeMillis());
+    }
+
+    /**
+     * Names of the user's currently valid permissions, in enum order
+     */
+    public List<String> getPermissionNames(Long userId) {
+        CompiledPermissions compiled = get(userId);
+        long now = System.currentTimeMillis();
+        List<String> names = new ArrayList<>(Long.bitCount(compiled.mask));
+        for (long bits = compiled.mask; bits != 0; bits &= bits - 1) {
+            Permission permission = PERMISSIONS[Long.numberOfTrailingZeros(bits)];
+            if (compiled.has(permission, now)) {
+                names.add(permission.name());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Drop the user's compiled mask now and again once the surrounding transaction commits,
+     * so a concurrent reader cannot re-cache the pre-commit state
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Advance the time-wheel and clear permissions whose expires_at has passed
+     */
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        long now = System.currentTimeMillis();
+        long currentTick = now / TICK_MILLIS;
+        long fromTick = Math.max(lastTick + 1, currentTick - WHEEL_SLOTS + 1);
+        for (long t = fromTick; t <= currentTick; t++) {
+            ConcurrentLinkedQueue<ExpiryEntry> slot = wheel[(int) (t % WHEEL_SLOTS)];
+            int pending = slot.size();
+            for (int i = 0; i < pending; i++) {
+                ExpiryEntry entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.expiresAtMillis <= now) {
+                    scheduled.remove(entry);
+                    masks.computeIfPresent(entry.userId, (id, compiled) -> compiled.withoutExpired(now));
+                } else {
+                    // Later round of the wheel
+                    slot.add(entry);
+                }
+            }
+        }
+        lastTick = currentTick;
+    }
+
+    public int size() {
+        return masks.size();
+    }
+
+    private void evict(Long userId) {
+        generations.incrementAndGet(stripe(userId));
+        masks.remove(userId);
+    }
+
+    private CompiledPermissions get(Long userId) {
+        CompiledPermissions cached = masks.get(userId);
+        if (cached != null) {
+            cached.referenced = true;
+            return cached;
+        }
+
+        int stripe = stripe(userId);
+        long generation = generations.get(stripe);
+        CompiledPermissions compiled = compile(
+                userPermissionRepository.findValidPermissionsByUserId(userId, LocalDateTime.now()));
+
+        // Skip caching if an invalidation raced with the load; the next check reloads
+        if (generations.get(stripe) == generation) {
+            CompiledPermissions existing = masks.putIfAbsent(userId, compiled);
+            if (existing != null) {
+                return existing;
+            }
+            scheduleExpiries(userId, compiled);
+            if (masks.size() > maxEntries) {
+                evictUnreferenced();
+            }
+        }
+        return compiled;
+    }
+
+    /**
+     * CLOCK sweep: a referenced user gets its bit cleared and is passed over, an unreferenced
+     * one is evicted, until the cache is back within bounds. One thread sweeps at a time; the
+     * others keep storing and the sweeper catches up with them.
+     */
+    private void evictUnreferenced() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Two laps clear every bit and then evict, so the sweep always terminates
+            long budget = 2L * masks.size() + 1;
+            while (masks.size() > maxEntries && budget-- > 0) {
+                if (clockHand == null || !clockHand.hasNext()) {
+                    clockHand = masks.keySet().iterator();
+                    if (!clockHand.hasNext()) {
+                        return;
+                    }
+                }
+                Long userId = clockHand.next();
+                CompiledPermissions compiled = masks.get(userId);
+                if (compiled == null) {
+                    continue;
+                }
+                if (compiled.referenced) {
+                    compiled.referenced = false;
+                } else {
+                    masks.remove(userId, compiled);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private static int stripe(Long userId) {
+        return (int) ((userId ^ (userId >>> 32)) & (GENERATION_STRIPES - 1));
+    }
+
+    private void scheduleExpiries(Long userId, CompiledPermissions compiled) {
+        if (compiled.expiresAtMillis == null) {
+            return;
+        }
+        for (long expiresAt : compiled.expiresAtMillis) {
+            ExpiryEntry entry = new ExpiryEntry(userId, expiresAt);
+            // A reload after invalidation finds the grant's entry still on the wheel
+            if (expiresAt != 0 && scheduled.add(entry)) {
+                wheel[(int) ((expiresAt / TICK_MILLIS) % WHEEL_SLOTS)].add(entry);
+            }
+        }
+    }
+
+    private static CompiledPermissions compile(List<UserPermission> permissions) {
+        long mask = 0L;
+        long[] expiresAtMillis = null;
+        for (UserPermission userPermission : permissions) {
+            int ordinal = userPermission.getPermission().ordinal();
+            mask |= 1L << ordinal;
+            if (userPermission.getExpiresAt() != null) {
+                if (expiresAtMillis == null) {
+                    expiresAtMillis = new long[PERMISSIONS.length];
+                }
+                expiresAtMillis[ordinal] = userPermission.getExpiresAt()
+                        .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            }
+        }
+        logger.trace("Compiled permission mask {} ({} permissions)", Long.toHexString(mask), Long.bitCount(mask));
+        return new CompiledPermissions(mask, expiresAtMillis);
+    }
+
+    /**
+     * Immutable compiled permission set: bit i is Permission.values()[i].
+     * expiresAtMillis is null when no grant is temporary; otherwise 0 means no expiry.
+     * referenced is the CLOCK bit, the only mutable state.
+     */
+    private static final class CompiledPermissions {
+        private final long mask;
+        private final long[] expiresAtMillis;
+        private volatile boolean referenced;
+
+        private CompiledPermissions(long mask, long[] expiresAtMillis) {
+            this.mask = mask;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        private boolean has(Permission permission, long now) {
+            int ordinal = permission.ordinal();
+            if ((mask & (1L << ordinal)) == 0) {
+                return false;
+            }
+            return expiresAtMillis == null || expiresAtMillis[ordinal] == 0 || expiresAtMillis[ordinal] > now;
+        }
+
+        private CompiledPermissions withoutExpired(long now) {
+            if (expiresAtMillis == null) {
+                return this;
+            }
+            long remaining = mask;
+            long[] expiries = expiresAtMillis.clone();
+            boolean anyExpiring = false;
+            for (int i = 0; i < expiries.length; i++) {
+                if (expiries[i] != 0 && expiries[i] <= now) {
+                    remaining &= ~(1L << i);
+                    expiries[i] = 0;
+                } else if (expiries[i] != 0) {
+                    anyExpiring = true;
+                }
+            }
+            return new CompiledPermissions(remaining, anyExpiring ? expiries : null);
+        }
+    }
+
+    private record ExpiryEntry(long userId, long expiresAtMillis) {}
+}
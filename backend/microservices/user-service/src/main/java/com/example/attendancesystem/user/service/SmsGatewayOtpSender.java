@@ -0,0 +1,58 @@
+package com.example.attendancesystem.user.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * SMS Gateway OTP Sender
+ * Posts the code to the configured SMS gateway as {"to", "message"} JSON.
+ * With no gateway configured every send fails, so codes are never issued undelivered.
+ */
+@Component
+public class SmsGatewayOtpSender implements OtpSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmsGatewayOtpSender.class);
+
+    private final RestTemplate restTemplate;
+    private final String gatewayUrl;
+    private final String apiKey;
+
+    public SmsGatewayOtpSender(RestTemplateBuilder restTemplateBuilder,
+                               @Value("${app.otp.sms-gateway.url:}") String gatewayUrl,
+                               @Value("${app.otp.sms-gateway.api-key:}") String apiKey,
+                               @Value("${app.otp.sms-gateway.timeout-ms:5000}") long timeoutMs) {
+        // Own client with timeouts so a slow gateway cannot hold request threads indefinitely
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofMillis(timeoutMs))
+                .setReadTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        this.gatewayUrl = gatewayUrl;
+        this.apiKey = apiKey;
+    }
+
+    @Override
+    public void send(String mobileNumber, String code, long ttlSeconds) {
+        if (gatewayUrl.isBlank()) {
+            logger.warn("No SMS gateway configured (app.otp.sms-gateway.url); OTP not delivered");
+            throw new IllegalStateException("SMS gateway not configured");
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (!apiKey.isBlank()) {
+            headers.setBearerAuth(apiKey);
+        }
+        String message = "Your verification code is " + code + ". It expires in " + (ttlSeconds / 60) + " minutes.";
+        restTemplate.postForEntity(gatewayUrl, new HttpEntity<>(Map.of("to", mobileNumber, "message", message), headers),
+                Void.class);
+    }
+}
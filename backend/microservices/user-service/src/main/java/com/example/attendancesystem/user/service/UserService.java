@@ -1,7 +1,10 @@
 package com.example.attendancesystem.user.service;
 
 
+import com.example.attendancesystem.user.dto.UserCursor;
+import com.example.attendancesystem.user.dto.UserCursorPage;
 import com.example.attendancesystem.user.dto.UserDto;
+import com.example.attendancesystem.user.dto.UserSummaryView;
 import com.example.attendancesystem.user.model.Permission;
 import com.example.attendancesystem.user.model.User;
 import com.example.attendancesystem.user.model.UserPermission;
@@ -14,13 +17,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -34,6 +40,15 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // Shortest term pg_trgm can filter on; shorter terms fall back to prefix matching
+    private static final int TRIGRAM_MIN_TERM_LENGTH = 3;
+
+    // Upper bound for one keyset page
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+
+    // Upper bound for one GetUsersByIds call
+    public static final int MAX_BATCH_LOOKUP_IDS = 10_000;
+
     @Autowired
     private UserRepository userRepository;
 
@@ -43,6 +58,12 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private PermissionMaskCache permissionMaskCache;
+
+    @Autowired
+    private LoginActivityBuffer loginActivityBuffer;
+
 
 
 
@@ -122,8 +143,7 @@ public class UserService {
 
             if (createdUser != null) {
                 logger.info("Entity Admin user created successfully: {}", username);
-                // Note: Auth Service will handle its own EntityAdmin creation independently
-                // via gRPC calls when needed for authentication
+                // The gRPC handler registers the login with Auth Service after this commits
             } else {
                 logger.error("User creation failed for Entity Admin: {}", username);
             }
@@ -136,6 +156,17 @@ public class UserService {
         }
     }
 
+    /**
+     * Entity Admin left by an earlier create whose login registration had an unknown outcome:
+     * same username, organization and password, so a retried create can finish the registration
+     */
+    @Transactional(readOnly = true)
+    public Optional<User> findEntityAdminForRetry(String username, String rawPassword, Long organizationId) {
+        return userRepository.findByUsernameAndUserType(username, UserType.ENTITY_ADMIN)
+                .filter(user -> organizationId != null && organizationId.equals(user.getOrganizationId()))
+                .filter(user -> passwordEncoder.matches(rawPassword, user.getPassword()));
+    }
+
     /**
      * Create a new Entity Admin
      * Callable by Super Admins
@@ -299,12 +330,175 @@ public class UserService {
 
     /**
      * Search users by name, username, email, or mobile number
+     * Results are ordered by relevance (prefix matches first, then trigram similarity); the
+     * pageable's sort is not applied. Terms shorter than three characters match field prefixes
+     * only, since a substring match on them cannot use an index.
      */
     public Page<UserDto> searchUsers(String searchTerm, Pageable pageable) {
-        return userRepository.searchUsers(searchTerm, pageable)
+        String term = normalizeSearchTerm(searchTerm);
+        Pageable relevancePage = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        if (term.length() < TRIGRAM_MIN_TERM_LENGTH) {
+            return userRepository.searchUsersByPrefix(escapeLike(term) + "%", relevancePage)
+                    .map(this::convertToDto);
+        }
+        return userRepository.searchUsers(term, "%" + escapeLike(term) + "%", escapeLike(term) + "%", relevancePage)
                 .map(this::convertToDto);
     }
 
+    /**
+     * Search users of a type by name or username, optionally within an organization
+     * Ordered and matched like searchUsers: relevance order, prefix-only for short terms.
+     */
+    public Page<UserDto> searchUsersByNameAndType(String searchTerm, UserType userType,
+                                                  Long organizationId, Pageable pageable) {
+        String term = normalizeSearchTerm(searchTerm);
+        String prefix = escapeLike(term) + "%";
+        Pageable relevancePage = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<User> users;
+        if (term.length() < TRIGRAM_MIN_TERM_LENGTH) {
+            users = organizationId != null
+                    ? userRepository.searchUsersInOrganizationByNameAndTypePrefix(organizationId, prefix,
+                            userType.name(), relevancePage)
+                    : userRepository.searchUsersByNameAndTypePrefix(prefix, userType.name(), relevancePage);
+        } else {
+            String pattern = "%" + escapeLike(term) + "%";
+            users = organizationId != null
+                    ? userRepository.searchUsersInOrganizationByNameAndType(organizationId, term, pattern, prefix,
+                            userType.name(), relevancePage)
+                    : userRepository.searchUsersByNameAndType(term, pattern, prefix, userType.name(), relevancePage);
+        }
+        return users.map(this::convertToDto);
+    }
+
+    // ========== KEYSET (CURSOR) PAGINATION ==========
+
+    /**
+     * Get a page of users after the given cursor
+     * organizationId and userType may be null to skip that filter; activeOnly drops inactive users
+     */
+    public UserCursorPage getUsersAfter(Long organizationId, UserType userType, boolean activeOnly, String cursor,
+                                        String sortBy, int size, boolean includeTotal) {
+        UserCursor position = UserCursor.decode(cursor, sortBy);
+        Pageable limit = cursorLimit(size);
+        boolean byName = position.isSortedByFirstName();
+        String afterName = position.getSortKey();
+        Long afterId = position.getId();
+        List<User> rows;
+        if (organizationId != null && userType != null) {
+            rows = byName
+                    ? userRepository.findByOrganizationIdAndUserTypeAfterFirstName(organizationId, userType,
+                            afterName, afterId, activeOnly, limit)
+                    : userRepository.findByOrganizationIdAndUserTypeAfterId(organizationId, userType, afterId,
+                            activeOnly, limit);
+        } else if (organizationId != null) {
+            rows = byName
+                    ? userRepository.findByOrganizationIdAfterFirstName(organizationId, afterName, afterId, activeOnly, limit)
+                    : userRepository.findByOrganizationIdAfterId(organizationId, afterId, activeOnly, limit);
+        } else if (userType != null) {
+            rows = byName
+                    ? userRepository.findByUserTypeAfterFirstName(userType, afterName, afterId, activeOnly, limit)
+                    : userRepository.findByUserTypeAfterId(userType, afterId, activeOnly, limit);
+        } else {
+            rows = byName
+                    ? userRepository.findAllAfterFirstName(afterName, afterId, activeOnly, limit)
+                    : userRepository.findAllAfterId(afterId, activeOnly, limit);
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1, position,
+                includeTotal ? userRepository.countForListing(organizationId, userType, activeOnly) : null);
+    }
+
+    /**
+     * Get a page of an organization's members after the given cursor
+     */
+    public UserCursorPage getMembersByOrganizationAfter(Long organizationId, String cursor, String sortBy,
+                                                        int size, boolean includeTotal) {
+        return getUsersAfter(organizationId, UserType.MEMBER, false, cursor, sortBy, size, includeTotal);
+    }
+
+    /**
+     * Get a page of search results after the given cursor (ordered by id for stability)
+     * Filters as getUsersAfter; terms shorter than three characters match field prefixes like searchUsers
+     */
+    public UserCursorPage searchUsersAfter(String searchTerm, Long organizationId, UserType userType,
+                                           boolean activeOnly, String cursor, int size, boolean includeTotal) {
+        UserCursor position = UserCursor.decode(cursor, UserCursor.SORT_BY_ID);
+        Pageable limit = cursorLimit(size);
+        String term = normalizeSearchTerm(searchTerm);
+        String type = userType != null ? userType.name() : null;
+        List<User> rows;
+        Long total = null;
+        if (term.length() < TRIGRAM_MIN_TERM_LENGTH) {
+            String prefix = escapeLike(term) + "%";
+            rows = userRepository.searchUsersByPrefixAfterId(prefix, organizationId, type, activeOnly,
+                    position.getId(), limit);
+            if (includeTotal) {
+                total = userRepository.countSearchUsersByPrefix(prefix, organizationId, type, activeOnly);
+            }
+        } else {
+            String pattern = "%" + escapeLike(term) + "%";
+            rows = userRepository.searchUsersAfterId(pattern, organizationId, type, activeOnly, position.getId(), limit);
+            if (includeTotal) {
+                total = userRepository.countSearchUsers(pattern, organizationId, type, activeOnly);
+            }
+        }
+        return toCursorPage(rows, limit.getPageSize() - 1, position, total);
+    }
+
+    /**
+     * Fetch one row beyond the page size to learn whether another page exists
+     */
+    private Pageable cursorLimit(int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return PageRequest.ofSize(pageSize + 1);
+    }
+
+    private UserCursorPage toCursorPage(List<User> rows, int pageSize, UserCursor position, Long totalCount) {
+        boolean hasMore = rows.size() > pageSize;
+        List<User> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            User last = page.get(page.size() - 1);
+            String sortKey = position.isSortedByFirstName() && last.getFirstName() != null ? last.getFirstName() : "";
+            nextCursor = new UserCursor(position.getSortBy(), sortKey, last.getId()).encode();
+        }
+
+        List<UserDto> users = page.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+        return new UserCursorPage(users, nextCursor, hasMore, totalCount);
+    }
+
+    // ========== BATCH LOOKUP METHODS ==========
+
+    /**
+     * Get projected user summaries for many ids with a single query
+     * Unknown ids are simply absent from the result
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummaryView> getUserSummariesByIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        if (userIds.size() > MAX_BATCH_LOOKUP_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_LOOKUP_IDS + " user ids per request");
+        }
+        String ids = userIds.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+        return userRepository.findSummariesByIds(ids);
+    }
+
+    /**
+     * Get the next page of projected user summaries in an organization, ordered by id
+     */
+    @Transactional(readOnly = true)
+    public List<UserSummaryView> getUserSummariesByOrganizationAfter(Long organizationId, UserType userType,
+                                                                     boolean activeOnly, long afterId, int limit) {
+        return userRepository.findSummariesByOrganizationAfterId(organizationId,
+                userType != null ? userType.name() : "", activeOnly, afterId, limit);
+    }
+
     /**
      * Deactivate user
      */
@@ -453,6 +647,7 @@ public class UserService {
 
         // Delete all permissions first
         userPermissionRepository.deleteByUser(user);
+        permissionMaskCache.invalidate(userId);
         
         // Delete user
         userRepository.delete(user);
@@ -472,6 +667,7 @@ public class UserService {
             UserPermission userPermission = new UserPermission(user, permission, grantedBy);
             userPermissionRepository.save(userPermission);
         }
+        permissionMaskCache.invalidate(user.getId());
         
         logger.info("Granted {} default permissions to user: {}", 
                    defaultPermissions.length, user.getUsername());
@@ -497,6 +693,7 @@ public class UserService {
             UserPermission userPermission = new UserPermission(user, permission, grantedBy);
             userPermissionRepository.save(userPermission);
         }
+        permissionMaskCache.invalidate(userId);
         
         logger.info("Permission {} granted to user: {}", permission, user.getUsername());
     }
@@ -517,26 +714,34 @@ public class UserService {
             userPermission.setGrantedBy(revokedBy);
             userPermission.setGrantedAt(LocalDateTime.now());
             userPermissionRepository.save(userPermission);
+            permissionMaskCache.invalidate(userId);
             
             logger.info("Permission {} revoked from user: {}", permission, user.getUsername());
         }
     }
 
     /**
-     * Check if user has permission
+     * Check if user has permission (served from the compiled permission mask)
      */
     public boolean hasPermission(Long userId, Permission permission) {
-        return userPermissionRepository.hasValidPermissionByUserId(userId, permission, LocalDateTime.now());
+        return permissionMaskCache.hasPermission(userId, permission);
     }
 
     /**
-     * Get all permissions for user
+     * Get all permissions for user (served from the compiled permission mask)
      */
     public List<String> getUserPermissions(Long userId) {
-        return userPermissionRepository.findValidPermissionsByUserId(userId, LocalDateTime.now())
-                .stream()
-                .map(up -> up.getPermission().name())
-                .collect(Collectors.toList());
+        return permissionMaskCache.getPermissionNames(userId);
+    }
+
+    // ========== SEARCH HELPERS ==========
+
+    private static String normalizeSearchTerm(String searchTerm) {
+        return searchTerm == null ? "" : searchTerm.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     // ========== VALIDATION METHODS ==========
@@ -619,6 +824,17 @@ public class UserService {
         }
     }
 
+    /**
+     * Record a successful login and the device used
+     * Buffered and written in batches; visible immediately through UserDto reads.
+     */
+    public void recordLogin(Long userId, String deviceId, String deviceInfo) {
+        if (userId == null) {
+            throw new IllegalArgumentException("User ID is required");
+        }
+        loginActivityBuffer.record(userId, deviceId, deviceInfo, LocalDateTime.now());
+    }
+
     // ========== CONVERSION METHODS ==========
 
     private UserDto convertToDto(User user) {
@@ -637,6 +853,7 @@ public class UserService {
         dto.setLastDeviceId(user.getLastDeviceId());
         dto.setLastDeviceInfo(user.getLastDeviceInfo());
         dto.setLastLoginTime(user.getLastLoginTime());
+        loginActivityBuffer.applyPending(dto);
 
         if (user.getOrganizationId() != null) {
             dto.setOrganizationId(user.getOrganizationId());
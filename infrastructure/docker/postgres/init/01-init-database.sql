@@ -8,6 +8,10 @@ SET timezone = 'Asia/Kolkata';
 -- Enable UUID extension
 CREATE EXTENSION IF NOT EXISTS "uuid-ossp";
 
+-- Trigram matching for user search. Installed here as the superuser; user-service
+-- (UserSchemaInitializer) adds users.search_text and its indexes at startup.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
 -- ============================================================================
 -- AUTH SERVICE TABLES
 -- ============================================================================
@@ -508,6 +512,20 @@ CREATE TABLE IF NOT EXISTS order_items (
     FOREIGN KEY (menu_item_id) REFERENCES menu_items(id)
 );
 
+-- Entity ID allocator: each value reserves one block of counters (organization-service EntityIdService)
+CREATE SEQUENCE IF NOT EXISTS organization_entity_id_seq MINVALUE 0 START WITH 0;
+
+-- Tenant purge jobs are created at startup from TenantPurgeRunner.CREATE_TABLE_SQL (shared-lib)
+
+-- Outstanding OTPs: optional write-through backing of the user-service OtpStore (app.otp.persist)
+CREATE TABLE IF NOT EXISTS user_otp_codes (
+    mobile_number VARCHAR(15) PRIMARY KEY,
+    code_hash VARCHAR(64) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    attempts INT NOT NULL DEFAULT 0
+);
+CREATE INDEX IF NOT EXISTS idx_user_otp_codes_expires_at ON user_otp_codes(expires_at);
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_organizations_entity_id ON organizations(entity_id);
 CREATE INDEX IF NOT EXISTS idx_entity_admins_org_id ON entity_admins(organization_id);
@@ -518,6 +536,7 @@ CREATE INDEX IF NOT EXISTS idx_attendance_sessions_subscriber ON attendance_sess
 CREATE INDEX IF NOT EXISTS idx_attendance_sessions_org ON attendance_sessions(organization_id);
 CREATE INDEX IF NOT EXISTS idx_attendance_sessions_date ON attendance_sessions(check_in_time);
 CREATE INDEX IF NOT EXISTS idx_restaurant_tables_org ON restaurant_tables(organization_id);
+CREATE UNIQUE INDEX IF NOT EXISTS idx_restaurant_tables_org_number ON restaurant_tables(organization_id, table_number);
 CREATE INDEX IF NOT EXISTS idx_menu_items_category ON menu_items(category_id);
 CREATE INDEX IF NOT EXISTS idx_menu_items_org ON menu_items(organization_id);
 CREATE INDEX IF NOT EXISTS idx_orders_table ON orders(table_id);